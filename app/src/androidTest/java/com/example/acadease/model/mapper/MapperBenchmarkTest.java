@@ -0,0 +1,90 @@
+package com.example.acadease.model.mapper;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.acadease.model.Session;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.util.CustomClassMapper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Mapping cost per 1,000 session documents: the SDK's reflection mapper (what toObject runs on
+ * getData()) against SessionMapper. Timings are logged under MapperBenchmark, not asserted, since
+ * wall-clock times vary with the device and its load; run on a device with
+ * ./gradlew connectedAndroidTest and read logcat. Correctness is covered by MapperRoundTripTest.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MapperBenchmarkTest {
+    private static final String TAG = "MapperBenchmark";
+    private static final int DOCS = 1000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 20;
+
+    @Test
+    public void sessionMapperMatchesToObject() {
+        Map<String, Object> data = sessionData(7);
+        Session reflected = CustomClassMapper.convertToCustomClass(data, Session.class, null);
+        Session mapped = SessionMapper.fromMap("doc7", data);
+
+        assertEquals("doc7", mapped.getId());
+        assertEquals(reflected.getScheduleId(), mapped.getScheduleId());
+        assertEquals(reflected.getCourseCode(), mapped.getCourseCode());
+        assertEquals(reflected.getFacultyId(), mapped.getFacultyId());
+        assertEquals(reflected.getSessionTime(), mapped.getSessionTime());
+        assertEquals(reflected.getVenue(), mapped.getVenue());
+        assertEquals(reflected.getType(), mapped.getType());
+        assertEquals(reflected.getTopic(), mapped.getTopic());
+    }
+
+    @Test
+    public void mappingCostPerThousandDocuments() {
+        List<Map<String, Object>> docs = new ArrayList<>();
+        for (int i = 0; i < DOCS; i++) docs.add(sessionData(i));
+
+        long reflectionNs = measure(() -> {
+            for (Map<String, Object> d : docs) CustomClassMapper.convertToCustomClass(d, Session.class, null);
+        });
+        long mapperNs = measure(() -> {
+            for (int i = 0; i < docs.size(); i++) SessionMapper.fromMap("doc" + i, docs.get(i));
+        });
+
+        Log.i(TAG, String.format("Per %d docs: toObject %.2f ms, SessionMapper %.2f ms (%.1fx)",
+                DOCS, reflectionNs / 1e6, mapperNs / 1e6, (double) reflectionNs / Math.max(1, mapperNs)));
+    }
+
+    /** Median of the measured rounds, after warm-up, in nanoseconds per round. */
+    private static long measure(Runnable round) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) round.run();
+        long[] samples = new long[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            round.run();
+            samples[i] = System.nanoTime() - start;
+        }
+        java.util.Arrays.sort(samples);
+        return samples[MEASURED_ROUNDS / 2];
+    }
+
+    private static Map<String, Object> sessionData(int i) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("scheduleId", "schedule" + (i % 20));
+        data.put("courseCode", "CS10" + (i % 10));
+        data.put("facultyId", "faculty" + (i % 5));
+        data.put("sessionTime", new Timestamp(1_700_000_000L + i * 3600L, 0));
+        data.put("venue", "A 30" + (i % 9));
+        data.put("type", "lecture");
+        data.put("topic", null);
+        return data;
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.acadease.model.mapper;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.acadease.model.Announcement;
+import com.example.acadease.model.Assignment;
+import com.example.acadease.model.Course;
+import com.example.acadease.model.Schedule;
+import com.example.acadease.model.Session;
+import com.example.acadease.model.Submission;
+import com.example.acadease.model.User;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.util.CustomClassMapper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Every hand-written mapper against the SDK's own serializer: a populated model is written the way
+ * set(model) writes it, read back with the mapper, and must serialize to the same map again.
+ * Catches a stored name the mapper spells differently from the model (e.g. @PropertyName fields).
+ */
+@RunWith(AndroidJUnit4.class)
+public class MapperRoundTripTest {
+    private static final Timestamp T1 = new Timestamp(1_700_000_000L, 0);
+    private static final Timestamp T2 = new Timestamp(1_700_086_400L, 0);
+
+    @Test
+    public void announcement() {
+        Announcement a = new Announcement();
+        a.setId("ann1");
+        a.setTitle("Lab closed");
+        a.setBody("Lab 3 is closed on Friday.");
+        a.setImgUrl("https://example.com/lab.png");
+        a.setPostedBy("faculty1");
+        a.setTargetRole(Arrays.asList("student", "faculty"));
+        a.setCategory("notice");
+        a.setCreatedAt(T1);
+
+        Announcement mapped = AnnouncementMapper.fromMap("ann1", stored(a));
+        assertEquals(a.getId(), mapped.getId());
+        assertEquals(stored(a), stored(mapped));
+    }
+
+    @Test
+    public void assignment() {
+        Assignment a = new Assignment();
+        a.setId("asg1");
+        a.setCourseCode("CS101");
+        a.setTitle("Lists");
+        a.setDescription("Implement a linked list.");
+        a.setFileUrl("https://example.com/lists.pdf");
+        a.setDueDate(T2);
+        a.setMaxPoints(20);
+        a.setFacultyId("faculty1");
+        a.setCreatedAt(T1);
+
+        Assignment mapped = AssignmentMapper.fromMap("asg1", stored(a));
+        assertEquals(a.getId(), mapped.getId());
+        assertEquals(stored(a), stored(mapped));
+    }
+
+    @Test
+    public void course() {
+        Course c = new Course();
+        c.setId("CS101");
+        c.setCourseCode("CS101");
+        c.setTitle("Programming I");
+        c.setDepartmentCode("CSE");
+        c.setFacultyId("faculty1");
+        c.setProgramId("btech");
+        c.setCredits(4);
+        c.setDescription("Introductory programming.");
+        c.setSemesterTaughtIn(1);
+
+        Course mapped = CourseMapper.fromMap("CS101", stored(c));
+        assertEquals(c.getId(), mapped.getId());
+        assertEquals(stored(c), stored(mapped));
+    }
+
+    @Test
+    public void schedule() {
+        Schedule s = new Schedule();
+        s.setId("sch1");
+        s.setCourseCode("CS101");
+        s.setFacultyId("faculty1");
+        s.setDaysOfWeek(Arrays.asList("MONDAY", "THURSDAY"));
+        s.setStartTime("09:30");
+        s.setVenue("A 301");
+        s.setType("lecture");
+        s.setStartDate(T1);
+        s.setEndDate(T2);
+        s.setExceptionDates(Arrays.asList("2024-01-26"));
+        s.setVirtual(true);
+
+        Schedule mapped = ScheduleMapper.fromMap("sch1", stored(s));
+        assertEquals(s.getId(), mapped.getId());
+        assertEquals(stored(s), stored(mapped));
+    }
+
+    @Test
+    public void session() {
+        Session s = new Session();
+        s.setId("sch1_202401150930");
+        s.setScheduleId("sch1");
+        s.setCourseCode("CS101");
+        s.setFacultyId("faculty1");
+        s.setSessionTime(T1);
+        s.setVenue("A 301");
+        s.setType("lecture");
+        s.setTopic("Recursion");
+
+        Session mapped = SessionMapper.fromMap("sch1_202401150930", stored(s));
+        assertEquals(s.getId(), mapped.getId());
+        assertEquals(stored(s), stored(mapped));
+    }
+
+    @Test
+    public void submission() {
+        Submission s = new Submission();
+        s.setId("student1");
+        s.setStudentId("student1");
+        s.setAssignmentId("asg1");
+        s.setCourseCode("CS101");
+        s.setSubmissionUrl("https://example.com/answer.pdf");
+        s.setSubmittedAt(T1);
+        s.setGrade(17);
+        s.setGradedBy("faculty1");
+        s.setGradedAt(T2);
+
+        Submission mapped = SubmissionMapper.fromMap("student1", stored(s));
+        assertEquals(s.getId(), mapped.getId());
+        assertEquals(stored(s), stored(mapped));
+    }
+
+    @Test
+    public void user() {
+        Map<String, String> contact = new HashMap<>();
+        contact.put("phone", "+91 90000 00000");
+        User u = new User();
+        u.setUid("student1");
+        u.setEmail("student1@example.com");
+        u.setRole("student");
+        u.setName("Asha");
+        u.setStudentId("S1001");
+        u.setFacultyId(null);
+        u.setCurrentSemester(3);
+        u.setContactInfo(contact);
+        u.setProfileImageUrl("https://example.com/asha.png");
+        u.setCreatedAt(T1);
+
+        User mapped = UserMapper.fromMap("student1", stored(u));
+        assertEquals(u.getUid(), mapped.getUid());
+        assertEquals(stored(u), stored(mapped));
+    }
+
+    /** The map set(model) would store. */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> stored(Object model) {
+        return (Map<String, Object>) CustomClassMapper.convertToPlainJavaTypes(model);
+    }
+}
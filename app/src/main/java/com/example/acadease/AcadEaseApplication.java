@@ -0,0 +1,18 @@
+package com.example.acadease;
+
+import android.app.Application;
+
+import com.example.acadease.data.FacultyRepository;
+
+/**
+ * Process start-up. Firebase is initialized by its own content provider before onCreate runs.
+ */
+public class AcadEaseApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        // Writes journaled in an earlier run are sent once a network is available, before any screen opens
+        FacultyRepository.registerOutboxReplayers();
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.acadease;
 
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentManager;
@@ -7,8 +8,11 @@ import androidx.fragment.app.FragmentTransaction;
 import android.content.Intent;
 import android.os.Bundle;
 import android.view.MenuItem;
+import android.view.View;
+import android.widget.TextView;
 import android.widget.Toast;
 
+import com.example.acadease.data.WriteOutbox;
 import com.example.acadease.fragments.FacultyAnnouncementFragment;
 import com.example.acadease.fragments.FacultyAssignmentFragment;
 import com.example.acadease.fragments.FacultyAttendanceFragment;
@@ -21,6 +25,27 @@ import android.util.Log;
 public class FacultyDashboardActivity extends AppCompatActivity {
 
     private BottomNavigationView bottomNav;
+    private TextView pendingSyncBanner;
+
+    private final WriteOutbox.Listener outboxListener = new WriteOutbox.Listener() {
+        @Override
+        public void onPendingChanged(int pending, int failed) {
+            pendingSyncBanner.setVisibility(pending > 0 || failed > 0 ? View.VISIBLE : View.GONE);
+            String text = pending == 1 ? "1 change pending sync" : pending + " changes pending sync";
+            if (failed > 0) {
+                // Failed changes stay in the outbox until the user retries or discards them
+                text = (pending > 0 ? text + " | " : "") + (failed == 1 ? "1 change failed" : failed + " changes failed")
+                        + " - tap to review";
+            }
+            pendingSyncBanner.setText(text);
+            pendingSyncBanner.setClickable(failed > 0);
+        }
+
+        @Override
+        public void onFailed(String kind, Exception e) {
+            Toast.makeText(FacultyDashboardActivity.this, "A pending change could not be synced: " + e.getMessage(), Toast.LENGTH_LONG).show();
+        }
+    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -28,6 +53,8 @@ public class FacultyDashboardActivity extends AppCompatActivity {
         setContentView(R.layout.activity_faculty_dashboard);
 
         bottomNav = findViewById(R.id.bottom_navigation); // Map the BottomNavigationView
+        pendingSyncBanner = findViewById(R.id.pending_sync_banner);
+        pendingSyncBanner.setOnClickListener(v -> showFailedWrites());
 
         // Set the listener for navigation clicks
         bottomNav.setOnItemSelectedListener(this::onNavigationItemSelected);
@@ -58,6 +85,40 @@ public class FacultyDashboardActivity extends AppCompatActivity {
         }
     }
 
+    @Override
+    protected void onStart() {
+        super.onStart();
+        WriteOutbox.getInstance().addListener(outboxListener);
+    }
+
+    @Override
+    protected void onStop() {
+        WriteOutbox.getInstance().removeListener(outboxListener);
+        super.onStop();
+    }
+
+    /** Lists the writes that failed permanently, with their errors, and lets the user retry or discard them. */
+    private void showFailedWrites() {
+        WriteOutbox outbox = WriteOutbox.getInstance();
+        outbox.loadFailed(entries -> {
+            if (isFinishing() || entries.isEmpty()) return;
+            String[] lines = new String[entries.size()];
+            for (int i = 0; i < lines.length; i++) {
+                WriteOutbox.Entry entry = entries.get(i);
+                lines[i] = entry.key + ": " + entry.lastError;
+            }
+            new AlertDialog.Builder(this)
+                    .setTitle("Changes that could not be synced")
+                    .setItems(lines, null)
+                    .setPositiveButton("RETRY ALL", (dialog, which) -> outbox.retryFailed())
+                    .setNeutralButton("DISCARD ALL", (dialog, which) -> {
+                        for (WriteOutbox.Entry entry : entries) outbox.discard(entry);
+                    })
+                    .setNegativeButton("Close", null)
+                    .show();
+        });
+    }
+
     /**
      * Handles the selection of a tab item on the Bottom Navigation Bar.
      */
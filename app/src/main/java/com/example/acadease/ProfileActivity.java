@@ -102,7 +102,6 @@ public class ProfileActivity extends AppCompatActivity {
                 userRepository.updateProfileImageUrl(uid, downloadUrl, new UserRepository.UpdateCallback() {
                     @Override public void onSuccess() {
                         ImageLoader.load(avatarIv, downloadUrl, R.drawable.person);
-                        UserDashboardImageHelper.invalidate();
                     }
                     @Override public void onFailure(Exception e) { /* ignore for now */ }
                 });
@@ -2,14 +2,12 @@ package com.example.acadease;
 
 import android.widget.ImageView;
 
-import androidx.annotation.Nullable;
-
+import com.example.acadease.data.PeopleDirectory;
 import com.example.acadease.data.UserRepository;
 import com.example.acadease.model.User;
 import com.example.acadease.util.ImageLoader;
 
 public class UserDashboardImageHelper {
-    @Nullable private static String cachedUrl;
 
     public static void ensureProfileIcon(ImageView imageView) {
         UserRepository repo = new UserRepository();
@@ -18,22 +16,14 @@ public class UserDashboardImageHelper {
             return;
         }
         String uid = repo.getCurrentFirebaseUser().getUid();
-        if (cachedUrl == null) {
-            repo.fetchUserProfile(uid, new UserRepository.LoginCallback() {
-                @Override public void onSuccess(User user) {
-                    cachedUrl = user.getProfileImageUrl();
-                    ImageLoader.load(imageView, cachedUrl, R.drawable.person);
-                }
-                @Override public void onFailure(Exception e) {
-                    ImageLoader.load(imageView, null, R.drawable.person);
-                }
-            });
-        } else {
-            ImageLoader.load(imageView, cachedUrl, R.drawable.person);
-        }
-    }
-
-    public static void invalidate() {
-        cachedUrl = null;
+        // The directory is invalidated by UserRepository.updateProfileImageUrl, so no local URL cache is needed.
+        PeopleDirectory.getInstance().fetchProfile(uid, new PeopleDirectory.ProfileCallback() {
+            @Override public void onSuccess(User user) {
+                ImageLoader.load(imageView, user != null ? user.getProfileImageUrl() : null, R.drawable.person);
+            }
+            @Override public void onFailure(Exception e) {
+                ImageLoader.load(imageView, null, R.drawable.person);
+            }
+        });
     }
 }
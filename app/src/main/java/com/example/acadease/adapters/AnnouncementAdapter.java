@@ -14,16 +14,17 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.acadease.R;
 import com.example.acadease.data.AnnouncementRepository;
+import com.example.acadease.data.PeopleDirectory;
 import com.example.acadease.model.Announcement;
+import com.example.acadease.model.User;
 import com.google.firebase.Timestamp;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
-public class AnnouncementAdapter extends RecyclerView.Adapter<AnnouncementAdapter.ViewHolder> {
+public class AnnouncementAdapter extends DiffedAdapter<Announcement, AnnouncementAdapter.ViewHolder> {
 
-    private final List<Announcement> announcementList;
     private final Context context;
     private final OnAnnouncementActionListener listener;
     private final AnnouncementRepository announcementRepository;
@@ -33,40 +34,60 @@ public class AnnouncementAdapter extends RecyclerView.Adapter<AnnouncementAdapte
         void onDeleteClicked(String announcementId, int position);
     }
 
-    public AnnouncementAdapter(Context context, List<Announcement> announcementList, OnAnnouncementActionListener listener, AnnouncementRepository announcementRepository, boolean canDelete) {
+    /** Rows arrive through submitList (see AnnouncementFeed). */
+    public AnnouncementAdapter(Context context, OnAnnouncementActionListener listener, AnnouncementRepository announcementRepository, boolean canDelete) {
         this.context = context;
-        this.announcementList = announcementList;
         this.listener = listener;
         this.announcementRepository = announcementRepository;
         this.canDelete = canDelete;
     }
 
+    @NonNull
+    @Override
+    protected String keyOf(@NonNull Announcement announcement) {
+        return String.valueOf(announcement.getId());
+    }
+
+    @Override
+    protected int contentHashOf(@NonNull Announcement announcement) {
+        return Objects.hash(announcement.getTitle(), announcement.getBody(), announcement.getPostedBy(),
+                announcement.getCategory(), announcement.getCreatedAt());
+    }
+
     @NonNull
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_announcement_card, parent, false);
-        return new ViewHolder(view, listener, announcementList, announcementRepository, canDelete);
+        return new ViewHolder(view, listener, this, canDelete);
     }
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Announcement announcement = announcementList.get(position);
+        Announcement announcement = getItem(position);
 
         // 1. Body and Title Binding
         holder.title.setText(announcement.getBody() != null ? announcement.getBody() : "NO BODY TEXT AVAILABLE");
 
-        // 2. Poster Name Lookup (Asynchronous)
+        // 2. Poster Name Lookup (shared directory; cached names bind synchronously)
         String postedByUid = announcement.getPostedBy();
+        holder.boundAnnouncementId = announcement.getId();
         if (postedByUid != null) {
-            holder.poster.setText("Loading...");
-
-            announcementRepository.fetchUserName(postedByUid, new AnnouncementRepository.NameCallback() {
-                @Override
-                public void onSuccess(String name) {
-                    holder.poster.setText(name);
-                }
-            });
+            User cachedPoster = PeopleDirectory.getInstance().peek(postedByUid);
+            if (cachedPoster != null && cachedPoster.getName() != null && !cachedPoster.getName().isEmpty()) {
+                holder.poster.setText(cachedPoster.getName());
+            } else {
+                holder.poster.setText("Loading...");
+
+                announcementRepository.fetchUserName(postedByUid, new AnnouncementRepository.NameCallback() {
+                    @Override
+                    public void onSuccess(String name) {
+                        // The holder may now show a different announcement
+                        if (!Objects.equals(holder.boundAnnouncementId, announcement.getId())) return;
+                        holder.poster.setText(name);
+                    }
+                });
+            }
         } else {
             holder.poster.setText("System Post");
         }
@@ -85,16 +106,6 @@ public class AnnouncementAdapter extends RecyclerView.Adapter<AnnouncementAdapte
         holder.timestamp.setText(formatTimestamp(announcement.getCreatedAt()));
     }
 
-    @Override
-    public int getItemCount() {
-        return announcementList.size();
-    }
-
-    public void removeItem(int position) {
-        announcementList.remove(position);
-        notifyItemRemoved(position);
-    }
-
     private String formatTimestamp(Timestamp timestamp) {
         if (timestamp == null) return "N/A";
         Date date = timestamp.toDate();
@@ -109,11 +120,12 @@ public class AnnouncementAdapter extends RecyclerView.Adapter<AnnouncementAdapte
         public TextView title, category, timestamp, poster;
         // Icons
         public ImageView iconLike, iconShare;
+        String boundAnnouncementId; // Identifies the card this holder currently shows
 
         // Local state tracker for the like button (false = outlined, true = filled/red)
         private boolean isLiked = false;
 
-        public ViewHolder(@NonNull View view, OnAnnouncementActionListener listener, List<Announcement> announcementList, AnnouncementRepository announcementRepository, boolean canDelete) {
+        public ViewHolder(@NonNull View view, OnAnnouncementActionListener listener, AnnouncementAdapter adapter, boolean canDelete) {
             super(view);
 
             // --- MAPPING VIEWS ---
@@ -150,7 +162,9 @@ public class AnnouncementAdapter extends RecyclerView.Adapter<AnnouncementAdapte
 
             // 2. Share Functionality (Android Native Intent)
             iconShare.setOnClickListener(v -> {
-                String shareText = "Check out this announcement from AcadEase: " + announcementList.get(getAdapterPosition()).getTitle();
+                int position = getAdapterPosition();
+                if (position == RecyclerView.NO_POSITION) return;
+                String shareText = "Check out this announcement from AcadEase: " + adapter.getItem(position).getTitle();
                 Intent shareIntent = new Intent(Intent.ACTION_SEND);
                 shareIntent.setType("text/plain");
                 shareIntent.putExtra(Intent.EXTRA_TEXT, shareText);
@@ -162,12 +176,12 @@ public class AnnouncementAdapter extends RecyclerView.Adapter<AnnouncementAdapte
                 view.setOnLongClickListener(v -> {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION && listener != null) {
+                        Announcement announcement = adapter.getItem(position);
                         new AlertDialog.Builder(view.getContext())
                                 .setTitle("Confirm Deletion")
-                                .setMessage("Are you sure you want to delete this announcement: '" + announcementList.get(position).getTitle() + "'? \n\nTHIS ACTION IS IRREVERSIBLE.")
+                                .setMessage("Are you sure you want to delete this announcement: '" + announcement.getTitle() + "'? \n\nTHIS ACTION IS IRREVERSIBLE.")
                                 .setPositiveButton("DELETE", (dialog, which) -> {
-                                    String docId = announcementList.get(position).getId();
-                                    listener.onDeleteClicked(docId, position);
+                                    listener.onDeleteClicked(announcement.getId(), position);
                                 })
                                 .setNegativeButton("CANCEL", null)
                                 .show();
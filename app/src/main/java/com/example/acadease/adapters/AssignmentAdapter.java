@@ -14,12 +14,11 @@ import com.google.firebase.Timestamp;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
-public class AssignmentAdapter extends RecyclerView.Adapter<AssignmentAdapter.ViewHolder> {
+public class AssignmentAdapter extends DiffedAdapter<Assignment, AssignmentAdapter.ViewHolder> {
 
-    private final List<Assignment> assignmentList;
     private final Context context;
     private final SubmissionListener listener;
 
@@ -30,24 +29,35 @@ public class AssignmentAdapter extends RecyclerView.Adapter<AssignmentAdapter.Vi
         void onViewSubmissionsClicked(String assignmentId, String assignmentTitle);
     }
 
-    public AssignmentAdapter(Context context, List<Assignment> assignmentList, SubmissionListener listener) {
+    /** Rows arrive through submitList. */
+    public AssignmentAdapter(Context context, SubmissionListener listener) {
         this.context = context;
-        this.assignmentList = assignmentList;
         this.listener = listener;
     }
 
+    @NonNull
+    @Override
+    protected String keyOf(@NonNull Assignment assignment) {
+        return assignment.getId();
+    }
+
+    @Override
+    protected int contentHashOf(@NonNull Assignment assignment) {
+        return Objects.hash(assignment.getTitle(), assignment.getMaxPoints(), assignment.getDueDate());
+    }
+
     @NonNull
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         // Assume item_assignment_card.xml is the list item layout
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_assignment_card, parent, false);
-        return new ViewHolder(view, listener, assignmentList);
+        return new ViewHolder(view);
     }
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Assignment assignment = assignmentList.get(position);
+        Assignment assignment = getItem(position);
 
         Date dueDate = assignment.getDueDate() != null ? assignment.getDueDate().toDate() : null;
         String dueDateStr = dueDate != null ? dateFormat.format(dueDate) : "N/A";
@@ -77,16 +87,11 @@ public class AssignmentAdapter extends RecyclerView.Adapter<AssignmentAdapter.Vi
         });
     }
 
-    @Override
-    public int getItemCount() {
-        return assignmentList.size();
-    }
-
     public static class ViewHolder extends RecyclerView.ViewHolder {
         public TextView assignmentTitle, assignmentPoints, assignmentDueDate, assignmentStatus;
         public Button btnViewSubmissions;
 
-        public ViewHolder(View view, SubmissionListener listener, List<Assignment> assignmentList) {
+        public ViewHolder(View view) {
             super(view);
             // Assuming item_assignment_card.xml has these IDs:
             assignmentTitle = view.findViewById(R.id.assignment_card_title);
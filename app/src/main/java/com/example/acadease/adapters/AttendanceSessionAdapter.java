@@ -10,37 +10,37 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.acadease.R;
-import com.example.acadease.data.FacultyRepository;
-import com.example.acadease.model.Session;
-import com.example.acadease.model.User;
+import com.example.acadease.model.SessionRow;
 
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
 import java.util.Date;
-import java.util.List;
-import java.util.Locale;
-import java.util.TimeZone;
+import java.util.Objects;
 
-public class AttendanceSessionAdapter extends RecyclerView.Adapter<AttendanceSessionAdapter.ViewHolder> {
+public class AttendanceSessionAdapter extends DiffedAdapter<SessionRow, AttendanceSessionAdapter.ViewHolder> {
 
-    private final List<Session> sessionList;
     private final Context context;
     private final SessionClickListener listener;
-    private final FacultyRepository facultyRepository;
-
-    private SimpleDateFormat timeFormat = new SimpleDateFormat("h:mm a", Locale.getDefault());
 
     // Interface defined in the Fragment (FacultyAttendanceFragment)
     public interface SessionClickListener {
         void onSessionClicked(String sessionId, String courseCode);
     }
 
-    public AttendanceSessionAdapter(Context context, List<Session> sessionList, SessionClickListener listener) {
+    /** Rows arrive through submitList, pre-joined by FacultyRepository.joinSessionRows. */
+    public AttendanceSessionAdapter(Context context, SessionClickListener listener) {
         this.context = context;
-        this.sessionList = sessionList;
         this.listener = listener;
-        // CRITICAL: Initialize the repository instance
-        this.facultyRepository = new FacultyRepository();
+    }
+
+    @NonNull
+    @Override
+    protected String keyOf(@NonNull SessionRow row) {
+        return row.getId();
+    }
+
+    @Override
+    protected int contentHashOf(@NonNull SessionRow row) {
+        // Past-ness is part of the content: the action button changes once the session has started
+        return Objects.hash(row.timeRange, row.courseTitle, row.professorName, row.venue, row.start.before(new Date()));
     }
 
     @NonNull
@@ -49,60 +49,20 @@ public class AttendanceSessionAdapter extends RecyclerView.Adapter<AttendanceSes
         // Reuse the item_schedule_detail layout for the card style
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_schedule_detail, parent, false);
-        return new ViewHolder(view, listener, sessionList);
+        return new ViewHolder(view, listener, this);
     }
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Session session = sessionList.get(position);
-
-        Date sessionDate = session.getSessionTime().toDate();
-        Date currentTime = new Date();
-
-        // 1. Time Display
-        String timeStr = timeFormat.format(sessionDate);
+        SessionRow row = getItem(position);
 
-        // Final End Time (Assumes 1-hour class)
-        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("Asia/Kolkata"));
-        calendar.setTime(sessionDate);
-        calendar.add(Calendar.HOUR_OF_DAY, 1);
-        String endTimeStr = timeFormat.format(calendar.getTime());
+        // Title, professor and times were resolved by the join stage; binding only assigns
+        holder.timeRange.setText(row.timeRange);
+        holder.courseTitle.setText(row.courseTitle);
+        holder.professorVenue.setText(String.format("Prof: %s | Venue: %s", row.professorName, row.venue));
 
-        holder.timeRange.setText(String.format("%s - %s", timeStr, endTimeStr));
-
-        // Set initial placeholders while async lookups happen
-        holder.courseTitle.setText("Loading Course...");
-        holder.professorVenue.setText("Loading Professor...");
-
-        // 2. Asynchronous Course Title Lookup
-        final String courseCode = session.getCourseCode();
-        facultyRepository.fetchCourseTitle(courseCode, new FacultyRepository.CourseTitleCallback() {
-            @Override
-            public void onSuccess(String title) {
-                holder.courseTitle.setText(title);
-            }
-            @Override public void onFailure(Exception e) { holder.courseTitle.setText(courseCode + " (Error)"); }
-        });
-
-        // 3. Asynchronous Faculty Name Lookup
-        String facultyUid = session.getFacultyId();
-        facultyRepository.fetchUserProfile(facultyUid, new FacultyRepository.UserProfileCallback() {
-            @Override
-            public void onSuccess(User user) {
-                String profName = user.getName() != null ? user.getName() : "Faculty";
-
-                holder.professorVenue.setText(String.format("Prof: %s | Venue: %s",
-                        profName,
-                        session.getVenue()));
-            }
-            @Override
-            public void onFailure(Exception e) {
-                holder.professorVenue.setText("Prof: Lookup Failed | Venue: " + session.getVenue());
-            }
-        });
-
-        // 4. Status Check (Determine if we show LOG or MODIFY button)
-        boolean isPast = sessionDate.before(currentTime);
+        // Status Check (Determine if we show LOG or MODIFY button)
+        boolean isPast = row.start.before(new Date());
 
         if (isPast) {
             holder.actionButton.setText("LOG ATTENDANCE");
@@ -113,16 +73,11 @@ public class AttendanceSessionAdapter extends RecyclerView.Adapter<AttendanceSes
         }
     }
 
-    @Override
-    public int getItemCount() {
-        return sessionList.size();
-    }
-
     public static class ViewHolder extends RecyclerView.ViewHolder {
         public TextView timeRange, courseTitle, professorVenue;
         public Button actionButton; // The Log/Modify Button
 
-        public ViewHolder(View view, SessionClickListener listener, List<Session> sessionList) {
+        public ViewHolder(View view, SessionClickListener listener, AttendanceSessionAdapter adapter) {
             super(view);
             // Mapped elements from item_schedule_detail.xml (repurposed)
             timeRange = view.findViewById(R.id.schedule_time_range);
@@ -135,8 +90,8 @@ public class AttendanceSessionAdapter extends RecyclerView.Adapter<AttendanceSes
                 actionButton.setOnClickListener(v -> {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION && listener != null) {
-                        Session session = sessionList.get(position);
-                        listener.onSessionClicked(session.getId(), session.getCourseCode()); // Triggers Fragment Navigation
+                        SessionRow row = adapter.getItem(position);
+                        listener.onSessionClicked(row.getId(), row.getCourseCode()); // Triggers Fragment Navigation
                     }
                 });
             }
@@ -11,11 +11,10 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.acadease.R;
 import com.example.acadease.model.Course;
 
-import java.util.List;
+import java.util.Objects;
 
-public class CourseAdapter extends RecyclerView.Adapter<CourseAdapter.ViewHolder> {
+public class CourseAdapter extends DiffedAdapter<Course, CourseAdapter.ViewHolder> {
 
-    private final List<Course> courseList;
     private final Context context;
     private final CourseActionListener listener;
 
@@ -24,23 +23,34 @@ public class CourseAdapter extends RecyclerView.Adapter<CourseAdapter.ViewHolder
         void onViewAssignmentsClicked(String courseCode, String courseTitle);
     }
 
-    public CourseAdapter(Context context, List<Course> courseList, CourseActionListener listener) {
+    /** Rows arrive through submitList. */
+    public CourseAdapter(Context context, CourseActionListener listener) {
         this.context = context;
-        this.courseList = courseList;
         this.listener = listener;
     }
 
+    @NonNull
+    @Override
+    protected String keyOf(@NonNull Course course) {
+        return course.getCourseCode();
+    }
+
+    @Override
+    protected int contentHashOf(@NonNull Course course) {
+        return Objects.hash(course.getTitle(), course.getCredits());
+    }
+
     @NonNull
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_course_assignment_card, parent, false);
-        return new ViewHolder(view, listener, courseList);
+        return new ViewHolder(view);
     }
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Course course = courseList.get(position);
+        Course course = getItem(position);
 
         String fullTitle = String.format("%s - %s", course.getCourseCode(), course.getTitle());
         String details = String.format("Code: %s | Credits: %d", course.getCourseCode(), course.getCredits());
@@ -54,16 +64,11 @@ public class CourseAdapter extends RecyclerView.Adapter<CourseAdapter.ViewHolder
         });
     }
 
-    @Override
-    public int getItemCount() {
-        return courseList.size();
-    }
-
     public static class ViewHolder extends RecyclerView.ViewHolder {
         public TextView courseTitle, courseDetails;
         public Button btnViewAssignments;
 
-        public ViewHolder(View view, CourseActionListener listener, List<Course> courseList) {
+        public ViewHolder(View view) {
             super(view);
             courseTitle = view.findViewById(R.id.course_card_title);
             courseDetails = view.findViewById(R.id.course_card_details);
@@ -0,0 +1,146 @@
+package com.example.acadease.adapters;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.acadease.data.Background;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Base for list adapters that are refreshed with whole result sets.
+ *
+ * Create the adapter once and call submitList on every refresh instead of building a new adapter:
+ * the new list is diffed against the current one on the background worker (Background) and only
+ * the changed ranges are dispatched, so view holders and scroll position survive and unchanged rows
+ * are not rebound. Rows are matched by keyOf (a stable ID, usually the document ID) and compared by
+ * contentHashOf, both computed once per item per submission. A submission that is overtaken by a
+ * newer one before its diff finishes is dropped.
+ *
+ * keyOf and contentHashOf run on the worker, so they may only read the item. submitList and
+ * getItem must be called on the main thread.
+ */
+public abstract class DiffedAdapter<T, VH extends RecyclerView.ViewHolder> extends RecyclerView.Adapter<VH> {
+
+    private List<T> items = Collections.emptyList();
+    private String[] keys = new String[0];
+    private int[] hashes = new int[0];
+    private int generation;
+
+    /** Stable identity of the row, e.g. the document ID; equal keys are the same row. */
+    @NonNull
+    protected abstract String keyOf(@NonNull T item);
+
+    /** Hash of everything the row displays; a row is rebound only when this changes. */
+    protected abstract int contentHashOf(@NonNull T item);
+
+    public void submitList(@Nullable List<T> newList) {
+        submitList(newList, null);
+    }
+
+    /** @param committed runs on the main thread once the list is in place (not when overtaken) */
+    public void submitList(@Nullable List<T> newList, @Nullable Runnable committed) {
+        final List<T> next = newList == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(newList));
+        final int submission = ++generation;
+        final List<T> previous = items;
+        final String[] oldKeys = keys;
+        final int[] oldHashes = hashes;
+
+        // Nothing to compare against (or nothing left): no diff needed
+        if (previous.isEmpty() || next.isEmpty()) {
+            int removed = previous.size();
+            commit(next, keysOf(next), hashesOf(next));
+            if (removed > 0) notifyItemRangeRemoved(0, removed);
+            if (!next.isEmpty()) notifyItemRangeInserted(0, next.size());
+            if (committed != null) committed.run();
+            return;
+        }
+
+        Background.process(() -> {
+            String[] newKeys = keysOf(next);
+            int[] newHashes = hashesOf(next);
+            if (Arrays.equals(oldKeys, newKeys) && Arrays.equals(oldHashes, newHashes)) {
+                return new Diff(newKeys, newHashes, null); // Unchanged: no notifications at all
+            }
+            DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+                @Override
+                public int getOldListSize() { return oldKeys.length; }
+
+                @Override
+                public int getNewListSize() { return newKeys.length; }
+
+                @Override
+                public boolean areItemsTheSame(int oldPosition, int newPosition) {
+                    return oldKeys[oldPosition].equals(newKeys[newPosition]);
+                }
+
+                @Override
+                public boolean areContentsTheSame(int oldPosition, int newPosition) {
+                    return oldHashes[oldPosition] == newHashes[newPosition];
+                }
+            });
+            return new Diff(newKeys, newHashes, result);
+        }, diff -> {
+            if (submission != generation) return; // A newer list was submitted meanwhile
+            commit(next, diff.keys, diff.hashes);
+            if (diff.result != null) diff.result.dispatchUpdatesTo(this);
+            if (committed != null) committed.run();
+        }, e -> {
+            // Diffing never touches I/O; fall back to a full rebind rather than showing stale rows
+            if (submission != generation) return;
+            commit(next, keysOf(next), hashesOf(next));
+            notifyDataSetChanged();
+        });
+    }
+
+    /** The list currently shown (unmodifiable). */
+    @NonNull
+    public List<T> getCurrentList() {
+        return items;
+    }
+
+    @NonNull
+    protected T getItem(int position) {
+        return items.get(position);
+    }
+
+    @Override
+    public int getItemCount() {
+        return items.size();
+    }
+
+    private void commit(List<T> next, String[] nextKeys, int[] nextHashes) {
+        items = next;
+        keys = nextKeys;
+        hashes = nextHashes;
+    }
+
+    private String[] keysOf(List<T> list) {
+        String[] out = new String[list.size()];
+        for (int i = 0; i < out.length; i++) out[i] = keyOf(list.get(i));
+        return out;
+    }
+
+    private int[] hashesOf(List<T> list) {
+        int[] out = new int[list.size()];
+        for (int i = 0; i < out.length; i++) out[i] = contentHashOf(list.get(i));
+        return out;
+    }
+
+    private static final class Diff {
+        final String[] keys;
+        final int[] hashes;
+        final DiffUtil.DiffResult result; // null when nothing changed
+
+        Diff(String[] keys, int[] hashes, DiffUtil.DiffResult result) {
+            this.keys = keys;
+            this.hashes = hashes;
+            this.result = result;
+        }
+    }
+}
@@ -16,27 +16,48 @@ import com.example.acadease.data.LookupRepository;
 import com.example.acadease.model.User;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
-public class ResultsAdapter extends RecyclerView.Adapter<ResultsAdapter.ViewHolder> {
+public class ResultsAdapter extends DiffedAdapter<User, ResultsAdapter.ViewHolder> {
 
-    private final List<User> studentRoster;
     private final Context context;
     private final LookupRepository lookupRepository;
 
     private final Map<String, Integer> currentGradesMap;
 
-    private final int maxPoints;
+    private int maxPoints;
 
-    public ResultsAdapter(Context context, List<User> studentRoster, int maxPoints, LookupRepository lookupRepository) {
+    public ResultsAdapter(Context context, int maxPoints, LookupRepository lookupRepository) {
         this.context = context;
-        this.studentRoster = studentRoster;
         this.maxPoints = maxPoints;
         this.lookupRepository = lookupRepository;
         this.currentGradesMap = new HashMap<>(); // Map to store live grade inputs
     }
 
+    @NonNull
+    @Override
+    protected String keyOf(@NonNull User student) {
+        return String.valueOf(student.getUid());
+    }
+
+    @Override
+    protected int contentHashOf(@NonNull User student) {
+        return Objects.hash(student.getName(), student.getStudentId());
+    }
+
+    /** Updates the "/ max" label of every row; a no-op when unchanged. */
+    public void setMaxPoints(int maxPoints) {
+        if (this.maxPoints == maxPoints) return;
+        this.maxPoints = maxPoints;
+        notifyItemRangeChanged(0, getItemCount());
+    }
+
+    /** Drops the typed marks, e.g. when a different course's roster is loaded. */
+    public void clearGrades() {
+        currentGradesMap.clear();
+    }
+
     @NonNull
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -48,7 +69,7 @@ public class ResultsAdapter extends RecyclerView.Adapter<ResultsAdapter.ViewHold
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        User student = studentRoster.get(position);
+        User student = getItem(position);
 
         // 1. Student Name and ID Display
         String studentName = student.getName();
@@ -78,11 +99,6 @@ public class ResultsAdapter extends RecyclerView.Adapter<ResultsAdapter.ViewHold
         }
     }
 
-    @Override
-    public int getItemCount() {
-        return studentRoster.size();
-    }
-
     /**
      * Public method used by the Fragment to retrieve all grades entered.
      */
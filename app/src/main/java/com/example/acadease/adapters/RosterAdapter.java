@@ -0,0 +1,129 @@
+package com.example.acadease.adapters;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.RadioGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.acadease.R;
+import com.example.acadease.utils.RosterMarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Attendance roster for one session. Only the visible rows exist as views; the marks live in a
+ * RosterMarks byte array indexed by position, so bulk actions and submission never touch a view.
+ */
+public class RosterAdapter extends RecyclerView.Adapter<RosterAdapter.ViewHolder> {
+
+    // RadioButton IDs by mark code (RosterMarks.PRESENT .. EXCUSED)
+    private static final int[] BUTTON_IDS = {View.NO_ID, R.id.status_present, R.id.status_absent, R.id.status_late, R.id.status_excused};
+
+    private String[] uids = new String[0];
+    private String[] names = new String[0];
+    private RosterMarks marks = new RosterMarks(0);
+
+    /**
+     * Replaces the roster; every student starts unmarked.
+     * @param names student UID -> display name; missing names show the UID
+     */
+    public void setRoster(List<String> studentUids, Map<String, String> names) {
+        Integer[] order = new Integer[studentUids.size()];
+        String[] display = new String[order.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            String name = names.get(studentUids.get(i));
+            display[i] = name != null ? name : studentUids.get(i);
+        }
+        // Alphabetical, the order the faculty calls the roster in
+        Arrays.sort(order, (a, b) -> String.CASE_INSENSITIVE_ORDER.compare(display[a], display[b]));
+
+        uids = new String[order.length];
+        this.names = new String[order.length];
+        for (int i = 0; i < order.length; i++) {
+            uids[i] = studentUids.get(order[i]);
+            this.names[i] = display[order[i]];
+        }
+        marks = new RosterMarks(order.length);
+        notifyDataSetChanged();
+    }
+
+    public void markAllPresent() {
+        marks.markAll(RosterMarks.PRESENT);
+        notifyItemRangeChanged(0, marks.size());
+    }
+
+    public void invertSelection() {
+        marks.invertPresence();
+        notifyItemRangeChanged(0, marks.size());
+    }
+
+    /** @return the first unmarked position, or -1 when the roster is complete */
+    public int firstUnmarked() {
+        return marks.firstUnmarked();
+    }
+
+    /** Student UID -> status for every marked student. */
+    public Map<String, String> getAttendanceMap() {
+        return marks.toStatusMap(uids);
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_attendance_roster, parent, false);
+        return new ViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        holder.studentName.setText(names[position]);
+
+        // Reflect the stored mark without feeding it back through the listener
+        holder.binding = true;
+        byte mark = marks.get(position);
+        if (mark == RosterMarks.UNMARKED) {
+            holder.statusGroup.clearCheck();
+        } else {
+            holder.statusGroup.check(BUTTON_IDS[mark]);
+        }
+        holder.binding = false;
+    }
+
+    @Override
+    public int getItemCount() {
+        return uids.length;
+    }
+
+    public class ViewHolder extends RecyclerView.ViewHolder {
+        public TextView studentName;
+        public RadioGroup statusGroup;
+        boolean binding;
+
+        public ViewHolder(@NonNull View view) {
+            super(view);
+            studentName = view.findViewById(R.id.student_name_text);
+            statusGroup = view.findViewById(R.id.attendance_radio_group);
+
+            statusGroup.setOnCheckedChangeListener((group, checkedId) -> {
+                int position = getAdapterPosition();
+                if (binding || position == RecyclerView.NO_POSITION) return;
+                marks.set(position, markOf(checkedId));
+            });
+        }
+    }
+
+    private static byte markOf(int buttonId) {
+        for (byte mark = RosterMarks.PRESENT; mark < BUTTON_IDS.length; mark++) {
+            if (BUTTON_IDS[mark] == buttonId) return mark;
+        }
+        return RosterMarks.UNMARKED;
+    }
+}
@@ -1,93 +1,91 @@
 package com.example.acadease.adapters;
 
-import android.app.AlertDialog;
 import android.content.Context;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
-import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.acadease.R;
-import com.example.acadease.data.FacultyRepository;
 import com.example.acadease.model.ScheduleItem;
 import com.example.acadease.model.Session;
-import com.example.acadease.model.User;
-import com.google.firebase.Timestamp;
+import com.example.acadease.model.SessionRow;
+import com.example.acadease.utils.Timetable;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
-import java.util.TimeZone;
+import java.util.Objects;
 
-public class ScheduleAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+public class ScheduleAdapter extends DiffedAdapter<ScheduleItem, RecyclerView.ViewHolder> {
 
-    private final List<ScheduleItem> scheduledItems;
     private final Context context;
-    private final FacultyRepository facultyRepository;
     private final AttendanceActionListener actionListener;
 
-    private SimpleDateFormat timeFormat = new SimpleDateFormat("h:mm a", Locale.getDefault());
     private SimpleDateFormat dayHeaderFormat = new SimpleDateFormat("MMM dd, yyyy EEEE", Locale.getDefault());
 
 
-    public ScheduleAdapter(Context context, List<Session> allSessions, FacultyRepository facultyRepository, AttendanceActionListener actionListener) {
+    /** Rows arrive through submitRows. */
+    public ScheduleAdapter(Context context, AttendanceActionListener actionListener) {
         this.context = context;
-        this.facultyRepository = facultyRepository;
         this.actionListener = actionListener;
-        // Group sessions immediately upon creation of the adapter
-        this.scheduledItems = groupSessionsByDay(allSessions);
     }
 
     public interface AttendanceActionListener {
         void onLogAttendance(Session session);
     }
 
-    /**
-     * Groups sessions by day, sorts them, and inserts header items (the black blocks).
-     */
-    private List<ScheduleItem> groupSessionsByDay(List<Session> sessions) {
-        if (sessions == null || sessions.isEmpty()) return new ArrayList<>();
-
-        // 1. Sort all sessions by time (Timestamp)
-        sessions.sort(Comparator.comparing(s -> s.getSessionTime().toDate()));
-
-        List<ScheduleItem> items = new ArrayList<>();
-        String currentDay = "";
+    public interface SessionManageListener {
+        void onManageSession(Session session);
+    }
 
-        for (Session session : sessions) {
-            Date sessionDate = session.getSessionTime().toDate();
+    private SessionManageListener manageListener;
 
-            // Format the date string to check for day change
-            String sessionDayString = dayHeaderFormat.format(sessionDate);
+    /** Long-pressing a session row opens its actions; without a listener rows are not long-clickable. */
+    public void setOnManageSessionListener(SessionManageListener listener) {
+        this.manageListener = listener;
+    }
 
-            if (!sessionDayString.equals(currentDay)) {
-                // If the day changed, add a header item (the black block)
-                items.add(new ScheduleItem(sessionDayString));
-                currentDay = sessionDayString;
-            }
+    /**
+     * Shows pre-joined rows (FacultyRepository.joinSessionRows), grouped under day headers.
+     */
+    public void submitRows(List<SessionRow> rows) {
+        submitList(groupSessionsByDay(rows));
+    }
 
-            // Add the session detail item
-            items.add(new ScheduleItem(session));
-        }
-        return items;
+    @NonNull
+    @Override
+    protected String keyOf(@NonNull ScheduleItem item) {
+        return item.type == ScheduleItem.TYPE_HEADER ? "header:" + item.headerDate : item.row.getId();
     }
 
     @Override
-    public int getItemViewType(int position) {
-        return scheduledItems.get(position).type;
+    protected int contentHashOf(@NonNull ScheduleItem item) {
+        if (item.type == ScheduleItem.TYPE_HEADER) return item.headerDate.hashCode();
+        SessionRow row = item.row;
+        // Past-ness is part of the content: the button appears once the session has started
+        return Objects.hash(row.timeRange, row.courseTitle, row.professorName, row.venue, row.start.before(new Date()));
+    }
+
+    /**
+     * Groups sessions by day, sorts them, and inserts header items (the black blocks).
+     */
+    private List<ScheduleItem> groupSessionsByDay(List<SessionRow> rows) {
+        if (rows == null || rows.isEmpty()) return new ArrayList<>();
+
+        // Sorted by time, with a header item (the black block) whenever the day changes
+        return Timetable.withDayHeaders(rows, row -> row.start, dayHeaderFormat,
+                header -> new ScheduleItem(header), row -> new ScheduleItem(row));
     }
 
     @Override
-    public int getItemCount() {
-        return scheduledItems.size();
+    public int getItemViewType(int position) {
+        return getItem(position).type;
     }
 
     @NonNull
@@ -107,7 +105,7 @@ public class ScheduleAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
 
     @Override
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
-        ScheduleItem item = scheduledItems.get(position);
+        ScheduleItem item = getItem(position);
 
         if (item.type == ScheduleItem.TYPE_HEADER) {
             HeaderViewHolder headerHolder = (HeaderViewHolder) holder;
@@ -122,58 +120,15 @@ public class ScheduleAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
 
         } else {
             SessionViewHolder sessionHolder = (SessionViewHolder) holder;
-            Session session = item.session;
+            SessionRow row = item.row;
 
-            // 1. Time Calculation and Display
-            Date startDate = session.getSessionTime().toDate();
-            Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("Asia/Kolkata"));
-            calendar.setTime(startDate);
-            calendar.add(Calendar.HOUR_OF_DAY, 1);
+            // Everything was resolved by the join stage; binding only assigns
+            sessionHolder.timeRange.setText(row.timeRange);
+            sessionHolder.courseTitle.setText(row.courseTitle);
+            sessionHolder.professorVenue.setText(String.format("Prof: %s | Class: %s", row.professorName, row.venue));
 
-            String startTimeStr = timeFormat.format(startDate);
-            String endTimeStr = timeFormat.format(calendar.getTime());
-
-            sessionHolder.timeRange.setText(String.format("%s - %s", startTimeStr, endTimeStr));
-
-            // Set initial placeholder for title and prof
-            sessionHolder.courseTitle.setText(session.getCourseCode());
-            sessionHolder.professorVenue.setText("Loading Professor...");
-
-            // 2. Asynchronous Course Title Lookup
-            final String courseCode = session.getCourseCode();
-            facultyRepository.fetchCourseTitle(courseCode, new FacultyRepository.CourseTitleCallback() {
-                @Override
-                public void onSuccess(String title) {
-                    sessionHolder.courseTitle.setText(title);
-                }
-
-                @Override
-                public void onFailure(Exception e) {
-                    sessionHolder.courseTitle.setText(courseCode + " (Lookup Error)");
-                }
-            });
-
-            // 3. Asynchronous Faculty Name Lookup
-            String facultyUid = session.getFacultyId();
-            final String venue = session.getVenue();
-
-            facultyRepository.fetchUserProfile(facultyUid, new FacultyRepository.UserProfileCallback() {
-                @Override
-                public void onSuccess(User user) {
-                    String profName = user.getName();
-                    sessionHolder.professorVenue.setText(String.format("Prof: %s | Class: %s",
-                            profName,
-                            venue));
-                }
-
-                @Override
-                public void onFailure(Exception e) {
-                    sessionHolder.professorVenue.setText(String.format("Prof: Lookup Failed | Class: %s", venue));
-                }
-            });
-
-            // 4. Action Button for Attendance (past sessions only)
-            boolean isPast = session.getSessionTime().toDate().before(new Date());
+            // Action Button for Attendance (past sessions only)
+            boolean isPast = row.start.before(new Date());
             if (sessionHolder.actionButton != null) {
                 sessionHolder.actionButton.setVisibility(isPast ? View.VISIBLE : View.GONE);
                 if (sessionHolder.actionButton instanceof android.widget.Button) {
@@ -181,10 +136,16 @@ public class ScheduleAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
                 }
                 sessionHolder.actionButton.setOnClickListener(v -> {
                     if (isPast && actionListener != null) {
-                        actionListener.onLogAttendance(session);
+                        actionListener.onLogAttendance(row.session);
                     }
                 });
             }
+            if (manageListener != null) {
+                sessionHolder.itemView.setOnLongClickListener(v -> {
+                    manageListener.onManageSession(row.session);
+                    return true;
+                });
+            }
         }
     }
 
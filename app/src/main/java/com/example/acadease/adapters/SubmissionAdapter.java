@@ -17,43 +17,43 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.acadease.R;
-import com.example.acadease.data.LookupRepository;
+import com.example.acadease.data.PeopleDirectory;
 import com.example.acadease.model.Submission;
+import com.example.acadease.model.User;
 
 import java.util.Date;
-import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import java.text.SimpleDateFormat;
 import java.util.Locale;
 
-public class SubmissionAdapter extends RecyclerView.Adapter<SubmissionAdapter.ViewHolder> {
+public class SubmissionAdapter extends DiffedAdapter<Submission, SubmissionAdapter.ViewHolder> {
 
-    private final List<Submission> submissionList;
     private final Context context;
-    private final LookupRepository lookupRepository;
     private final Date assignmentDueDate; // Passed from the AssignmentListFragment
     private final int maxPoints;
 
-    // Map to hold student UIDs and their names asynchronously
-    private Map<String, String> studentNameCache = new HashMap<>();
-    // Map to hold grades keyed by studentId
+    // Map to hold grades keyed by studentId; survives refreshes, so unsaved input is kept
     private final Map<String, Integer> gradesMap = new HashMap<>();
 
-    public SubmissionAdapter(Context context, List<Submission> submissionList, Date assignmentDueDate, int maxPoints, LookupRepository lookupRepository) {
+    /** Rows arrive through submitList. */
+    public SubmissionAdapter(Context context, Date assignmentDueDate, int maxPoints) {
         this.context = context;
-        this.submissionList = submissionList;
         this.assignmentDueDate = assignmentDueDate;
         this.maxPoints = maxPoints;
-        this.lookupRepository = lookupRepository;
     }
 
-    // Optimization: allow fragment to preload names in bulk
-    public void setPreloadedNameCache(Map<String, String> cache) {
-        if (cache != null) {
-            this.studentNameCache.putAll(cache);
-        }
+    @NonNull
+    @Override
+    protected String keyOf(@NonNull Submission submission) {
+        return submission.getId();
+    }
+
+    @Override
+    protected int contentHashOf(@NonNull Submission submission) {
+        return Objects.hash(submission.getStudentId(), submission.getSubmittedAt(), submission.getGrade(), submission.getSubmissionUrl());
     }
 
     @NonNull
@@ -66,27 +66,29 @@ public class SubmissionAdapter extends RecyclerView.Adapter<SubmissionAdapter.Vi
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Submission submission = submissionList.get(position);
+        Submission submission = getItem(position);
 
-        // 1. Student Name Lookup
+        // 1. Student Name Lookup (shared directory; cached names bind synchronously)
         String studentUid = submission.getStudentId();
-        holder.studentName.setText("Loading...");
+        holder.boundStudentUid = studentUid;
 
-        // Check cache first
-        if (studentNameCache.containsKey(studentUid)) {
-            holder.studentName.setText(studentNameCache.get(studentUid));
+        User cachedStudent = PeopleDirectory.getInstance().peek(studentUid);
+        if (cachedStudent != null) {
+            holder.studentName.setText(displayName(cachedStudent));
         } else {
-            // Fetch name asynchronously
-            lookupRepository.fetchBulkStudentNames(List.of(studentUid), new LookupRepository.BulkNameCallback() {
+            holder.studentName.setText("Loading...");
+            PeopleDirectory.getInstance().fetchProfile(studentUid, new PeopleDirectory.ProfileCallback() {
                 @Override
-                public void onSuccess(Map<String, String> uidToNameMap) {
-                    String name = uidToNameMap.getOrDefault(studentUid, "Student Profile Missing");
-                    studentNameCache.put(studentUid, name);
-                    holder.studentName.setText(name);
+                public void onSuccess(User user) {
+                    // Skip if the holder was recycled for another student meanwhile
+                    if (!Objects.equals(holder.boundStudentUid, studentUid)) return;
+                    holder.studentName.setText(user != null ? displayName(user) : "Student Profile Missing");
                 }
                 @Override
                 public void onFailure(Exception e) {
-                    holder.studentName.setText("Lookup Failed: " + studentUid.substring(0, 6) + "...");
+                    if (!Objects.equals(holder.boundStudentUid, studentUid)) return;
+                    String shortUid = studentUid != null && studentUid.length() > 6 ? studentUid.substring(0, 6) : String.valueOf(studentUid);
+                    holder.studentName.setText("Lookup Failed: " + shortUid + "...");
                 }
             });
         }
@@ -158,9 +160,9 @@ public class SubmissionAdapter extends RecyclerView.Adapter<SubmissionAdapter.Vi
         });
     }
 
-    @Override
-    public int getItemCount() {
-        return submissionList.size();
+    private static String displayName(User user) {
+        String name = user.getName();
+        return name != null && !name.isEmpty() ? name : "Unknown Student (Profile Error)";
     }
 
     // Utility method to get all entered grades for Batched Update
@@ -173,6 +175,7 @@ public class SubmissionAdapter extends RecyclerView.Adapter<SubmissionAdapter.Vi
         public EditText gradeInputEt;
         public Button btnDownloadFile;
         public TextWatcher textWatcher;
+        String boundStudentUid; // Student whose name this holder currently shows
 
         public ViewHolder(@NonNull View view) {
             super(view);
@@ -2,20 +2,40 @@ package com.example.acadease.data;
 
 import android.util.Log;
 
+import com.example.acadease.BuildConfig;
 import com.example.acadease.model.Announcement;
 import com.example.acadease.model.Schedule;
+import com.example.acadease.model.Session;
 import com.example.acadease.model.User;
+import com.example.acadease.model.mapper.ScheduleMapper;
+import com.example.acadease.model.mapper.SessionMapper;
+import com.example.acadease.utils.RosterMarks;
+import com.example.acadease.utils.ScheduleConflictChecker;
 import com.example.acadease.utils.ScheduleUtility;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.Timestamp;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.SetOptions;
 import com.google.firebase.firestore.WriteBatch;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 
 public class AdminRepository {
     private static final String TAG = "AdminRepository";
@@ -28,6 +48,11 @@ public class AdminRepository {
     private final String ANNOUNCEMENTS_COLLECTION = "Announcements";
     private final String SCHEDULES_COLLECTION = "schedules";
     private final String SESSIONS_COLLECTION = "sessions";
+    private final String COURSES_COLLECTION = "Courses";
+    private final String HOLIDAYS_COLLECTION = "holidays"; // Document ID is the date, "yyyy-MM-dd"
+
+    private static final int SUBMISSION_BACKFILL_PAGE = 400; // One WriteBatch per page
+    private static final int ATTENDANCE_BACKFILL_PAGE = 400; // Likewise
 
     public AdminRepository() {
         this.db = FirebaseFirestore.getInstance();
@@ -42,6 +67,16 @@ public class AdminRepository {
         void onFailure(Exception e);
     }
 
+    /** Optional extension for long-running bulk writes. */
+    public interface ProgressCallback extends RegistrationCallback {
+        void onProgress(int written, int total);
+    }
+
+    /** Optional extension for createSchedule: lists the clashes itself instead of getting one onFailure message. */
+    public interface ScheduleCallback extends ProgressCallback {
+        void onConflicts(List<ScheduleConflictChecker.Conflict> conflicts);
+    }
+
     // =========================================================
     // 1. USER REGISTRATION & ENROLLMENT (Program-Based Batched Write)
     // =========================================================
@@ -179,44 +214,500 @@ public class AdminRepository {
     // =========================================================
 
 
-    public void createSchedule(Schedule scheduleBlueprint, List<Map<String, Object>> sessions, RegistrationCallback callback) {
+    /**
+     * Saves a recurring schedule, unless one of its meetings clashes with an existing schedule of the
+     * term in the same venue or with the same faculty member; then nothing is written and every clash
+     * is reported. In virtual mode (BuildConfig.VIRTUAL_SESSIONS) only the blueprint is stored and its
+     * sessions are computed when read (see VirtualSessions); otherwise every meeting of the block is
+     * written to 'sessions'.
+     */
+    public void createSchedule(Schedule scheduleBlueprint, RegistrationCallback callback) {
+
+        // Step A: Campus holidays; if they can't be read, sessions are generated without skipping them
+        db.collection(HOLIDAYS_COLLECTION).get().addOnCompleteListener(task -> {
+            Set<LocalDate> holidays = new HashSet<>();
+            if (task.isSuccessful()) {
+                for (DocumentSnapshot holiday : task.getResult()) {
+                    try {
+                        holidays.add(LocalDate.parse(holiday.getId()));
+                    } catch (DateTimeParseException e) {
+                        Log.w(TAG, "Ignoring holiday document with a non-date ID: " + holiday.getId());
+                    }
+                }
+            } else {
+                Log.w(TAG, "Holiday list unavailable, no holidays skipped", task.getException());
+            }
+
+            // Step B: Clash check against the schedules whose block overlaps this one, and the stored
+            // sessions in the block (a venue change or cancellation overrides the blueprint's meeting)
+            Task<QuerySnapshot> schedulesTask = db.collection(SCHEDULES_COLLECTION)
+                    .whereGreaterThanOrEqualTo("endDate", scheduleBlueprint.getStartDate())
+                    .get();
+            Timestamp blockEnd = scheduleBlueprint.getEndDate();
+            Task<QuerySnapshot> sessionsTask = db.collection(SESSIONS_COLLECTION)
+                    .whereGreaterThanOrEqualTo("sessionTime", scheduleBlueprint.getStartDate())
+                    .whereLessThan("sessionTime", new Timestamp(blockEnd.getSeconds() + 24 * 60 * 60, blockEnd.getNanoseconds()))
+                    .get();
+            Tasks.whenAllSuccess(schedulesTask, sessionsTask)
+                    .addOnSuccessListener(results -> Background.process(() -> {
+                        List<Schedule> term = new ArrayList<>();
+                        for (DocumentSnapshot doc : (QuerySnapshot) results.get(0)) {
+                            Schedule existing = ScheduleMapper.fromSnapshot(doc);
+                            if (existing != null && existing.getStartDate() != null
+                                    && existing.getStartDate().compareTo(scheduleBlueprint.getEndDate()) <= 0) {
+                                term.add(existing);
+                            }
+                        }
+                        List<Session> stored = new ArrayList<>();
+                        List<Session> cancelled = new ArrayList<>();
+                        for (DocumentSnapshot doc : (QuerySnapshot) results.get(1)) {
+                            Session session = SessionMapper.fromSnapshot(doc);
+                            if (session == null) continue;
+                            (Boolean.TRUE.equals(doc.getBoolean(VirtualSessions.FIELD_CANCELLED)) ? cancelled : stored).add(session);
+                        }
+                        return new ScheduleConflictChecker(term, stored, cancelled, holidays).check(scheduleBlueprint);
+                    }, conflicts -> {
+                        if (conflicts.isEmpty()) {
+                            saveSchedule(scheduleBlueprint, holidays, callback);
+                        } else if (callback instanceof ScheduleCallback) {
+                            ((ScheduleCallback) callback).onConflicts(conflicts);
+                        } else {
+                            callback.onFailure(new Exception(String.format("Schedule clashes with %d existing sessions, first: %s",
+                                    conflicts.size(), conflicts.get(0).describe())));
+                        }
+                    }, e -> callback.onFailure(new Exception("Schedule clash check failed: " + e.getMessage()))))
+                    .addOnFailureListener(e -> callback.onFailure(new Exception("Schedule clash check failed: " + e.getMessage())));
+        });
+    }
+
+    private void saveSchedule(Schedule scheduleBlueprint, Set<LocalDate> holidays, RegistrationCallback callback) {
+        if (BuildConfig.VIRTUAL_SESSIONS) {
+            saveVirtualSchedule(scheduleBlueprint, holidays, callback);
+            return;
+        }
 
-        // Step A: Save the Schedule Document first (The parent blueprint)
+        // Step C: Save the Schedule Document first (The parent blueprint)
         db.collection(SCHEDULES_COLLECTION).add(scheduleBlueprint)
                 .addOnSuccessListener(documentReference -> {
                     String scheduleId = documentReference.getId();
 
-                    // NOTE: This call assumes the ScheduleUtility.generateSessions method is available
-                    // and will be updated to use the writeSessionsToFirestore method.
-                    // For now, we assume the utility returns the list of sessions to be written.
-                    List<Map<String, Object>> generatedSessions = ScheduleUtility.generateSessions(scheduleBlueprint, scheduleId);
-
-                    writeSessionsToFirestore(generatedSessions, scheduleId, callback);
+                    // Step D: Expand the recurrence rule into concrete sessions (lazily, straight into the writer)
+                    writeSessionsToFirestore(ScheduleUtility.generateSessions(scheduleBlueprint, scheduleId, holidays), scheduleId, callback);
                 })
                 .addOnFailureListener(e -> callback.onFailure(new Exception("Schedule blueprint save failed: " + e.getMessage())));
     }
 
+    /**
+     * Virtual mode: a single write. The holidays inside the block are folded into the blueprint's
+     * exceptionDates so readers can expand it without reading the holiday list.
+     */
+    private void saveVirtualSchedule(Schedule scheduleBlueprint, Set<LocalDate> holidays, RegistrationCallback callback) {
+        LocalDate first = ScheduleUtility.firstDay(scheduleBlueprint);
+        LocalDate last = ScheduleUtility.lastDay(scheduleBlueprint);
+        Set<String> exceptionDates = new TreeSet<>();
+        if (scheduleBlueprint.getExceptionDates() != null) exceptionDates.addAll(scheduleBlueprint.getExceptionDates());
+        for (LocalDate holiday : holidays) {
+            if (!holiday.isBefore(first) && !holiday.isAfter(last)) exceptionDates.add(holiday.toString());
+        }
+        scheduleBlueprint.setExceptionDates(new ArrayList<>(exceptionDates));
+        scheduleBlueprint.setVirtual(true);
+
+        long sessionCount = ScheduleUtility.occurrences(scheduleBlueprint, first, last, Collections.emptyList()).stream().count();
+        db.collection(SCHEDULES_COLLECTION).add(scheduleBlueprint)
+                .addOnSuccessListener(documentReference -> callback.onSuccess(
+                        String.format("Schedule created: %d sessions, computed on demand.", sessionCount)))
+                .addOnFailureListener(e -> callback.onFailure(new Exception("Schedule blueprint save failed: " + e.getMessage())));
+    }
 
-    private void writeSessionsToFirestore(List<Map<String, Object>> sessions, String scheduleId, RegistrationCallback callback) {
-        WriteBatch batch = db.batch();
 
-        for (Map<String, Object> session : sessions) {
-            DocumentReference sessionRef = db.collection(SESSIONS_COLLECTION).document();
-            batch.set(sessionRef, session);
-        }
+    private void writeSessionsToFirestore(Stream<Map<String, Object>> sessions, String scheduleId, RegistrationCallback callback) {
+        // A semester of sessions can exceed the 500-op WriteBatch limit, so this goes through the chunked writer
+        BulkWriter writer = new BulkWriter(db);
+        sessions.forEach(session -> writer.set(db.collection(SESSIONS_COLLECTION).document(), session));
+        int total = writer.size();
 
-        batch.commit()
-                .addOnSuccessListener(aVoid -> callback.onSuccess(String.format("Schedule created and %d sessions generated!", sessions.size())))
-                .addOnFailureListener(e -> callback.onFailure(new Exception("Session bulk write failed. Integrity compromised: " + e.getMessage())));
+        writer.commit(new BulkWriter.Listener() {
+            @Override
+            public void onProgress(int written, int total) {
+                if (callback instanceof ProgressCallback) {
+                    ((ProgressCallback) callback).onProgress(written, total);
+                }
+            }
+
+            @Override
+            public void onComplete(int written) {
+                callback.onSuccess(String.format("Schedule created and %d sessions generated!", written));
+            }
+
+            @Override
+            public void onFailure(Exception e, int written) {
+                Log.e(TAG, "Session bulk write incomplete for schedule " + scheduleId, e);
+                callback.onFailure(new Exception(String.format("Session bulk write incomplete (%d of %d written): %s",
+                        written, total, e.getMessage())));
+            }
+        });
     }
 
     // =========================================================
-    // 4. GENERAL USER DELETION
+    // 4. ATTENDANCE AGGREGATES (Backfill / Repair)
+    // =========================================================
+
+    /**
+     * Recomputes attendance_summary and course_attendance from the raw marks (sessions/{id}/attendance
+     * rows and attendance_sheets, see AttendanceSheets) and overwrites the counters. Safe to re-run;
+     * summaries without any remaining marks are deleted. Cancelled sessions are not counted.
+     * Pending summary deltas are deleted, since the rebuilt counters already include their marks.
+     *
+     * Runs one course at a time, so only that course's sessions, marks and summaries are read and
+     * held at once; a failed read or write stops the rebuild and is reported to the callback.
+     */
+    public void rebuildAttendanceAggregates(RegistrationCallback callback) {
+        db.collection(COURSES_COLLECTION).get()
+                .continueWithTask(t -> {
+                    if (!t.isSuccessful()) {
+                        throw new Exception("Attendance rebuild read failed: " + t.getException().getMessage(), t.getException());
+                    }
+                    List<String> courseCodes = new ArrayList<>();
+                    for (DocumentSnapshot course : t.getResult()) courseCodes.add(course.getId());
+                    return rebuildCourses(courseCodes, 0, new CourseRebuild());
+                })
+                .addOnSuccessListener(totals -> callback.onSuccess(String.format(
+                        "Attendance totals rebuilt: %d student summaries across %d courses (%d stale removed).",
+                        totals.summaries, totals.courses, totals.removed)))
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Attendance rebuild failed: ", e);
+                    callback.onFailure(e);
+                });
+    }
+
+    /** Counts for one course's rebuild, and the running totals across courses. */
+    private static class CourseRebuild {
+        BulkWriter writer;
+        int summaries;
+        int courses;
+        int removed;
+    }
+
+    private Task<CourseRebuild> rebuildCourses(List<String> courseCodes, int index, CourseRebuild totals) {
+        if (index >= courseCodes.size()) return Tasks.forResult(totals);
+        return rebuildCourse(courseCodes.get(index)).onSuccessTask(course -> {
+            totals.summaries += course.summaries;
+            totals.courses += course.courses;
+            totals.removed += course.removed;
+            return rebuildCourses(courseCodes, index + 1, totals);
+        });
+    }
+
+    /** Reads one course's sessions, their marks and its summaries, then rewrites its counters. */
+    private Task<CourseRebuild> rebuildCourse(String courseCode) {
+        Task<QuerySnapshot> existingTask = db.collection(AttendanceAggregates.SUMMARY_COLLECTION)
+                .whereEqualTo(AttendanceAggregates.FIELD_COURSE_CODE, courseCode).get();
+        Task<QuerySnapshot> deltasTask = db.collection(AttendanceAggregates.DELTAS_COLLECTION)
+                .whereEqualTo(AttendanceAggregates.FIELD_COURSE_CODE, courseCode).get();
+        Map<String, Task<QuerySnapshot>> rowTasks = new HashMap<>();
+        Map<String, Task<DocumentSnapshot>> sheetTasks = new HashMap<>();
+        List<DocumentSnapshot> sessions = new ArrayList<>();
+        List<DocumentReference> cancelled = new ArrayList<>();
+
+        return db.collection(SESSIONS_COLLECTION).whereEqualTo("courseCode", courseCode).get()
+                .continueWithTask(t -> {
+                    if (!t.isSuccessful()) throw t.getException();
+                    List<Task<?>> reads = new ArrayList<>();
+                    reads.add(existingTask);
+                    reads.add(deltasTask);
+                    for (DocumentSnapshot session : t.getResult()) {
+                        // A cancelled session keeps its marks but counts nowhere; its flag is cleared below
+                        if (Boolean.TRUE.equals(session.getBoolean(VirtualSessions.FIELD_CANCELLED))) {
+                            if (Boolean.TRUE.equals(session.getBoolean(AttendanceAggregates.FIELD_ATTENDANCE_RECORDED))) {
+                                cancelled.add(session.getReference());
+                            }
+                            continue;
+                        }
+                        sessions.add(session);
+                        DocumentReference ref = session.getReference();
+                        rowTasks.put(session.getId(), ref.collection("attendance").get());
+                        sheetTasks.put(session.getId(), AttendanceSheets.sheetRef(db, session.getId()).get());
+                    }
+                    reads.addAll(rowTasks.values());
+                    reads.addAll(sheetTasks.values());
+                    return Tasks.whenAllSuccess(reads);
+                })
+                // The course is aggregated on the repository worker; only the BulkWriter commit runs on the main thread
+                .continueWith(Background.executor(), t -> {
+                    if (!t.isSuccessful()) {
+                        throw new Exception("Attendance rebuild read failed for " + courseCode + ": "
+                                + t.getException().getMessage(), t.getException());
+                    }
+                    // summaryId -> {present, total}
+                    Map<String, int[]> perStudent = new HashMap<>();
+                    Map<String, String> studentBySummary = new HashMap<>();
+                    int coursePresent = 0;
+                    int courseTotal = 0;
+                    int sessionCount = 0;
+                    Timestamp now = Timestamp.now();
+                    BulkWriter writer = new BulkWriter(db);
+
+                    for (DocumentSnapshot session : sessions) {
+                        // studentUid -> RosterMarks code, in every stored format
+                        Map<String, Byte> marks = new HashMap<>();
+                        List<DocumentSnapshot> rows = rowTasks.get(session.getId()).getResult().getDocuments();
+                        for (boolean entriesPass : new boolean[]{true, false}) {
+                            // 'entries' documents first so per-student rows of the same session win
+                            for (DocumentSnapshot row : rows) {
+                                if (AttendanceSheets.isEntriesDocument(row) == entriesPass) AttendanceSheets.addLegacyMarks(row, marks);
+                            }
+                        }
+                        DocumentSnapshot sheetDoc = sheetTasks.get(session.getId()).getResult();
+                        if (sheetDoc.exists()) {
+                            Map<String, Byte> sheetMarks = AttendanceSheets.decodeOrNull(sheetDoc);
+                            if (sheetMarks != null) marks = sheetMarks; // A sheet replaces the rows
+                        }
+
+                        for (Map.Entry<String, Byte> mark : marks.entrySet()) {
+                            String summaryId = AttendanceAggregates.summaryId(courseCode, mark.getKey());
+                            studentBySummary.put(summaryId, mark.getKey());
+                            int present = mark.getValue() == RosterMarks.PRESENT ? 1 : 0;
+                            int[] student = perStudent.computeIfAbsent(summaryId, k -> new int[2]);
+                            student[0] += present; student[1] += 1;
+                            coursePresent += present; courseTotal += 1;
+                        }
+                        boolean recorded = !marks.isEmpty();
+                        if (recorded) sessionCount++;
+                        // Keeps the flag recordAttendance uses to count each session once in line with the marks
+                        if (recorded != Boolean.TRUE.equals(session.getBoolean(AttendanceAggregates.FIELD_ATTENDANCE_RECORDED))) {
+                            Map<String, Object> flag = new HashMap<>();
+                            flag.put(AttendanceAggregates.FIELD_ATTENDANCE_RECORDED, recorded);
+                            writer.set(session.getReference(), flag, SetOptions.merge());
+                        }
+                    }
+
+                    for (DocumentReference ref : cancelled) {
+                        Map<String, Object> flag = new HashMap<>();
+                        flag.put(AttendanceAggregates.FIELD_ATTENDANCE_RECORDED, false);
+                        writer.set(ref, flag, SetOptions.merge());
+                    }
+
+                    for (Map.Entry<String, int[]> e : perStudent.entrySet()) {
+                        Map<String, Object> summary = new HashMap<>();
+                        summary.put(AttendanceAggregates.FIELD_STUDENT_ID, studentBySummary.get(e.getKey()));
+                        summary.put(AttendanceAggregates.FIELD_COURSE_CODE, courseCode);
+                        summary.put(AttendanceAggregates.FIELD_PRESENT, e.getValue()[0]);
+                        summary.put(AttendanceAggregates.FIELD_TOTAL, e.getValue()[1]);
+                        summary.put(AttendanceAggregates.FIELD_UPDATED_AT, now);
+                        writer.set(db.collection(AttendanceAggregates.SUMMARY_COLLECTION).document(e.getKey()), summary);
+                    }
+                    Map<String, Object> totals = new HashMap<>();
+                    totals.put(AttendanceAggregates.FIELD_COURSE_CODE, courseCode);
+                    totals.put(AttendanceAggregates.FIELD_PRESENT, coursePresent);
+                    totals.put(AttendanceAggregates.FIELD_TOTAL, courseTotal);
+                    totals.put(AttendanceAggregates.FIELD_SESSIONS, sessionCount);
+                    totals.put(AttendanceAggregates.FIELD_UPDATED_AT, now);
+                    writer.set(db.collection(AttendanceAggregates.COURSE_COLLECTION).document(courseCode), totals);
+
+                    CourseRebuild result = new CourseRebuild();
+                    for (DocumentSnapshot stale : existingTask.getResult()) {
+                        if (perStudent.containsKey(stale.getId())) continue;
+                        writer.delete(stale.getReference());
+                        result.removed++;
+                    }
+                    for (DocumentSnapshot pendingDeltas : deltasTask.getResult()) {
+                        writer.delete(pendingDeltas.getReference());
+                    }
+                    result.writer = writer;
+                    result.summaries = perStudent.size();
+                    result.courses = 1;
+                    return result;
+                })
+                .onSuccessTask(result -> {
+                    TaskCompletionSource<CourseRebuild> written = new TaskCompletionSource<>();
+                    result.writer.commit(new BulkWriter.Listener() {
+                        @Override
+                        public void onComplete(int count) {
+                            written.setResult(result);
+                        }
+
+                        @Override
+                        public void onFailure(Exception e, int count) {
+                            written.setException(new Exception("Attendance rebuild write failed for " + courseCode + ": "
+                                    + e.getMessage(), e));
+                        }
+                    });
+                    return written.getTask();
+                });
+    }
+
+    // =========================================================
+    // 4b. SUBMISSION KEYS (Backfill)
+    // =========================================================
+
+    /**
+     * Adds studentId, courseCode and assignmentId to submissions written before those fields existed,
+     * so StudentRepository.fetchAssignmentStatuses finds them with its collection-group query.
+     * Pages through Courses/{code}/assignments/{id}/submissions/{studentUid}, then flags every
+     * assignment submissionsKeyed, which stops the students' per-assignment point reads; safe to re-run.
+     */
+    public void backfillSubmissionKeys(RegistrationCallback callback) {
+        backfillSubmissionPage(null, 0, 0, callback);
+    }
+
+    private void backfillSubmissionPage(DocumentSnapshot after, int scanned, int fixed, RegistrationCallback callback) {
+        Query page = db.collectionGroup("submissions").limit(SUBMISSION_BACKFILL_PAGE);
+        if (after != null) page = page.startAfter(after);
+        page.get()
+                .continueWithTask(pageTask -> {
+                    List<DocumentSnapshot> docs = pageTask.getResult().getDocuments();
+                    WriteBatch batch = db.batch();
+                    int fixedHere = 0;
+                    for (DocumentSnapshot doc : docs) {
+                        if (doc.getString("studentId") != null) continue;
+                        // Courses/{code}/assignments/{id}/submissions/{studentUid}
+                        DocumentReference assignmentRef = doc.getReference().getParent().getParent();
+                        if (assignmentRef == null || assignmentRef.getParent().getParent() == null) continue;
+                        Map<String, Object> keys = new HashMap<>();
+                        keys.put("studentId", doc.getId());
+                        keys.put("assignmentId", assignmentRef.getId());
+                        keys.put("courseCode", assignmentRef.getParent().getParent().getId());
+                        batch.set(doc.getReference(), keys, SetOptions.merge());
+                        fixedHere++;
+                    }
+                    int fixedTotal = fixed + fixedHere;
+                    Task<Void> commit = fixedHere > 0 ? batch.commit() : Tasks.forResult(null);
+                    return commit.continueWith(commitTask -> {
+                        if (!commitTask.isSuccessful()) throw commitTask.getException();
+                        if (docs.size() < SUBMISSION_BACKFILL_PAGE) {
+                            flagKeyedAssignmentsPage(null, 0, String.format("Submission keys backfilled: %d of %d submissions updated",
+                                    fixedTotal, scanned + docs.size()), callback);
+                        } else {
+                            backfillSubmissionPage(docs.get(docs.size() - 1), scanned + docs.size(), fixedTotal, callback);
+                        }
+                        return null;
+                    });
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Submission backfill failed: ", e);
+                    callback.onFailure(new Exception("Submission backfill failed: " + e.getMessage()));
+                });
+    }
+
+    /** Sets submissionsKeyed on every assignment, one WriteBatch per page; runs after the submissions are keyed. */
+    private void flagKeyedAssignmentsPage(DocumentSnapshot after, int flagged, String summary, RegistrationCallback callback) {
+        Query page = db.collectionGroup("assignments").limit(SUBMISSION_BACKFILL_PAGE);
+        if (after != null) page = page.startAfter(after);
+        page.get()
+                .continueWithTask(pageTask -> {
+                    List<DocumentSnapshot> docs = pageTask.getResult().getDocuments();
+                    WriteBatch batch = db.batch();
+                    int flaggedHere = 0;
+                    for (DocumentSnapshot doc : docs) {
+                        if (Boolean.TRUE.equals(doc.getBoolean("submissionsKeyed"))) continue;
+                        Map<String, Object> flag = new HashMap<>();
+                        flag.put("submissionsKeyed", true);
+                        batch.set(doc.getReference(), flag, SetOptions.merge());
+                        flaggedHere++;
+                    }
+                    int flaggedTotal = flagged + flaggedHere;
+                    Task<Void> commit = flaggedHere > 0 ? batch.commit() : Tasks.forResult(null);
+                    return commit.continueWith(commitTask -> {
+                        if (!commitTask.isSuccessful()) throw commitTask.getException();
+                        if (docs.size() < SUBMISSION_BACKFILL_PAGE) {
+                            callback.onSuccess(String.format("%s; %d assignments flagged.", summary, flaggedTotal));
+                        } else {
+                            flagKeyedAssignmentsPage(docs.get(docs.size() - 1), flaggedTotal, summary, callback);
+                        }
+                        return null;
+                    });
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Submission backfill failed: ", e);
+                    callback.onFailure(new Exception("Submission backfill failed: " + e.getMessage(), e));
+                });
+    }
+
+    // =========================================================
+    // 4c. ATTENDANCE KEYS (Backfill)
+    // =========================================================
+
+    /**
+     * Adds courseCode and sessionId to the documents in sessions/{id}/attendance written before those
+     * fields existed, and studentIds to legacy 'entries' documents, so StudentRepository finds a
+     * student's marks with its per-course queries. The course comes from the parent session.
+     * Pages through the attendance collection group; safe to re-run.
+     */
+    public void backfillAttendanceKeys(RegistrationCallback callback) {
+        backfillAttendancePage(null, 0, 0, callback);
+    }
+
+    private void backfillAttendancePage(DocumentSnapshot after, int scanned, int fixed, RegistrationCallback callback) {
+        Query page = db.collectionGroup("attendance").limit(ATTENDANCE_BACKFILL_PAGE);
+        if (after != null) page = page.startAfter(after);
+        page.get()
+                .continueWithTask(pageTask -> {
+                    List<DocumentSnapshot> docs = pageTask.getResult().getDocuments();
+                    // One read per parent session still missing keys on this page
+                    Map<String, Task<DocumentSnapshot>> sessionReads = new HashMap<>();
+                    for (DocumentSnapshot doc : docs) {
+                        DocumentReference sessionRef = parentSession(doc);
+                        if (sessionRef == null || doc.getString(AttendanceSheets.FIELD_COURSE_CODE) != null) continue;
+                        if (!sessionReads.containsKey(sessionRef.getId())) sessionReads.put(sessionRef.getId(), sessionRef.get());
+                    }
+                    return Tasks.whenAllSuccess(sessionReads.values()).continueWithTask(readsTask -> {
+                        if (!readsTask.isSuccessful()) throw readsTask.getException();
+                        WriteBatch batch = db.batch();
+                        int fixedHere = 0;
+                        for (DocumentSnapshot doc : docs) {
+                            DocumentReference sessionRef = parentSession(doc);
+                            if (sessionRef == null || doc.getString(AttendanceSheets.FIELD_COURSE_CODE) != null) continue;
+                            String courseCode = sessionReads.get(sessionRef.getId()).getResult().getString("courseCode");
+                            if (courseCode == null) continue;
+                            Map<String, Object> keys = new HashMap<>();
+                            keys.put(AttendanceSheets.FIELD_COURSE_CODE, courseCode);
+                            keys.put(AttendanceSheets.FIELD_SESSION_ID, sessionRef.getId());
+                            Object entries = doc.get("entries");
+                            if (entries instanceof Map) {
+                                List<String> studentIds = new ArrayList<>();
+                                for (Object uid : ((Map<?, ?>) entries).keySet()) studentIds.add(String.valueOf(uid));
+                                keys.put(AttendanceSheets.FIELD_STUDENT_IDS, studentIds);
+                            }
+                            batch.set(doc.getReference(), keys, SetOptions.merge());
+                            fixedHere++;
+                        }
+                        int fixedTotal = fixed + fixedHere;
+                        Task<Void> commit = fixedHere > 0 ? batch.commit() : Tasks.forResult(null);
+                        return commit.continueWith(commitTask -> {
+                            if (!commitTask.isSuccessful()) throw commitTask.getException();
+                            if (docs.size() < ATTENDANCE_BACKFILL_PAGE) {
+                                callback.onSuccess(String.format("Attendance keys backfilled: %d of %d attendance documents updated.",
+                                        fixedTotal, scanned + docs.size()));
+                            } else {
+                                backfillAttendancePage(docs.get(docs.size() - 1), scanned + docs.size(), fixedTotal, callback);
+                            }
+                            return null;
+                        });
+                    });
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Attendance backfill failed: ", e);
+                    callback.onFailure(new Exception("Attendance backfill failed: " + e.getMessage()));
+                });
+    }
+
+    /** sessions/{sessionId}/attendance/{doc} -> the session, or null for an attendance collection elsewhere. */
+    private DocumentReference parentSession(DocumentSnapshot attendanceDoc) {
+        DocumentReference session = attendanceDoc.getReference().getParent().getParent();
+        if (session == null || !SESSIONS_COLLECTION.equals(session.getParent().getId())) return null;
+        return session;
+    }
+
+    // =========================================================
+    // 5. GENERAL USER DELETION
     // =========================================================
 
     public void deleteProfileDocument(String uid, RegistrationCallback callback) {
         db.collection(USERS_COLLECTION).document(uid).delete()
-                .addOnSuccessListener(aVoid -> callback.onSuccess("SUCCESS: Profile deleted from Firestore. MANUAL STEP REQUIRED: Delete user identity from Firebase Auth console using UID: " + uid))
+                .addOnSuccessListener(aVoid -> {
+                    PeopleDirectory.getInstance().invalidate(uid);
+                    callback.onSuccess("SUCCESS: Profile deleted from Firestore. MANUAL STEP REQUIRED: Delete user identity from Firebase Auth console using UID: " + uid);
+                })
                 .addOnFailureListener(e -> callback.onFailure(new Exception("Failed to delete profile: " + e.getMessage())));
     }
 }
\ No newline at end of file
@@ -0,0 +1,309 @@
+package com.example.acadease.data;
+
+import android.util.Log;
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+
+import com.example.acadease.model.Announcement;
+import com.example.acadease.model.mapper.AnnouncementMapper;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Paged announcement list.
+ *
+ * The newest page (the "head") is backed by a snapshot listener. Snapshots are coalesced per frame
+ * and the head is rebuilt from the newest one, which always lists the whole head. The listener
+ * receives an unmodifiable copy of the feed; the adapter (DiffedAdapter.submitList) works out the
+ * row-level changes, so the feed itself never patches by DocumentChange.
+ *
+ * Older announcements are loaded one page at a time with startAfter/endBefore cursors on createdAt
+ * as the user scrolls (see onScrolled). At most MAX_OLDER_PAGES pages are kept below the head; the
+ * page farthest from the scroll direction is dropped and reloaded if the user scrolls back, so
+ * memory and reads per scroll step stay constant however far back the user goes. Older pages are
+ * not live: call remove() after deleting an announcement so it leaves them at once; other changes
+ * below the head show up when the page is dropped and reloaded, or the feed is restarted.
+ *
+ * Must be used on the main thread (e.g. started from onStart and stopped from onStop).
+ */
+public class AnnouncementFeed {
+    private static final String TAG = "AnnouncementFeed";
+
+    private static final int PAGE_SIZE = AnnouncementRepository.PAGE_SIZE;
+    private static final int MAX_OLDER_PAGES = 5;
+    private static final int PREFETCH_DISTANCE = 5; // Items from the edge at which the next page is requested
+
+    public interface Listener {
+        /**
+         * @param announcements the whole feed, head first; an unmodifiable copy
+         * @param reset true for the first snapshot after start
+         */
+        void onFeedUpdated(@NonNull List<Announcement> announcements, boolean reset);
+        void onFeedError(Exception e);
+    }
+
+    /** One page loaded below the head. The cursors come from the raw query result. */
+    private static class Page {
+        final DocumentSnapshot first;
+        final DocumentSnapshot last;
+        final List<Announcement> items = new ArrayList<>();
+
+        Page(DocumentSnapshot first, DocumentSnapshot last) {
+            this.first = first;
+            this.last = last;
+        }
+    }
+
+    private final AnnouncementRepository repository;
+    private final Listener listener;
+
+    // items = head followed by the items of every older page, in order
+    private final List<Announcement> items = new ArrayList<>();
+    private final List<Announcement> head = new ArrayList<>();
+    private final Deque<Page> olderPages = new ArrayDeque<>();
+    private DocumentSnapshot headLast;
+    private boolean hasMoreBelow;
+    private boolean gapAbove; // Announcements between the head and the first older page are not loaded
+    private boolean loadingPage;
+    private int generation; // Bumped on reset so late page results are dropped
+
+    private final List<QuerySnapshot> pending = new ArrayList<>();
+    private final Choreographer.FrameCallback applyPending = frameTimeNanos -> applyPending();
+    private String filterCategory;
+    private Query query;
+    private ListenerRegistration registration;
+    private boolean awaitingFirstSnapshot;
+    private boolean frameScheduled;
+
+    public AnnouncementFeed(@NonNull AnnouncementRepository repository, @NonNull Listener listener) {
+        this.repository = repository;
+        this.listener = listener;
+    }
+
+    /**
+     * Starts (or restarts with a new filter) listening to the feed.
+     * Restarting with the same filter keeps the older pages that were already loaded.
+     */
+    public void start(String filterCategory) {
+        stop();
+        if (query == null || !filterCategory.equals(this.filterCategory)) {
+            this.filterCategory = filterCategory;
+            query = repository.announcementsQuery(filterCategory);
+            olderPages.clear();
+            gapAbove = false;
+            loadingPage = false;
+            generation++;
+        }
+        awaitingFirstSnapshot = true;
+        registration = query.limit(PAGE_SIZE).addSnapshotListener((snapshots, e) -> {
+            if (e != null) {
+                Log.e(TAG, "Announcement listener failed", e);
+                listener.onFeedError(e);
+                return;
+            }
+            if (snapshots == null) return;
+            pending.add(snapshots);
+            if (!frameScheduled) {
+                frameScheduled = true;
+                Choreographer.getInstance().postFrameCallback(applyPending);
+            }
+        });
+    }
+
+    public void stop() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+        if (frameScheduled) {
+            Choreographer.getInstance().removeFrameCallback(applyPending);
+            frameScheduled = false;
+        }
+        pending.clear();
+    }
+
+    /**
+     * Call from the RecyclerView scroll listener with the visible adapter positions.
+     * Requests the next older page near the bottom, and refills a dropped range near the top.
+     */
+    public void onScrolled(int firstVisible, int lastVisible) {
+        if (awaitingFirstSnapshot || loadingPage) return;
+        if (hasMoreBelow && lastVisible >= items.size() - 1 - PREFETCH_DISTANCE) {
+            loadOlderPage();
+        } else if (gapAbove && firstVisible <= head.size() + PREFETCH_DISTANCE) {
+            loadNewerPage();
+        }
+    }
+
+    /**
+     * Drops a deleted announcement from the feed. The head listener takes care of the head;
+     * the older pages would keep showing it until they are reloaded.
+     */
+    public void remove(@NonNull String id) {
+        if (removeFromOlderPages(id)) publish(false);
+    }
+
+    // ==========================================================
+    // HEAD (live)
+    // ==========================================================
+
+    private void applyPending() {
+        frameScheduled = false;
+        if (pending.isEmpty()) return;
+
+        // Every snapshot lists the whole head, so only the newest of this frame matters
+        QuerySnapshot snapshot = pending.get(pending.size() - 1);
+        pending.clear();
+        boolean reset = awaitingFirstSnapshot;
+        awaitingFirstSnapshot = false;
+
+        Set<String> leftHead = new HashSet<>();
+        for (Announcement announcement : head) leftHead.add(announcement.getId());
+        head.clear();
+        List<DocumentSnapshot> docs = snapshot.getDocuments();
+        for (DocumentSnapshot doc : docs) {
+            head.add(toAnnouncement(doc));
+            leftHead.remove(doc.getId());
+            // A deletion in the head pulls the next older announcement in; drop its older-page copy
+            removeFromOlderPages(doc.getId());
+        }
+        // Deleted or pushed past the limit by a newer post (or missed while detached): the gap reload tells which
+        if (!olderPages.isEmpty() && (reset || !leftHead.isEmpty())) gapAbove = true;
+        headLast = docs.isEmpty() ? null : docs.get(docs.size() - 1);
+        if (olderPages.isEmpty()) hasMoreBelow = docs.size() == PAGE_SIZE;
+        publish(reset);
+    }
+
+    // ==========================================================
+    // OLDER PAGES (cursor paging)
+    // ==========================================================
+
+    private void loadOlderPage() {
+        DocumentSnapshot cursor = olderPages.isEmpty() ? headLast : olderPages.peekLast().last;
+        if (cursor == null) return;
+
+        int requestGeneration = generation;
+        loadingPage = true;
+        query.startAfter(cursor).limit(PAGE_SIZE).get()
+                .addOnSuccessListener(snapshots -> {
+                    if (requestGeneration != generation) return;
+                    loadingPage = false;
+                    List<DocumentSnapshot> docs = snapshots.getDocuments();
+                    hasMoreBelow = docs.size() == PAGE_SIZE;
+                    if (docs.isEmpty()) return;
+
+                    olderPages.addLast(toPage(docs));
+                    if (olderPages.size() > MAX_OLDER_PAGES) {
+                        olderPages.pollFirst();
+                        gapAbove = true;
+                    }
+                    publish(false);
+                })
+                .addOnFailureListener(e -> {
+                    if (requestGeneration != generation) return;
+                    loadingPage = false;
+                    Log.e(TAG, "Older page failed to load", e);
+                    listener.onFeedError(e);
+                });
+    }
+
+    /**
+     * Loads the newest page of the range between the head and the first older page.
+     * A short result means the range is fully loaded again.
+     */
+    private void loadNewerPage() {
+        if (olderPages.isEmpty()) {
+            gapAbove = false;
+            return;
+        }
+        Query range = headLast != null ? query.startAfter(headLast) : query;
+        range = range.endBefore(olderPages.peekFirst().first).limitToLast(PAGE_SIZE);
+
+        int requestGeneration = generation;
+        loadingPage = true;
+        range.get()
+                .addOnSuccessListener(snapshots -> {
+                    if (requestGeneration != generation) return;
+                    loadingPage = false;
+                    List<DocumentSnapshot> docs = snapshots.getDocuments();
+                    gapAbove = docs.size() == PAGE_SIZE;
+                    if (docs.isEmpty()) return;
+
+                    olderPages.addFirst(toPage(docs));
+                    if (olderPages.size() > MAX_OLDER_PAGES) {
+                        olderPages.pollLast();
+                        hasMoreBelow = true;
+                    }
+                    publish(false);
+                })
+                .addOnFailureListener(e -> {
+                    if (requestGeneration != generation) return;
+                    loadingPage = false;
+                    Log.e(TAG, "Newer page failed to load", e);
+                    listener.onFeedError(e);
+                });
+    }
+
+    private Page toPage(List<DocumentSnapshot> docs) {
+        Page page = new Page(docs.get(0), docs.get(docs.size() - 1));
+        for (DocumentSnapshot doc : docs) {
+            // The head may have moved since the request went out
+            if (indexOf(head, doc.getId()) >= 0) continue;
+            page.items.add(toAnnouncement(doc));
+        }
+        return page;
+    }
+
+    /** Drops an announcement from the older pages, if it was loaded there. */
+    private boolean removeFromOlderPages(String id) {
+        for (Page page : olderPages) {
+            int index = indexOf(page.items, id);
+            if (index >= 0) {
+                page.items.remove(index);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Rebuilds items from the head and the older pages and hands the listener a copy. */
+    private void publish(boolean reset) {
+        items.clear();
+        items.addAll(head);
+        for (Page page : olderPages) {
+            items.addAll(page.items);
+        }
+        listener.onFeedUpdated(Collections.unmodifiableList(new ArrayList<>(items)), reset);
+    }
+
+    private static int indexOf(List<Announcement> list, String id) {
+        for (int i = 0; i < list.size(); i++) {
+            if (id.equals(list.get(i).getId())) return i;
+        }
+        return -1;
+    }
+
+    private static Announcement toAnnouncement(DocumentSnapshot doc) {
+        Announcement announcement = null;
+        try {
+            announcement = AnnouncementMapper.fromSnapshot(doc);
+        } catch (Exception e) {
+            Log.e(TAG, "MAPPING FAILED for document ID " + doc.getId(), e);
+        }
+        // Keep a placeholder on mapping failure so the row can still be identified (and deleted) by ID
+        if (announcement == null) announcement = new Announcement();
+        announcement.setId(doc.getId());
+        return announcement;
+    }
+}
@@ -4,7 +4,7 @@ import android.util.Log;
 import com.example.acadease.model.Announcement;
 import com.example.acadease.model.Schedule;
 import com.example.acadease.model.User;
-import com.google.firebase.Timestamp;
+import com.example.acadease.model.mapper.AnnouncementMapper;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.firestore.CollectionReference;
 import com.google.firebase.firestore.DocumentSnapshot;
@@ -12,12 +12,12 @@ import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.List;
 import java.util.Map;
 
 public class AnnouncementRepository {
     private static final String TAG = "AnnounceRepository";
+    static final int PAGE_SIZE = 20;
     private final FirebaseFirestore db;
     private final CollectionReference announcementsRef;
 
@@ -54,46 +54,44 @@ public class AnnouncementRepository {
      * This is the method the HomeFragment must call when a button is clicked.
      */
     public void fetchAnnouncements(String filterCategory, AnnouncementsCallback callback) {
+        Query query = announcementsQuery(filterCategory).limit(PAGE_SIZE); // First page only
 
-        // --- OPTIMIZATION: Filter by Last 7 Days ---
-        Calendar calendar = Calendar.getInstance();
-        calendar.add(Calendar.DAY_OF_YEAR, -7); // Set calendar to 7 days ago
-        Timestamp sevenDaysAgo = new Timestamp(calendar.getTime());
-
-        // Start with the base query: ordered by creation date, descending
-        Query query = announcementsRef.orderBy("createdAt", Query.Direction.DESCENDING);
-
-        // 1. Filter by Time (Applies to all loads)
-        query = query.whereGreaterThan("createdAt", sevenDaysAgo);
-
-        // 2. Filter by Category (Conditional, based on button click)
-        if (filterCategory != null && !filterCategory.equals("All")) {
-            // NOTE: Category names should be stored in lowercase in the database (e.g., "academic")
-            query = query.whereEqualTo("category", filterCategory.toLowerCase());
-        }
-
-        // Execute the query
-        query.limit(50) // Limits the result size
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
+        // Execute the query: cached feed first, then the server copy if anything changed
+        ReadPolicy.ALWAYS_REVALIDATE.get(query, queryDocumentSnapshots -> Background.process(() -> {
                     List<Announcement> announcements = new ArrayList<>();
                     for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
                         try {
-                            Announcement announcement = document.toObject(Announcement.class);
-                            announcement.setId(document.getId());
+                            Announcement announcement = AnnouncementMapper.fromSnapshot(document);
                             announcements.add(announcement);
                         } catch (Exception e) {
                             Log.e(TAG, "MAPPING FAILED for document ID " + document.getId(), e);
                         }
                     }
-                    callback.onSuccess(announcements);
-                })
-                .addOnFailureListener(e -> {
+                    return announcements;
+                }, callback::onSuccess, callback::onFailure), e -> {
                     Log.e(TAG, "QUERY FAILED with exception:", e);
                     callback.onFailure(e);
                 });
     }
 
+    /**
+     * Query behind the feed: newest first, optionally one category. Unbounded; callers page it
+     * with limit and startAfter/endBefore cursors on createdAt.
+     * Shared by the one-shot fetch and the live AnnouncementFeed.
+     */
+    Query announcementsQuery(String filterCategory) {
+        // Start with the base query: ordered by creation date, descending
+        Query query = announcementsRef.orderBy("createdAt", Query.Direction.DESCENDING);
+
+        // Filter by Category (Conditional, based on button click)
+        if (filterCategory != null && !filterCategory.equals("All")) {
+            // NOTE: Category names should be stored in lowercase in the database (e.g., "academic")
+            query = query.whereEqualTo("category", filterCategory.toLowerCase());
+        }
+
+        return query;
+    }
+
     /**
      * Default method for initial load (calls the filtered method with "All").
      */
@@ -113,19 +111,22 @@ public class AnnouncementRepository {
             return;
         }
 
-        // This line is syntactically correct, assuming 'uid' is a clean string.
-        db.collection("users").document(uid).get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        String name = documentSnapshot.getString("name");
-                        callback.onSuccess(name != null && !name.isEmpty() ? name : "Admin/Faculty");
-                    } else {
-                        callback.onSuccess("Deleted User");
-                    }
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "User lookup failed for UID: " + uid, e);
-                    callback.onSuccess("Lookup Failed");
-                });
+        PeopleDirectory.getInstance().fetchProfile(uid, new PeopleDirectory.ProfileCallback() {
+            @Override
+            public void onSuccess(User user) {
+                if (user != null) {
+                    String name = user.getName();
+                    callback.onSuccess(name != null && !name.isEmpty() ? name : "Admin/Faculty");
+                } else {
+                    callback.onSuccess("Deleted User");
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                Log.e(TAG, "User lookup failed for UID: " + uid, e);
+                callback.onSuccess("Lookup Failed");
+            }
+        });
     }
 }
@@ -0,0 +1,40 @@
+package com.example.acadease.data;
+
+/**
+ * Names of the materialized attendance counters kept next to the raw sessions/{id}/attendance rows.
+ *
+ * attendance_summary/{courseCode}_{studentUid}: studentId, courseCode, present, total
+ * course_attendance/{courseCode}: courseCode, present, total, sessions
+ * attendance_summary_deltas/{id}: courseCode, sessionId, createdAt, students ({uid: {present, total}})
+ *
+ * 'total' counts recorded marks, 'present' the marks that parse as present (see AttendanceStatus).
+ * Counters are maintained by FacultyRepository.recordAttendance: the course counter in the same
+ * transaction as the marks, the per-student ones through a deltas document written in that
+ * transaction and applied in chunks after it, each chunk removing its students from the document.
+ * A deltas document left behind (e.g. the app was killed) is applied when the same outbox entry
+ * is replayed. Everything can be rebuilt from the raw rows with AdminRepository.rebuildAttendanceAggregates,
+ * which also drops pending deltas. A session counted in 'sessions' carries attendanceRecorded = true.
+ */
+final class AttendanceAggregates {
+    static final String SUMMARY_COLLECTION = "attendance_summary";
+    static final String COURSE_COLLECTION = "course_attendance";
+    static final String DELTAS_COLLECTION = "attendance_summary_deltas";
+
+    static final String FIELD_STUDENT_ID = "studentId";
+    static final String FIELD_COURSE_CODE = "courseCode";
+    static final String FIELD_PRESENT = "present";
+    static final String FIELD_TOTAL = "total";
+    static final String FIELD_SESSIONS = "sessions";
+    static final String FIELD_UPDATED_AT = "updatedAt";
+    static final String FIELD_SESSION_ID = "sessionId"; // On deltas documents
+    static final String FIELD_STUDENTS = "students"; // Likewise
+    static final String FIELD_CREATED_AT = "createdAt"; // Likewise
+
+    static final String FIELD_ATTENDANCE_RECORDED = "attendanceRecorded"; // On sessions/{id}
+
+    private AttendanceAggregates() {}
+
+    static String summaryId(String courseCode, String studentUid) {
+        return courseCode + "_" + studentUid;
+    }
+}
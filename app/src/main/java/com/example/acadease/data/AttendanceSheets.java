@@ -0,0 +1,271 @@
+package com.example.acadease.data;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.acadease.utils.AttendanceCodec;
+import com.example.acadease.utils.AttendanceStatus;
+import com.example.acadease.utils.RosterMarks;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.Blob;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.Transaction;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compact attendance storage: one document per session instead of one per student.
+ *
+ * attendance_sheets/{sessionId}: sessionId, courseCode, version, roster, rosterHash,
+ * present, absent, late, excused (Blobs, see AttendanceCodec), recordedAt
+ *
+ * Sessions get a sheet when FacultyRepository.recordAttendance runs with BuildConfig.ATTENDANCE_SHEETS,
+ * and keep it from then on. The readers here also understand the older formats in
+ * sessions/{id}/attendance: per-student rows ({studentId, status}) and session-level documents with
+ * an 'entries' map. For one session a sheet wins over rows, and rows win over entries.
+ * Sheets and rows written through the WriteOutbox carry the entry's writeId. Rows written before
+ * courseCode/sessionId existed get them from AdminRepository.backfillAttendanceKeys.
+ */
+final class AttendanceSheets {
+    private static final String TAG = "AttendanceSheets";
+
+    static final String COLLECTION = "attendance_sheets";
+
+    static final String FIELD_SESSION_ID = "sessionId"; // Also on per-student rows and backfilled legacy documents
+    static final String FIELD_COURSE_CODE = "courseCode"; // Likewise; every student-side query filters on it
+    static final String FIELD_VERSION = "version";
+    static final String FIELD_ROSTER = "roster"; // Also queried with array-contains for one student's sheets
+    static final String FIELD_ROSTER_HASH = "rosterHash";
+    static final String FIELD_PRESENT = "present";
+    static final String FIELD_ABSENT = "absent";
+    static final String FIELD_LATE = "late";
+    static final String FIELD_EXCUSED = "excused";
+    static final String FIELD_RECORDED_AT = "recordedAt";
+    static final String FIELD_WRITE_ID = "writeId"; // Also on per-student rows
+    static final String FIELD_STUDENT_IDS = "studentIds"; // Keys of a backfilled 'entries' document, for array-contains
+
+    private static final String SESSIONS_COLLECTION = "sessions";
+    private static final String ATTENDANCE_SUBCOLLECTION = "attendance";
+
+    /** Everything stored for one session, whatever the format. */
+    static final class SessionMarks {
+        final Map<String, Byte> marks;          // Student UID -> RosterMarks code
+        final List<String> sheetRoster;         // Roster order of the sheet; null without a sheet
+        final List<DocumentReference> rowRefs;  // Legacy documents in sessions/{id}/attendance
+        final Set<String> writeIds;             // Outbox writes already applied to this session
+
+        SessionMarks(Map<String, Byte> marks, List<String> sheetRoster, List<DocumentReference> rowRefs, Set<String> writeIds) {
+            this.marks = marks;
+            this.sheetRoster = sheetRoster;
+            this.rowRefs = rowRefs;
+            this.writeIds = writeIds;
+        }
+
+        boolean hasSheet() {
+            return sheetRoster != null;
+        }
+
+        boolean isEmpty() {
+            return sheetRoster == null && rowRefs.isEmpty();
+        }
+    }
+
+    private AttendanceSheets() {}
+
+    static DocumentReference sheetRef(FirebaseFirestore db, String sessionId) {
+        return db.collection(COLLECTION).document(sessionId);
+    }
+
+    /**
+     * Sheet order for a re-recorded session: the previous sheet's order (so positions stay stable),
+     * then every UID it did not have, sorted.
+     */
+    static List<String> mergedRoster(@Nullable List<String> previousRoster, Set<String> uids) {
+        List<String> roster = new ArrayList<>(uids.size());
+        Set<String> placed = new HashSet<>();
+        if (previousRoster != null) {
+            for (String uid : previousRoster) {
+                if (uids.contains(uid) && placed.add(uid)) roster.add(uid);
+            }
+        }
+        List<String> added = new ArrayList<>();
+        for (String uid : uids) {
+            if (!placed.contains(uid)) added.add(uid);
+        }
+        Collections.sort(added);
+        roster.addAll(added);
+        return roster;
+    }
+
+    static Map<String, Object> toDocument(String sessionId, String courseCode, AttendanceCodec.Sheet sheet, Timestamp recordedAt,
+                                          String writeId) {
+        Map<String, Object> data = new HashMap<>();
+        data.put(FIELD_SESSION_ID, sessionId);
+        data.put(FIELD_COURSE_CODE, courseCode);
+        data.put(FIELD_VERSION, sheet.version);
+        data.put(FIELD_ROSTER, sheet.roster);
+        data.put(FIELD_ROSTER_HASH, sheet.rosterHash);
+        data.put(FIELD_PRESENT, Blob.fromBytes(sheet.present));
+        data.put(FIELD_ABSENT, Blob.fromBytes(sheet.absent));
+        data.put(FIELD_LATE, Blob.fromBytes(sheet.late));
+        data.put(FIELD_EXCUSED, Blob.fromBytes(sheet.excused));
+        data.put(FIELD_RECORDED_AT, recordedAt);
+        data.put(FIELD_WRITE_ID, writeId);
+        return data;
+    }
+
+    /** @return the stored sheet, or null when the document is missing or not a sheet */
+    @Nullable
+    static AttendanceCodec.Sheet fromSnapshot(DocumentSnapshot doc) {
+        if (!doc.exists()) return null;
+        Long version = doc.getLong(FIELD_VERSION);
+        Object roster = doc.get(FIELD_ROSTER);
+        String rosterHash = doc.getString(FIELD_ROSTER_HASH);
+        Blob present = doc.getBlob(FIELD_PRESENT);
+        Blob absent = doc.getBlob(FIELD_ABSENT);
+        Blob late = doc.getBlob(FIELD_LATE);
+        Blob excused = doc.getBlob(FIELD_EXCUSED);
+        if (version == null || !(roster instanceof List) || rosterHash == null
+                || present == null || absent == null || late == null || excused == null) {
+            return null;
+        }
+        List<String> uids = new ArrayList<>();
+        for (Object uid : (List<?>) roster) uids.add(String.valueOf(uid));
+        return new AttendanceCodec.Sheet(version.intValue(), Collections.unmodifiableList(uids), rosterHash,
+                present.toBytes(), absent.toBytes(), late.toBytes(), excused.toBytes());
+    }
+
+    /**
+     * Adds the marks of one legacy document from sessions/{id}/attendance. Call for every 'entries'
+     * document before the per-student rows so the rows win.
+     */
+    static void addLegacyMarks(DocumentSnapshot row, Map<String, Byte> marks) {
+        Object entries = row.get("entries");
+        if (entries instanceof Map) {
+            // Legacy session-level document holding every student's status
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) entries).entrySet()) {
+                marks.put(String.valueOf(e.getKey()), AttendanceStatus.legacyEntryMark(e.getValue()));
+            }
+        } else {
+            String studentUid = row.getString("studentId") != null ? row.getString("studentId") : row.getId();
+            marks.put(studentUid, AttendanceStatus.markOf(row.get("status")));
+        }
+    }
+
+    /** True for a session-level 'entries' document, which addLegacyMarks must see first. */
+    static boolean isEntriesDocument(DocumentSnapshot row) {
+        return row.get("entries") instanceof Map;
+    }
+
+    /**
+     * The legacy subcollection of one session, read from the server ahead of a transaction
+     * (queries cannot run inside one). Pass the result to readInTransaction.
+     */
+    static Task<QuerySnapshot> readLegacyRows(@NonNull FirebaseFirestore db, @NonNull String sessionId) {
+        return db.collection(SESSIONS_COLLECTION).document(sessionId).collection(ATTENDANCE_SUBCOLLECTION).get(Source.SERVER);
+    }
+
+    /**
+     * Reads one session's attendance in any format inside a transaction. The sheet, every per-student
+     * row in legacyRows and the rows of studentUids are read through the transaction, so a concurrent
+     * writer of any of them makes it retry; 'entries' documents are frozen and taken from legacyRows.
+     * Fails with FAILED_PRECONDITION when the sheet exists but cannot be decoded (e.g. written by a
+     * newer app version), so it is never overwritten with less than it holds.
+     */
+    static SessionMarks readInTransaction(@NonNull Transaction transaction, @NonNull FirebaseFirestore db,
+                                          @NonNull String sessionId, @NonNull List<DocumentSnapshot> legacyRows,
+                                          @NonNull Collection<String> studentUids) throws FirebaseFirestoreException {
+        Map<String, Byte> marks = new HashMap<>();
+        List<DocumentReference> rowRefs = new ArrayList<>();
+        Set<String> writeIds = new HashSet<>();
+        Map<String, DocumentReference> rows = new LinkedHashMap<>();
+        for (DocumentSnapshot row : legacyRows) {
+            if (isEntriesDocument(row)) {
+                addLegacyMarks(row, marks);
+                rowRefs.add(row.getReference());
+                if (row.getString(FIELD_WRITE_ID) != null) writeIds.add(row.getString(FIELD_WRITE_ID));
+            } else {
+                rows.put(row.getId(), row.getReference());
+            }
+        }
+        CollectionReference subcollection = db.collection(SESSIONS_COLLECTION).document(sessionId).collection(ATTENDANCE_SUBCOLLECTION);
+        for (String uid : studentUids) {
+            if (!rows.containsKey(uid)) rows.put(uid, subcollection.document(uid));
+        }
+        for (DocumentReference ref : rows.values()) {
+            DocumentSnapshot row = transaction.get(ref);
+            if (!row.exists()) continue;
+            addLegacyMarks(row, marks);
+            rowRefs.add(ref);
+            if (row.getString(FIELD_WRITE_ID) != null) writeIds.add(row.getString(FIELD_WRITE_ID));
+        }
+
+        List<String> sheetRoster = null;
+        DocumentSnapshot sheetDoc = transaction.get(sheetRef(db, sessionId));
+        if (sheetDoc.exists()) {
+            AttendanceCodec.Sheet sheet = fromSnapshot(sheetDoc);
+            try {
+                if (sheet == null) throw new IllegalArgumentException("missing fields");
+                marks.putAll(AttendanceCodec.decode(sheet));
+            } catch (IllegalArgumentException e) {
+                throw new FirebaseFirestoreException("Attendance read failed: sheet " + sessionId + " is malformed ("
+                        + e.getMessage() + ").", FirebaseFirestoreException.Code.FAILED_PRECONDITION, e);
+            }
+            sheetRoster = sheet.roster;
+            if (sheetDoc.getString(FIELD_WRITE_ID) != null) writeIds.add(sheetDoc.getString(FIELD_WRITE_ID));
+        }
+        return new SessionMarks(marks, sheetRoster, rowRefs, writeIds);
+    }
+
+    /**
+     * One student's mark on a sheet read by a query; null when the student is unmarked or the sheet
+     * cannot be read (logged).
+     */
+    @Nullable
+    static Byte markOrNull(DocumentSnapshot doc, String studentUid) {
+        try {
+            AttendanceCodec.Sheet sheet = fromSnapshot(doc);
+            if (sheet != null) {
+                byte mark = AttendanceCodec.markOf(sheet, studentUid);
+                return mark == RosterMarks.UNMARKED ? null : mark;
+            }
+            Log.e(TAG, "MAPPING FAILED for attendance sheet " + doc.getId());
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "MAPPING FAILED for attendance sheet " + doc.getId(), e);
+        }
+        return null;
+    }
+
+    /**
+     * Decodes a sheet read by a bulk query; logs and returns null for one that cannot be read,
+     * so a single bad document does not sink the whole listing.
+     */
+    @Nullable
+    static Map<String, Byte> decodeOrNull(DocumentSnapshot doc) {
+        try {
+            AttendanceCodec.Sheet sheet = fromSnapshot(doc);
+            if (sheet != null) return AttendanceCodec.decode(sheet);
+            Log.e(TAG, "MAPPING FAILED for attendance sheet " + doc.getId());
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "MAPPING FAILED for attendance sheet " + doc.getId(), e);
+        }
+        return null;
+    }
+}
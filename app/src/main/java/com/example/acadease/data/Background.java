@@ -0,0 +1,55 @@
+package com.example.acadease.data;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.OnFailureListener;
+import com.google.android.gms.tasks.OnSuccessListener;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Shared worker for repository result processing (mapping, joins, filtering, sorting), so
+ * listener callbacks only hand snapshots over and the main thread only receives finished results.
+ *
+ * Single-threaded on purpose: a ReadPolicy can deliver a cached and then a server result for the
+ * same read, and those must reach the caller in the order they arrived.
+ */
+public final class Background {
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "repo-results");
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+
+    private Background() {}
+
+    /** For Task chains: task.continueWith(Background.executor(), ...). */
+    @NonNull
+    public static Executor executor() {
+        return EXECUTOR;
+    }
+
+    /**
+     * Runs work on the shared worker and delivers its result, or the exception it threw,
+     * on the main thread.
+     */
+    public static <T> void process(@NonNull Callable<T> work, @NonNull OnSuccessListener<? super T> onResult,
+                                   @NonNull OnFailureListener onError) {
+        EXECUTOR.execute(() -> {
+            try {
+                T result = work.call();
+                MAIN.post(() -> onResult.onSuccess(result));
+            } catch (Exception e) {
+                MAIN.post(() -> onError.onFailure(e));
+            }
+        });
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.acadease.data;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DataLoader-style batching for key lookups.
+ * Every key requested during one UI frame is collected and de-duplicated, then split into chunks
+ * of at most {@code maxBatchSize} keys (Firestore's whereIn limit) that are loaded in parallel.
+ * Each caller gets its own Task, resolved with null when the key has no value.
+ */
+public class BatchLoader<K, V> {
+
+    /** Firestore accepts at most 30 values in a single whereIn / in filter. */
+    public static final int FIRESTORE_WHERE_IN_LIMIT = 30;
+
+    public interface BatchFunction<K, V> {
+        /** Loads one chunk of keys. Keys without a value may simply be left out of the map. */
+        Task<Map<K, V>> load(List<K> keys);
+    }
+
+    private final BatchFunction<K, V> batchFunction;
+    private final int maxBatchSize;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private LinkedHashMap<K, List<TaskCompletionSource<V>>> queue = new LinkedHashMap<>();
+    private boolean dispatchScheduled;
+
+    public BatchLoader(@NonNull BatchFunction<K, V> batchFunction, int maxBatchSize) {
+        this.batchFunction = batchFunction;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Queues a key for the next frame's batch.
+     */
+    public Task<V> load(@NonNull K key) {
+        TaskCompletionSource<V> source = new TaskCompletionSource<>();
+        boolean schedule;
+        synchronized (this) {
+            List<TaskCompletionSource<V>> waiters = queue.get(key);
+            if (waiters == null) {
+                waiters = new ArrayList<>();
+                queue.put(key, waiters);
+            }
+            waiters.add(source);
+            schedule = !dispatchScheduled;
+            dispatchScheduled = true;
+        }
+        if (schedule) {
+            scheduleDispatch();
+        }
+        return source.getTask();
+    }
+
+    /**
+     * Queues several keys and resolves with the values that were found, keyed by input key.
+     */
+    public Task<Map<K, V>> loadMany(@NonNull Collection<K> keys) {
+        List<K> keyList = new ArrayList<>(keys);
+        List<Task<V>> tasks = new ArrayList<>();
+        for (K key : keyList) {
+            tasks.add(load(key));
+        }
+        return Tasks.whenAllSuccess(tasks).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            Map<K, V> out = new HashMap<>();
+            List<Object> values = task.getResult();
+            for (int i = 0; i < keyList.size(); i++) {
+                @SuppressWarnings("unchecked")
+                V value = (V) values.get(i);
+                if (value != null) out.put(keyList.get(i), value);
+            }
+            return out;
+        });
+    }
+
+    private void scheduleDispatch() {
+        // Choreographer is per-looper, so the frame callback must be registered from the main thread.
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            Choreographer.getInstance().postFrameCallback(frameTimeNanos -> dispatch());
+        } else {
+            mainHandler.post(() -> Choreographer.getInstance().postFrameCallback(frameTimeNanos -> dispatch()));
+        }
+    }
+
+    private void dispatch() {
+        LinkedHashMap<K, List<TaskCompletionSource<V>>> batch;
+        synchronized (this) {
+            batch = queue;
+            queue = new LinkedHashMap<>();
+            dispatchScheduled = false;
+        }
+        if (batch.isEmpty()) return;
+
+        List<K> keys = new ArrayList<>(batch.keySet());
+        for (int i = 0; i < keys.size(); i += maxBatchSize) {
+            List<K> chunk = new ArrayList<>(keys.subList(i, Math.min(keys.size(), i + maxBatchSize)));
+            batchFunction.load(chunk).addOnCompleteListener(task -> {
+                for (K key : chunk) {
+                    List<TaskCompletionSource<V>> waiters = batch.get(key);
+                    if (waiters == null) continue;
+                    for (TaskCompletionSource<V> waiter : waiters) {
+                        if (task.isSuccessful()) {
+                            Map<K, V> result = task.getResult();
+                            waiter.setResult(result != null ? result.get(key) : null);
+                        } else {
+                            Exception e = task.getException();
+                            waiter.setException(e != null ? e : new Exception("Batch load failed."));
+                        }
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.acadease.data;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pipeline for writes that can exceed a single WriteBatch.
+ * Queued operations are split into batches of at most 500 (the Firestore limit). Commits start
+ * one at a time and the number in flight doubles after each fully successful round, up to
+ * MAX_IN_FLIGHT, so large jobs ramp up instead of bursting. A batch that fails transiently (see
+ * isRetryable) halves the window and is retried with exponential backoff, up to MAX_ATTEMPTS; any
+ * other failure is reported at once. Either way the remaining batches still run.
+ *
+ * Batches are committed independently, so the job as a whole is not atomic.
+ */
+public class BulkWriter {
+    private static final String TAG = "BulkWriter";
+
+    private static final int MAX_OPS_PER_BATCH = 500;
+    private static final int MAX_IN_FLIGHT = 4;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BASE_BACKOFF_MS = 500;
+
+    public interface Listener {
+        default void onProgress(int written, int total) {}
+        void onComplete(int written);
+        void onFailure(Exception e, int written); // Some batches failed (transient ones after retries)
+    }
+
+    private interface Op {
+        void addTo(WriteBatch batch);
+    }
+
+    private static class Chunk {
+        final List<Op> ops;
+        int attempts;
+
+        Chunk(List<Op> ops) {
+            this.ops = ops;
+        }
+    }
+
+    private final FirebaseFirestore db;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<Op> ops = new ArrayList<>();
+
+    // Pipeline state; only touched on the main thread once commit() has been called
+    private final Deque<Chunk> pending = new ArrayDeque<>();
+    private Listener listener;
+    private int total;
+    private int written;
+    private int failed;
+    private int inFlight;
+    private int allowedInFlight = 1;
+    private int successesThisRound;
+    private Exception lastError;
+    private boolean committed;
+
+    public BulkWriter(@NonNull FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    public BulkWriter set(@NonNull DocumentReference ref, @NonNull Object data) {
+        ops.add(batch -> batch.set(ref, data));
+        return this;
+    }
+
+    public BulkWriter set(@NonNull DocumentReference ref, @NonNull Object data, @NonNull SetOptions options) {
+        ops.add(batch -> batch.set(ref, data, options));
+        return this;
+    }
+
+    public BulkWriter update(@NonNull DocumentReference ref, @NonNull Map<String, Object> updates) {
+        ops.add(batch -> batch.update(ref, updates));
+        return this;
+    }
+
+    public BulkWriter delete(@NonNull DocumentReference ref) {
+        ops.add(batch -> batch.delete(ref));
+        return this;
+    }
+
+    public int size() {
+        return ops.size();
+    }
+
+    /**
+     * Starts the pipeline. Listener callbacks are delivered on the main thread.
+     * A writer can only be committed once.
+     */
+    public void commit(@NonNull Listener listener) {
+        if (committed) throw new IllegalStateException("BulkWriter already committed.");
+        committed = true;
+        this.listener = listener;
+        this.total = ops.size();
+        for (int i = 0; i < ops.size(); i += MAX_OPS_PER_BATCH) {
+            pending.add(new Chunk(new ArrayList<>(ops.subList(i, Math.min(ops.size(), i + MAX_OPS_PER_BATCH)))));
+        }
+        ops.clear();
+        mainHandler.post(this::pump);
+    }
+
+    private void pump() {
+        while (inFlight < allowedInFlight && !pending.isEmpty()) {
+            commitChunk(pending.poll());
+        }
+        if (inFlight == 0 && pending.isEmpty()) {
+            finish();
+        }
+    }
+
+    private void commitChunk(Chunk chunk) {
+        inFlight++;
+        chunk.attempts++;
+        // A WriteBatch cannot be reused after commit, so every attempt builds a fresh one
+        WriteBatch batch = db.batch();
+        for (Op op : chunk.ops) op.addTo(batch);
+
+        batch.commit()
+                .addOnSuccessListener(aVoid -> {
+                    inFlight--;
+                    written += chunk.ops.size();
+                    listener.onProgress(written, total);
+                    // Ramp up: widen the window once a full round has gone through cleanly
+                    if (++successesThisRound >= allowedInFlight && allowedInFlight < MAX_IN_FLIGHT) {
+                        allowedInFlight = Math.min(MAX_IN_FLIGHT, allowedInFlight * 2);
+                        successesThisRound = 0;
+                    }
+                    pump();
+                })
+                .addOnFailureListener(e -> {
+                    inFlight--;
+                    lastError = e;
+                    if (!isRetryable(e)) {
+                        // Rejected, not overloaded: another attempt fails the same way
+                        Log.e(TAG, "Batch commit failed permanently", e);
+                        failed += chunk.ops.size();
+                        pump();
+                        return;
+                    }
+                    // Back off: narrow the window and retry this chunk later
+                    allowedInFlight = Math.max(1, allowedInFlight / 2);
+                    successesThisRound = 0;
+                    if (chunk.attempts < MAX_ATTEMPTS) {
+                        long delay = BASE_BACKOFF_MS << (chunk.attempts - 1);
+                        Log.w(TAG, "Batch commit failed (attempt " + chunk.attempts + "), retrying in " + delay + "ms", e);
+                        inFlight++; // Hold the slot so finish() does not run while the retry is waiting
+                        mainHandler.postDelayed(() -> {
+                            inFlight--;
+                            commitChunk(chunk);
+                        }, delay);
+                    } else {
+                        Log.e(TAG, "Batch commit gave up after " + chunk.attempts + " attempts", e);
+                        failed += chunk.ops.size();
+                        pump();
+                    }
+                });
+    }
+
+    /** True for the codes a later attempt can succeed on: overload, contention and timeouts. */
+    private static boolean isRetryable(Exception e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof FirebaseFirestoreException) {
+                switch (((FirebaseFirestoreException) t).getCode()) {
+                    case UNAVAILABLE:
+                    case ABORTED:
+                    case DEADLINE_EXCEEDED:
+                    case RESOURCE_EXHAUSTED:
+                        return true;
+                    default:
+                        return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void finish() {
+        if (failed == 0) {
+            listener.onComplete(written);
+        } else {
+            String reason = lastError != null ? lastError.getMessage() : "unknown error";
+            listener.onFailure(new Exception(failed + " of " + total + " writes failed: " + reason, lastError), written);
+        }
+    }
+}
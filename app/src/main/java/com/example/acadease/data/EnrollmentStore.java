@@ -0,0 +1,114 @@
+package com.example.acadease.data;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.QueryDocumentSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Process-wide set of the signed-in student's enrolled course codes.
+ * The first request of a login attaches a snapshot listener on Enrollments; every later request is
+ * answered from memory and stays current through that listener. Signing out (or in as someone else)
+ * detaches the listener and drops the data. Main thread only.
+ */
+public class EnrollmentStore {
+    private static final String TAG = "EnrollmentStore";
+    private static final String ENROLLMENTS_COLLECTION = "Enrollments";
+
+    private static EnrollmentStore instance;
+
+    private final FirebaseFirestore db = FirebaseFirestore.getInstance();
+    private final List<StudentRepository.EnrollmentsCallback> waiting = new ArrayList<>();
+    private String studentUid;
+    private List<String> courseCodes; // null until the first snapshot arrives
+    private ListenerRegistration registration;
+
+    private EnrollmentStore() {
+        FirebaseAuth.getInstance().addAuthStateListener(auth -> {
+            FirebaseUser user = auth.getCurrentUser();
+            if (studentUid != null && (user == null || !studentUid.equals(user.getUid()))) {
+                clear();
+            }
+        });
+    }
+
+    public static synchronized EnrollmentStore getInstance() {
+        if (instance == null) {
+            instance = new EnrollmentStore();
+        }
+        return instance;
+    }
+
+    /**
+     * Delivers the student's course codes, from memory once the listener has reported.
+     */
+    public void fetchCourseCodes(@NonNull String uid, @NonNull StudentRepository.EnrollmentsCallback callback) {
+        if (!uid.equals(studentUid)) {
+            clear();
+            studentUid = uid;
+        }
+        if (courseCodes != null) {
+            callback.onSuccess(new ArrayList<>(courseCodes));
+            return;
+        }
+        waiting.add(callback);
+        if (registration == null) listen();
+    }
+
+    /**
+     * Detaches the listener and forgets the current student. Pending callbacks are dropped.
+     */
+    public void clear() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+        studentUid = null;
+        courseCodes = null;
+        waiting.clear();
+    }
+
+    private void listen() {
+        String uid = studentUid;
+        registration = db.collection(ENROLLMENTS_COLLECTION)
+                .whereEqualTo("studentId", uid)
+                .addSnapshotListener((snapshots, e) -> {
+                    if (!uid.equals(studentUid)) return; // Cleared in the meantime
+                    if (e != null) {
+                        Log.e(TAG, "Enrollment listener failed for " + uid, e);
+                        // Detach so the next request retries instead of waiting forever
+                        if (registration != null) registration.remove();
+                        registration = null;
+                        courseCodes = null;
+                        List<StudentRepository.EnrollmentsCallback> failed = new ArrayList<>(waiting);
+                        waiting.clear();
+                        for (StudentRepository.EnrollmentsCallback callback : failed) {
+                            callback.onFailure(new Exception("Enrollment lookup failed: " + e.getMessage(), e));
+                        }
+                        return;
+                    }
+                    if (snapshots == null) return;
+
+                    List<String> codes = new ArrayList<>();
+                    for (QueryDocumentSnapshot d : snapshots) {
+                        String code = d.getString("courseCode");
+                        if (code != null) codes.add(code);
+                    }
+                    courseCodes = codes;
+
+                    List<StudentRepository.EnrollmentsCallback> ready = new ArrayList<>(waiting);
+                    waiting.clear();
+                    for (StudentRepository.EnrollmentsCallback callback : ready) {
+                        callback.onSuccess(new ArrayList<>(codes));
+                    }
+                });
+    }
+}
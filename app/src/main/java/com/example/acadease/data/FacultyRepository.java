@@ -2,26 +2,59 @@ package com.example.acadease.data;
 
 import android.util.Log;
 
+import com.example.acadease.BuildConfig;
 import com.example.acadease.model.Session;
+import com.example.acadease.model.SessionRow;
 import com.example.acadease.model.User;
 import com.example.acadease.model.Assignment;
 import com.example.acadease.model.Submission;
 import com.example.acadease.model.Course;
+import com.example.acadease.utils.AttendanceCodec;
+import com.example.acadease.utils.AttendanceStatus;
+import com.example.acadease.utils.RosterMarks;
+import com.example.acadease.utils.ScheduleConflictChecker;
+import com.example.acadease.utils.ScheduleUtility;
+import com.example.acadease.model.mapper.AssignmentMapper;
+import com.example.acadease.model.mapper.CourseMapper;
+import com.example.acadease.model.mapper.SubmissionMapper;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.Timestamp;
 import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.firestore.CollectionReference;
 import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
 import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Source;
 import com.google.firebase.firestore.WriteBatch;
 import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
 
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeSet;
 
 public class FacultyRepository {
     private static final String TAG = "FacultyRepository";
@@ -29,15 +62,63 @@ public class FacultyRepository {
 
     // Collection Name Constants (CRITICAL: Match database case exactly)
     private final String SESSIONS_COLLECTION = "sessions";
+    private final String SCHEDULES_COLLECTION = "schedules";
     private final String ENROLLMENTS_COLLECTION = "Enrollments";
     private final String USERS_COLLECTION = "users";
     private final String COURSES_COLLECTION = "Courses";
     private final String EXAM_SCORES_SUBCOLLECTION = "exam_scores";
+    private final String RESULTS_SUBCOLLECTION = "results"; // users/{uid}/results/{courseCode}_{examId}
 
     private final String EXAM_TYPES_COLLECTION = "exam_types";
 
+    // WriteOutbox kinds; entries of these kinds are sent by the repository registered at start-up (AcadEaseApplication)
+    private static final String OUTBOX_ATTENDANCE = "attendance";
+    private static final String OUTBOX_SUBMISSION_GRADES = "submission_grades";
+    private static final String OUTBOX_EXAM_SCORES = "exam_scores";
+
+    private static final int MAX_TRANSACTION_WRITES = 500; // Firestore's limit per commit
+    // Rows plus the session, course counter and summary deltas documents of one attendance transaction
+    private static final int MAX_ATTENDANCE_ROSTER = MAX_TRANSACTION_WRITES - 10;
+    private static final int SUMMARY_DELTA_CHUNK = 400; // Students per summary batch, plus their deltas update
+    private final WriteOutbox outbox;
+
+    // Read policies (cache first, then revalidate unless the last server read is younger than max-age)
+    private final ReadPolicy sessionReads = ReadPolicy.staleWhileRevalidate(30 * 1000L);
+    private final ReadPolicy rosterReads = ReadPolicy.staleWhileRevalidate(5 * 60 * 1000L);
+    private final ReadPolicy courseReads = ReadPolicy.staleWhileRevalidate(5 * 60 * 1000L);
+    private final ReadPolicy titleReads = ReadPolicy.staleWhileRevalidate(10 * 60 * 1000L);
+
     public FacultyRepository() {
         this.db = FirebaseFirestore.getInstance();
+        this.outbox = WriteOutbox.getInstance();
+    }
+
+    /**
+     * Registers the replayers of the faculty outbox kinds, so writes journaled in an earlier run are
+     * sent as soon as the process starts, whichever screen opens first. Called once from
+     * AcadEaseApplication.onCreate.
+     */
+    public static void registerOutboxReplayers() {
+        FacultyRepository repository = new FacultyRepository();
+        repository.outbox.setReplayer(OUTBOX_ATTENDANCE, whenSignedIn(repository::replayAttendance));
+        repository.outbox.setReplayer(OUTBOX_SUBMISSION_GRADES, whenSignedIn(repository::replaySubmissionGrades));
+        repository.outbox.setReplayer(OUTBOX_EXAM_SCORES, whenSignedIn(repository::replayExamScores));
+    }
+
+    /**
+     * The outbox only hands out the signed-in user's entries, but auth can change while one is in
+     * flight. Sent as anyone else, the security rules would reject the write (or attribute it to the
+     * wrong faculty member); a plain exception keeps it pending until its owner signs in again.
+     */
+    private static WriteOutbox.Replayer whenSignedIn(WriteOutbox.Replayer replayer) {
+        return (entry, callback) -> {
+            FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+            if (user == null || !user.getUid().equals(entry.ownerUid)) {
+                callback.onFailure(new Exception("Not signed in as its owner; " + entry.key + " stays pending."));
+                return;
+            }
+            replayer.replay(entry, callback);
+        };
     }
 
     // =========================================================
@@ -58,6 +139,15 @@ public class FacultyRepository {
         void onFailure(Exception e);
     }
 
+    public interface CourseTitlesCallback {
+        void onSuccess(Map<String, String> titleByCode);
+        void onFailure(Exception e);
+    }
+
+    public interface SessionRowsCallback {
+        void onSuccess(List<SessionRow> rows);
+    }
+
     public interface AttendanceWriteCallback { // <--- THIS MUST BE PUBLIC
         void onSuccess(String message);
         void onFailure(Exception e);
@@ -99,6 +189,7 @@ public class FacultyRepository {
 
     /**
      * Fetches all scheduled sessions within a date range, filtered by facultyId.
+     * Stored sessions are merged with the occurrences computed from the faculty's virtual blueprints.
      */
     public void fetchScheduleSessions(String userUid, String role, Timestamp startOfRange, Timestamp endOfRange, ScheduleSessionsCallback callback) {
 
@@ -114,38 +205,111 @@ public class FacultyRepository {
         Query query = sessionsRef.whereEqualTo("facultyId", userUid);
 
         // Filter 2 & 3: By the date range and ordering (Requires Composite Index)
-        query = query.whereGreaterThanOrEqualTo("sessionTime", startOfRange)
+        Query sessionsQuery = query.whereGreaterThanOrEqualTo("sessionTime", startOfRange)
                 .whereLessThanOrEqualTo("sessionTime", endOfRange)
                 .orderBy("sessionTime", Query.Direction.ASCENDING);
+        Query blueprintQuery = db.collection(SCHEDULES_COLLECTION)
+                .whereEqualTo("facultyId", userUid)
+                .whereEqualTo(VirtualSessions.FIELD_VIRTUAL, true);
 
-        query.get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
-                    List<Session> sessions = new ArrayList<>();
-                    for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
-                        try {
-                            Session session = document.toObject(Session.class);
-                            session.setId(document.getId());
-                            sessions.add(session);
-                        } catch (Exception e) {
-                            Log.e(TAG, "MAPPING FAILED for session document " + document.getId(), e);
-                        }
-                    }
-                    callback.onSuccess(sessions);
-                })
-                .addOnFailureListener(e -> {
+        ReadPolicy.Loader<List<QuerySnapshot>> loader = source ->
+                Tasks.<QuerySnapshot>whenAllSuccess(sessionsQuery.get(source), blueprintQuery.get(source));
+        String key = "scheduleSessions:" + userUid + ":" + startOfRange.getSeconds() + "-" + endOfRange.getSeconds();
+
+        sessionReads.get(key, loader, results -> Background.process(() ->
+                        Collections.unmodifiableList(VirtualSessions.resolve(results.get(0), results.get(1), startOfRange, endOfRange)),
+                callback::onSuccess, callback::onFailure), e -> {
                     Log.e(TAG, "Failed to fetch schedule sessions.", e);
                     callback.onFailure(e);
                 });
     }
 
+    /**
+     * Cancels one meeting. For a computed occurrence this stores its override document.
+     * Marks already recorded for it stay stored but stop counting: in the same transaction they are
+     * taken out of attendance_summary and course_attendance, and the session out of 'sessions'.
+     */
+    public void cancelSession(Session session, RegistrationCallback callback) {
+        String sessionId = session.getId();
+        String courseCode = session.getCourseCode();
+        DocumentReference sessionRef = db.collection(SESSIONS_COLLECTION).document(sessionId);
+        DocumentReference deltasRef = db.collection(AttendanceAggregates.DELTAS_COLLECTION).document("cancel_" + sessionId);
+
+        AttendanceSheets.readLegacyRows(db, sessionId)
+                .onSuccessTask(legacyRows -> db.runTransaction(transaction -> {
+                    DocumentSnapshot sessionDoc = transaction.get(sessionRef);
+                    if (Boolean.TRUE.equals(sessionDoc.getBoolean(VirtualSessions.FIELD_CANCELLED))) {
+                        return null; // Cancelled already; its marks were taken out then
+                    }
+                    AttendanceSheets.SessionMarks recorded = AttendanceSheets.readInTransaction(transaction, db, sessionId,
+                            legacyRows.getDocuments(), Collections.emptyList());
+                    boolean counted = Boolean.TRUE.equals(sessionDoc.getBoolean(AttendanceAggregates.FIELD_ATTENDANCE_RECORDED))
+                            || !recorded.isEmpty();
+                    Timestamp now = Timestamp.now();
+
+                    if (counted && courseCode != null) {
+                        int coursePresent = 0;
+                        Map<String, Object> studentDeltas = new HashMap<>();
+                        for (Map.Entry<String, Byte> mark : recorded.marks.entrySet()) {
+                            int present = mark.getValue() == RosterMarks.PRESENT ? 1 : 0;
+                            studentDeltas.put(mark.getKey(), studentDelta(-present, -1));
+                            coursePresent += present;
+                        }
+                        if (!studentDeltas.isEmpty()) {
+                            transaction.set(deltasRef, deltasDocument(courseCode, sessionId, studentDeltas, now));
+                        }
+                        Map<String, Object> courseTotals = new HashMap<>();
+                        courseTotals.put(AttendanceAggregates.FIELD_PRESENT, FieldValue.increment(-coursePresent));
+                        courseTotals.put(AttendanceAggregates.FIELD_TOTAL, FieldValue.increment(-recorded.marks.size()));
+                        courseTotals.put(AttendanceAggregates.FIELD_SESSIONS, FieldValue.increment(-1));
+                        courseTotals.put(AttendanceAggregates.FIELD_UPDATED_AT, now);
+                        transaction.set(db.collection(AttendanceAggregates.COURSE_COLLECTION).document(courseCode),
+                                courseTotals, SetOptions.merge());
+                    }
+
+                    Map<String, Object> changes = new HashMap<>();
+                    changes.put(VirtualSessions.FIELD_CANCELLED, true);
+                    changes.put(AttendanceAggregates.FIELD_ATTENDANCE_RECORDED, false);
+                    transaction.set(sessionRef, VirtualSessions.overrideData(session, changes), SetOptions.merge());
+                    return null;
+                }))
+                .onSuccessTask(ignored -> applySummaryDeltas(deltasRef))
+                .addOnSuccessListener(ignored -> callback.onSuccess("Session cancelled."))
+                .addOnFailureListener(e -> callback.onFailure(new Exception("Session update failed: " + e.getMessage(), e)));
+    }
+
+    /**
+     * Moves one meeting to another venue. For a computed occurrence this stores its override document.
+     */
+    public void changeSessionVenue(Session session, String venue, RegistrationCallback callback) {
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("venue", venue);
+        writeSessionOverride(session, changes, "Venue updated.", callback);
+    }
+
+    private void writeSessionOverride(Session session, Map<String, Object> changes, String message, RegistrationCallback callback) {
+        db.collection(SESSIONS_COLLECTION).document(session.getId())
+                .set(VirtualSessions.overrideData(session, changes), SetOptions.merge())
+                .addOnSuccessListener(aVoid -> callback.onSuccess(message))
+                .addOnFailureListener(e -> callback.onFailure(new Exception("Session update failed: " + e.getMessage())));
+    }
+
     /**
      * Fetches the roster (list of student UIDs) for a specific course.
      */
     public void fetchCourseRoster(String courseCode, RosterCallback callback) {
-        db.collection(ENROLLMENTS_COLLECTION)
-                .whereEqualTo("courseCode", courseCode)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
+        fetchCourseRoster(courseCode, rosterReads, callback);
+    }
+
+    /**
+     * Screens that build input forms from the roster pass NETWORK_ONLY, so a late revalidation
+     * cannot rebuild the form underneath the user.
+     */
+    public void fetchCourseRoster(String courseCode, ReadPolicy policy, RosterCallback callback) {
+        Query query = db.collection(ENROLLMENTS_COLLECTION)
+                .whereEqualTo("courseCode", courseCode);
+
+        policy.get(query, queryDocumentSnapshots -> Background.process(() -> {
                     List<String> studentUids = new ArrayList<>();
                     for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
                         // Extract the studentId from each enrollment document
@@ -154,9 +318,8 @@ public class FacultyRepository {
                             studentUids.add(studentId);
                         }
                     }
-                    callback.onSuccess(studentUids);
-                })
-                .addOnFailureListener(e -> callback.onFailure(e));
+                    return Collections.unmodifiableList(studentUids);
+                }, callback::onSuccess, callback::onFailure), e -> callback.onFailure(e));
     }
 
     // =========================================================
@@ -165,68 +328,173 @@ public class FacultyRepository {
 
 
     public void fetchCoursesTaught(String facultyUid, CourseListCallback callback) {
-        db.collection(COURSES_COLLECTION)
-                .whereEqualTo("facultyId", facultyUid)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
+        Query query = db.collection(COURSES_COLLECTION)
+                .whereEqualTo("facultyId", facultyUid);
+
+        courseReads.get(query, queryDocumentSnapshots -> Background.process(() -> {
                     List<Course> courses = new ArrayList<>();
                     for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
                         try {
-                            Course course = document.toObject(Course.class);
-                            course.setId(document.getId());
+                            Course course = CourseMapper.fromSnapshot(document);
                             courses.add(course);
                         } catch (Exception e) {
                             Log.e(TAG, "MAPPING FAILED for course document " + document.getId(), e);
                         }
                     }
-                    callback.onSuccess(courses);
-                })
-                .addOnFailureListener(e -> callback.onFailure(e));
+                    return Collections.unmodifiableList(courses);
+                }, callback::onSuccess, callback::onFailure), e -> callback.onFailure(e));
     }
 
     /**
      * Fetches the full User profile (needed for first/last name).
+     * Served from the shared PeopleDirectory so repeated binds don't re-read the same UID.
      */
     public void fetchUserProfile(String userUid, UserProfileCallback callback) {
-        db.collection(USERS_COLLECTION).document(userUid).get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        User user = documentSnapshot.toObject(User.class);
-                        if (user != null) {
-                            callback.onSuccess(user);
-                            return;
-                        }
-                    }
+        PeopleDirectory.getInstance().fetchProfile(userUid, new PeopleDirectory.ProfileCallback() {
+            @Override
+            public void onSuccess(User user) {
+                if (user != null) {
+                    callback.onSuccess(user);
+                } else {
                     callback.onFailure(new Exception("Profile not found or invalid."));
-                })
-                .addOnFailureListener(callback::onFailure);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                callback.onFailure(e);
+            }
+        });
     }
 
     /**
      * Fetches the full course title for a given course code.
      */
     public void fetchCourseTitle(String courseCode, CourseTitleCallback callback) {
-        db.collection(COURSES_COLLECTION).document(courseCode).get()
-                .addOnSuccessListener(documentSnapshot -> {
+        DocumentReference ref = db.collection(COURSES_COLLECTION).document(courseCode);
+
+        titleReads.get(ref, documentSnapshot -> {
                     if (documentSnapshot.exists()) {
                         String title = documentSnapshot.getString("title");
                         callback.onSuccess(title != null ? title : courseCode);
                     } else {
                         callback.onSuccess(courseCode); // Fallback to code if not found
                     }
-                })
-                .addOnFailureListener(e -> {
+                }, e -> {
                     Log.e(TAG, "Course title lookup failed for code: " + courseCode, e);
                     callback.onSuccess(courseCode); // Fallback on failure
                 });
     }
 
+    /**
+     * Titles for a set of course codes, read together (one whereIn per 10 codes) instead of one
+     * fetchCourseTitle per cell or row. Codes without a course document map to themselves.
+     */
+    public void fetchCourseTitles(Collection<String> courseCodes, CourseTitlesCallback callback) {
+        List<String> codes = new ArrayList<>(new TreeSet<>(courseCodes));
+        if (codes.isEmpty()) {
+            callback.onSuccess(Collections.emptyMap());
+            return;
+        }
+        ReadPolicy.Loader<List<QuerySnapshot>> loader = source -> {
+            List<Task<QuerySnapshot>> reads = new ArrayList<>();
+            for (int i = 0; i < codes.size(); i += 10) {
+                reads.add(db.collection(COURSES_COLLECTION)
+                        .whereIn(FieldPath.documentId(), codes.subList(i, Math.min(codes.size(), i + 10)))
+                        .get(source));
+            }
+            return Tasks.<QuerySnapshot>whenAllSuccess(reads);
+        };
+
+        titleReads.get("courseTitles:" + codes, loader, results -> Background.process(() -> {
+                    Map<String, String> titles = new HashMap<>();
+                    for (String code : codes) titles.put(code, code);
+                    for (QuerySnapshot snapshot : results) {
+                        for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                            String title = doc.getString("title");
+                            if (title != null) titles.put(doc.getId(), title);
+                        }
+                    }
+                    return Collections.unmodifiableMap(titles);
+                }, callback::onSuccess, callback::onFailure), e -> {
+                    Log.e(TAG, "Course titles lookup failed for codes: " + codes, e);
+                    callback.onFailure(e);
+                });
+    }
+
+    /**
+     * Join stage for the session lists: resolves the distinct course titles (one batched read) and
+     * faculty names (through PeopleDirectory, whose misses are batched) of a result set once, then
+     * builds the rows off the main thread. Lookups that fail fall back to the course code and
+     * "Lookup Failed", so this never fails; rows come back in the sessions' order.
+     */
+    public void joinSessionRows(List<Session> sessions, SessionRowsCallback callback) {
+        Set<String> courseCodes = new HashSet<>();
+        Set<String> facultyUids = new HashSet<>();
+        for (Session session : sessions) {
+            courseCodes.add(session.getCourseCode());
+            if (session.getFacultyId() != null) facultyUids.add(session.getFacultyId());
+        }
+
+        TaskCompletionSource<Map<String, String>> titlesSource = new TaskCompletionSource<>();
+        fetchCourseTitles(courseCodes, new CourseTitlesCallback() {
+            @Override
+            public void onSuccess(Map<String, String> titleByCode) { titlesSource.setResult(titleByCode); }
+            @Override
+            public void onFailure(Exception e) { titlesSource.setResult(Collections.emptyMap()); }
+        });
+
+        Map<String, String> names = new HashMap<>(); // Only touched on the main thread
+        List<Task<?>> lookups = new ArrayList<>();
+        lookups.add(titlesSource.getTask());
+        for (String uid : facultyUids) {
+            TaskCompletionSource<Void> nameSource = new TaskCompletionSource<>();
+            PeopleDirectory.getInstance().fetchProfile(uid, new PeopleDirectory.ProfileCallback() {
+                @Override
+                public void onSuccess(User user) {
+                    if (user != null && user.getName() != null) names.put(uid, user.getName());
+                    nameSource.setResult(null);
+                }
+                @Override
+                public void onFailure(Exception e) {
+                    Log.e(TAG, "Faculty name lookup failed for UID: " + uid, e);
+                    nameSource.setResult(null);
+                }
+            });
+            lookups.add(nameSource.getTask());
+        }
+
+        Tasks.whenAllComplete(lookups).addOnCompleteListener(done -> {
+            Map<String, String> titles = titlesSource.getTask().getResult();
+            Map<String, String> resolvedNames = new HashMap<>(names);
+            Background.process(() -> {
+                SimpleDateFormat timeFormat = new SimpleDateFormat("h:mm a", Locale.getDefault());
+                timeFormat.setTimeZone(TimeZone.getTimeZone(ScheduleUtility.CAMPUS_ZONE.getId()));
+                long length = ScheduleConflictChecker.SESSION_LENGTH.toMillis();
+
+                List<SessionRow> rows = new ArrayList<>(sessions.size());
+                for (Session session : sessions) {
+                    Date start = session.getSessionTime().toDate();
+                    String title = titles.get(session.getCourseCode());
+                    String professor = resolvedNames.get(session.getFacultyId());
+                    rows.add(new SessionRow(session,
+                            title != null ? title : session.getCourseCode(),
+                            professor != null ? professor : "Lookup Failed",
+                            timeFormat.format(start) + " - " + timeFormat.format(new Date(start.getTime() + length))));
+                }
+                return Collections.unmodifiableList(rows);
+            }, callback::onSuccess, e -> Log.e(TAG, "Session row join failed.", e));
+        });
+    }
+
     // =========================================================
     // 3. ASSIGNMENTS AND GRADES
     // =========================================================
 
     /**
      * Uploads a new assignment document to the courses/{code}/assignments subcollection.
+     * It is flagged submissionsKeyed: every submission path writes studentId, so students find
+     * its submissions by query alone (see StudentRepository.fetchAssignmentStatuses).
      */
     public void createAssignment(Assignment assignment, String courseCode, RegistrationCallback callback) {
         DocumentReference assignmentRef = db.collection(COURSES_COLLECTION)
@@ -238,7 +506,12 @@ public class FacultyRepository {
         assignment.setFacultyId(FirebaseAuth.getInstance().getCurrentUser().getUid());
         assignment.setCreatedAt(Timestamp.now());
 
-        assignmentRef.set(assignment)
+        Map<String, Object> keyed = new HashMap<>();
+        keyed.put("submissionsKeyed", true);
+        WriteBatch batch = db.batch();
+        batch.set(assignmentRef, assignment);
+        batch.set(assignmentRef, keyed, SetOptions.merge());
+        batch.commit()
                 .addOnSuccessListener(aVoid -> callback.onSuccess("Assignment " + assignment.getTitle() + " posted."))
                 .addOnFailureListener(e -> callback.onFailure(new Exception("Failed to post assignment: " + e.getMessage())));
     }
@@ -247,27 +520,29 @@ public class FacultyRepository {
      * Fetches all student submissions for a specific assignment in a course.
      */
     public void fetchSubmissions(String courseCode, String assignmentId, SubmissionListCallback callback) {
-        db.collection(COURSES_COLLECTION)
+        fetchSubmissions(courseCode, assignmentId, ReadPolicy.ALWAYS_REVALIDATE, callback);
+    }
+
+    public void fetchSubmissions(String courseCode, String assignmentId, ReadPolicy policy, SubmissionListCallback callback) {
+        Query query = db.collection(COURSES_COLLECTION)
                 .document(courseCode)
                 .collection("assignments")
                 .document(assignmentId)
                 .collection("submissions") // Target the nested submissions subcollection
-                .orderBy("submittedAt", Query.Direction.DESCENDING)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
+                .orderBy("submittedAt", Query.Direction.DESCENDING);
+
+        policy.get(query, queryDocumentSnapshots -> Background.process(() -> {
                     List<Submission> submissions = new ArrayList<>();
                     for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
                         try {
-                            Submission submission = document.toObject(Submission.class);
-                            submission.setId(document.getId());
+                            Submission submission = SubmissionMapper.fromSnapshot(document);
                             submissions.add(submission);
                         } catch (Exception e) {
                             Log.e(TAG, "MAPPING FAILED for submission document " + document.getId(), e);
                         }
                     }
-                    callback.onSuccess(submissions);
-                })
-                .addOnFailureListener(e -> callback.onFailure(e));
+                    return Collections.unmodifiableList(submissions);
+                }, callback::onSuccess, callback::onFailure), e -> callback.onFailure(e));
     }
 
     /**
@@ -287,7 +562,7 @@ public class FacultyRepository {
                 .addOnSuccessListener(documentSnapshot -> {
                     if (documentSnapshot.exists()) {
                         try {
-                            Assignment assignment = documentSnapshot.toObject(Assignment.class);
+                            Assignment assignment = AssignmentMapper.fromSnapshot(documentSnapshot);
                             if (assignment != null) {
                                 assignment.setId(documentSnapshot.getId());
                                 callback.onSuccess(assignment);
@@ -305,13 +580,38 @@ public class FacultyRepository {
     }
 
     /**
-     * Updates grades for multiple student submissions in a single Batched Write.
+     * Journals grades for multiple student submissions in the WriteOutbox and reports once they are
+     * saved on the device; they are written when the network allows (see writeSubmissionGrades).
      */
     public void updateSubmissionGrades(String courseCode, String assignmentId, Map<String, Integer> gradesMap, RegistrationCallback callback) {
+        FirebaseUser faculty = FirebaseAuth.getInstance().getCurrentUser();
+        if (faculty == null) {
+            callback.onFailure(new Exception("Grade save failed: not signed in."));
+            return;
+        }
+        JSONObject payload = new JSONObject();
+        try {
+            payload.put("courseCode", courseCode);
+            payload.put("assignmentId", assignmentId);
+            payload.put("facultyUid", faculty.getUid());
+            payload.put("gradedAt", System.currentTimeMillis());
+            payload.put("grades", new JSONObject(gradesMap));
+        } catch (JSONException e) {
+            callback.onFailure(new Exception("Grade save failed: " + e.getMessage()));
+            return;
+        }
+        enqueue(OUTBOX_SUBMISSION_GRADES, "grades/" + courseCode + "/" + assignmentId, payload, "grades",
+                "Grades for " + gradesMap.size() + " submissions saved (pending sync).", "Grade save failed: ", callback);
+    }
 
-        WriteBatch batch = db.batch();
-        Timestamp gradedTime = Timestamp.now();
-        String facultyUid = FirebaseAuth.getInstance().getCurrentUser().getUid();
+    /**
+     * Updates grades for multiple student submissions in a single Batched Write.
+     */
+    private void writeSubmissionGrades(String courseCode, String assignmentId, Map<String, Integer> gradesMap, String facultyUid,
+                                       Timestamp gradedTime, RegistrationCallback callback) {
+
+        // Large sections can exceed one WriteBatch; the bulk writer chunks, throttles and retries
+        BulkWriter writer = new BulkWriter(db);
 
         for (Map.Entry<String, Integer> entry : gradesMap.entrySet()) {
             String studentId = entry.getKey();
@@ -330,66 +630,546 @@ public class FacultyRepository {
             updates.put("gradedBy", facultyUid);
             updates.put("gradedAt", gradedTime);
 
-            batch.update(submissionRef, updates); // Use update() since submission must exist
+            writer.update(submissionRef, updates); // Use update() since submission must exist
         }
 
-        batch.commit()
-                .addOnSuccessListener(aVoid -> callback.onSuccess("Successfully saved grades for " + gradesMap.size() + " submissions."))
-                .addOnFailureListener(e -> callback.onFailure(new Exception("Grade save failed: " + e.getMessage())));
+        writer.commit(new BulkWriter.Listener() {
+            @Override
+            public void onComplete(int written) {
+                callback.onSuccess("Successfully saved grades for " + written + " submissions.");
+            }
+
+            @Override
+            public void onFailure(Exception e, int written) {
+                callback.onFailure(new Exception("Grade save failed (" + written + " of " + gradesMap.size() + " saved): " + e.getMessage(), e));
+            }
+        });
     }
 
+
     /**
-     * Saves non-submission (exam/quiz) scores for all students in a single document.
+     * Journals non-submission (exam/quiz) scores in the WriteOutbox and reports once they are saved
+     * on the device; they are written when the network allows (see writeExamScores).
      */
     public void saveExamScores(String courseCode, String examTitle, int maxPoints, Map<String, Integer> gradesMap, RegistrationCallback callback) {
+        FirebaseUser faculty = FirebaseAuth.getInstance().getCurrentUser();
+        if (faculty == null) {
+            callback.onFailure(new Exception("Exam score upload failed: not signed in."));
+            return;
+        }
+        JSONObject payload = new JSONObject();
+        try {
+            payload.put("courseCode", courseCode);
+            payload.put("examTitle", examTitle);
+            payload.put("maxPoints", maxPoints);
+            payload.put("gradedAt", System.currentTimeMillis());
+            payload.put("scores", new JSONObject(gradesMap));
+        } catch (JSONException e) {
+            callback.onFailure(new Exception("Exam score upload failed: " + e.getMessage()));
+            return;
+        }
+        enqueue(OUTBOX_EXAM_SCORES, "exam/" + courseCode + "/" + examDocumentId(examTitle), payload, "scores",
+                "Exam scores for " + examTitle + " saved (pending sync).", "Exam score upload failed: ", callback);
+    }
 
-        // Sanitize exam title for use as a Firestore Document ID
-        String examDocumentId = examTitle.replaceAll("[^a-zA-Z0-9\\-]", "_").toLowerCase();
+    // Sanitize exam title for use as a Firestore Document ID
+    private static String examDocumentId(String examTitle) {
+        return examTitle.replaceAll("[^a-zA-Z0-9\\-]", "_").toLowerCase();
+    }
 
-        DocumentReference examScoresRef = db.collection(COURSES_COLLECTION)
-                .document(courseCode)
+    /**
+     * Saves non-submission (exam/quiz) scores for all students in a single document,
+     * plus one users/{uid}/results row per student in the same batch. Students in the previous
+     * save's scores but not in this one lose their row.
+     * The first save in a course also projects the course's earlier exams and sets
+     * Courses/{code}.resultsProjected, after which students read only their own rows.
+     */
+    private void writeExamScores(String courseCode, String examTitle, int maxPoints, Map<String, Integer> gradesMap,
+                                 Timestamp gradedAt, RegistrationCallback callback) {
+        String examDocumentId = examDocumentId(examTitle);
+
+        DocumentReference courseRef = db.collection(COURSES_COLLECTION).document(courseCode);
+        DocumentReference examScoresRef = courseRef
                 .collection(EXAM_SCORES_SUBCOLLECTION)
                 .document(examDocumentId);
 
         Map<String, Object> examData = new HashMap<>();
         examData.put("examTitle", examTitle);
         examData.put("maxPoints", maxPoints);
-        examData.put("gradedAt", Timestamp.now());
+        examData.put("gradedAt", gradedAt);
         examData.put("scores", gradesMap); // The map of scores (UID -> Score)
 
-        examScoresRef.set(examData)
-                .addOnSuccessListener(aVoid -> callback.onSuccess("Exam scores for " + examTitle + " uploaded successfully."))
-                .addOnFailureListener(e -> callback.onFailure(new Exception("Exam score upload failed: " + e.getMessage())));
+        Task<DocumentSnapshot> previousTask = examScoresRef.get();
+        Task<QuerySnapshot> earlierTask = courseRef.get()
+                .continueWithTask(courseTask -> {
+                    DocumentSnapshot course = courseTask.isSuccessful() ? courseTask.getResult() : null;
+                    if (course != null && Boolean.TRUE.equals(course.getBoolean("resultsProjected"))) {
+                        return Tasks.forResult((QuerySnapshot) null);
+                    }
+                    // Not projected yet: earlier exams are copied along with this one
+                    return courseRef.collection(EXAM_SCORES_SUBCOLLECTION).get();
+                });
+        Tasks.whenAllSuccess(previousTask, earlierTask)
+                .addOnSuccessListener(results -> {
+                    QuerySnapshot earlierExams = earlierTask.getResult();
+                    BulkWriter writer = new BulkWriter(db).set(examScoresRef, examData);
+                    // Each student also gets a compact copy of their own mark, so the results screen
+                    // reads users/{uid}/results instead of every classmate's score.
+                    addResultRows(writer, courseCode, examDocumentId, examTitle, maxPoints, gradedAt, gradesMap);
+                    Object previousScores = previousTask.getResult().get("scores");
+                    if (previousScores instanceof Map) {
+                        for (Object studentUid : ((Map<?, ?>) previousScores).keySet()) {
+                            if (gradesMap.containsKey(String.valueOf(studentUid))) continue;
+                            writer.delete(resultRowRef(String.valueOf(studentUid), courseCode, examDocumentId));
+                        }
+                    }
+                    if (earlierExams != null) {
+                        for (DocumentSnapshot exam : earlierExams.getDocuments()) {
+                            if (exam.getId().equals(examDocumentId)) continue;
+                            Map<String, Object> scores = (Map<String, Object>) exam.get("scores");
+                            Number max = (Number) exam.get("maxPoints");
+                            if (scores == null || max == null) continue;
+                            addResultRows(writer, courseCode, exam.getId(), examTitleOf(exam),
+                                    max, exam.getTimestamp("gradedAt"), scores);
+                        }
+                        Map<String, Object> flag = new HashMap<>();
+                        flag.put("resultsProjected", true);
+                        writer.set(courseRef, flag, SetOptions.merge());
+                    }
+                    commitExamScores(writer, examTitle, callback);
+                })
+                .addOnFailureListener(e -> callback.onFailure(new Exception("Exam score upload failed: " + e.getMessage(), e)));
+    }
+
+    private void addResultRows(BulkWriter writer, String courseCode, String examId, String examTitle, Object maxPoints,
+                               Timestamp gradedAt, Map<String, ?> scores) {
+        for (Map.Entry<String, ?> entry : scores.entrySet()) {
+            if (!(entry.getValue() instanceof Number)) continue;
+            Map<String, Object> row = new HashMap<>();
+            row.put("courseCode", courseCode);
+            row.put("examId", examId);
+            row.put("examTitle", examTitle);
+            row.put("obtained", entry.getValue());
+            row.put("maxPoints", maxPoints);
+            row.put("gradedAt", gradedAt);
+            writer.set(resultRowRef(entry.getKey(), courseCode, examId), row);
+        }
+    }
+
+    private DocumentReference resultRowRef(String studentUid, String courseCode, String examId) {
+        return db.collection(USERS_COLLECTION).document(studentUid)
+                .collection(RESULTS_SUBCOLLECTION).document(courseCode + "_" + examId);
+    }
+
+    /**
+     * The title shown for an exam_scores document: its examTitle, or the document ID for documents
+     * saved without one. StudentRepository's legacy scan shows the same.
+     */
+    private static String examTitleOf(DocumentSnapshot exam) {
+        String title = exam.getString("examTitle");
+        return title != null ? title : exam.getId();
+    }
+
+    /**
+     * Normal class sizes fit one WriteBatch, so the exam document and every projection land
+     * atomically; larger jobs go through the bulk writer (chunked, not atomic across chunks).
+     */
+    private void commitExamScores(BulkWriter writer, String examTitle, RegistrationCallback callback) {
+        writer.commit(new BulkWriter.Listener() {
+            @Override
+            public void onComplete(int written) {
+                callback.onSuccess("Exam scores for " + examTitle + " uploaded successfully.");
+            }
+
+            @Override
+            public void onFailure(Exception e, int written) {
+                callback.onFailure(new Exception("Exam score upload failed: " + e.getMessage(), e));
+            }
+        });
     }
 
+    /**
+     * Records attendance for a session whose course code the caller does not have at hand.
+     * The course is looked up when the journaled entry is sent, since the aggregates are keyed by it.
+     */
     public void recordAttendance(String sessionId, Map<String, String> attendanceMap, AttendanceWriteCallback callback) {
+        recordAttendance(sessionId, null, attendanceMap, callback);
+    }
 
-        WriteBatch batch = db.batch();
-        Timestamp recordTime = Timestamp.now();
+    /**
+     * Journals the session's attendance in the WriteOutbox and reports as soon as it is saved on the
+     * device, whatever the network; it is written when the network allows (see writeAttendance).
+     */
+    public void recordAttendance(String sessionId, String courseCode, Map<String, String> attendanceMap, AttendanceWriteCallback callback) {
+        if (attendanceMap.size() > MAX_ATTENDANCE_ROSTER) {
+            // Would exceed one transaction; rejected here rather than parked by the outbox
+            callback.onFailure(new Exception("Attendance write failed: at most " + MAX_ATTENDANCE_ROSTER
+                    + " students can be recorded per session (" + attendanceMap.size() + " given)."));
+            return;
+        }
+        JSONObject payload = new JSONObject();
+        try {
+            payload.put("sessionId", sessionId);
+            payload.put("courseCode", courseCode); // Omitted when null
+            payload.put("recordedAt", System.currentTimeMillis());
+            payload.put("marks", new JSONObject(attendanceMap));
+        } catch (JSONException e) {
+            callback.onFailure(new Exception("Attendance write failed: " + e.getMessage()));
+            return;
+        }
+        outbox.enqueue(OUTBOX_ATTENDANCE, "attendance/" + sessionId, payload,
+                (pending, newer) -> mergePayloads(pending, newer, "marks"), new WriteOutbox.ReplayCallback() {
+                    @Override
+                    public void onSuccess() {
+                        callback.onSuccess("Attendance saved for " + attendanceMap.size() + " students (pending sync).");
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        callback.onFailure(new Exception("Attendance write failed: " + e.getMessage()));
+                    }
+                });
+    }
+
+    /**
+     * Writes the session's attendance and, in the same transaction, updates course_attendance and
+     * stores the per-student counter changes as a deltas document, which is applied to
+     * attendance_summary in chunks once the transaction commits (see AttendanceAggregates). The
+     * transaction thus writes one document per student plus a fixed few, whatever the roster size.
+     * The existing marks are read inside the transaction, in any stored format (see AttendanceSheets),
+     * so a re-submitted session only applies the difference even when two devices record it at once,
+     * and a journal entry whose writeId is already stored (its earlier commit went through
+     * unacknowledged) is not applied again. The session counts once towards 'sessions': the session
+     * document is flagged attendanceRecorded when it is first counted.
+     * With BuildConfig.ATTENDANCE_SHEETS, or once the session already has a sheet, the session is
+     * stored as one attendance_sheets document and its older rows are folded into it and deleted;
+     * otherwise one sessions/{id}/attendance/{uid} row is written per student.
+     * A computed occurrence of a virtual blueprint gets its session document in the same transaction.
+     */
+    private void writeAttendance(String sessionId, String courseCode, Map<String, String> attendanceMap, String writeId,
+                                 Timestamp recordTime, AttendanceWriteCallback callback) {
 
         // CRITICAL: Construct the path to the nested attendance subcollection
-        CollectionReference attendanceRef = db.collection(SESSIONS_COLLECTION)
-                .document(sessionId)
-                .collection("attendance");
+        DocumentReference sessionRef = db.collection(SESSIONS_COLLECTION).document(sessionId);
+        CollectionReference attendanceRef = sessionRef.collection("attendance");
+        DocumentReference deltasRef = db.collection(AttendanceAggregates.DELTAS_COLLECTION).document(writeId);
+
+        // Queries cannot run in a transaction: the legacy rows and the virtual occurrence are looked up first
+        Task<QuerySnapshot> legacyRowsTask = AttendanceSheets.readLegacyRows(db, sessionId);
+        Task<Map<String, Object>> missingSessionTask = VirtualSessions.missingSessionData(db, sessionId);
+        Tasks.whenAllSuccess(legacyRowsTask, missingSessionTask)
+                .onSuccessTask(results -> db.runTransaction(transaction -> {
+                    // Every document the counter deltas depend on is read here, so a concurrent
+                    // recording of the same session makes one of the two transactions retry
+                    DocumentSnapshot sessionDoc = transaction.get(sessionRef);
+                    if (Boolean.TRUE.equals(sessionDoc.getBoolean(VirtualSessions.FIELD_CANCELLED))) {
+                        // Permanent (see WriteOutbox.isPermanent): retrying cannot succeed
+                        throw new FirebaseFirestoreException("Session " + sessionId + " was cancelled.",
+                                FirebaseFirestoreException.Code.FAILED_PRECONDITION);
+                    }
+                    AttendanceSheets.SessionMarks previous = AttendanceSheets.readInTransaction(transaction, db, sessionId,
+                            legacyRowsTask.getResult().getDocuments(), attendanceMap.keySet());
+                    if (previous.writeIds.contains(writeId)) {
+                        return false; // Applied by an earlier commit whose acknowledgement was lost
+                    }
+                    boolean asSheet = BuildConfig.ATTENDANCE_SHEETS || previous.hasSheet();
+                    // Rows or sheet plus folded rows, then the session, course and deltas documents
+                    int writes = (asSheet ? 1 + previous.rowRefs.size() : attendanceMap.size()) + 3;
+                    if (writes > MAX_TRANSACTION_WRITES) {
+                        throw new FirebaseFirestoreException("Session " + sessionId + " needs " + writes
+                                + " writes, more than one transaction allows.", FirebaseFirestoreException.Code.INVALID_ARGUMENT);
+                    }
+                    boolean counted = Boolean.TRUE.equals(sessionDoc.getBoolean(AttendanceAggregates.FIELD_ATTENDANCE_RECORDED));
+                    int sessionsDelta = !counted && previous.isEmpty() ? 1 : 0;
+
+                    if (sessionDoc.exists() || missingSessionTask.getResult() != null) {
+                        // First attendance for a computed occurrence stores it so the rows have a parent
+                        Map<String, Object> sessionData = missingSessionTask.getResult() != null && !sessionDoc.exists()
+                                ? new HashMap<>(missingSessionTask.getResult()) : new HashMap<>();
+                        sessionData.put(AttendanceAggregates.FIELD_ATTENDANCE_RECORDED, true);
+                        transaction.set(sessionRef, sessionData, SetOptions.merge());
+                    }
+                    int coursePresentDelta = 0;
+                    int courseTotalDelta = 0;
+                    Map<String, Object> studentDeltas = new HashMap<>();
+
+                    for (Map.Entry<String, String> entry : attendanceMap.entrySet()) {
+                        String studentUid = entry.getKey();
+                        String status = entry.getValue();
+
+                        if (!asSheet) {
+                            // The subcollection document ID is the student UID
+                            DocumentReference attendanceDocRef = attendanceRef.document(studentUid);
+
+                            Map<String, Object> data = new HashMap<>();
+                            data.put("studentId", studentUid);
+                            data.put(AttendanceSheets.FIELD_COURSE_CODE, courseCode);
+                            data.put(AttendanceSheets.FIELD_SESSION_ID, sessionId);
+                            data.put("status", status);
+                            data.put("recordedAt", recordTime);
+                            data.put(AttendanceSheets.FIELD_WRITE_ID, writeId);
+
+                            transaction.set(attendanceDocRef, data);
+                        }
+
+                        // Only the change against the previous mark is applied to the counters
+                        Byte previousMark = previous.marks.get(studentUid);
+                        boolean isPresent = AttendanceStatus.isPresent(status);
+                        int totalDelta = previousMark == null ? 1 : 0;
+                        int presentDelta = (isPresent ? 1 : 0) - (previousMark != null && previousMark == RosterMarks.PRESENT ? 1 : 0);
+                        if (totalDelta == 0 && presentDelta == 0) continue;
 
-        for (Map.Entry<String, String> entry : attendanceMap.entrySet()) {
-            String studentUid = entry.getKey();
-            String status = entry.getValue();
+                        studentDeltas.put(studentUid, studentDelta(presentDelta, totalDelta));
+                        coursePresentDelta += presentDelta;
+                        courseTotalDelta += totalDelta;
+                    }
+
+                    if (asSheet) {
+                        // Students marked before but missing from this submission keep their marks
+                        Map<String, Byte> marks = new HashMap<>(previous.marks);
+                        for (Map.Entry<String, String> entry : attendanceMap.entrySet()) {
+                            marks.put(entry.getKey(), AttendanceStatus.markOf(entry.getValue()));
+                        }
+                        AttendanceCodec.Sheet sheet = AttendanceCodec.encode(
+                                AttendanceSheets.mergedRoster(previous.sheetRoster, marks.keySet()), marks);
+                        transaction.set(AttendanceSheets.sheetRef(db, sessionId),
+                                AttendanceSheets.toDocument(sessionId, courseCode, sheet, recordTime, writeId));
+                        for (DocumentReference row : previous.rowRefs) {
+                            transaction.delete(row); // Folded into the sheet
+                        }
+                    }
+
+                    Map<String, Object> courseTotals = new HashMap<>();
+                    courseTotals.put(AttendanceAggregates.FIELD_COURSE_CODE, courseCode);
+                    courseTotals.put(AttendanceAggregates.FIELD_PRESENT, FieldValue.increment(coursePresentDelta));
+                    courseTotals.put(AttendanceAggregates.FIELD_TOTAL, FieldValue.increment(courseTotalDelta));
+                    courseTotals.put(AttendanceAggregates.FIELD_SESSIONS, FieldValue.increment(sessionsDelta));
+                    courseTotals.put(AttendanceAggregates.FIELD_UPDATED_AT, recordTime);
+                    transaction.set(db.collection(AttendanceAggregates.COURSE_COLLECTION).document(courseCode),
+                            courseTotals, SetOptions.merge());
+                    if (!studentDeltas.isEmpty()) {
+                        transaction.set(deltasRef, deltasDocument(courseCode, sessionId, studentDeltas, recordTime));
+                    }
+                    return true;
+                }))
+                // Also after an already-applied entry: its deltas may not all have been applied then
+                .onSuccessTask(applied -> applySummaryDeltas(deltasRef).onSuccessTask(ignored -> Tasks.forResult(applied)))
+                .addOnSuccessListener(applied -> callback.onSuccess(applied
+                        ? "Attendance recorded for " + attendanceMap.size() + " students."
+                        : "Attendance already recorded."))
+                .addOnFailureListener(e -> callback.onFailure(new Exception("Attendance write failed: " + e.getMessage(), e)));
+    }
 
-            // The subcollection document ID is the student UID
-            DocumentReference attendanceDocRef = attendanceRef.document(studentUid);
+    // =========================================================
+    // OFFLINE OUTBOX REPLAY (see WriteOutbox)
+    // =========================================================
 
-            Map<String, Object> data = new HashMap<>();
-            data.put("studentId", studentUid);
-            data.put("status", status);
-            data.put("recordedAt", recordTime);
+    private void enqueue(String kind, String key, JSONObject payload, String valuesField, String savedMessage,
+                         String failurePrefix, RegistrationCallback callback) {
+        outbox.enqueue(kind, key, payload, (pending, newer) -> mergePayloads(pending, newer, valuesField),
+                new WriteOutbox.ReplayCallback() {
+                    @Override
+                    public void onSuccess() {
+                        callback.onSuccess(savedMessage);
+                    }
 
-            batch.set(attendanceDocRef, data);
+                    @Override
+                    public void onFailure(Exception e) {
+                        callback.onFailure(new Exception(failurePrefix + e.getMessage()));
+                    }
+                });
+    }
+
+    /**
+     * Coalesces a newer journal entry into the pending one for the same target: the newer entry's
+     * fields win, and its per-student values are laid over the pending ones.
+     */
+    private static JSONObject mergePayloads(JSONObject pending, JSONObject newer, String valuesField) throws JSONException {
+        JSONObject merged = new JSONObject(pending.toString());
+        JSONObject values = merged.optJSONObject(valuesField);
+        if (values == null) values = new JSONObject();
+        for (Iterator<String> it = newer.keys(); it.hasNext(); ) {
+            String field = it.next();
+            if (!field.equals(valuesField)) merged.put(field, newer.get(field));
+        }
+        JSONObject newerValues = newer.getJSONObject(valuesField);
+        for (Iterator<String> it = newerValues.keys(); it.hasNext(); ) {
+            String uid = it.next();
+            values.put(uid, newerValues.get(uid));
         }
+        merged.put(valuesField, values);
+        return merged;
+    }
 
-        batch.commit()
-                .addOnSuccessListener(aVoid -> callback.onSuccess("Attendance recorded for " + attendanceMap.size() + " students."))
-                .addOnFailureListener(e -> callback.onFailure(new Exception("Attendance write failed: " + e.getMessage())));
+    private static Map<String, Object> studentDelta(int present, int total) {
+        Map<String, Object> delta = new HashMap<>();
+        delta.put(AttendanceAggregates.FIELD_PRESENT, present);
+        delta.put(AttendanceAggregates.FIELD_TOTAL, total);
+        return delta;
+    }
+
+    private static Map<String, Object> deltasDocument(String courseCode, String sessionId, Map<String, Object> studentDeltas,
+                                                      Timestamp createdAt) {
+        Map<String, Object> data = new HashMap<>();
+        data.put(AttendanceAggregates.FIELD_COURSE_CODE, courseCode);
+        data.put(AttendanceAggregates.FIELD_SESSION_ID, sessionId);
+        data.put(AttendanceAggregates.FIELD_CREATED_AT, createdAt);
+        data.put(AttendanceAggregates.FIELD_STUDENTS, studentDeltas);
+        return data;
+    }
+
+    /**
+     * Applies a deltas document to attendance_summary, SUMMARY_DELTA_CHUNK students per batch. Each
+     * batch also removes its students from the document (the last one deletes it), so a run that
+     * stops halfway resumes where it left off and no increment is applied twice.
+     */
+    private Task<Void> applySummaryDeltas(DocumentReference deltasRef) {
+        return deltasRef.get(Source.SERVER).onSuccessTask(doc -> {
+            Object students = doc.get(AttendanceAggregates.FIELD_STUDENTS);
+            String courseCode = doc.getString(AttendanceAggregates.FIELD_COURSE_CODE);
+            if (!(students instanceof Map) || courseCode == null) {
+                return doc.exists() ? deltasRef.delete() : Tasks.forResult(null);
+            }
+            Map<String, Object> deltas = (Map<String, Object>) students;
+            return applyDeltaChunks(deltasRef, courseCode, new ArrayList<>(deltas.keySet()), deltas, 0);
+        });
+    }
+
+    private Task<Void> applyDeltaChunks(DocumentReference deltasRef, String courseCode, List<String> uids,
+                                        Map<String, Object> deltas, int from) {
+        int to = Math.min(uids.size(), from + SUMMARY_DELTA_CHUNK);
+        Timestamp now = Timestamp.now();
+        WriteBatch batch = db.batch();
+        Map<String, Object> applied = new HashMap<>();
+        for (String uid : uids.subList(from, to)) {
+            Object delta = deltas.get(uid);
+            if (delta instanceof Map) {
+                Number present = (Number) ((Map<?, ?>) delta).get(AttendanceAggregates.FIELD_PRESENT);
+                Number total = (Number) ((Map<?, ?>) delta).get(AttendanceAggregates.FIELD_TOTAL);
+                Map<String, Object> summary = new HashMap<>();
+                summary.put(AttendanceAggregates.FIELD_STUDENT_ID, uid);
+                summary.put(AttendanceAggregates.FIELD_COURSE_CODE, courseCode);
+                summary.put(AttendanceAggregates.FIELD_PRESENT, FieldValue.increment(present != null ? present.longValue() : 0));
+                summary.put(AttendanceAggregates.FIELD_TOTAL, FieldValue.increment(total != null ? total.longValue() : 0));
+                summary.put(AttendanceAggregates.FIELD_UPDATED_AT, now);
+                batch.set(db.collection(AttendanceAggregates.SUMMARY_COLLECTION)
+                        .document(AttendanceAggregates.summaryId(courseCode, uid)), summary, SetOptions.merge());
+            }
+            applied.put(AttendanceAggregates.FIELD_STUDENTS + "." + uid, FieldValue.delete());
+        }
+        if (to >= uids.size()) {
+            batch.delete(deltasRef);
+        } else {
+            batch.update(deltasRef, applied);
+        }
+        return batch.commit().onSuccessTask(ignored -> to >= uids.size()
+                ? Tasks.forResult(null)
+                : applyDeltaChunks(deltasRef, courseCode, uids, deltas, to));
+    }
+
+    private void replayAttendance(WriteOutbox.Entry entry, WriteOutbox.ReplayCallback done) {
+        JSONObject payload = entry.payload;
+        String sessionId = payload.optString("sessionId");
+        Timestamp recordTime = new Timestamp(new Date(payload.optLong("recordedAt", System.currentTimeMillis())));
+        Map<String, String> marks = new HashMap<>();
+        JSONObject values = payload.optJSONObject("marks");
+        if (values != null) {
+            for (Iterator<String> it = values.keys(); it.hasNext(); ) {
+                String uid = it.next();
+                marks.put(uid, values.optString(uid));
+            }
+        }
+        AttendanceWriteCallback callback = new AttendanceWriteCallback() {
+            @Override
+            public void onSuccess(String message) {
+                done.onSuccess();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                done.onFailure(e);
+            }
+        };
+
+        if (payload.has("courseCode")) {
+            writeAttendance(sessionId, payload.optString("courseCode"), marks, entry.writeId, recordTime, callback);
+            return;
+        }
+        db.collection(SESSIONS_COLLECTION).document(sessionId).get(Source.SERVER)
+                .continueWithTask(sessionTask -> {
+                    String courseCode = sessionTask.getResult().getString("courseCode");
+                    if (courseCode != null || sessionTask.getResult().exists()) return Tasks.forResult(courseCode);
+                    // A computed occurrence has no document until its first write; its blueprint knows the course
+                    return VirtualSessions.missingSessionData(db, sessionId).continueWith(dataTask -> {
+                        Map<String, Object> data = dataTask.getResult();
+                        return data != null ? (String) data.get("courseCode") : null;
+                    });
+                })
+                .addOnSuccessListener(courseCode -> {
+                    if (courseCode == null) {
+                        done.onFailure(new FirebaseFirestoreException("Attendance write failed: session " + sessionId
+                                + " has no course code.", FirebaseFirestoreException.Code.NOT_FOUND));
+                        return;
+                    }
+                    writeAttendance(sessionId, courseCode, marks, entry.writeId, recordTime, callback);
+                })
+                .addOnFailureListener(done::onFailure);
+    }
+
+    private void replaySubmissionGrades(WriteOutbox.Entry entry, WriteOutbox.ReplayCallback done) {
+        JSONObject payload = entry.payload;
+        writeSubmissionGrades(payload.optString("courseCode"), payload.optString("assignmentId"),
+                intValues(payload.optJSONObject("grades")), payload.optString("facultyUid"),
+                new Timestamp(new Date(payload.optLong("gradedAt", System.currentTimeMillis()))), replayCallback(done));
+    }
+
+    private void replayExamScores(WriteOutbox.Entry entry, WriteOutbox.ReplayCallback done) {
+        JSONObject payload = entry.payload;
+        writeExamScores(payload.optString("courseCode"), payload.optString("examTitle"), payload.optInt("maxPoints"),
+                intValues(payload.optJSONObject("scores")),
+                new Timestamp(new Date(payload.optLong("gradedAt", System.currentTimeMillis()))), replayCallback(done));
+    }
+
+    private static Map<String, Integer> intValues(JSONObject values) {
+        Map<String, Integer> map = new HashMap<>();
+        if (values == null) return map;
+        for (Iterator<String> it = values.keys(); it.hasNext(); ) {
+            String uid = it.next();
+            map.put(uid, values.optInt(uid));
+        }
+        return map;
+    }
+
+    private static RegistrationCallback replayCallback(WriteOutbox.ReplayCallback done) {
+        return new RegistrationCallback() {
+            @Override
+            public void onSuccess(String message) {
+                done.onSuccess();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                done.onFailure(e);
+            }
+        };
+    }
+
+    public interface CourseAttendanceRateCallback {
+        void onSuccess(long presentMarks, long totalMarks); // Across every student of the course
+        void onFailure(Exception e);
+    }
+
+    /**
+     * Class-wide attendance for a course, read from the single course_attendance counter document.
+     */
+    public void fetchCourseAttendanceRate(String courseCode, CourseAttendanceRateCallback callback) {
+        db.collection(AttendanceAggregates.COURSE_COLLECTION).document(courseCode).get()
+                .addOnSuccessListener(doc -> {
+                    Long present = doc.getLong(AttendanceAggregates.FIELD_PRESENT);
+                    Long total = doc.getLong(AttendanceAggregates.FIELD_TOTAL);
+                    callback.onSuccess(present != null ? present : 0, total != null ? total : 0);
+                })
+                .addOnFailureListener(callback::onFailure);
     }
 
     public void fetchAssignmentsByCourse(String courseCode, AssignmentListCallback callback) {
@@ -400,25 +1180,23 @@ public class FacultyRepository {
             return;
         }
 
-        db.collection(COURSES_COLLECTION)
+        Query query = db.collection(COURSES_COLLECTION)
                 .document(courseCode)
                 .collection("assignments") // Target the assignments subcollection
-                .orderBy("dueDate", Query.Direction.ASCENDING)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
+                .orderBy("dueDate", Query.Direction.ASCENDING);
+
+        ReadPolicy.ALWAYS_REVALIDATE.get(query, queryDocumentSnapshots -> Background.process(() -> {
                     List<Assignment> assignments = new ArrayList<>();
                     for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
                         try {
-                            Assignment assignment = document.toObject(Assignment.class);
-                            assignment.setId(document.getId());
+                            Assignment assignment = AssignmentMapper.fromSnapshot(document);
                             assignments.add(assignment);
                         } catch (Exception e) {
                             Log.e(TAG, "MAPPING FAILED for assignment document " + document.getId(), e);
                         }
                     }
-                    callback.onSuccess(assignments);
-                })
-                .addOnFailureListener(e -> callback.onFailure(e));
+                    return Collections.unmodifiableList(assignments);
+                }, callback::onSuccess, callback::onFailure), e -> callback.onFailure(e));
     }
 
     public interface ExamTypeCallback {
@@ -430,17 +1208,16 @@ public class FacultyRepository {
      * Fetches all defined exam types from the dedicated collection for the dropdown.
      */
     public void fetchExamTypes(ExamTypeCallback callback) {
-        db.collection(EXAM_TYPES_COLLECTION)
-                .orderBy(FieldPath.documentId(), Query.Direction.ASCENDING)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
+        Query query = db.collection(EXAM_TYPES_COLLECTION)
+                .orderBy(FieldPath.documentId(), Query.Direction.ASCENDING);
+
+        titleReads.get(query, queryDocumentSnapshots -> {
                     List<String> titles = new ArrayList<>();
                     for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
                         titles.add(document.getId()); // The Document ID is the exam title
                     }
                     callback.onSuccess(titles);
-                })
-                .addOnFailureListener(callback::onFailure);
+                }, callback::onFailure);
     }
 
     public interface ExamDetailCallback {
@@ -452,18 +1229,19 @@ public class FacultyRepository {
      * Fetches the max points for a given exam type from the 'exam_types' collection.
      */
     public void fetchExamMaxPoints(String courseCode, String examTitle, ExamDetailCallback callback) {
-        db.collection(COURSES_COLLECTION).document(courseCode)
+        DocumentReference ref = db.collection(COURSES_COLLECTION).document(courseCode)
                 .collection(EXAM_TYPES_COLLECTION) // Use the nested path
-                .document(examTitle).get()
-                .addOnSuccessListener(documentSnapshot -> {
+                .document(examTitle);
+
+        // Server-first: one answer, so the grading form's max points are set once
+        ReadPolicy.SERVER_FIRST.get(ref, documentSnapshot -> {
                     if (documentSnapshot.exists()) {
                         Long points = documentSnapshot.getLong("maxPoints");
                         callback.onSuccess(points != null ? points.intValue() : 0);
                     } else {
                         callback.onFailure(new Exception("Exam type not found for this course."));
                     }
-                })
-                .addOnFailureListener(callback::onFailure);
+                }, callback::onFailure);
     }
 
     /**
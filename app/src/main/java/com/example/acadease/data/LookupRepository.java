@@ -1,6 +1,11 @@
 package com.example.acadease.data;
 
+import android.util.Log;
+
 import com.example.acadease.model.User; // CRITICAL: Import the User model
+import com.example.acadease.model.mapper.UserMapper;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.Query;
@@ -13,6 +18,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 public class LookupRepository {
+    private static final String TAG = "LookupRepository";
     private final FirebaseFirestore db;
 
     // Collection Name Constants (CRITICAL: Match database case exactly)
@@ -22,10 +28,40 @@ public class LookupRepository {
     private final String USERS_COLLECTION = "users";
     private final String COURSES_COLLECTION = "Courses";
 
+    // Programs and exam types change rarely; trust the cache for 10 minutes after a server read
+    private final ReadPolicy referenceReads = ReadPolicy.staleWhileRevalidate(10 * 60 * 1000L);
+
+    // Shared by every repository instance so lookups from different rows land in the same batch
+    private static BatchLoader<String, DocumentSnapshot> userDocumentLoader;
+
     public LookupRepository() {
         this.db = FirebaseFirestore.getInstance();
     }
 
+    /**
+     * Frame-batched loader for user profile documents, keyed by UID.
+     * Resolves with null for UIDs that have no profile document.
+     */
+    static synchronized BatchLoader<String, DocumentSnapshot> userDocumentLoader() {
+        if (userDocumentLoader == null) {
+            FirebaseFirestore firestore = FirebaseFirestore.getInstance();
+            userDocumentLoader = new BatchLoader<>(uids -> firestore.collection("users")
+                    .whereIn(FieldPath.documentId(), uids)
+                    .get()
+                    .continueWith(task -> {
+                        if (!task.isSuccessful()) {
+                            throw new Exception("User lookup failed: " + task.getException().getMessage(), task.getException());
+                        }
+                        Map<String, DocumentSnapshot> byUid = new HashMap<>();
+                        for (QueryDocumentSnapshot document : task.getResult()) {
+                            byUid.put(document.getId(), document);
+                        }
+                        return byUid;
+                    }), BatchLoader.FIRESTORE_WHERE_IN_LIMIT);
+        }
+        return userDocumentLoader;
+    }
+
     // =========================================================
     // CALLBACK INTERFACES
     // =========================================================
@@ -62,17 +98,16 @@ public class LookupRepository {
      * Fetches all existing Program Codes (Document IDs) for the student enrollment dropdown.
      */
     public void fetchProgramCodes(LookupListCallback callback) {
-        db.collection(PROGRAMS_COLLECTION)
-                .limit(50)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
+        Query query = db.collection(PROGRAMS_COLLECTION)
+                .limit(50);
+
+        referenceReads.get(query, queryDocumentSnapshots -> {
                     List<String> programCodes = new ArrayList<>();
                     for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
                         programCodes.add(document.getId());
                     }
                     callback.onSuccess(programCodes);
-                })
-                .addOnFailureListener(callback::onFailure);
+                }, callback::onFailure);
     }
 
     /**
@@ -84,12 +119,11 @@ public class LookupRepository {
             return;
         }
 
-        db.collection(USERS_COLLECTION)
-                .whereIn(FieldPath.documentId(), studentUids)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
+        // Batched and chunked to the whereIn limit, so large sections are safe
+        loadUserDocuments(studentUids)
+                .addOnSuccessListener(documents -> Background.process(() -> {
                     Map<String, String> uidToNameMap = new HashMap<>();
-                    for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
+                    for (DocumentSnapshot document : documents) {
                         String fullName = document.getString("name");
 
                         if (fullName == null || fullName.isEmpty()) {
@@ -98,8 +132,8 @@ public class LookupRepository {
 
                         uidToNameMap.put(document.getId(), fullName);
                     }
-                    callback.onSuccess(uidToNameMap);
-                })
+                    return uidToNameMap;
+                }, callback::onSuccess, callback::onFailure))
                 .addOnFailureListener(callback::onFailure);
     }
 
@@ -112,18 +146,17 @@ public class LookupRepository {
      * Fetches all available exam type titles from the 'exam_types' collection.
      */
     public void fetchExamTypeTitles(ExamTypeTitlesCallback callback) {
-        db.collection(EXAM_TYPES_COLLECTION)
-                .orderBy(FieldPath.documentId(), Query.Direction.ASCENDING)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
+        Query query = db.collection(EXAM_TYPES_COLLECTION)
+                .orderBy(FieldPath.documentId(), Query.Direction.ASCENDING);
+
+        referenceReads.get(query, queryDocumentSnapshots -> {
                     List<String> titles = new ArrayList<>();
                     for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
                         // The Document ID is the exam title (e.g., "Mid-Semester")
                         titles.add(document.getId());
                     }
                     callback.onSuccess(titles);
-                })
-                .addOnFailureListener(callback::onFailure);
+                }, callback::onFailure);
     }
 
     /**
@@ -135,22 +168,48 @@ public class LookupRepository {
             return;
         }
 
-        db.collection(USERS_COLLECTION)
-                .whereIn(FieldPath.documentId(), studentUids)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
+        loadUserDocuments(studentUids)
+                .addOnSuccessListener(documents -> Background.process(() -> {
                     List<User> userProfiles = new ArrayList<>();
-                    for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
-                        // Map the document to the full User POJO
-                        User user = document.toObject(User.class);
-                        user.setUid(document.getId()); // Set the UID
-                        userProfiles.add(user);
+                    for (DocumentSnapshot document : documents) {
+                        try {
+                            // Map the document to the full User POJO
+                            User user = UserMapper.fromSnapshot(document);
+                            if (user == null) continue;
+                            user.setUid(document.getId()); // Set the UID
+                            userProfiles.add(user);
+                        } catch (Exception e) {
+                            Log.e(TAG, "MAPPING FAILED for user document " + document.getId(), e);
+                        }
                     }
+                    return userProfiles;
+                }, userProfiles -> {
+                    // PeopleDirectory is fed on the main thread, like every other caller of put()
+                    for (User user : userProfiles) PeopleDirectory.getInstance().put(user);
                     callback.onSuccess(userProfiles);
-                })
+                }, callback::onFailure))
                 .addOnFailureListener(callback::onFailure);
     }
 
+    /**
+     * Resolves the existing profile documents for the given UIDs, in request order.
+     */
+    private Task<List<DocumentSnapshot>> loadUserDocuments(List<String> uids) {
+        List<String> distinct = uids.stream().distinct().collect(Collectors.toList());
+        return userDocumentLoader().loadMany(distinct).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw new Exception("Bulk user lookup failed: " + task.getException().getMessage(), task.getException());
+            }
+            Map<String, DocumentSnapshot> byUid = task.getResult();
+            List<DocumentSnapshot> documents = new ArrayList<>();
+            for (String uid : distinct) {
+                DocumentSnapshot document = byUid.get(uid);
+                if (document != null && document.exists()) documents.add(document);
+            }
+            return documents;
+        });
+    }
+
     public void fetchExamTypeTitles(String courseCode, ExamTypeTitlesCallback callback) {
         if (courseCode == null) {
             callback.onFailure(new Exception("Course code is required to fetch exam types."));
@@ -158,18 +217,17 @@ public class LookupRepository {
         }
 
         // Target the nested subcollection
-        db.collection(COURSES_COLLECTION).document(courseCode)
+        Query query = db.collection(COURSES_COLLECTION).document(courseCode)
                 .collection(EXAM_TYPES_COLLECTION)
-                .orderBy(FieldPath.documentId(), Query.Direction.ASCENDING)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
+                .orderBy(FieldPath.documentId(), Query.Direction.ASCENDING);
+
+        referenceReads.get(query, queryDocumentSnapshots -> {
                     List<String> titles = new ArrayList<>();
                     for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
                         titles.add(document.getId());
                     }
                     callback.onSuccess(titles);
-                })
-                .addOnFailureListener(callback::onFailure);
+                }, callback::onFailure);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,186 @@
+package com.example.acadease.data;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.acadease.model.User;
+import com.example.acadease.model.mapper.UserMapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * App-wide cache of user profiles keyed by UID.
+ * Entries are LRU-bounded and expire after a TTL. Concurrent lookups for the same UID
+ * share a single in-flight read, and misses are batched through LookupRepository's user loader.
+ */
+public class PeopleDirectory {
+    private static final String TAG = "PeopleDirectory";
+
+    private static final int MAX_ENTRIES = 256;
+    private static final long TTL_MS = 10 * 60 * 1000L; // 10 minutes
+
+    private static PeopleDirectory instance;
+
+    // Access-ordered map: the eldest entry is the least recently used one.
+    private final LinkedHashMap<String, Entry> cache = new LinkedHashMap<String, Entry>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private final Map<String, Pending> inFlight = new HashMap<>();
+
+    public interface ProfileCallback {
+        /** @param user the profile, or null when no profile document exists for the UID. */
+        void onSuccess(@Nullable User user);
+        void onFailure(Exception e);
+    }
+
+    private static class Entry {
+        final User user; // null = known missing profile
+        final long fetchedAt;
+
+        Entry(User user, long fetchedAt) {
+            this.user = user;
+            this.fetchedAt = fetchedAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - fetchedAt > TTL_MS;
+        }
+    }
+
+    private static class Pending {
+        final List<ProfileCallback> callbacks = new ArrayList<>();
+        boolean invalidated; // set when a write lands while the read is in flight
+    }
+
+    private PeopleDirectory() {
+    }
+
+    public static synchronized PeopleDirectory getInstance() {
+        if (instance == null) {
+            instance = new PeopleDirectory();
+        }
+        return instance;
+    }
+
+    /**
+     * Resolves a profile from the cache, joining an in-flight read for the same UID if one exists.
+     */
+    public void fetchProfile(String uid, @NonNull ProfileCallback callback) {
+        if (uid == null || uid.isEmpty()) {
+            callback.onFailure(new Exception("User UID is missing."));
+            return;
+        }
+
+        Entry hit;
+        boolean startRead = false;
+        synchronized (this) {
+            hit = cache.get(uid);
+            if (hit != null && hit.isExpired(System.currentTimeMillis())) {
+                cache.remove(uid);
+                hit = null;
+            }
+            if (hit == null) {
+                Pending pending = inFlight.get(uid);
+                if (pending == null) {
+                    pending = new Pending();
+                    inFlight.put(uid, pending);
+                    startRead = true;
+                }
+                pending.callbacks.add(callback);
+            }
+        }
+
+        if (hit != null) {
+            callback.onSuccess(hit.user);
+        } else if (startRead) {
+            load(uid);
+        }
+    }
+
+    /**
+     * Returns a fresh cached profile without touching the network, or null on a miss.
+     * Lets adapters bind synchronously when the name is already known.
+     */
+    @Nullable
+    public synchronized User peek(String uid) {
+        if (uid == null) return null;
+        Entry hit = cache.get(uid);
+        if (hit == null || hit.isExpired(System.currentTimeMillis())) return null;
+        return hit.user;
+    }
+
+    /**
+     * Seeds the cache with a profile that was read through another path (e.g. login).
+     */
+    public synchronized void put(@NonNull User user) {
+        if (user.getUid() == null) return;
+        cache.put(user.getUid(), new Entry(user, System.currentTimeMillis()));
+    }
+
+    /**
+     * Drops a UID after its profile document was written or deleted.
+     */
+    public synchronized void invalidate(String uid) {
+        if (uid == null) return;
+        cache.remove(uid);
+        Pending pending = inFlight.get(uid);
+        if (pending != null) {
+            pending.invalidated = true;
+        }
+    }
+
+    public synchronized void clear() {
+        cache.clear();
+        for (Pending pending : inFlight.values()) {
+            pending.invalidated = true;
+        }
+    }
+
+    private void load(String uid) {
+        // Misses from the same frame are coalesced into chunked whereIn queries
+        LookupRepository.userDocumentLoader().load(uid)
+                .addOnSuccessListener(documentSnapshot -> {
+                    User user = null;
+                    if (documentSnapshot != null && documentSnapshot.exists()) {
+                        try {
+                            user = UserMapper.fromSnapshot(documentSnapshot);
+                        } catch (Exception e) {
+                            Log.e(TAG, "MAPPING FAILED for user document " + uid, e);
+                        }
+                    }
+                    complete(uid, user, null);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Profile lookup failed for UID: " + uid, e);
+                    complete(uid, null, e);
+                });
+    }
+
+    private void complete(String uid, User user, Exception error) {
+        Pending pending;
+        synchronized (this) {
+            pending = inFlight.remove(uid);
+            if (error == null && pending != null && !pending.invalidated) {
+                cache.put(uid, new Entry(user, System.currentTimeMillis()));
+            }
+        }
+        if (pending == null) return;
+
+        for (ProfileCallback callback : pending.callbacks) {
+            if (error != null) {
+                callback.onFailure(error);
+            } else {
+                callback.onSuccess(user);
+            }
+        }
+    }
+}
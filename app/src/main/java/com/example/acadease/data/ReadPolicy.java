@@ -0,0 +1,190 @@
+package com.example.acadease.data;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.OnFailureListener;
+import com.google.android.gms.tasks.OnSuccessListener;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.Source;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * How a repository read uses the Firestore local cache.
+ *
+ * Stale-while-revalidate: the Source.CACHE result is delivered right away, then the read is repeated
+ * against Source.SERVER and delivered a second time only if the data changed. While the last server
+ * read of the same query is younger than maxAge, a cache hit is trusted and the server read is skipped.
+ * Callers must therefore accept onSuccess being called up to twice, so it suits reads whose result
+ * goes straight to the screen, not reads that start further reads.
+ *
+ * Server-first: a single delivery, the Source.SERVER result or, when the server cannot be reached,
+ * the cached one. For reads whose result feeds further reads, so the chain runs once. A cache miss
+ * is not reported; the server's error is.
+ *
+ * Network-only: a single Source.SERVER read, for screens that must show their own writes.
+ */
+public class ReadPolicy {
+    private static final String TAG = "ReadPolicy";
+    private static final int MAX_TRACKED_READS = 200;
+
+    public static final ReadPolicy NETWORK_ONLY = new ReadPolicy(false, 0, false);
+    /** Cache first, but always revalidate against the server. */
+    public static final ReadPolicy ALWAYS_REVALIDATE = new ReadPolicy(true, 0, false);
+    /** One delivery: the server result, or the cached one when offline. */
+    public static final ReadPolicy SERVER_FIRST = new ReadPolicy(true, 0, true);
+
+    // Query (or document path / composite key) -> time of the last successful server read
+    private static final Map<Object, Long> lastServerRead = new LinkedHashMap<Object, Long>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Long> eldest) {
+            return size() > MAX_TRACKED_READS;
+        }
+    };
+
+    /** Builds the read for a given source; used for reads spanning several queries. */
+    public interface Loader<T> {
+        Task<T> load(Source source);
+    }
+
+    private final boolean useCache;
+    private final long maxAgeMs;
+    private final boolean serverFirst;
+
+    private ReadPolicy(boolean useCache, long maxAgeMs, boolean serverFirst) {
+        this.useCache = useCache;
+        this.maxAgeMs = maxAgeMs;
+        this.serverFirst = serverFirst;
+    }
+
+    public static ReadPolicy staleWhileRevalidate(long maxAgeMs) {
+        return new ReadPolicy(true, maxAgeMs, false);
+    }
+
+    public void get(@NonNull Query query, @NonNull OnSuccessListener<QuerySnapshot> onData, @NonNull OnFailureListener onError) {
+        read(query, query::get, onData, onError);
+    }
+
+    public void get(@NonNull DocumentReference ref, @NonNull OnSuccessListener<DocumentSnapshot> onData, @NonNull OnFailureListener onError) {
+        read(ref.getPath(), ref::get, onData, onError);
+    }
+
+    /**
+     * Composite read (e.g. chunked whereIn queries). The key must identify the whole read.
+     * The result may be a snapshot or a collection of snapshots.
+     */
+    public <T> void get(@NonNull String key, @NonNull Loader<T> loader, @NonNull OnSuccessListener<T> onData, @NonNull OnFailureListener onError) {
+        read(key, loader, onData, onError);
+    }
+
+    private <T> void read(Object key, Loader<T> loader, OnSuccessListener<T> onData, OnFailureListener onError) {
+        if (!useCache) {
+            loader.load(Source.SERVER)
+                    .addOnSuccessListener(result -> {
+                        markServerRead(key);
+                        onData.onSuccess(result);
+                    })
+                    .addOnFailureListener(onError);
+            return;
+        }
+
+        if (serverFirst) {
+            loader.load(Source.SERVER)
+                    .addOnSuccessListener(result -> {
+                        markServerRead(key);
+                        onData.onSuccess(result);
+                    })
+                    .addOnFailureListener(serverError -> loader.load(Source.CACHE).addOnCompleteListener(cacheTask -> {
+                        T cached = cacheTask.isSuccessful() ? cacheTask.getResult() : null;
+                        if (cached != null && (hasData(cached) || lastServerReadAt(key) != null)) {
+                            Log.w(TAG, "Server read failed, using cached result", serverError);
+                            onData.onSuccess(cached);
+                        } else {
+                            onError.onFailure(serverError);
+                        }
+                    }));
+            return;
+        }
+
+        loader.load(Source.CACHE).addOnCompleteListener(cacheTask -> {
+            T cached = cacheTask.isSuccessful() ? cacheTask.getResult() : null;
+            // An empty cached result only counts once the query has been answered by the server before
+            boolean hit = cached != null && (hasData(cached) || lastServerReadAt(key) != null);
+            if (hit) {
+                onData.onSuccess(cached);
+                Long last = lastServerReadAt(key);
+                if (last != null && System.currentTimeMillis() - last < maxAgeMs) return;
+            }
+
+            Object cachedFingerprint = hit ? fingerprint(cached) : null;
+            loader.load(Source.SERVER)
+                    .addOnSuccessListener(fresh -> {
+                        markServerRead(key);
+                        if (hit && fingerprint(fresh).equals(cachedFingerprint)) return;
+                        onData.onSuccess(fresh);
+                    })
+                    .addOnFailureListener(e -> {
+                        if (hit) {
+                            // Offline or congested: the cached result already on screen stays
+                            Log.w(TAG, "Revalidation failed, keeping cached result", e);
+                            return;
+                        }
+                        onError.onFailure(e);
+                    });
+        });
+    }
+
+    private static synchronized Long lastServerReadAt(Object key) {
+        return lastServerRead.get(key);
+    }
+
+    private static synchronized void markServerRead(Object key) {
+        lastServerRead.put(key, System.currentTimeMillis());
+    }
+
+    private static boolean hasData(Object result) {
+        if (result instanceof QuerySnapshot) return !((QuerySnapshot) result).isEmpty();
+        if (result instanceof DocumentSnapshot) return true; // A cache miss on a document fails the task instead
+        if (result instanceof Collection) {
+            for (Object part : (Collection<?>) result) {
+                if (hasData(part)) return true;
+            }
+            return false;
+        }
+        return result != null;
+    }
+
+    /** Value-comparable view of a result: document ids and field data, in order. */
+    private static Object fingerprint(Object result) {
+        if (result instanceof QuerySnapshot) {
+            List<Object> docs = new ArrayList<>();
+            for (DocumentSnapshot doc : ((QuerySnapshot) result).getDocuments()) {
+                docs.add(fingerprint(doc));
+            }
+            return docs;
+        }
+        if (result instanceof DocumentSnapshot) {
+            DocumentSnapshot doc = (DocumentSnapshot) result;
+            return Arrays.asList(doc.getId(), doc.exists(), doc.getData());
+        }
+        if (result instanceof Collection) {
+            List<Object> parts = new ArrayList<>();
+            for (Object part : (Collection<?>) result) {
+                parts.add(fingerprint(part));
+            }
+            return parts;
+        }
+        return result;
+    }
+}
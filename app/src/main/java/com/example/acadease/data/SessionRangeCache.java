@@ -0,0 +1,148 @@
+package com.example.acadease.data;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.acadease.model.Session;
+import com.google.firebase.Timestamp;
+
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sliding window of loaded session ranges (a week or a day) for the timetable navigators.
+ *
+ * get() serves the requested range from memory when it is loaded, then prefetches the ranges up to
+ * `radius` steps on each side in the background and evicts everything outside that window, so
+ * stepping back and forth is instant after the first load.
+ *
+ * Only the range most recently passed to get() reports to its callback. Fetchers going through a
+ * ReadPolicy may deliver twice (cache, then server); the newer result replaces the stored one and
+ * is reported again if that range is still on screen. Main thread only.
+ */
+public class SessionRangeCache {
+    private static final String TAG = "SessionRangeCache";
+
+    public interface SessionsCallback {
+        void onSuccess(List<Session> sessions);
+        void onFailure(Exception e);
+    }
+
+    /** Loads the sessions between start and end (inclusive), e.g. via fetchScheduleSessions. */
+    public interface Fetcher {
+        void fetch(Timestamp start, Timestamp end, SessionsCallback callback);
+    }
+
+    private static class Range {
+        List<Session> sessions; // null until the first result arrives
+        boolean loading;
+    }
+
+    private final int spanDays;
+    private final int radius;
+    private final Fetcher fetcher;
+
+    // Range start (millis) -> range
+    private final Map<Long, Range> ranges = new HashMap<>();
+    private long currentKey = Long.MIN_VALUE;
+    private SessionsCallback currentCallback;
+
+    /**
+     * @param spanDays length of one range: 7 for the week grid, 1 for the day list.
+     * @param radius   ranges kept (and prefetched) on each side of the current one.
+     */
+    public SessionRangeCache(int spanDays, int radius, @NonNull Fetcher fetcher) {
+        this.spanDays = spanDays;
+        this.radius = radius;
+        this.fetcher = fetcher;
+    }
+
+    /**
+     * Shows the range starting on the day of rangeStart. The callback is used until the next get().
+     */
+    public void get(@NonNull Calendar rangeStart, @NonNull SessionsCallback callback) {
+        Calendar start = startOfDay(rangeStart);
+        currentKey = start.getTimeInMillis();
+        currentCallback = callback;
+
+        Range current = ranges.get(currentKey);
+        if (current != null && current.sessions != null) {
+            callback.onSuccess(current.sessions);
+        } else if (current == null || !current.loading) {
+            load(start);
+        }
+
+        // Keep the window around the current range warm and drop everything outside it
+        Map<Long, Calendar> window = new HashMap<>();
+        for (int step = -radius; step <= radius; step++) {
+            Calendar neighbour = (Calendar) start.clone();
+            neighbour.add(Calendar.DATE, step * spanDays);
+            window.put(neighbour.getTimeInMillis(), neighbour);
+        }
+        for (Iterator<Long> it = ranges.keySet().iterator(); it.hasNext(); ) {
+            if (!window.containsKey(it.next())) it.remove();
+        }
+        for (Map.Entry<Long, Calendar> entry : window.entrySet()) {
+            if (!ranges.containsKey(entry.getKey())) load(entry.getValue());
+        }
+    }
+
+    /** True when get() for this range would answer from memory. */
+    public boolean isLoaded(@NonNull Calendar rangeStart) {
+        Range range = ranges.get(startOfDay(rangeStart).getTimeInMillis());
+        return range != null && range.sessions != null;
+    }
+
+    /** Drops every loaded range, e.g. after the timetable itself was edited. */
+    public void clear() {
+        ranges.clear();
+    }
+
+    private void load(Calendar start) {
+        long key = start.getTimeInMillis();
+        Range range = new Range();
+        range.loading = true;
+        ranges.put(key, range);
+
+        Calendar end = (Calendar) start.clone();
+        end.add(Calendar.DATE, spanDays);
+        end.add(Calendar.SECOND, -1); // 23:59:59 on the last day
+
+        fetcher.fetch(new Timestamp(start.getTime()), new Timestamp(end.getTime()), new SessionsCallback() {
+            @Override
+            public void onSuccess(List<Session> sessions) {
+                range.loading = false;
+                if (ranges.get(key) != range) return; // Evicted while in flight
+                range.sessions = sessions;
+                if (key == currentKey && currentCallback != null) currentCallback.onSuccess(sessions);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                range.loading = false;
+                if (ranges.get(key) != range) return;
+                if (range.sessions != null) return; // Keep the result we already have
+                // Forget the failed range so the next visit retries it
+                ranges.remove(key);
+                if (key == currentKey && currentCallback != null) {
+                    currentCallback.onFailure(e);
+                } else {
+                    Log.w(TAG, "Prefetch failed for range starting " + start.getTime(), e);
+                }
+            }
+        });
+    }
+
+    private static Calendar startOfDay(Calendar day) {
+        Calendar start = (Calendar) day.clone();
+        start.set(Calendar.HOUR_OF_DAY, 0);
+        start.set(Calendar.MINUTE, 0);
+        start.set(Calendar.SECOND, 0);
+        start.set(Calendar.MILLISECOND, 0);
+        return start;
+    }
+}
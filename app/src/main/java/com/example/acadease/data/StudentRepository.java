@@ -6,28 +6,36 @@ import android.util.Log;
 import androidx.annotation.NonNull;
 
 import com.example.acadease.model.Session;
+import com.example.acadease.utils.AttendanceStatus;
+import com.example.acadease.utils.RosterMarks;
+import com.example.acadease.model.mapper.SessionMapper;
+import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.Timestamp;
 import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.Query;
-import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 
 public class StudentRepository {
 
     private static final String TAG = "StudentRepository";
     private final FirebaseFirestore db = FirebaseFirestore.getInstance();
-    private final Executor bg = Executors.newSingleThreadExecutor();
+
+    // Read policies (cache first, then revalidate unless the last server read is younger than max-age)
+    private final ReadPolicy sessionReads = ReadPolicy.staleWhileRevalidate(30 * 1000L);
 
     // -------- Enrollments --------
     public interface EnrollmentsCallback {
@@ -51,59 +59,45 @@ public class StudentRepository {
         db.collection("sessions")
                 .whereEqualTo("courseCode", courseCode)
                 .get()
-                .addOnSuccessListener(qs -> {
-                    List<SessionWithStatus> out = new ArrayList<>();
-                    List<com.google.android.gms.tasks.Task<?>> tasks = new ArrayList<>();
+                .addOnSuccessListener(qs -> Background.process(() -> {
+                    Map<String, DocumentSnapshot> sessionsById = new HashMap<>();
                     for (DocumentSnapshot ds : qs.getDocuments()) {
-                        Session s = ds.toObject(Session.class);
-                        if (s == null) continue;
-                        s.setId(ds.getId());
-                        SessionWithStatus sw = new SessionWithStatus();
-                        sw.session = s;
-                        out.add(sw);
-                        // For each session, read its attendance subcollection
-                        tasks.add(ds.getReference().collection("attendance").get()
-                                .addOnSuccessListener(attQs -> {
-                                    for (DocumentSnapshot aDoc : attQs.getDocuments()) {
-                                        // Two options supported: documentId == studentUid OR field studentId == studentUid
-                                        boolean match = aDoc.getId().equals(studentUid);
-                                        if (!match) {
-                                            String sid = aDoc.getString("studentId");
-                                            match = (sid != null && sid.equals(studentUid));
-                                        }
-                                        if (match) {
-                                            sw.status = String.valueOf(aDoc.getString("status"));
-                                            break;
-                                        }
-                                    }
-                                }));
+                        if (Boolean.TRUE.equals(ds.getBoolean(VirtualSessions.FIELD_CANCELLED))) continue; // Did not take place
+                        sessionsById.put(ds.getId(), ds);
                     }
-                    Tasks.whenAllComplete(tasks).addOnSuccessListener(v -> {
+                    return sessionsById;
+                }, sessionsById -> {
+                    // 2) Only this student's attendance rows, instead of every session's full roster
+                    fetchStudentAttendanceRows(studentUid, sessionsById)
+                            .addOnSuccessListener(rows -> Background.process(() -> {
+                                List<SessionWithStatus> out = new ArrayList<>();
+                                for (DocumentSnapshot ds : sessionsById.values()) {
+                                    Session s = SessionMapper.fromSnapshot(ds);
+                                    if (s == null) continue;
+                                    SessionWithStatus sw = new SessionWithStatus();
+                                    sw.session = s;
+                                    AttendanceRow row = rows.get(ds.getId());
+                                    if (row != null) sw.status = row.status;
+                                    out.add(sw);
+                                }
                                 // Sort locally by sessionTime if available
                                 out.sort((a, b) -> {
                                     if (a.session.getSessionTime() == null || b.session.getSessionTime() == null) return 0;
                                     return a.session.getSessionTime().toDate().compareTo(b.session.getSessionTime().toDate());
                                 });
-                                cb.onSuccess(out);
-                            })
+                                return Collections.unmodifiableList(out);
+                            }, cb::onSuccess, cb::onFailure))
                             .addOnFailureListener(cb::onFailure);
-                })
+                }, cb::onFailure))
                 .addOnFailureListener(cb::onFailure);
     }
 
+    /**
+     * Resolved once per login and kept current by EnrollmentStore's listener,
+     * so repeat calls from the student tabs are answered from memory.
+     */
     public void fetchEnrolledCourseCodes(@NonNull String studentUid, @NonNull EnrollmentsCallback cb) {
-        db.collection("Enrollments")
-                .whereEqualTo("studentId", studentUid)
-                .get()
-                .addOnSuccessListener(qs -> {
-                    List<String> codes = new ArrayList<>();
-                    for (QueryDocumentSnapshot d : qs) {
-                        String code = d.getString("courseCode");
-                        if (code != null) codes.add(code);
-                    }
-                    cb.onSuccess(codes);
-                })
-                .addOnFailureListener(cb::onFailure);
+        EnrollmentStore.getInstance().fetchCourseCodes(studentUid, cb);
     }
 
     // -------- Sessions (Weekly) --------
@@ -112,32 +106,44 @@ public class StudentRepository {
         void onFailure(Exception e);
     }
 
+    /**
+     * Sessions of the enrolled courses in [start, end]: stored sessions merged with the occurrences
+     * computed from the courses' virtual blueprints.
+     * Stale-while-revalidate (see ReadPolicy): cb.onSuccess runs a second time when the server result
+     * differs from the cached one. The caller, SessionRangeCache, replaces the range each time.
+     */
     public void fetchWeeklySessions(@NonNull String studentUid, @NonNull Timestamp start, @NonNull Timestamp end, @NonNull SessionsCallback cb) {
         fetchEnrolledCourseCodes(studentUid, new EnrollmentsCallback() {
             @Override public void onSuccess(List<String> courseCodes) {
                 if (courseCodes.isEmpty()) { cb.onSuccess(new ArrayList<>()); return; }
-                // Firestore 'in' supports up to 10 items; chunk if needed
-                List<Session> all = new ArrayList<>();
-                List<List<String>> chunks = chunk(courseCodes, 10);
-                List<com.google.android.gms.tasks.Task<?>> tasks = new ArrayList<>();
-                for (List<String> chunk : chunks) {
-                    tasks.add(db.collection("sessions")
-                            .whereIn("courseCode", chunk)
-                            .whereGreaterThanOrEqualTo("sessionTime", start)
-                            .whereLessThanOrEqualTo("sessionTime", end)
-                            .get()
-                            .addOnSuccessListener(qs -> {
-                                for (DocumentSnapshot ds : qs.getDocuments()) {
-                                    Session s = ds.toObject(Session.class);
-                                    if (s != null) { s.setId(ds.getId()); all.add(s); }
-                                }
-                            }));
-                }
-                Tasks.whenAllComplete(tasks).addOnSuccessListener(v -> cb.onSuccess(all))
-                        .addOnFailureListener(e -> {
-                            // Fallback path for missing index: run without date filters and filter locally
-                            fetchWeeklySessionsNoIndex(studentUid, start, end, cb);
-                        });
+                List<List<String>> chunks = chunk(courseCodes, BatchLoader.FIRESTORE_WHERE_IN_LIMIT);
+                ReadPolicy.Loader<List<QuerySnapshot>> loader = source -> {
+                    List<Task<QuerySnapshot>> tasks = new ArrayList<>();
+                    for (List<String> chunk : chunks) {
+                        tasks.add(db.collection("sessions")
+                                .whereIn("courseCode", chunk)
+                                .whereGreaterThanOrEqualTo("sessionTime", start)
+                                .whereLessThanOrEqualTo("sessionTime", end)
+                                .get(source));
+                    }
+                    // Blueprints last: one read per chunk, however many weeks they span
+                    for (List<String> chunk : chunks) {
+                        tasks.add(blueprintsQuery(chunk).get(source));
+                    }
+                    return Tasks.<QuerySnapshot>whenAllSuccess(tasks);
+                };
+                String key = "weeklySessions:" + courseCodes + ":" + start.getSeconds() + "-" + end.getSeconds();
+                sessionReads.get(key, loader, results -> Background.process(() -> {
+                    List<DocumentSnapshot> sessionDocs = new ArrayList<>();
+                    List<DocumentSnapshot> blueprintDocs = new ArrayList<>();
+                    for (int i = 0; i < results.size(); i++) {
+                        (i < chunks.size() ? sessionDocs : blueprintDocs).addAll(results.get(i).getDocuments());
+                    }
+                    return Collections.unmodifiableList(VirtualSessions.resolve(sessionDocs, blueprintDocs, start, end));
+                }, cb::onSuccess, cb::onFailure), e -> {
+                    // Fallback path for missing index: run without date filters and filter locally
+                    fetchWeeklySessionsNoIndex(studentUid, start, end, cb);
+                });
             }
             @Override public void onFailure(Exception e) { cb.onFailure(e); }
         });
@@ -147,110 +153,286 @@ public class StudentRepository {
         fetchEnrolledCourseCodes(studentUid, new EnrollmentsCallback() {
             @Override public void onSuccess(List<String> courseCodes) {
                 if (courseCodes.isEmpty()) { cb.onSuccess(new ArrayList<>()); return; }
-                List<Session> all = new ArrayList<>();
-                List<List<String>> chunks = chunk(courseCodes, 10);
-                List<com.google.android.gms.tasks.Task<?>> tasks = new ArrayList<>();
+                List<List<String>> chunks = chunk(courseCodes, BatchLoader.FIRESTORE_WHERE_IN_LIMIT);
+                List<Task<QuerySnapshot>> tasks = new ArrayList<>();
                 for (List<String> chunk : chunks) {
                     tasks.add(db.collection("sessions")
                             .whereIn("courseCode", chunk)
-                            .get()
-                            .addOnSuccessListener(qs -> {
-                                for (DocumentSnapshot ds : qs.getDocuments()) {
-                                    Session s = ds.toObject(Session.class);
-                                    if (s != null && s.getSessionTime() != null) {
-                                        java.util.Date d = s.getSessionTime().toDate();
-                                        if (!d.before(start.toDate()) && !d.after(end.toDate())) {
-                                            s.setId(ds.getId());
-                                            all.add(s);
-                                        }
-                                    }
-                                }
-                            }));
+                            .get());
+                }
+                for (List<String> chunk : chunks) {
+                    tasks.add(blueprintsQuery(chunk).get());
                 }
-                Tasks.whenAllComplete(tasks).addOnSuccessListener(v -> {
-                    // Sort by sessionTime
-                    all.sort((a, b) -> a.getSessionTime().toDate().compareTo(b.getSessionTime().toDate()));
-                    cb.onSuccess(all);
-                }).addOnFailureListener(cb::onFailure);
+                Tasks.whenAllComplete(tasks).addOnSuccessListener(v -> Background.process(() -> {
+                    List<DocumentSnapshot> sessionDocs = new ArrayList<>();
+                    List<DocumentSnapshot> blueprintDocs = new ArrayList<>();
+                    for (int i = 0; i < tasks.size(); i++) {
+                        Task<QuerySnapshot> task = tasks.get(i);
+                        if (!task.isSuccessful()) continue; // A failed chunk just contributes nothing, as before
+                        (i < chunks.size() ? sessionDocs : blueprintDocs).addAll(task.getResult().getDocuments());
+                    }
+                    // Filtered to [start, end] and sorted by sessionTime
+                    return Collections.unmodifiableList(VirtualSessions.resolve(sessionDocs, blueprintDocs, start, end));
+                }, cb::onSuccess, cb::onFailure)).addOnFailureListener(cb::onFailure);
             }
             @Override public void onFailure(Exception e) { cb.onFailure(e); }
         });
     }
 
+    /** Virtual blueprints of the given courses (at most BatchLoader.FIRESTORE_WHERE_IN_LIMIT codes, like the session chunks). */
+    private Query blueprintsQuery(List<String> courseCodes) {
+        return db.collection("schedules")
+                .whereIn("courseCode", courseCodes)
+                .whereEqualTo(VirtualSessions.FIELD_VIRTUAL, true);
+    }
+
     // -------- Attendance --------
     public interface AttendanceStatsCallback {
         void onSuccess(Map<String, CourseAttendance> stats);
         void onFailure(Exception e);
     }
 
+    /**
+     * One course's attendance: totalSessions counts the non-cancelled sessions that have taken place
+     * or that the student already has a mark for, attendedSessions the marks that parse as present.
+     */
     public static class CourseAttendance {
         public int totalSessions;
         public int attendedSessions;
     }
 
+    /** Attendance per course computed from the raw marks (see CourseAttendance). */
     public void fetchAttendanceStats(@NonNull String studentUid, @NonNull List<String> courseCodes, @NonNull AttendanceStatsCallback cb) {
         if (courseCodes.isEmpty()) { cb.onSuccess(new HashMap<>()); return; }
         Map<String, CourseAttendance> out = new HashMap<>();
-        List<com.google.android.gms.tasks.Task<?>> courseTasks = new ArrayList<>();
+        List<Task<QuerySnapshot>> sessionTasks = new ArrayList<>();
         for (String code : courseCodes) {
             out.put(code, new CourseAttendance());
-            com.google.android.gms.tasks.Task<?> courseTask = db.collection("sessions")
-                    .whereEqualTo("courseCode", code)
-                    .get()
-                    .onSuccessTask(qs -> {
-                        java.util.Date now = new java.util.Date();
-                        List<com.google.android.gms.tasks.Task<?>> attTasks = new ArrayList<>();
-                        for (DocumentSnapshot ds : qs.getDocuments()) {
-                            CourseAttendance ca = out.get(code);
-                            Timestamp st = ds.getTimestamp("sessionTime");
-                            boolean isPast = (st != null && !st.toDate().after(now));
-                            attTasks.add(ds.getReference().collection("attendance").get()
-                                    .addOnSuccessListener(attQs -> {
-                                        if (isPast || !attQs.isEmpty()) {
-                                            ca.totalSessions += 1;
-                                        }
-                                        for (DocumentSnapshot aDoc : attQs.getDocuments()) {
-                                            boolean match = aDoc.getId().equals(studentUid);
-                                            if (!match) {
-                                                String sid = aDoc.getString("studentId");
-                                                match = (sid != null && sid.equals(studentUid));
-                                            }
-                                            if (!match) {
-                                                Map<String, Object> entries = (Map<String, Object>) aDoc.get("entries");
-                                                if (entries != null && entries.containsKey(studentUid)) {
-                                                    Object v = entries.get(studentUid);
-                                                    if (v != null && "present".equalsIgnoreCase(String.valueOf(v))) {
-                                                        ca.attendedSessions += 1;
-                                                    }
-                                                    break;
-                                                }
-                                            }
-                                            if (match) {
-                                                Object raw = aDoc.get("status");
-                                                boolean isPresent = false;
-                                                if (raw instanceof String) {
-                                                    String s = ((String) raw).trim();
-                                                    isPresent = s.equalsIgnoreCase("present") || s.equalsIgnoreCase("p") || s.equals("1");
-                                                } else if (raw instanceof Boolean) {
-                                                    isPresent = (Boolean) raw;
-                                                } else if (raw instanceof Number) {
-                                                    isPresent = ((Number) raw).intValue() == 1;
-                                                }
-                                                if (isPresent) {
-                                                    ca.attendedSessions += 1;
-                                                }
-                                                break;
-                                            }
-                                        }
-                                    }));
+        }
+        for (List<String> chunk : chunk(courseCodes, BatchLoader.FIRESTORE_WHERE_IN_LIMIT)) {
+            sessionTasks.add(db.collection("sessions").whereIn("courseCode", chunk).get());
+        }
+        // Indexing and counting run on the repository worker; only the finished map reaches the main thread
+        Tasks.whenAllSuccess(sessionTasks)
+                .onSuccessTask(Background.executor(), results -> {
+                    Map<String, DocumentSnapshot> sessionsById = new HashMap<>();
+                    for (Object result : results) {
+                        for (DocumentSnapshot ds : ((QuerySnapshot) result).getDocuments()) {
+                            // A cancelled session keeps its marks but no longer counts (see FacultyRepository.cancelSession)
+                            if (Boolean.TRUE.equals(ds.getBoolean(VirtualSessions.FIELD_CANCELLED))) continue;
+                            sessionsById.put(ds.getId(), ds);
                         }
-                        return com.google.android.gms.tasks.Tasks.whenAllComplete(attTasks);
+                    }
+                    return fetchStudentAttendanceRows(studentUid, sessionsById)
+                            .onSuccessTask(Background.executor(), rows -> {
+                                java.util.Date now = new java.util.Date();
+                                for (DocumentSnapshot ds : sessionsById.values()) {
+                                    CourseAttendance ca = out.get(ds.getString("courseCode"));
+                                    if (ca == null) continue;
+                                    Timestamp st = ds.getTimestamp("sessionTime");
+                                    boolean isPast = (st != null && !st.toDate().after(now));
+                                    AttendanceRow row = rows.get(ds.getId());
+                                    // A session counts once it has happened or the student already has a mark for it
+                                    if (isPast || row != null) {
+                                        ca.totalSessions += 1;
+                                    }
+                                    if (row != null && row.present) {
+                                        ca.attendedSessions += 1;
+                                    }
+                                }
+                                return Tasks.forResult(out);
+                            });
+                })
+                .addOnSuccessListener(cb::onSuccess)
+                .addOnFailureListener(cb::onFailure);
+    }
+
+    /**
+     * Attendance per course from the materialized attendance_summary counters: one point read per
+     * enrolled course. Courses without a counter yet (not backfilled) are computed from the raw rows.
+     */
+    public void fetchAttendanceSummaries(@NonNull String studentUid, @NonNull List<String> courseCodes, @NonNull AttendanceStatsCallback cb) {
+        if (courseCodes.isEmpty()) { cb.onSuccess(new HashMap<>()); return; }
+        List<Task<DocumentSnapshot>> reads = new ArrayList<>();
+        for (String code : courseCodes) {
+            reads.add(db.collection(AttendanceAggregates.SUMMARY_COLLECTION)
+                    .document(AttendanceAggregates.summaryId(code, studentUid))
+                    .get());
+        }
+        Tasks.whenAllSuccess(reads)
+                .addOnSuccessListener(results -> {
+                    Map<String, CourseAttendance> out = new HashMap<>();
+                    List<String> missing = new ArrayList<>();
+                    for (int i = 0; i < courseCodes.size(); i++) {
+                        DocumentSnapshot doc = (DocumentSnapshot) results.get(i);
+                        if (!doc.exists()) { missing.add(courseCodes.get(i)); continue; }
+                        CourseAttendance ca = new CourseAttendance();
+                        Long total = doc.getLong(AttendanceAggregates.FIELD_TOTAL);
+                        Long present = doc.getLong(AttendanceAggregates.FIELD_PRESENT);
+                        ca.totalSessions = total != null ? total.intValue() : 0;
+                        ca.attendedSessions = present != null ? present.intValue() : 0;
+                        out.put(courseCodes.get(i), ca);
+                    }
+                    if (missing.isEmpty()) { cb.onSuccess(out); return; }
+                    fetchAttendanceStats(studentUid, missing, new AttendanceStatsCallback() {
+                        @Override public void onSuccess(Map<String, CourseAttendance> stats) {
+                            out.putAll(stats);
+                            cb.onSuccess(out);
+                        }
+                        @Override public void onFailure(Exception e) { cb.onFailure(e); }
                     });
-            courseTasks.add(courseTask);
+                })
+                .addOnFailureListener(e -> {
+                    Log.w(TAG, "Attendance summaries unavailable; computing from sessions", e);
+                    fetchAttendanceStats(studentUid, courseCodes, cb);
+                });
+    }
+
+    /** One student's mark for one session. */
+    private static class AttendanceRow {
+        final String status; // raw status text for display
+        final boolean present;
+
+        AttendanceRow(String status, boolean present) {
+            this.status = status;
+            this.present = present;
         }
-        com.google.android.gms.tasks.Tasks.whenAllComplete(courseTasks)
-                .addOnSuccessListener(v -> cb.onSuccess(out))
-                .addOnFailureListener(cb::onFailure);
+    }
+
+    /**
+     * Resolves the student's marks for the given sessions, keyed by session id.
+     * Every query is limited to the sessions' courses, in chunks of BatchLoader.FIRESTORE_WHERE_IN_LIMIT:
+     * attendance sheets by roster, per-student rows by studentId and backfilled 'entries' documents
+     * by studentIds (see AttendanceSheets). A sheet replaces any subcollection rows of its session,
+     * and rows win over entries. Sessions that may have been recorded but matched nothing (rows
+     * written before courseCode existed and not yet backfilled, see
+     * AdminRepository.backfillAttendanceKeys) are point-read at sessions/{id}/attendance/{studentUid};
+     * so are all of them if the collection-group query is rejected (e.g. index not deployed yet).
+     */
+    private Task<Map<String, AttendanceRow>> fetchStudentAttendanceRows(@NonNull String studentUid,
+                                                                        @NonNull Map<String, DocumentSnapshot> sessionsById) {
+        if (sessionsById.isEmpty()) return Tasks.forResult(new HashMap<>());
+
+        Set<String> courseCodes = new HashSet<>();
+        for (DocumentSnapshot ds : sessionsById.values()) {
+            String code = ds.getString("courseCode");
+            if (code != null) courseCodes.add(code);
+        }
+        List<Task<QuerySnapshot>> sheetReads = new ArrayList<>();
+        List<Task<QuerySnapshot>> rowReads = new ArrayList<>();
+        List<Task<QuerySnapshot>> entriesReads = new ArrayList<>();
+        for (List<String> chunk : chunk(new ArrayList<>(courseCodes), BatchLoader.FIRESTORE_WHERE_IN_LIMIT)) {
+            sheetReads.add(db.collection(AttendanceSheets.COLLECTION)
+                    .whereArrayContains(AttendanceSheets.FIELD_ROSTER, studentUid)
+                    .whereIn(AttendanceSheets.FIELD_COURSE_CODE, chunk)
+                    .get());
+            rowReads.add(db.collectionGroup("attendance")
+                    .whereEqualTo("studentId", studentUid)
+                    .whereIn(AttendanceSheets.FIELD_COURSE_CODE, chunk)
+                    .get());
+            entriesReads.add(db.collectionGroup("attendance")
+                    .whereArrayContains(AttendanceSheets.FIELD_STUDENT_IDS, studentUid)
+                    .whereIn(AttendanceSheets.FIELD_COURSE_CODE, chunk)
+                    .get());
+        }
+        Task<List<QuerySnapshot>> sheetsTask = Tasks.<QuerySnapshot>whenAllSuccess(sheetReads);
+        Task<List<QuerySnapshot>> rowsTask = Tasks.<QuerySnapshot>whenAllSuccess(rowReads);
+        Task<List<QuerySnapshot>> entriesTask = Tasks.<QuerySnapshot>whenAllSuccess(entriesReads);
+
+        return Tasks.whenAllComplete(rowsTask, entriesTask, sheetsTask).continueWithTask(Background.executor(), t -> {
+            Map<String, AttendanceRow> rows = new HashMap<>();
+            if (rowsTask.isSuccessful()) {
+                if (entriesTask.isSuccessful()) {
+                    for (QuerySnapshot qs : entriesTask.getResult()) {
+                        for (DocumentSnapshot aDoc : qs.getDocuments()) {
+                            String sessionId = parentSessionId(aDoc);
+                            if (sessionId == null || !sessionsById.containsKey(sessionId)) continue;
+                            Object v = aDoc.get(FieldPath.of("entries", studentUid));
+                            if (v == null) continue;
+                            rows.put(sessionId, new AttendanceRow(String.valueOf(v), AttendanceStatus.isLegacyEntryPresent(v)));
+                        }
+                    }
+                } else {
+                    Log.w(TAG, "Legacy attendance entries query failed", entriesTask.getException());
+                }
+                // Per-student rows win over legacy session-level entries
+                for (QuerySnapshot qs : rowsTask.getResult()) {
+                    for (DocumentSnapshot aDoc : qs.getDocuments()) {
+                        String sessionId = parentSessionId(aDoc);
+                        if (sessionId == null || !sessionsById.containsKey(sessionId)) continue;
+                        rows.put(sessionId, toAttendanceRow(aDoc));
+                    }
+                }
+            } else {
+                Log.w(TAG, "Attendance collection-group query failed; using point reads", rowsTask.getException());
+            }
+            if (sheetsTask.isSuccessful()) {
+                for (QuerySnapshot qs : sheetsTask.getResult()) {
+                    for (DocumentSnapshot sheetDoc : qs.getDocuments()) {
+                        if (!sessionsById.containsKey(sheetDoc.getId())) continue;
+                        Byte mark = AttendanceSheets.markOrNull(sheetDoc, studentUid);
+                        if (mark == null) continue;
+                        rows.put(sheetDoc.getId(), new AttendanceRow(RosterMarks.statusOf(mark), mark == RosterMarks.PRESENT));
+                    }
+                }
+            } else {
+                Log.w(TAG, "Attendance sheets query failed", sheetsTask.getException());
+            }
+
+            Set<String> unresolved = new HashSet<>();
+            for (DocumentSnapshot ds : sessionsById.values()) {
+                if (!rows.containsKey(ds.getId()) && mayHaveMarks(ds)) unresolved.add(ds.getId());
+            }
+            return fetchStudentAttendanceRowsByPointRead(studentUid, unresolved).continueWith(pointReads -> {
+                if (!pointReads.isSuccessful()) throw pointReads.getException();
+                rows.putAll(pointReads.getResult());
+                return rows;
+            });
+        });
+    }
+
+    /**
+     * False only for sessions known to have no marks: flagged unrecorded (see AttendanceAggregates),
+     * or never flagged and still in the future.
+     */
+    private static boolean mayHaveMarks(DocumentSnapshot session) {
+        Boolean recorded = session.getBoolean(AttendanceAggregates.FIELD_ATTENDANCE_RECORDED);
+        if (recorded != null) return recorded;
+        Timestamp time = session.getTimestamp("sessionTime");
+        return time == null || time.compareTo(Timestamp.now()) <= 0;
+    }
+
+    private Task<Map<String, AttendanceRow>> fetchStudentAttendanceRowsByPointRead(@NonNull String studentUid, @NonNull Set<String> sessionIds) {
+        List<Task<DocumentSnapshot>> reads = new ArrayList<>();
+        for (String sessionId : sessionIds) {
+            reads.add(db.collection("sessions").document(sessionId)
+                    .collection("attendance").document(studentUid)
+                    .get());
+        }
+        return Tasks.whenAllSuccess(reads).continueWith(t -> {
+            if (!t.isSuccessful()) {
+                throw new Exception("Attendance lookup failed: " + t.getException().getMessage(), t.getException());
+            }
+            Map<String, AttendanceRow> rows = new HashMap<>();
+            for (Object result : t.getResult()) {
+                DocumentSnapshot aDoc = (DocumentSnapshot) result;
+                if (!aDoc.exists()) continue;
+                rows.put(parentSessionId(aDoc), toAttendanceRow(aDoc));
+            }
+            return rows;
+        });
+    }
+
+    private static AttendanceRow toAttendanceRow(DocumentSnapshot aDoc) {
+        Object raw = aDoc.get("status");
+        return new AttendanceRow(raw != null ? String.valueOf(raw) : null, AttendanceStatus.isPresent(raw));
+    }
+
+    /** sessions/{sessionId}/attendance/{doc} -> sessionId, or null for an attendance collection elsewhere. */
+    private static String parentSessionId(DocumentSnapshot aDoc) {
+        DocumentReference session = aDoc.getReference().getParent().getParent();
+        if (session == null || !"sessions".equals(session.getParent().getId())) return null;
+        return session.getId();
     }
 
     // -------- Results --------
@@ -267,33 +449,84 @@ public class StudentRepository {
         public double percentage;
     }
 
+    /**
+     * Reads the student's own results rows (users/{uid}/results, written by saveExamScores) with one
+     * query. Courses with no row there yet fall back to the legacy per-course exam_scores scan.
+     */
     public void fetchExamScores(@NonNull String studentUid, @NonNull List<String> courseCodes, @NonNull ExamScoresCallback cb) {
         if (courseCodes.isEmpty()) { cb.onSuccess(new ArrayList<>()); return; }
-        List<ExamScore> list = new ArrayList<>();
-        List<com.google.android.gms.tasks.Task<?>> tasks = new ArrayList<>();
+        Query query = db.collection("users").document(studentUid).collection("results");
+        // Server-first: the result may start the legacy read, and the screen chains the course meta after it
+        ReadPolicy.SERVER_FIRST.get(query, qs -> Background.process(() -> {
+            Set<String> enrolled = new HashSet<>(courseCodes);
+            List<ExamScore> rows = new ArrayList<>();
+            for (DocumentSnapshot ds : qs.getDocuments()) {
+                String code = ds.getString("courseCode");
+                Number got = (Number) ds.get("obtained");
+                Number max = (Number) ds.get("maxPoints");
+                if (code == null || !enrolled.contains(code) || got == null || max == null) continue;
+                String title = ds.getString("examTitle");
+                rows.add(toExamScore(code, title != null ? title : ds.getString("examId"), got, max));
+            }
+            return Collections.unmodifiableList(rows);
+        }, list -> {
+            Set<String> covered = new HashSet<>();
+            for (ExamScore es : list) covered.add(es.courseCode);
+            List<String> legacy = new ArrayList<>();
+            for (String code : courseCodes) {
+                if (!covered.contains(code)) legacy.add(code);
+            }
+            if (legacy.isEmpty()) { cb.onSuccess(list); return; }
+            fetchLegacyExamScores(studentUid, legacy, new ExamScoresCallback() {
+                @Override
+                public void onSuccess(List<ExamScore> scores) {
+                    List<ExamScore> merged = new ArrayList<>(list);
+                    merged.addAll(scores);
+                    cb.onSuccess(merged);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    // Keep what the projection had rather than failing the whole screen
+                    Log.w(TAG, "Legacy exam score read failed", e);
+                    cb.onSuccess(list);
+                }
+            });
+        }, cb::onFailure), cb::onFailure);
+    }
+
+    /** Scores saved before per-student results rows existed: scans the whole-class maps. */
+    private void fetchLegacyExamScores(@NonNull String studentUid, @NonNull List<String> courseCodes, @NonNull ExamScoresCallback cb) {
+        List<Task<QuerySnapshot>> tasks = new ArrayList<>();
         for (String code : courseCodes) {
-            tasks.add(db.collection("Courses").document(code).collection("exam_scores")
-                    .get()
-                    .addOnSuccessListener(qs -> {
-                        for (DocumentSnapshot ds : qs.getDocuments()) {
-                            String examTitle = ds.getId();
-                            Map<String, Object> scores = (Map<String, Object>) ds.get("scores");
-                            Number max = (Number) ds.get("maxPoints");
-                            if (scores != null && scores.containsKey(studentUid) && max != null) {
-                                Number got = (Number) scores.get(studentUid);
-                                ExamScore es = new ExamScore();
-                                es.courseCode = code;
-                                es.examTitle = examTitle;
-                                es.obtained = got.doubleValue();
-                                es.maxPoints = max.doubleValue();
-                                es.percentage = es.maxPoints > 0 ? (es.obtained * 100.0 / es.maxPoints) : 0.0;
-                                list.add(es);
-                            }
-                        }
-                    }));
+            tasks.add(db.collection("Courses").document(code).collection("exam_scores").get());
         }
-        Tasks.whenAllComplete(tasks).addOnSuccessListener(v -> cb.onSuccess(list))
-                .addOnFailureListener(cb::onFailure);
+        Tasks.<QuerySnapshot>whenAllSuccess(tasks).addOnSuccessListener(results -> Background.process(() -> {
+            List<ExamScore> list = new ArrayList<>();
+            for (int i = 0; i < results.size(); i++) {
+                String code = courseCodes.get(i);
+                for (DocumentSnapshot ds : results.get(i).getDocuments()) {
+                    Map<String, Object> scores = (Map<String, Object>) ds.get("scores");
+                    Number max = (Number) ds.get("maxPoints");
+                    if (scores != null && scores.containsKey(studentUid) && max != null) {
+                        // Same title as the projected rows (FacultyRepository.examTitleOf)
+                        String title = ds.getString("examTitle");
+                        list.add(toExamScore(code, title != null ? title : ds.getId(), (Number) scores.get(studentUid), max));
+                    }
+                }
+            }
+            return list;
+        }, cb::onSuccess, cb::onFailure)).addOnFailureListener(cb::onFailure);
+    }
+
+    private static ExamScore toExamScore(String courseCode, String examTitle, Number got, Number max) {
+        ExamScore es = new ExamScore();
+        es.courseCode = courseCode;
+        es.examTitle = examTitle;
+        es.obtained = got.doubleValue();
+        es.maxPoints = max.doubleValue();
+        es.percentage = es.maxPoints > 0 ? (es.obtained * 100.0 / es.maxPoints) : 0.0;
+        return es;
     }
 
     // -------- Assignments --------
@@ -302,16 +535,134 @@ public class StudentRepository {
         void onFailure(Exception e);
     }
 
+    /** Delivers once: the point-read fallback joins each delivery with one read per assignment. */
     public void fetchAssignmentsForCourses(@NonNull List<String> courseCodes, @NonNull AssignmentsCallback cb) {
         if (courseCodes.isEmpty()) { cb.onSuccess(new ArrayList<>()); return; }
-        List<DocumentSnapshot> result = new ArrayList<>();
-        List<com.google.android.gms.tasks.Task<?>> tasks = new ArrayList<>();
-        for (String code : courseCodes) {
-            tasks.add(db.collection("Courses").document(code).collection("assignments").get()
-                    .addOnSuccessListener(qs -> result.addAll(qs.getDocuments())));
+        ReadPolicy.Loader<List<QuerySnapshot>> loader = source -> {
+            List<Task<QuerySnapshot>> tasks = new ArrayList<>();
+            for (String code : courseCodes) {
+                tasks.add(db.collection("Courses").document(code).collection("assignments").get(source));
+            }
+            return Tasks.<QuerySnapshot>whenAllSuccess(tasks);
+        };
+        ReadPolicy.SERVER_FIRST.get("assignments:" + courseCodes, loader, results -> {
+            List<DocumentSnapshot> result = new ArrayList<>();
+            for (QuerySnapshot qs : results) result.addAll(qs.getDocuments());
+            cb.onSuccess(result);
+        }, cb::onFailure);
+    }
+
+    // -------- Assignments with the student's submission status --------
+    public static class AssignmentStatus {
+        public String courseCode;
+        public String assignmentId;
+        public String title;
+        public Date dueDate;
+        public boolean submitted;
+        public String submissionUrl;
+    }
+
+    public interface AssignmentStatusCallback {
+        void onSuccess(List<AssignmentStatus> assignments);
+        void onFailure(Exception e);
+    }
+
+    /**
+     * Assignments of the given courses joined with the student's own submissions.
+     * Two collection-group reads: assignments by courseCode, submissions by studentId.
+     * Submissions the studentId query does not return are point-read only for assignments not yet
+     * flagged submissionsKeyed: those may hold rows written before the field existed. New assignments
+     * carry the flag, and AdminRepository.backfillSubmissionKeys sets it on the rest once their rows
+     * are keyed, so after the backfill the two queries are all that is read.
+     * Falls back to per-course reads plus one submission get per assignment if the
+     * collection-group queries are rejected (e.g. index not deployed yet).
+     */
+    public void fetchAssignmentStatuses(@NonNull String studentUid, @NonNull List<String> courseCodes, @NonNull AssignmentStatusCallback cb) {
+        if (courseCodes.isEmpty()) { cb.onSuccess(new ArrayList<>()); return; }
+        List<List<String>> chunks = chunk(courseCodes, BatchLoader.FIRESTORE_WHERE_IN_LIMIT);
+        ReadPolicy.Loader<List<QuerySnapshot>> loader = source -> {
+            List<Task<QuerySnapshot>> tasks = new ArrayList<>();
+            // Submissions last so the join below can find them
+            for (List<String> chunk : chunks) {
+                tasks.add(db.collectionGroup("assignments").whereIn("courseCode", chunk).get(source));
+            }
+            tasks.add(db.collectionGroup("submissions").whereEqualTo("studentId", studentUid).get(source));
+            return Tasks.<QuerySnapshot>whenAllSuccess(tasks);
+        };
+        // Server-first: the result starts the submission point reads
+        ReadPolicy.SERVER_FIRST.get("assignmentStatus:" + studentUid + ":" + courseCodes, loader, results -> {
+            // Assignment path -> the student's submission under it
+            Map<String, DocumentSnapshot> submissionByAssignment = new HashMap<>();
+            for (DocumentSnapshot sub : results.get(results.size() - 1).getDocuments()) {
+                DocumentReference assignment = sub.getReference().getParent().getParent();
+                if (assignment != null) submissionByAssignment.put(assignment.getPath(), sub);
+            }
+            List<DocumentSnapshot> assignments = new ArrayList<>();
+            for (QuerySnapshot qs : results.subList(0, results.size() - 1)) assignments.addAll(qs.getDocuments());
+            joinSubmissions(studentUid, assignments, submissionByAssignment, true, cb);
+        }, e -> {
+            Log.w(TAG, "Collection-group assignment read failed, falling back to per-assignment reads", e);
+            fetchAssignmentStatusesByPointRead(studentUid, courseCodes, cb);
+        });
+    }
+
+    private void fetchAssignmentStatusesByPointRead(String studentUid, List<String> courseCodes, AssignmentStatusCallback cb) {
+        fetchAssignmentsForCourses(courseCodes, new AssignmentsCallback() {
+            @Override
+            public void onSuccess(List<DocumentSnapshot> assignments) {
+                joinSubmissions(studentUid, assignments, new HashMap<>(), false, cb);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                cb.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Builds the statuses from the submissions already found, point-reading submissions/{studentUid}
+     * for every assignment without one. With queried, the submissions came from the studentId query,
+     * which misses nothing under an assignment flagged submissionsKeyed, so those are not read again.
+     * A failed point read counts as not submitted.
+     */
+    private void joinSubmissions(String studentUid, List<DocumentSnapshot> assignments,
+                                 Map<String, DocumentSnapshot> submissionByAssignment, boolean queried,
+                                 AssignmentStatusCallback cb) {
+        Map<String, Task<DocumentSnapshot>> reads = new HashMap<>();
+        for (DocumentSnapshot ds : assignments) {
+            String path = ds.getReference().getPath();
+            if (queried && Boolean.TRUE.equals(ds.getBoolean("submissionsKeyed"))) continue;
+            if (!submissionByAssignment.containsKey(path)) {
+                reads.put(path, ds.getReference().collection("submissions").document(studentUid).get());
+            }
         }
-        Tasks.whenAllComplete(tasks).addOnSuccessListener(v -> cb.onSuccess(result))
-                .addOnFailureListener(cb::onFailure);
+        Tasks.whenAllComplete(reads.values()).continueWith(Background.executor(), done -> {
+            List<AssignmentStatus> out = new ArrayList<>();
+            for (DocumentSnapshot ds : assignments) {
+                String path = ds.getReference().getPath();
+                DocumentSnapshot sub = submissionByAssignment.get(path);
+                Task<DocumentSnapshot> read = reads.get(path);
+                if (sub == null && read != null && read.isSuccessful() && read.getResult().exists()) {
+                    sub = read.getResult();
+                }
+                out.add(toAssignmentStatus(ds, sub));
+            }
+            return Collections.unmodifiableList(out);
+        }).addOnSuccessListener(cb::onSuccess).addOnFailureListener(cb::onFailure);
+    }
+
+    private static AssignmentStatus toAssignmentStatus(DocumentSnapshot assignment, DocumentSnapshot submission) {
+        AssignmentStatus status = new AssignmentStatus();
+        // Courses/{code}/assignments/{id}
+        status.courseCode = assignment.getReference().getParent().getParent().getId();
+        status.assignmentId = assignment.getId();
+        status.title = assignment.getString("title");
+        Timestamp due = assignment.getTimestamp("dueDate");
+        status.dueDate = due != null ? due.toDate() : null;
+        status.submitted = submission != null;
+        status.submissionUrl = submission != null ? submission.getString("submissionUrl") : null;
+        return status;
     }
 
     public interface SubmissionWriteCallback {
@@ -321,6 +672,10 @@ public class StudentRepository {
 
     public void submitAssignmentUrl(@NonNull String courseCode, @NonNull String assignmentId, @NonNull String studentUid, @NonNull String submissionUrl, @NonNull SubmissionWriteCallback cb) {
         Map<String, Object> data = new HashMap<>();
+        // studentId/courseCode/assignmentId let fetchAssignmentStatuses find this row by collection group
+        data.put("studentId", studentUid);
+        data.put("courseCode", courseCode);
+        data.put("assignmentId", assignmentId);
         data.put("submissionUrl", submissionUrl);
         data.put("submittedAt", Timestamp.now());
         db.collection("Courses").document(courseCode)
@@ -345,26 +700,29 @@ public class StudentRepository {
 
     public void fetchCourseMetaByCodes(@NonNull List<String> courseCodes, @NonNull CourseMetaCallback cb) {
         if (courseCodes.isEmpty()) { cb.onSuccess(new HashMap<>()); return; }
-        Map<String, CourseMeta> out = new HashMap<>();
-        List<com.google.android.gms.tasks.Task<?>> tasks = new ArrayList<>();
-        List<List<String>> chunks = chunk(courseCodes, 10);
-        for (List<String> chunk : chunks) {
-            tasks.add(db.collection("Courses")
-                    .whereIn("courseCode", chunk)
-                    .get()
-                    .addOnSuccessListener(qs -> {
-                        for (DocumentSnapshot ds : qs.getDocuments()) {
-                            CourseMeta cm = new CourseMeta();
-                            cm.courseCode = ds.getString("courseCode");
-                            cm.title = ds.getString("title");
-                            Number cr = (Number) ds.get("credits");
-                            cm.credits = cr != null ? cr.intValue() : 0;
-                            if (cm.courseCode != null) out.put(cm.courseCode, cm);
-                        }
-                    }));
-        }
-        Tasks.whenAllComplete(tasks).addOnSuccessListener(v -> cb.onSuccess(out))
-                .addOnFailureListener(cb::onFailure);
+        List<List<String>> chunks = chunk(courseCodes, BatchLoader.FIRESTORE_WHERE_IN_LIMIT);
+        ReadPolicy.Loader<List<QuerySnapshot>> loader = source -> {
+            List<Task<QuerySnapshot>> tasks = new ArrayList<>();
+            for (List<String> chunk : chunks) {
+                tasks.add(db.collection("Courses").whereIn("courseCode", chunk).get(source));
+            }
+            return Tasks.<QuerySnapshot>whenAllSuccess(tasks);
+        };
+        // Server-first: the screens chain the attendance summaries or the SGPA after it
+        ReadPolicy.SERVER_FIRST.get("courseMeta:" + courseCodes, loader, results -> Background.process(() -> {
+            Map<String, CourseMeta> out = new HashMap<>();
+            for (QuerySnapshot qs : results) {
+                for (DocumentSnapshot ds : qs.getDocuments()) {
+                    CourseMeta cm = new CourseMeta();
+                    cm.courseCode = ds.getString("courseCode");
+                    cm.title = ds.getString("title");
+                    Number cr = (Number) ds.get("credits");
+                    cm.credits = cr != null ? cr.intValue() : 0;
+                    if (cm.courseCode != null) out.put(cm.courseCode, cm);
+                }
+            }
+            return Collections.unmodifiableMap(out);
+        }, cb::onSuccess, cb::onFailure), cb::onFailure);
     }
 
     // -------- Helpers --------
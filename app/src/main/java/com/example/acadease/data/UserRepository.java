@@ -1,6 +1,7 @@
 package com.example.acadease.data;
 
 import com.example.acadease.model.User;
+import com.example.acadease.model.mapper.UserMapper;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.firestore.CollectionReference;
@@ -46,9 +47,10 @@ public class UserRepository {
                 .addOnSuccessListener(documentSnapshot -> {
                     if (documentSnapshot.exists()) {
                         // 2. Profile Retrieval Success: Map the data to our User model
-                        User user = documentSnapshot.toObject(User.class);
+                        User user = UserMapper.fromSnapshot(documentSnapshot);
                         if (user != null) {
                             user.setUid(documentSnapshot.getId()); // Attach the Document ID (UID)
+                            PeopleDirectory.getInstance().put(user);
                             Log.i(TAG, "Login successful. Role: " + user.getRole());
                             callback.onSuccess(user);
                         } else {
@@ -86,6 +88,7 @@ public class UserRepository {
                 .update("profileImageUrl", imageUrl)
                 .addOnSuccessListener(aVoid -> {
                     Log.i(TAG, "Profile image URL updated successfully");
+                    PeopleDirectory.getInstance().invalidate(uid);
                     if (callback != null) callback.onSuccess();
                 })
                 .addOnFailureListener(e -> {
@@ -0,0 +1,153 @@
+package com.example.acadease.data;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.acadease.model.Schedule;
+import com.example.acadease.model.Session;
+import com.example.acadease.model.mapper.ScheduleMapper;
+import com.example.acadease.model.mapper.SessionMapper;
+import com.example.acadease.utils.ScheduleUtility;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sessions of blueprints saved with virtual = true, computed on the client instead of stored.
+ *
+ * Such a blueprint only has documents in 'sessions' for occurrences that differ from the rule:
+ * cancelled ({cancelled: true}), moved to another venue, or with attendance recorded. Those documents
+ * use the occurrence's deterministic ID, scheduleId_yyyyMMddHHmm (campus time), so a stored document
+ * replaces the computed occurrence when the two are merged. Legacy materialized sessions (auto IDs)
+ * pass through the merge unchanged.
+ */
+public final class VirtualSessions {
+    private static final String TAG = "VirtualSessions";
+    private static final String SESSIONS_COLLECTION = "sessions";
+    private static final String SCHEDULES_COLLECTION = "schedules";
+
+    static final String FIELD_VIRTUAL = "virtual";
+    static final String FIELD_CANCELLED = "cancelled";
+
+    private static final DateTimeFormatter ID_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
+
+    private VirtualSessions() {}
+
+    /** Deterministic session ID of one occurrence of a blueprint. */
+    @NonNull
+    public static String sessionId(@NonNull String scheduleId, @NonNull ZonedDateTime start) {
+        return scheduleId + "_" + start.withZoneSameInstant(ScheduleUtility.CAMPUS_ZONE).format(ID_TIME);
+    }
+
+    /**
+     * Stored sessions merged with the computed occurrences of the virtual blueprints, restricted to
+     * [start, end] and sorted by time. Cancelled occurrences are left out. Runs on the repository worker.
+     */
+    @NonNull
+    static List<Session> resolve(@NonNull Iterable<? extends DocumentSnapshot> sessionDocs,
+                                 @NonNull Iterable<? extends DocumentSnapshot> blueprintDocs,
+                                 @NonNull Timestamp start, @NonNull Timestamp end) {
+        Map<String, Session> byId = new HashMap<>();
+        Set<String> cancelled = new HashSet<>();
+        for (DocumentSnapshot doc : sessionDocs) {
+            if (Boolean.TRUE.equals(doc.getBoolean(FIELD_CANCELLED))) {
+                cancelled.add(doc.getId());
+                continue;
+            }
+            try {
+                Session session = SessionMapper.fromSnapshot(doc);
+                if (session != null && inRange(session.getSessionTime(), start, end)) byId.put(doc.getId(), session);
+            } catch (Exception e) {
+                Log.e(TAG, "MAPPING FAILED for session document " + doc.getId(), e);
+            }
+        }
+
+        for (DocumentSnapshot doc : blueprintDocs) {
+            Schedule schedule = ScheduleMapper.fromSnapshot(doc);
+            if (schedule == null || !schedule.isVirtual() || schedule.getStartDate() == null || schedule.getEndDate() == null
+                    || schedule.getStartTime() == null || schedule.getDaysOfWeek() == null) continue;
+            // Holidays were folded into exceptionDates when the blueprint was saved
+            for (ZonedDateTime occurrence : ScheduleUtility.occurrences(schedule,
+                    ScheduleUtility.toInstant(start).atZone(ScheduleUtility.CAMPUS_ZONE).toLocalDate(),
+                    ScheduleUtility.toInstant(end).atZone(ScheduleUtility.CAMPUS_ZONE).toLocalDate(),
+                    Collections.emptyList())) {
+                String id = sessionId(doc.getId(), occurrence);
+                if (byId.containsKey(id) || cancelled.contains(id)) continue; // The stored override wins
+                Session session = SessionMapper.fromMap(id, ScheduleUtility.sessionData(schedule, doc.getId(), occurrence));
+                if (inRange(session.getSessionTime(), start, end)) byId.put(id, session);
+            }
+        }
+
+        List<Session> sessions = new ArrayList<>(byId.values());
+        sessions.sort((a, b) -> a.getSessionTime().compareTo(b.getSessionTime()));
+        return sessions;
+    }
+
+    /** Fields to store for an override of the given session, on top of the occurrence's own fields. */
+    @NonNull
+    static Map<String, Object> overrideData(@NonNull Session session, @NonNull Map<String, Object> changes) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("scheduleId", session.getScheduleId());
+        data.put("courseCode", session.getCourseCode());
+        data.put("facultyId", session.getFacultyId());
+        data.put("sessionTime", session.getSessionTime());
+        data.put("venue", session.getVenue());
+        data.put("type", session.getType());
+        data.putAll(changes);
+        return data;
+    }
+
+    /**
+     * The document to create before a computed occurrence gets its first attendance row, or null when
+     * there is nothing to create (the session is stored already or is not an occurrence ID).
+     */
+    @NonNull
+    static Task<Map<String, Object>> missingSessionData(@NonNull FirebaseFirestore db, @NonNull String sessionId) {
+        int split = sessionId.lastIndexOf('_');
+        if (split <= 0) return Tasks.forResult(null);
+        String scheduleId = sessionId.substring(0, split);
+        ZonedDateTime start = parseTime(sessionId.substring(split + 1));
+        if (start == null) return Tasks.forResult(null);
+
+        return db.collection(SESSIONS_COLLECTION).document(sessionId).get().continueWithTask(sessionTask -> {
+            if (sessionTask.getResult().exists()) return Tasks.forResult(null);
+            return db.collection(SCHEDULES_COLLECTION).document(scheduleId).get().continueWith(scheduleTask -> {
+                Schedule schedule = ScheduleMapper.fromSnapshot(scheduleTask.getResult());
+                if (schedule == null) {
+                    throw new Exception("Schedule " + scheduleId + " of session " + sessionId + " no longer exists.");
+                }
+                return ScheduleUtility.sessionData(schedule, scheduleId, start);
+            });
+        });
+    }
+
+    @Nullable
+    private static ZonedDateTime parseTime(String text) {
+        if (text.length() != 12) return null;
+        try {
+            return LocalDateTime.parse(text, ID_TIME).atZone(ScheduleUtility.CAMPUS_ZONE);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static boolean inRange(Timestamp time, Timestamp start, Timestamp end) {
+        return time != null && time.compareTo(start) >= 0 && time.compareTo(end) <= 0;
+    }
+}
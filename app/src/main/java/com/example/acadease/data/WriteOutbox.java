@@ -0,0 +1,505 @@
+package com.example.acadease.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.OnSuccessListener;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Durable journal for the faculty writes that must survive dead classroom Wi-Fi
+ * (attendance, submission grades, exam scores).
+ *
+ * enqueue() stores the operation in a local SQLite table and returns; the journal is replayed in
+ * order whenever a network is available, at start-up and after each enqueue. Entries are coalesced
+ * by target key (one session's attendance, one assignment's grades, one exam): a newer entry merges
+ * its marks into the pending one, so reconnecting sends one write per target however often it was
+ * edited. Every entry carries a write ID (its idempotency key) that the replayer can store with the
+ * data and check before writing again, so a write whose acknowledgement was lost is not applied twice.
+ *
+ * Transient failures (offline, server unavailable) are retried with exponential backoff. Permanent
+ * ones (permission denied, missing documents, a cancelled session) move the entry to a failed state:
+ * it stays in the journal with its error but is no longer replayed, until the user retries it
+ * (retryFailed), discards it (discard), or enqueues a newer edit for the same target.
+ *
+ * Every entry belongs to the user who was signed in when it was enqueued. Only the signed-in owner's
+ * entries are replayed, counted and listed; after a sign-out they are held until that user signs in
+ * again. Entries journaled before owners were recorded are parked as failed, so they are only sent
+ * when a user retries them and thereby claims them.
+ */
+public final class WriteOutbox {
+    private static final String TAG = "WriteOutbox";
+
+    private static final String DB_NAME = "write_outbox.db";
+    private static final int DB_VERSION = 3;
+    private static final String TABLE = "pending_writes";
+
+    private static final String COL_ID = "_id";
+    private static final String COL_KEY = "target_key";
+    private static final String COL_KIND = "kind";
+    private static final String COL_WRITE_ID = "write_id";
+    private static final String COL_PAYLOAD = "payload";
+    private static final String COL_ATTEMPTS = "attempts";
+    private static final String COL_NEXT_ATTEMPT_AT = "next_attempt_at";
+    private static final String COL_LAST_ERROR = "last_error"; // Set once the entry failed permanently
+    private static final String COL_OWNER_UID = "owner_uid"; // Null only for entries from before version 3
+
+    private static final String UNOWNED_ERROR = "Queued before pending writes were tied to an account; retry to send it as the signed-in user.";
+
+    private static final long BASE_BACKOFF_MS = 2000;
+    private static final long MAX_BACKOFF_MS = 5 * 60 * 1000L;
+
+    /** One journaled operation. */
+    public static final class Entry {
+        public final long id;
+        public final String key;
+        public final String kind;
+        public final String writeId;
+        @Nullable public final String ownerUid; // The user who enqueued it
+        public final JSONObject payload;
+        @Nullable public final String lastError; // Null while the entry is pending
+        final int attempts;
+        final long nextAttemptAt;
+
+        Entry(long id, String key, String kind, String writeId, @Nullable String ownerUid, JSONObject payload, int attempts,
+              long nextAttemptAt, @Nullable String lastError) {
+            this.id = id;
+            this.key = key;
+            this.kind = kind;
+            this.writeId = writeId;
+            this.ownerUid = ownerUid;
+            this.payload = payload;
+            this.attempts = attempts;
+            this.nextAttemptAt = nextAttemptAt;
+            this.lastError = lastError;
+        }
+    }
+
+    /** Merges a newer payload for the same target into the pending one. */
+    public interface Merger {
+        JSONObject merge(JSONObject pending, JSONObject newer) throws JSONException;
+    }
+
+    /** Performs one entry against Firestore. */
+    public interface Replayer {
+        void replay(@NonNull Entry entry, @NonNull ReplayCallback callback);
+    }
+
+    public interface ReplayCallback {
+        void onSuccess();
+        void onFailure(Exception e);
+    }
+
+    /** Callbacks arrive on the main thread. */
+    public interface Listener {
+        /** @param failed entries kept after a permanent failure; not counted in pending */
+        void onPendingChanged(int pending, int failed);
+        default void onFailed(@NonNull String kind, @NonNull Exception e) {}
+    }
+
+    private static WriteOutbox instance;
+
+    private final Helper helper;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<String, Replayer> replayers = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    // Flush state; only touched on the main thread
+    private boolean online;
+    private boolean flushing;
+    private boolean flushAgain;
+    private int pending = -1;
+    private int failed = -1;
+
+    private final Runnable flushRunnable = this::flush;
+    @Nullable private String ownerUid; // The signed-in user; main thread only
+
+    /** The journal of the default Firebase app's process. */
+    public static synchronized WriteOutbox getInstance() {
+        if (instance == null) {
+            instance = new WriteOutbox(FirebaseApp.getInstance().getApplicationContext());
+        }
+        return instance;
+    }
+
+    private WriteOutbox(Context context) {
+        helper = new Helper(context);
+        ConnectivityManager connectivity = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        connectivity.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onAvailable(@NonNull Network network) {
+                mainHandler.post(() -> {
+                    online = true;
+                    flush();
+                });
+            }
+
+            @Override
+            public void onLost(@NonNull Network network) {
+                mainHandler.post(() -> online = false);
+            }
+        });
+        ownerUid = currentUid();
+        // Switches to the new user's entries; the previous user's are held, not replayed or shown
+        FirebaseAuth.getInstance().addAuthStateListener(auth -> mainHandler.post(() -> {
+            String uid = currentUid();
+            if (uid == null ? ownerUid == null : uid.equals(ownerUid)) return;
+            ownerUid = uid;
+            refreshPendingCount();
+            flush();
+        }));
+        refreshPendingCount();
+    }
+
+    @Nullable
+    private static String currentUid() {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        return user != null ? user.getUid() : null;
+    }
+
+    /** Registers how entries of a kind are sent. Replayers hold no per-screen state. */
+    public void setReplayer(@NonNull String kind, @NonNull Replayer replayer) {
+        replayers.put(kind, replayer);
+        mainHandler.post(this::flush);
+    }
+
+    public void addListener(@NonNull Listener listener) {
+        listeners.add(listener);
+        if (pending >= 0) listener.onPendingChanged(pending, failed);
+    }
+
+    public void removeListener(@NonNull Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Journals an operation for the signed-in user and reports once it is on disk (main thread).
+     * A pending or failed entry of the same user with the same key is merged with this one and gets
+     * a fresh write ID, since its content changed; a failed one becomes pending again.
+     */
+    public void enqueue(@NonNull String kind, @NonNull String key, @NonNull JSONObject payload,
+                        @Nullable Merger merger, @NonNull ReplayCallback callback) {
+        String owner = currentUid();
+        if (owner == null) {
+            callback.onFailure(new Exception("Saving the pending write failed: not signed in."));
+            return;
+        }
+        Background.process(() -> {
+            SQLiteDatabase db = helper.getWritableDatabase();
+            db.beginTransaction();
+            try {
+                JSONObject merged = payload;
+                try (Cursor c = db.query(TABLE, new String[]{COL_PAYLOAD}, COL_OWNER_UID + " = ? AND " + COL_KEY + " = ?",
+                        new String[]{owner, key}, null, null, null)) {
+                    if (c.moveToFirst() && merger != null) {
+                        merged = merger.merge(new JSONObject(c.getString(0)), payload);
+                    }
+                }
+                ContentValues values = new ContentValues();
+                values.put(COL_KEY, key);
+                values.put(COL_KIND, kind);
+                values.put(COL_WRITE_ID, UUID.randomUUID().toString());
+                values.put(COL_OWNER_UID, owner);
+                values.put(COL_PAYLOAD, merged.toString());
+                values.put(COL_ATTEMPTS, 0);
+                values.put(COL_NEXT_ATTEMPT_AT, 0);
+                values.putNull(COL_LAST_ERROR);
+                // Owner and key are unique together: a coalesced entry replaces the pending row and moves to the back
+                db.insertWithOnConflict(TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            return counts(owner);
+        }, counts -> {
+            setCounts(counts);
+            callback.onSuccess();
+            flush();
+        }, e -> callback.onFailure(new Exception("Saving the pending write failed: " + e.getMessage(), e)));
+    }
+
+    /** Replays due entries one at a time, oldest first. */
+    public void flush() {
+        if (!online) return;
+        if (flushing) {
+            flushAgain = true;
+            return;
+        }
+        String owner = ownerUid;
+        if (owner == null) return; // Held until someone signs in
+        flushing = true;
+        mainHandler.removeCallbacks(flushRunnable);
+        Background.process(() -> loadPending(owner), this::replayNext,
+                e -> {
+                    Log.e(TAG, "Reading the outbox failed", e);
+                    flushing = false;
+                });
+    }
+
+    private void replayNext(List<Entry> entries) {
+        if (!online) {
+            flushing = false;
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long nextDue = Long.MAX_VALUE;
+        Iterator<Entry> it = entries.iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            it.remove();
+            if (!entry.ownerUid.equals(ownerUid)) break; // Signed out or switched user since the entries were loaded
+            long dueAt = entry.nextAttemptAt;
+            Replayer replayer = replayers.get(entry.kind);
+            if (replayer == null) continue; // Its repository has not been created in this process yet
+            if (dueAt > now) {
+                nextDue = Math.min(nextDue, dueAt);
+                continue;
+            }
+            replayer.replay(entry, new ReplayCallback() {
+                @Override
+                public void onSuccess() {
+                    Background.process(() -> {
+                        // Only if the entry was not coalesced with a newer edit in the meantime
+                        helper.getWritableDatabase().delete(TABLE, COL_ID + " = ? AND " + COL_WRITE_ID + " = ?",
+                                new String[]{String.valueOf(entry.id), entry.writeId});
+                        return counts(entry.ownerUid);
+                    }, counts -> {
+                        setCounts(counts);
+                        replayNext(entries);
+                    }, e -> finishFlush());
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    if (isPermanent(e)) {
+                        Log.e(TAG, "Parking failed " + entry.kind + " " + entry.key, e);
+                        Background.process(() -> {
+                            ContentValues values = new ContentValues();
+                            values.put(COL_LAST_ERROR, String.valueOf(e.getMessage()));
+                            helper.getWritableDatabase().update(TABLE, values, COL_ID + " = ? AND " + COL_WRITE_ID + " = ?",
+                                    new String[]{String.valueOf(entry.id), entry.writeId});
+                            return counts(entry.ownerUid);
+                        }, counts -> {
+                            setCounts(counts);
+                            for (Listener l : listeners) l.onFailed(entry.kind, e);
+                            replayNext(entries);
+                        }, err -> finishFlush());
+                    } else {
+                        Log.w(TAG, "Retrying " + entry.kind + " " + entry.key + " later: " + e.getMessage());
+                        long delay = backoff(entry.attempts + 1);
+                        Background.process(() -> {
+                            ContentValues values = new ContentValues();
+                            values.put(COL_ATTEMPTS, entry.attempts + 1);
+                            values.put(COL_NEXT_ATTEMPT_AT, System.currentTimeMillis() + delay);
+                            helper.getWritableDatabase().update(TABLE, values, COL_ID + " = ? AND " + COL_WRITE_ID + " = ?",
+                                    new String[]{String.valueOf(entry.id), entry.writeId});
+                            return null;
+                        }, ignored -> {
+                            // Later entries would most likely fail the same way; wait for the backoff
+                            finishFlush();
+                            mainHandler.postDelayed(flushRunnable, delay);
+                        }, err -> finishFlush());
+                    }
+                }
+            });
+            return;
+        }
+        finishFlush();
+        if (nextDue != Long.MAX_VALUE) {
+            mainHandler.postDelayed(flushRunnable, Math.max(0, nextDue - now));
+        }
+    }
+
+    /** The signed-in user's entries kept after a permanent failure, oldest first, on the main thread. */
+    public void loadFailed(@NonNull OnSuccessListener<List<Entry>> onResult) {
+        String owner = ownerUid;
+        if (owner == null) {
+            onResult.onSuccess(new ArrayList<>());
+            return;
+        }
+        Background.process(() -> load(failedOf(), new String[]{owner}), onResult,
+                e -> Log.e(TAG, "Reading the outbox failed", e));
+    }
+
+    /**
+     * Makes every failed entry of the signed-in user pending again and replays it, e.g. after the
+     * user fixed its cause. Failed entries without an owner are claimed by that user.
+     */
+    public void retryFailed() {
+        String owner = ownerUid;
+        if (owner == null) return;
+        Background.process(() -> {
+            SQLiteDatabase db = helper.getWritableDatabase();
+            db.beginTransaction();
+            try {
+                // An unowned entry whose key the user already has a newer entry for is superseded by it
+                db.delete(TABLE, COL_OWNER_UID + " IS NULL AND " + COL_KEY + " IN (SELECT " + COL_KEY + " FROM "
+                        + TABLE + " WHERE " + COL_OWNER_UID + " = ?)", new String[]{owner});
+                ContentValues values = new ContentValues();
+                values.putNull(COL_LAST_ERROR);
+                values.put(COL_ATTEMPTS, 0);
+                values.put(COL_NEXT_ATTEMPT_AT, 0);
+                values.put(COL_OWNER_UID, owner);
+                db.update(TABLE, values, failedOf(), new String[]{owner});
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            return counts(owner);
+        }, counts -> {
+            setCounts(counts);
+            flush();
+        }, e -> Log.e(TAG, "Retrying failed writes failed", e));
+    }
+
+    /** Removes one failed entry for good; a newer edit of the same target is left alone. */
+    public void discard(@NonNull Entry entry) {
+        String owner = ownerUid;
+        if (owner == null) return;
+        Background.process(() -> {
+            helper.getWritableDatabase().delete(TABLE, COL_ID + " = ? AND " + COL_WRITE_ID + " = ? AND "
+                    + COL_LAST_ERROR + " IS NOT NULL", new String[]{String.valueOf(entry.id), entry.writeId});
+            return counts(owner);
+        }, this::setCounts, e -> Log.e(TAG, "Discarding a failed write failed", e));
+    }
+
+    private void finishFlush() {
+        flushing = false;
+        if (flushAgain) {
+            flushAgain = false;
+            flush();
+        }
+    }
+
+    private static long backoff(int attempts) {
+        return Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(attempts - 1, 16));
+    }
+
+    /** Errors that a retry cannot fix. Anything else (offline, timeouts, aborted commits) is retried. */
+    private static boolean isPermanent(Exception e) {
+        Throwable cause = e;
+        while (cause != null && !(cause instanceof FirebaseFirestoreException)) cause = cause.getCause();
+        if (cause == null) return false;
+        switch (((FirebaseFirestoreException) cause).getCode()) {
+            case PERMISSION_DENIED:
+            case UNAUTHENTICATED:
+            case INVALID_ARGUMENT:
+            case NOT_FOUND:
+            case FAILED_PRECONDITION:
+            case OUT_OF_RANGE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private List<Entry> loadPending(String owner) throws JSONException {
+        return load(COL_OWNER_UID + " = ? AND " + COL_LAST_ERROR + " IS NULL", new String[]{owner});
+    }
+
+    /** Failed entries of the owner bound as the only argument, plus the unowned ones. */
+    private static String failedOf() {
+        return "(" + COL_OWNER_UID + " = ? OR " + COL_OWNER_UID + " IS NULL) AND " + COL_LAST_ERROR + " IS NOT NULL";
+    }
+
+    private List<Entry> load(String selection, String[] args) throws JSONException {
+        List<Entry> entries = new ArrayList<>();
+        try (Cursor c = helper.getReadableDatabase().query(TABLE,
+                new String[]{COL_ID, COL_KEY, COL_KIND, COL_WRITE_ID, COL_OWNER_UID, COL_PAYLOAD, COL_ATTEMPTS,
+                        COL_NEXT_ATTEMPT_AT, COL_LAST_ERROR},
+                selection, args, null, null, COL_ID)) {
+            while (c.moveToNext()) {
+                entries.add(new Entry(c.getLong(0), c.getString(1), c.getString(2), c.getString(3), c.getString(4),
+                        new JSONObject(c.getString(5)), c.getInt(6), c.getLong(7), c.getString(8)));
+            }
+        }
+        return entries;
+    }
+
+    /** {pending, failed} of one owner; unowned failed entries count as theirs, since only they can claim them */
+    private int[] counts(@Nullable String owner) {
+        if (owner == null) return new int[2];
+        try (Cursor c = helper.getReadableDatabase().rawQuery("SELECT COUNT(CASE WHEN " + COL_OWNER_UID + " = ? AND "
+                + COL_LAST_ERROR + " IS NULL THEN 1 END), COUNT(CASE WHEN " + failedOf() + " THEN 1 END) FROM " + TABLE,
+                new String[]{owner, owner})) {
+            return c.moveToFirst() ? new int[]{c.getInt(0), c.getInt(1)} : new int[2];
+        }
+    }
+
+    private void refreshPendingCount() {
+        String owner = ownerUid;
+        Background.process(() -> counts(owner), this::setCounts, e -> Log.e(TAG, "Reading the outbox failed", e));
+    }
+
+    private void setCounts(int[] counts) {
+        if (counts[0] == pending && counts[1] == failed) return;
+        pending = counts[0];
+        failed = counts[1];
+        for (Listener l : listeners) l.onPendingChanged(pending, failed);
+    }
+
+    private static final class Helper extends SQLiteOpenHelper {
+        Helper(Context context) {
+            super(context, DB_NAME, null, DB_VERSION);
+        }
+
+        @Override
+        public void onCreate(SQLiteDatabase db) {
+            db.execSQL("CREATE TABLE " + TABLE + " ("
+                    + COL_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+                    + COL_KEY + " TEXT NOT NULL, "
+                    + COL_KIND + " TEXT NOT NULL, "
+                    + COL_WRITE_ID + " TEXT NOT NULL, "
+                    + COL_PAYLOAD + " TEXT NOT NULL, "
+                    + COL_ATTEMPTS + " INTEGER NOT NULL DEFAULT 0, "
+                    + COL_NEXT_ATTEMPT_AT + " INTEGER NOT NULL DEFAULT 0, "
+                    + COL_LAST_ERROR + " TEXT, "
+                    + COL_OWNER_UID + " TEXT, "
+                    + "UNIQUE (" + COL_OWNER_UID + ", " + COL_KEY + "))");
+        }
+
+        @Override
+        public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+            if (oldVersion < 2) {
+                db.execSQL("ALTER TABLE " + TABLE + " ADD COLUMN " + COL_LAST_ERROR + " TEXT");
+            }
+            if (oldVersion < 3) {
+                // The key alone was unique; nobody knows who queued the old rows, so they wait for a retry
+                String columns = COL_ID + ", " + COL_KEY + ", " + COL_KIND + ", " + COL_WRITE_ID + ", " + COL_PAYLOAD
+                        + ", " + COL_ATTEMPTS + ", " + COL_NEXT_ATTEMPT_AT + ", " + COL_LAST_ERROR;
+                db.execSQL("ALTER TABLE " + TABLE + " RENAME TO " + TABLE + "_v2");
+                onCreate(db);
+                db.execSQL("INSERT INTO " + TABLE + " (" + columns + ") SELECT " + columns + " FROM " + TABLE + "_v2");
+                ContentValues values = new ContentValues();
+                values.put(COL_LAST_ERROR, UNOWNED_ERROR);
+                db.update(TABLE, values, COL_LAST_ERROR + " IS NULL", null);
+                db.execSQL("DROP TABLE " + TABLE + "_v2");
+            }
+        }
+    }
+}
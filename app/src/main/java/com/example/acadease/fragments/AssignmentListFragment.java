@@ -61,6 +61,8 @@ public class AssignmentListFragment extends Fragment implements AssignmentAdapte
         courseTitleHeader = view.findViewById(R.id.assignment_list_header);
 
         assignmentRecyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
+        assignmentAdapter = new AssignmentAdapter(requireContext(), AssignmentListFragment.this);
+        assignmentRecyclerView.setAdapter(assignmentAdapter);
 
         if (courseCode != null) {
             courseTitleHeader.setText(String.format("Assignments for: %s", courseTitle));
@@ -84,9 +86,8 @@ public class AssignmentListFragment extends Fragment implements AssignmentAdapte
                     Toast.makeText(getContext(), "No assignments posted yet.", Toast.LENGTH_SHORT).show();
                 }
 
-                // Initialize adapter
-                assignmentAdapter = new AssignmentAdapter(requireContext(), assignments, AssignmentListFragment.this);
-                assignmentRecyclerView.setAdapter(assignmentAdapter);
+                // Only the rows that changed since the last load are rebound
+                assignmentAdapter.submitList(assignments);
             }
 
             @Override
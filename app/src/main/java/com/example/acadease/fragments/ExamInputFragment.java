@@ -16,6 +16,7 @@ import android.widget.Toast;
 import com.example.acadease.R;
 import com.example.acadease.data.FacultyRepository;
 import com.example.acadease.data.LookupRepository;
+import com.example.acadease.data.ReadPolicy;
 import com.example.acadease.adapters.ResultsAdapter;
 import com.google.firebase.auth.FirebaseAuth;
 import com.example.acadease.model.User;
@@ -69,6 +70,8 @@ public class ExamInputFragment extends Fragment {
         btnSaveExam = view.findViewById(R.id.btn_save_exam_scores);
 
         resultsRecyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
+        resultsAdapter = new ResultsAdapter(requireContext(), maxPoints, lookupRepository);
+        resultsRecyclerView.setAdapter(resultsAdapter);
 
         if (courseCode != null && examTitle != null) {
             examHeader.setText(String.format("Enter Marks for: %s (%s)", examTitle, courseCode));
@@ -82,7 +85,7 @@ public class ExamInputFragment extends Fragment {
 
     private void loadRosterForExam() {
         // Step 1: Fetch UIDs of all enrolled students in the course
-        facultyRepository.fetchCourseRoster(courseCode, new FacultyRepository.RosterCallback() {
+        facultyRepository.fetchCourseRoster(courseCode, ReadPolicy.NETWORK_ONLY, new FacultyRepository.RosterCallback() {
             @Override
             public void onSuccess(List<String> studentUids) {
                 if (studentUids.isEmpty()) return;
@@ -93,8 +96,7 @@ public class ExamInputFragment extends Fragment {
                     public void onSuccess(List<User> students) {
                         // 3. Attach Results Adapter for manual score entry
                         // NOTE: Initial grades map is empty; faculty starts entering marks.
-                        resultsAdapter = new ResultsAdapter(requireContext(), students, maxPoints, lookupRepository);
-                        resultsRecyclerView.setAdapter(resultsAdapter);
+                        resultsAdapter.submitList(students);
                     }
                     @Override
                     public void onFailure(Exception e) {
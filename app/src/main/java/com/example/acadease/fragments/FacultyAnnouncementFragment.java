@@ -4,6 +4,7 @@ import android.os.Bundle;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.Lifecycle;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import android.view.LayoutInflater;
@@ -15,6 +16,7 @@ import android.widget.Toast;
 
 import com.example.acadease.R;
 import com.example.acadease.adapters.AnnouncementAdapter;
+import com.example.acadease.data.AnnouncementFeed;
 import com.example.acadease.data.AnnouncementRepository;
 import com.example.acadease.data.AdminRepository; // Needed for the delete method call
 import com.example.acadease.model.Announcement;
@@ -23,7 +25,6 @@ import android.content.Intent;
 import com.example.acadease.ProfileActivity;
 import com.example.acadease.CreateAnnouncementActivity;
 
-import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
 
@@ -41,6 +42,7 @@ public class FacultyAnnouncementFragment extends Fragment implements Announcemen
     private AnnouncementRepository announcementRepository;
     private AdminRepository adminRepository;
     private AnnouncementAdapter adapter;
+    private AnnouncementFeed feed;
 
 
     public FacultyAnnouncementFragment() { /* Required empty public constructor */ }
@@ -86,7 +88,34 @@ public class FacultyAnnouncementFragment extends Fragment implements Announcemen
         setupGreeting();
 
         // Setup RecyclerView
-        recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(getContext());
+        recyclerView.setLayoutManager(layoutManager);
+        adapter = new AnnouncementAdapter(getContext(), FacultyAnnouncementFragment.this, announcementRepository, false);
+        recyclerView.setAdapter(adapter);
+        feed = new AnnouncementFeed(announcementRepository, new AnnouncementFeed.Listener() {
+            @Override
+            public void onFeedUpdated(@NonNull List<Announcement> announcements, boolean reset) {
+                if (getContext() == null) return;
+                // The adapter diffs against what it shows, so only changed cards are rebound
+                adapter.submitList(announcements);
+                if (reset && announcements.isEmpty()) {
+                    Toast.makeText(getContext(), "No announcements found for " + currentFilterCategory + ".", Toast.LENGTH_SHORT).show();
+                }
+            }
+
+            @Override
+            public void onFeedError(Exception e) {
+                if (getContext() == null) return;
+                Toast.makeText(getContext(), "Failed to load feed. Check network/rules.", Toast.LENGTH_LONG).show();
+            }
+        });
+        // Older pages are requested as the list nears its end
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                feed.onScrolled(layoutManager.findFirstVisibleItemPosition(), layoutManager.findLastVisibleItemPosition());
+            }
+        });
 
         // 3. Set Filter Listeners
         View.OnClickListener filterListener = v -> {
@@ -100,15 +129,20 @@ public class FacultyAnnouncementFragment extends Fragment implements Announcemen
         btnFilterAll.setOnClickListener(filterListener);
         btnFilterEvents.setOnClickListener(filterListener);
 
-        // Initial Load and style the 'All' button as active
-        loadAnnouncements();
+        // Style the 'All' button as active; the feed attaches in onStart
         applyFilter(currentFilterCategory);
     }
 
     @Override
-    public void onResume() {
-        super.onResume();
-        loadAnnouncements(); // Refresh feed when returning
+    public void onStart() {
+        super.onStart();
+        feed.start(currentFilterCategory); // Live updates only while visible
+    }
+
+    @Override
+    public void onStop() {
+        super.onStop();
+        feed.stop();
     }
 
     private void setupGreeting() {
@@ -169,29 +203,13 @@ public class FacultyAnnouncementFragment extends Fragment implements Announcemen
         btnFilterEvents.setTextColor(defaultTextColor);
     }
 
+    /**
+     * Points the live feed at the current filter. Before onStart the feed is attached there instead.
+     */
     private void loadAnnouncements() {
-        announcementRepository.fetchAnnouncements(currentFilterCategory, new AnnouncementRepository.AnnouncementsCallback() {
-            @Override
-            public void onSuccess(List<Announcement> announcements) {
-                if (getContext() == null) return;
-
-                if (announcements.isEmpty()) {
-                    Toast.makeText(getContext(), "No announcements found for " + currentFilterCategory + ".", Toast.LENGTH_SHORT).show();
-                    // Initialize with an empty list if no results
-                    adapter = new AnnouncementAdapter(getContext(), new ArrayList<>(), FacultyAnnouncementFragment.this, announcementRepository, false);
-                } else {
-                    // Pass the repository instance for asynchronous poster lookups
-                    adapter = new AnnouncementAdapter(getContext(), announcements, FacultyAnnouncementFragment.this, announcementRepository, false);
-                }
-                recyclerView.setAdapter(adapter);
-            }
-
-            @Override
-            public void onFailure(Exception e) {
-                if (getContext() == null) return;
-                Toast.makeText(getContext(), "Failed to load feed. Check network/rules.", Toast.LENGTH_LONG).show();
-            }
-        });
+        if (getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED)) {
+            feed.start(currentFilterCategory);
+        }
     }
 
     // --- IMPLEMENTATION OF THE DELETE INTERFACE (For Compliance/Safety) ---
@@ -22,7 +22,6 @@ import com.google.android.material.floatingactionbutton.ExtendedFloatingActionBu
 import com.google.firebase.auth.FirebaseAuth;
 
 import java.util.List;
-import java.util.ArrayList; // Added for empty list initialization
 
 public class FacultyAssignmentFragment extends Fragment implements CourseAdapter.CourseActionListener {
 
@@ -53,6 +52,8 @@ public class FacultyAssignmentFragment extends Fragment implements CourseAdapter
         fabCreateAssignment = view.findViewById(R.id.fab_create_assignment);
 
         courseRecyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
+        courseAdapter = new CourseAdapter(requireContext(), FacultyAssignmentFragment.this);
+        courseRecyclerView.setAdapter(courseAdapter);
 
         // 2. Load the list of courses taught by this faculty member
         loadCoursesTaught();
@@ -80,15 +81,10 @@ public class FacultyAssignmentFragment extends Fragment implements CourseAdapter
 
                 if (courses.isEmpty()) {
                     Toast.makeText(getContext(), "You are not assigned to any active courses.", Toast.LENGTH_LONG).show();
-                    // Initialize adapter with an empty list to prevent NPE
-                    courseAdapter = new CourseAdapter(requireContext(), new ArrayList<>(), FacultyAssignmentFragment.this);
-                    courseRecyclerView.setAdapter(courseAdapter);
-                    return;
                 }
 
-                // Initialize CourseAdapter and pass 'this' as the listener
-                courseAdapter = new CourseAdapter(requireContext(), courses, FacultyAssignmentFragment.this);
-                courseRecyclerView.setAdapter(courseAdapter);
+                // Only the rows that changed since the last load are rebound
+                courseAdapter.submitList(courses);
             }
 
             @Override
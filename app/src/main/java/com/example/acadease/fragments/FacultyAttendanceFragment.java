@@ -12,24 +12,23 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Button;
 import android.widget.EditText;
-import android.widget.LinearLayout;
-import android.widget.RadioButton;
-import android.widget.RadioGroup;
-import android.widget.TextView;
 import android.widget.Toast;
 import android.util.Log;
 
 import com.example.acadease.R;
 import com.example.acadease.adapters.AttendanceSessionAdapter;
+import com.example.acadease.adapters.RosterAdapter;
 import com.example.acadease.data.FacultyRepository;
 import com.example.acadease.data.LookupRepository;
+import com.example.acadease.data.ReadPolicy;
+import com.example.acadease.data.SessionRangeCache;
 import com.example.acadease.model.Session;
-import com.google.firebase.Timestamp;
 import com.google.firebase.auth.FirebaseAuth;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -43,15 +42,18 @@ public class FacultyAttendanceFragment extends Fragment implements AttendanceSes
 
     // 1. UI elements
     private RecyclerView sessionRecyclerView;
+    private AttendanceSessionAdapter sessionAdapter;
     private EditText datePickerEt;
     private Button btnPrevDay, btnNextDay;
-    private LinearLayout rosterContainer;
+    private RecyclerView rosterRecyclerView;
+    private RosterAdapter rosterAdapter;
     private Button submitAttendanceButton;
-    private View rosterScrollView;
+    private View rosterPanel;
 
     // 2. Repositories and State
     private FacultyRepository facultyRepository;
     private LookupRepository lookupRepository;
+    private SessionRangeCache dayCache; // Selected day plus one on each side
     private List<Session> facultySessions = new ArrayList<>();
     private List<String> currentRosterUids = new ArrayList<>();
     private Session selectedSession;
@@ -76,20 +78,36 @@ public class FacultyAttendanceFragment extends Fragment implements AttendanceSes
         facultyRepository = new FacultyRepository();
         lookupRepository = new LookupRepository();
         userUid = FirebaseAuth.getInstance().getCurrentUser() != null ? FirebaseAuth.getInstance().getCurrentUser().getUid() : "DEFAULT_UID";
+        dayCache = new SessionRangeCache(1, 1, (start, end, callback) ->
+                facultyRepository.fetchScheduleSessions(userUid, "faculty", start, end, new FacultyRepository.ScheduleSessionsCallback() {
+                    @Override
+                    public void onSuccess(List<Session> sessions) { callback.onSuccess(sessions); }
+                    @Override
+                    public void onFailure(Exception e) { callback.onFailure(e); }
+                }));
 
         // 1. Map UI Elements
         sessionRecyclerView = view.findViewById(R.id.attendance_session_recycler_view);
         datePickerEt = view.findViewById(R.id.attendance_date_picker_text);
         btnPrevDay = view.findViewById(R.id.btn_prev_day);
         btnNextDay = view.findViewById(R.id.btn_next_day);
-        rosterContainer = view.findViewById(R.id.attendance_roster_container);
+        rosterRecyclerView = view.findViewById(R.id.attendance_roster_recycler);
         submitAttendanceButton = view.findViewById(R.id.btn_submit_attendance);
-        rosterScrollView = view.findViewById(R.id.roster_scroll_view);
+        rosterPanel = view.findViewById(R.id.roster_panel);
 
         // Setup RecyclerView
         if (sessionRecyclerView != null) {
             sessionRecyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
+            sessionAdapter = new AttendanceSessionAdapter(requireContext(), this);
+            sessionRecyclerView.setAdapter(sessionAdapter);
+        }
+        rosterAdapter = new RosterAdapter();
+        if (rosterRecyclerView != null) {
+            rosterRecyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
+            rosterRecyclerView.setAdapter(rosterAdapter);
         }
+        view.findViewById(R.id.btn_mark_all_present).setOnClickListener(v -> rosterAdapter.markAllPresent());
+        view.findViewById(R.id.btn_invert_marks).setOnClickListener(v -> rosterAdapter.invertSelection());
 
         // 2. Setup Initial Date State (Today in IST)
         selectedDate = Calendar.getInstance(TimeZone.getTimeZone("Asia/Kolkata"));
@@ -111,15 +129,15 @@ public class FacultyAttendanceFragment extends Fragment implements AttendanceSes
         if (isRosterVisible) {
             // Hide session selector controls, show roster input
             if (sessionRecyclerView != null) sessionRecyclerView.setVisibility(View.GONE);
-            if (rosterScrollView != null) rosterScrollView.setVisibility(View.VISIBLE);
+            if (rosterPanel != null) rosterPanel.setVisibility(View.VISIBLE);
             if (submitAttendanceButton != null) submitAttendanceButton.setVisibility(View.VISIBLE);
         } else {
             // Show session selector controls, hide roster input
             if (sessionRecyclerView != null) sessionRecyclerView.setVisibility(View.VISIBLE);
-            if (rosterScrollView != null) rosterScrollView.setVisibility(View.GONE);
+            if (rosterPanel != null) rosterPanel.setVisibility(View.GONE);
             if (submitAttendanceButton != null) submitAttendanceButton.setVisibility(View.GONE);
 
-            if (rosterContainer != null) rosterContainer.removeAllViews();
+            rosterAdapter.setRoster(Collections.emptyList(), Collections.emptyMap());
         }
     }
 
@@ -160,17 +178,8 @@ public class FacultyAttendanceFragment extends Fragment implements AttendanceSes
         setRosterVisibility(false);
         updateDateDisplay();
 
-        Calendar dayStart = (Calendar) selectedDate.clone();
-        dayStart.set(Calendar.HOUR_OF_DAY, 0); dayStart.set(Calendar.MINUTE, 0); dayStart.set(Calendar.SECOND, 0);
-
-        Calendar dayEnd = (Calendar) selectedDate.clone();
-        dayEnd.set(Calendar.HOUR_OF_DAY, 23); dayEnd.set(Calendar.MINUTE, 59); dayEnd.set(Calendar.SECOND, 59);
-
-        Timestamp start = new Timestamp(dayStart.getTime());
-        Timestamp end = new Timestamp(dayEnd.getTime());
-
-        // Fetch sessions for a single selected day
-        facultyRepository.fetchScheduleSessions(userUid, "faculty", start, end, new FacultyRepository.ScheduleSessionsCallback() {
+        // Served from the day window when already loaded; neighbouring days are prefetched
+        dayCache.get(selectedDate, new SessionRangeCache.SessionsCallback() {
             @Override
             public void onSuccess(List<Session> sessions) {
                 if (getContext() == null) return;
@@ -179,13 +188,16 @@ public class FacultyAttendanceFragment extends Fragment implements AttendanceSes
 
                 if (sessions.isEmpty()) {
                     Toast.makeText(getContext(), "No classes scheduled on this date.", Toast.LENGTH_SHORT).show();
-                    sessionRecyclerView.setAdapter(null);
+                    sessionAdapter.submitList(null);
                     return;
                 }
 
-                // Initialize the dedicated adapter for session selection
-                AttendanceSessionAdapter adapter = new AttendanceSessionAdapter(requireContext(), sessions, FacultyAttendanceFragment.this);
-                sessionRecyclerView.setAdapter(adapter);
+                // Titles and professor names are resolved once for the day, then the adapter only binds
+                facultyRepository.joinSessionRows(sessions, rows -> {
+                    // Skip if another date was selected while the lookups were in flight
+                    if (getContext() == null || facultySessions != sessions) return;
+                    sessionAdapter.submitList(rows);
+                });
             }
 
             @Override
@@ -193,14 +205,14 @@ public class FacultyAttendanceFragment extends Fragment implements AttendanceSes
                 if (getContext() == null) return;
                 Log.e(TAG, "Failed to fetch schedule: " + e.getMessage(), e);
                 Toast.makeText(getContext(), "Failed to fetch schedule: " + e.getMessage(), Toast.LENGTH_LONG).show();
-                sessionRecyclerView.setAdapter(null);
+                sessionAdapter.submitList(null);
             }
         });
     }
 
     private void loadRosterAndNames(String sessionId, String courseCode) {
         // 1. Fetch Roster UIDs for the course
-        facultyRepository.fetchCourseRoster(courseCode, new FacultyRepository.RosterCallback() {
+        facultyRepository.fetchCourseRoster(courseCode, ReadPolicy.NETWORK_ONLY, new FacultyRepository.RosterCallback() {
             @Override
             public void onSuccess(List<String> studentUids) {
                 currentRosterUids = studentUids;
@@ -239,28 +251,13 @@ public class FacultyAttendanceFragment extends Fragment implements AttendanceSes
     // --- UI Rendering Helpers ---
 
     private void displayRosterInput(Map<String, String> uidToNameMap) {
-        if (rosterContainer == null || submitAttendanceButton == null) {
+        if (rosterRecyclerView == null || submitAttendanceButton == null) {
             Log.e(TAG, "Roster UI container is null. Cannot display roster.");
             return;
         }
 
-        rosterContainer.removeAllViews();
-        LayoutInflater inflater = LayoutInflater.from(getContext());
-
-        for (Map.Entry<String, String> entry : uidToNameMap.entrySet()) {
-            String uid = entry.getKey();
-            String displayName = entry.getValue();
-
-            View row = inflater.inflate(R.layout.item_attendance_roster, rosterContainer, false);
-
-            TextView studentName = row.findViewById(R.id.student_name_text);
-            studentName.setText(displayName);
-
-            RadioGroup statusGroup = row.findViewById(R.id.attendance_radio_group);
-            statusGroup.setTag(uid);
-
-            rosterContainer.addView(row);
-        }
+        // Rows are bound on demand; the marks are kept by the adapter
+        rosterAdapter.setRoster(currentRosterUids, uidToNameMap);
 
         // SWITCH VIEW STATE: Hide session list, show roster input
         setRosterVisibility(true);
@@ -276,34 +273,25 @@ public class FacultyAttendanceFragment extends Fragment implements AttendanceSes
             return;
         }
 
-        // 1. Gather Attendance Data (Map<Student UID, Status String>)
-        Map<String, String> attendanceMap = new HashMap<>();
-
-        for (int i = 0; i < rosterContainer.getChildCount(); i++) {
-            View row = rosterContainer.getChildAt(i);
-            RadioGroup statusGroup = row.findViewById(R.id.attendance_radio_group);
-
-            String studentUid = (String) statusGroup.getTag();
-            int selectedId = statusGroup.getCheckedRadioButtonId();
-
-            if (selectedId != -1) {
-                RadioButton selectedButton = row.findViewById(selectedId);
-                String status = (String) selectedButton.getTag();
-                attendanceMap.put(studentUid, status);
-            } else {
-                Toast.makeText(getContext(), "Error: Please mark attendance for all students.", Toast.LENGTH_LONG).show();
-                return;
-            }
+        // 1. Every student needs a mark; jump to the first one still missing
+        int unmarked = rosterAdapter.firstUnmarked();
+        if (unmarked >= 0) {
+            rosterRecyclerView.scrollToPosition(unmarked);
+            Toast.makeText(getContext(), "Error: Please mark attendance for all students.", Toast.LENGTH_LONG).show();
+            return;
         }
 
+        // 2. Gather Attendance Data (Map<Student UID, Status String>)
+        Map<String, String> attendanceMap = rosterAdapter.getAttendanceMap();
+
         // Final Validation check
         if (attendanceMap.size() != currentRosterUids.size()) {
             Toast.makeText(getContext(), "Attendance must be marked for all students.", Toast.LENGTH_LONG).show();
             return;
         }
 
-        // 2. Call Repository to perform Batched Write
-        facultyRepository.recordAttendance(selectedSession.getId(), attendanceMap, new FacultyRepository.AttendanceWriteCallback() {
+        // 3. Call Repository to perform Batched Write
+        facultyRepository.recordAttendance(selectedSession.getId(), selectedSession.getCourseCode(), attendanceMap, new FacultyRepository.AttendanceWriteCallback() {
             @Override
             public void onSuccess(String message) {
                 Toast.makeText(getContext(), message, Toast.LENGTH_LONG).show();
@@ -21,6 +21,7 @@ import androidx.appcompat.app.AlertDialog;
 import com.example.acadease.R;
 import com.example.acadease.data.FacultyRepository;
 import com.example.acadease.data.LookupRepository;
+import com.example.acadease.data.ReadPolicy;
 import com.example.acadease.adapters.ResultsAdapter;
 import com.example.acadease.model.Course;
 import com.example.acadease.model.User;
@@ -78,6 +79,8 @@ public class FacultyResultsFragment extends Fragment {
 
         // Setup RecyclerView
         resultsRecyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
+        resultsAdapter = new ResultsAdapter(requireContext(), maxExamPoints, lookupRepository);
+        resultsRecyclerView.setAdapter(resultsAdapter);
 
         // 2. Setup Dropdowns
         setupCourseDropdown(); // Loads courses and sets initial listener
@@ -173,6 +176,7 @@ public class FacultyResultsFragment extends Fragment {
                 } else {
                     selectedExamType = null;
                     maxExamPoints = 0;
+                    resultsAdapter.setMaxPoints(maxExamPoints);
                     if (maxPointsDisplay != null) maxPointsDisplay.setText("Max: N/A");
                     Toast.makeText(getContext(), "No exam types defined for this course.", Toast.LENGTH_LONG).show();
                 }
@@ -197,14 +201,14 @@ public class FacultyResultsFragment extends Fragment {
             public void onSuccess(int points) {
                 maxExamPoints = points;
                 if (maxPointsDisplay != null) maxPointsDisplay.setText("Max: " + maxExamPoints);
-                if (resultsAdapter != null) resultsAdapter.notifyDataSetChanged();
+                resultsAdapter.setMaxPoints(maxExamPoints);
             }
             @Override
             public void onFailure(Exception e) {
                 maxExamPoints = 0;
                 if (maxPointsDisplay != null) maxPointsDisplay.setText("Max: N/A");
                 Toast.makeText(getContext(), "Max Points for exam not found in DB.", Toast.LENGTH_SHORT).show();
-                if (resultsAdapter != null) resultsAdapter.notifyDataSetChanged();
+                resultsAdapter.setMaxPoints(maxExamPoints);
             }
         });
     }
@@ -214,12 +218,13 @@ public class FacultyResultsFragment extends Fragment {
 
     private void loadRosterForGrading(String courseCode) {
         // Step 1: Fetch UIDs of all enrolled students
-        facultyRepository.fetchCourseRoster(courseCode, new FacultyRepository.RosterCallback() {
+        facultyRepository.fetchCourseRoster(courseCode, ReadPolicy.NETWORK_ONLY, new FacultyRepository.RosterCallback() {
             @Override
             public void onSuccess(List<String> studentUids) {
                 if (studentUids.isEmpty()) {
                     Toast.makeText(getContext(), "Course has no enrolled students.", Toast.LENGTH_SHORT).show();
-                    resultsRecyclerView.setAdapter(null);
+                    resultsAdapter.clearGrades();
+                    resultsAdapter.submitList(null);
                     currentCourseRoster = new ArrayList<>();
                     return;
                 }
@@ -230,10 +235,9 @@ public class FacultyResultsFragment extends Fragment {
                     public void onSuccess(List<User> students) {
                         currentCourseRoster = students;
 
-                        // 3. Attach Adapter
-                        // NOTE: Adapter now uses the current maxExamPoints value
-                        resultsAdapter = new ResultsAdapter(requireContext(), students, maxExamPoints, lookupRepository);
-                        resultsRecyclerView.setAdapter(resultsAdapter);
+                        // 3. Show the roster; marks typed for the previous course are dropped
+                        resultsAdapter.clearGrades();
+                        resultsAdapter.submitList(students);
                     }
 
                     @Override
@@ -5,6 +5,7 @@ import android.os.Bundle;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.Lifecycle;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import android.view.LayoutInflater;
@@ -18,6 +19,7 @@ import com.example.acadease.CreateAnnouncementActivity;
 import com.example.acadease.ProfileActivity;
 import com.example.acadease.R;
 import com.example.acadease.adapters.AnnouncementAdapter;
+import com.example.acadease.data.AnnouncementFeed;
 import com.example.acadease.data.AnnouncementRepository;
 import com.example.acadease.data.AdminRepository;
 import com.example.acadease.model.Announcement;
@@ -43,6 +45,7 @@ public class HomeFragment extends Fragment implements AnnouncementAdapter.OnAnno
     private com.example.acadease.data.UserRepository userRepository;
 
     private AnnouncementAdapter adapter;
+    private AnnouncementFeed feed;
     private boolean canDelete = false; // default for students/faculty
 
     public HomeFragment() { /* Required empty public constructor */ }
@@ -87,7 +90,34 @@ public class HomeFragment extends Fragment implements AnnouncementAdapter.OnAnno
         setupGreeting();
 
         // Setup RecyclerView
-        recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(getContext());
+        recyclerView.setLayoutManager(layoutManager);
+        adapter = new AnnouncementAdapter(getContext(), HomeFragment.this, announcementRepository, canDelete);
+        recyclerView.setAdapter(adapter);
+        feed = new AnnouncementFeed(announcementRepository, new AnnouncementFeed.Listener() {
+            @Override
+            public void onFeedUpdated(@NonNull List<Announcement> announcements, boolean reset) {
+                if (getContext() == null) return;
+                // The adapter diffs against what it shows, so only changed cards are rebound
+                adapter.submitList(announcements);
+                if (reset && announcements.isEmpty()) {
+                    Toast.makeText(getContext(), "No announcements found for " + currentFilterCategory + ".", Toast.LENGTH_SHORT).show();
+                }
+            }
+
+            @Override
+            public void onFeedError(Exception e) {
+                if (getContext() == null) return;
+                Toast.makeText(getContext(), "Failed to load feed. Check network/rules.", Toast.LENGTH_LONG).show();
+            }
+        });
+        // Older pages are requested as the list nears its end
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                feed.onScrolled(layoutManager.findFirstVisibleItemPosition(), layoutManager.findLastVisibleItemPosition());
+            }
+        });
 
         // 3. Set Filter Listeners
         View.OnClickListener filterListener = v -> {
@@ -101,8 +131,7 @@ public class HomeFragment extends Fragment implements AnnouncementAdapter.OnAnno
         btnFilterAll.setOnClickListener(filterListener);
         btnFilterEvents.setOnClickListener(filterListener);
 
-        // Initial Load
-        loadAnnouncements();
+        // Initial load happens in onStart when the feed attaches
 
         // Admin functionality: Create New Announcement
         fabCreateAnnouncement.setOnClickListener(v -> {
@@ -111,9 +140,15 @@ public class HomeFragment extends Fragment implements AnnouncementAdapter.OnAnno
     }
 
     @Override
-    public void onResume() {
-        super.onResume();
-        loadAnnouncements(); // Refresh feed when returning
+    public void onStart() {
+        super.onStart();
+        feed.start(currentFilterCategory); // Live updates only while visible
+    }
+
+    @Override
+    public void onStop() {
+        super.onStop();
+        feed.stop();
     }
 
     private void setupGreeting() {
@@ -206,29 +241,12 @@ public class HomeFragment extends Fragment implements AnnouncementAdapter.OnAnno
     }
 
     /**
-     * Loads announcements based on the currentFilterCategory.
+     * Points the live feed at the current filter. Before onStart the feed is attached there instead.
      */
     private void loadAnnouncements() {
-        // CRITICAL: The repository fetch method needs the filter category.
-        announcementRepository.fetchAnnouncements(currentFilterCategory, new AnnouncementRepository.AnnouncementsCallback() {
-            @Override
-            public void onSuccess(List<Announcement> announcements) {
-                if (getContext() == null) return;
-
-                if (announcements.isEmpty()) {
-                    Toast.makeText(getContext(), "No announcements found for " + currentFilterCategory + ".", Toast.LENGTH_SHORT).show();
-                }
-
-                adapter = new AnnouncementAdapter(getContext(), announcements, HomeFragment.this, announcementRepository, canDelete);
-                recyclerView.setAdapter(adapter);
-            }
-
-            @Override
-            public void onFailure(Exception e) {
-                if (getContext() == null) return;
-                Toast.makeText(getContext(), "Failed to load feed. Check network/rules.", Toast.LENGTH_LONG).show();
-            }
-        });
+        if (getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED)) {
+            feed.start(currentFilterCategory);
+        }
     }
 
     // --- IMPLEMENTATION OF THE DELETE INTERFACE (unchanged) ---
@@ -241,9 +259,8 @@ public class HomeFragment extends Fragment implements AnnouncementAdapter.OnAnno
             public void onSuccess(String message) {
                 if (getContext() == null) return;
                 Toast.makeText(getContext(), message, Toast.LENGTH_SHORT).show();
-                if (adapter != null) {
-                    adapter.removeItem(position);
-                }
+                // The head listener sees the deletion itself; an older page only drops it when told
+                feed.remove(announcementId);
             }
 
             @Override
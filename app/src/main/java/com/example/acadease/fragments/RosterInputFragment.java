@@ -4,25 +4,27 @@ import android.os.Bundle;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Button;
-import android.widget.LinearLayout;
-import android.widget.RadioButton;
-import android.widget.RadioGroup;
 import android.widget.TextView;
 import android.widget.Toast;
 import android.util.Log;
 
 import com.example.acadease.R;
+import com.example.acadease.adapters.RosterAdapter;
 import com.example.acadease.data.FacultyRepository;
 import com.example.acadease.data.LookupRepository;
+import com.example.acadease.data.ReadPolicy;
 import com.google.firebase.Timestamp;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -32,7 +34,8 @@ public class RosterInputFragment extends Fragment {
 
     // UI elements
     private TextView sessionDetailsTextView;
-    private LinearLayout rosterContainer; // Container for dynamic student attendance inputs
+    private RecyclerView rosterRecyclerView;
+    private RosterAdapter rosterAdapter; // Holds the marks; only visible rows have views
     private Button submitAttendanceButton;
 
     // Repositories and State
@@ -69,15 +72,22 @@ public class RosterInputFragment extends Fragment {
 
         // 1. Map UI Elements
         sessionDetailsTextView = view.findViewById(R.id.roster_session_details);
-        rosterContainer = view.findViewById(R.id.attendance_roster_container);
+        rosterRecyclerView = view.findViewById(R.id.attendance_roster_recycler);
         submitAttendanceButton = view.findViewById(R.id.btn_submit_attendance);
 
+        rosterAdapter = new RosterAdapter();
+        rosterRecyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
+        rosterRecyclerView.setAdapter(rosterAdapter);
+        view.findViewById(R.id.btn_mark_all_present).setOnClickListener(v -> rosterAdapter.markAllPresent());
+        view.findViewById(R.id.btn_invert_marks).setOnClickListener(v -> rosterAdapter.invertSelection());
+
         if (sessionId == null) {
             sessionDetailsTextView.setText("Error: Session ID is missing.");
             return;
         }
 
         sessionDetailsTextView.setText(String.format("Course: %s | Session ID: %s", courseCode, sessionId));
+        loadClassAttendanceRate();
 
         // 2. Load the Roster (UIDs -> Names)
         loadRosterAndNames();
@@ -90,9 +100,26 @@ public class RosterInputFragment extends Fragment {
 
     // --- Data Loading and Display ---
 
+    private void loadClassAttendanceRate() {
+        // One counter document; no roster scan needed
+        facultyRepository.fetchCourseAttendanceRate(courseCode, new FacultyRepository.CourseAttendanceRateCallback() {
+            @Override
+            public void onSuccess(long presentMarks, long totalMarks) {
+                if (!isAdded() || totalMarks == 0) return;
+                sessionDetailsTextView.setText(String.format(Locale.US, "Course: %s | Session ID: %s | Class attendance: %.0f%%",
+                        courseCode, sessionId, presentMarks * 100.0 / totalMarks));
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                Log.w(TAG, "Class attendance rate unavailable: " + e.getMessage());
+            }
+        });
+    }
+
     private void loadRosterAndNames() {
         // Step A: Fetch Roster UIDs for the course
-        facultyRepository.fetchCourseRoster(courseCode, new FacultyRepository.RosterCallback() {
+        facultyRepository.fetchCourseRoster(courseCode, ReadPolicy.NETWORK_ONLY, new FacultyRepository.RosterCallback() {
             @Override
             public void onSuccess(List<String> studentUids) {
                 currentRosterUids = studentUids;
@@ -129,32 +156,15 @@ public class RosterInputFragment extends Fragment {
     }
 
     /**
-     * Dynamically creates the list of student rows with Radio Buttons.
+     * Hands the roster to the adapter; rows with Radio Buttons are bound as they scroll into view.
      */
     private void displayRosterInput(Map<String, String> uidToNameMap) {
-        if (rosterContainer == null) {
+        if (rosterRecyclerView == null) {
             Log.e(TAG, "FATAL: Roster UI container is null. Cannot display roster.");
             return;
         }
 
-        rosterContainer.removeAllViews();
-        LayoutInflater inflater = LayoutInflater.from(getContext());
-
-        for (Map.Entry<String, String> entry : uidToNameMap.entrySet()) {
-            String uid = entry.getKey();
-            String displayName = entry.getValue();
-
-            // Inflate item_attendance_roster layout for each student row
-            View row = inflater.inflate(R.layout.item_attendance_roster, rosterContainer, false);
-
-            TextView studentName = row.findViewById(R.id.student_name_text);
-            studentName.setText(displayName);
-
-            RadioGroup statusGroup = row.findViewById(R.id.attendance_radio_group);
-            statusGroup.setTag(uid);
-
-            rosterContainer.addView(row);
-        }
+        rosterAdapter.setRoster(currentRosterUids, uidToNameMap);
 
         Toast.makeText(getContext(), "Roster ready for marking.", Toast.LENGTH_SHORT).show();
     }
@@ -162,34 +172,25 @@ public class RosterInputFragment extends Fragment {
     // --- Core Write Logic ---
 
     private void handleSubmitAttendance() {
-        // 1. Gather Attendance Data (Map<Student UID, Status String>)
-        Map<String, String> attendanceMap = new HashMap<>();
-
-        for (int i = 0; i < rosterContainer.getChildCount(); i++) {
-            View row = rosterContainer.getChildAt(i);
-            RadioGroup statusGroup = row.findViewById(R.id.attendance_radio_group);
-
-            String studentUid = (String) statusGroup.getTag();
-            int selectedId = statusGroup.getCheckedRadioButtonId();
-
-            if (selectedId != -1) {
-                RadioButton selectedButton = row.findViewById(selectedId);
-                String status = (String) selectedButton.getTag();
-                attendanceMap.put(studentUid, status);
-            } else {
-                Toast.makeText(getContext(), "Error: Please mark attendance for all students.", Toast.LENGTH_LONG).show();
-                return;
-            }
+        // 1. Every student needs a mark; jump to the first one still missing
+        int unmarked = rosterAdapter.firstUnmarked();
+        if (unmarked >= 0) {
+            rosterRecyclerView.scrollToPosition(unmarked);
+            Toast.makeText(getContext(), "Error: Please mark attendance for all students.", Toast.LENGTH_LONG).show();
+            return;
         }
 
+        // 2. Gather Attendance Data (Map<Student UID, Status String>)
+        Map<String, String> attendanceMap = rosterAdapter.getAttendanceMap();
+
         // Final Validation check
         if (attendanceMap.size() != currentRosterUids.size()) {
             Toast.makeText(getContext(), "Attendance must be marked for all students.", Toast.LENGTH_LONG).show();
             return;
         }
 
-        // 2. Call Repository to perform Batched Write
-        facultyRepository.recordAttendance(sessionId, attendanceMap, new FacultyRepository.AttendanceWriteCallback() {
+        // 3. Call Repository to perform Batched Write
+        facultyRepository.recordAttendance(sessionId, courseCode, attendanceMap, new FacultyRepository.AttendanceWriteCallback() {
             @Override
             public void onSuccess(String message) {
                 Toast.makeText(getContext(), message, Toast.LENGTH_LONG).show();
@@ -1,10 +1,10 @@
 package com.example.acadease.fragments;
 
 import android.app.DatePickerDialog;
-import android.content.Context;
 import android.os.Bundle;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.appcompat.app.AlertDialog;
 import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -13,8 +13,7 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ArrayAdapter;
 import android.widget.AutoCompleteTextView;
-import android.widget.TableLayout;
-import android.widget.TableRow;
+import android.widget.EditText;
 import android.widget.TextView;
 import android.widget.Toast;
 import android.widget.Button;
@@ -22,7 +21,11 @@ import android.widget.Button;
 import com.example.acadease.R;
 import com.example.acadease.adapters.ScheduleAdapter;
 import com.example.acadease.data.FacultyRepository;
+import com.example.acadease.data.SessionRangeCache;
 import com.example.acadease.model.Session;
+import com.example.acadease.model.SessionRow;
+import com.example.acadease.utils.ScheduleUtility;
+import com.example.acadease.views.WeekGridView;
 import com.google.firebase.Timestamp;
 import com.google.firebase.auth.FirebaseAuth;
 
@@ -36,15 +39,14 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.TimeZone;
-import java.util.stream.Collectors;
-import java.util.function.Function;
 
 public class ScheduleFragment extends Fragment {
 
     // UI Elements
     private AutoCompleteTextView weekDropdown, yearDropdown;
-    private TableLayout calendarGrid;
+    private WeekGridView calendarGrid;
     private RecyclerView detailList;
+    private ScheduleAdapter detailAdapter;
     private TextView dailyHeaderDate, dailyHeaderDay;
     private TextView datePickerText;
     private Button btnPrevWeek, btnNextWeek;
@@ -52,6 +54,8 @@ public class ScheduleFragment extends Fragment {
     // Repositories
     private FacultyRepository facultyRepository;
     private com.example.acadease.data.StudentRepository studentRepository;
+    private SessionRangeCache weekCache; // Current week plus one on each side
+    private int renderGeneration; // Bumped per loaded week so late lookups for an earlier week are dropped
 
     // Date State Management
     private String userRole = "faculty";
@@ -65,7 +69,6 @@ public class ScheduleFragment extends Fragment {
     private SimpleDateFormat weekRangeFormat = new SimpleDateFormat("MMM dd", Locale.getDefault());
     private SimpleDateFormat dayHeaderDateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
     private SimpleDateFormat dayHeaderDayFormat = new SimpleDateFormat("EEEE", Locale.getDefault());
-    private SimpleDateFormat timeFormatHourMinute = new SimpleDateFormat("h:mm a", Locale.getDefault());
 
     public ScheduleFragment() { /* Required empty public constructor */ }
 
@@ -105,6 +108,8 @@ public class ScheduleFragment extends Fragment {
             }
         }
 
+        weekCache = new SessionRangeCache(7, 1, this::fetchWeek);
+
         // 1. Map UI Elements
         calendarGrid = view.findViewById(R.id.schedule_calendar_grid);
         detailList = view.findViewById(R.id.schedule_detail_list);
@@ -117,6 +122,16 @@ public class ScheduleFragment extends Fragment {
 
 
         detailList.setLayoutManager(new LinearLayoutManager(requireContext()));
+        // Students only view, faculty open the roster
+        detailAdapter = "student".equalsIgnoreCase(userRole)
+                ? new ScheduleAdapter(requireContext(), s -> {})
+                : new ScheduleAdapter(requireContext(), session -> navigateToRoster(session));
+        if (!"student".equalsIgnoreCase(userRole)) {
+            detailAdapter.setOnManageSessionListener(this::showSessionActions);
+        }
+        detailList.setAdapter(detailAdapter);
+        calendarGrid.setOnSessionClickListener(session -> Toast.makeText(requireContext(),
+                "Clicked class on: " + dayHeaderDateFormat.format(session.getSessionTime().toDate()), Toast.LENGTH_SHORT).show());
 
         // 2. Setup Initial Date Range (Current Week)
         setupInitialWeekRange();
@@ -133,6 +148,68 @@ public class ScheduleFragment extends Fragment {
         updateDetailHeader(selectedDetailDay);
     }
 
+    // --- Session Actions (faculty) ---
+
+    private void showSessionActions(Session session) {
+        String[] actions = {"Change venue", "Cancel session"};
+        new AlertDialog.Builder(requireContext())
+                .setTitle(session.getCourseCode() + " on " + dayHeaderDateFormat.format(session.getSessionTime().toDate()))
+                .setItems(actions, (dialog, which) -> {
+                    if (which == 0) showChangeVenueDialog(session);
+                    else confirmCancelSession(session);
+                })
+                .show();
+    }
+
+    private void showChangeVenueDialog(Session session) {
+        final EditText venueEt = new EditText(requireContext());
+        venueEt.setHint("New venue");
+        venueEt.setText(session.getVenue());
+
+        new AlertDialog.Builder(requireContext())
+                .setTitle("Change venue")
+                .setView(venueEt)
+                .setPositiveButton("SAVE", (dialog, which) -> {
+                    String venue = venueEt.getText().toString().trim();
+                    if (venue.isEmpty()) {
+                        Toast.makeText(getContext(), "Venue is required.", Toast.LENGTH_SHORT).show();
+                        return;
+                    }
+                    facultyRepository.changeSessionVenue(session, venue, sessionUpdateCallback());
+                })
+                .setNegativeButton("Back", null)
+                .show();
+    }
+
+    private void confirmCancelSession(Session session) {
+        new AlertDialog.Builder(requireContext())
+                .setTitle("Cancel session?")
+                .setMessage("Students will no longer see it, and attendance already taken for it stops counting.")
+                .setPositiveButton("CANCEL SESSION", (dialog, which) ->
+                        facultyRepository.cancelSession(session, sessionUpdateCallback()))
+                .setNegativeButton("Back", null)
+                .show();
+    }
+
+    /** Reloads the week on success, so the grid and list show the change. */
+    private FacultyRepository.RegistrationCallback sessionUpdateCallback() {
+        return new FacultyRepository.RegistrationCallback() {
+            @Override
+            public void onSuccess(String message) {
+                if (!isAdded()) return;
+                Toast.makeText(getContext(), message, Toast.LENGTH_SHORT).show();
+                weekCache.clear();
+                loadScheduleData();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                if (!isAdded()) return;
+                Toast.makeText(getContext(), e.getMessage(), Toast.LENGTH_LONG).show();
+            }
+        };
+    }
+
     // --- Date Management Logic ---
 
     private void setupInitialWeekRange() {
@@ -204,159 +281,76 @@ public class ScheduleFragment extends Fragment {
     // --- Data Loading and Filtering ---
 
     private void loadScheduleData() {
-        Timestamp start = new Timestamp(currentWeekStart.getTime());
-        Timestamp end = new Timestamp(currentWeekEnd.getTime());
+        // Only a week that is not already in the window needs a round trip
+        if (!weekCache.isLoaded(currentWeekStart)) {
+            Toast.makeText(requireContext(), "Fetching schedule for week...", Toast.LENGTH_SHORT).show();
+        }
 
-        Toast.makeText(requireContext(), "Fetching schedule for week...", Toast.LENGTH_SHORT).show();
+        weekCache.get(currentWeekStart, new SessionRangeCache.SessionsCallback() {
+            @Override
+            public void onSuccess(List<Session> sessions) {
+                if (getContext() == null) return;
 
+                if (sessions.isEmpty()) {
+                    Toast.makeText(requireContext(), "No classes scheduled for this week.", Toast.LENGTH_LONG).show();
+                }
+                final Date weekStart = currentWeekStart.getTime();
+                final int generation = ++renderGeneration;
+
+                // Titles and professor names are resolved once for the whole week, then both views render
+                facultyRepository.joinSessionRows(sessions, rows -> {
+                    // A newer week may have been loaded while the lookups were in flight
+                    if (getContext() == null || generation != renderGeneration) return;
+
+                    // 1. Draw the full Calendar Grid (an empty week clears the previous one)
+                    drawCalendarGrid(weekStart, sessions, rows);
+
+                    // 2. CRITICAL FIX: The detail list must always show the full week's sessions.
+                    // The adapter handles the grouping/headers.
+                    detailAdapter.submitRows(rows);
+                });
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                if (getContext() == null) return;
+                Toast.makeText(requireContext(), "Failed to load schedule: " + e.getMessage(), Toast.LENGTH_LONG).show();
+            }
+        });
+    }
+
+    /**
+     * Week loader behind the cache: students read their enrolled courses' sessions,
+     * faculty/admin the sessions they teach.
+     */
+    private void fetchWeek(Timestamp start, Timestamp end, SessionRangeCache.SessionsCallback callback) {
         if ("student".equalsIgnoreCase(userRole)) {
             studentRepository.fetchWeeklySessions(userUid, start, end, new com.example.acadease.data.StudentRepository.SessionsCallback() {
                 @Override
-                public void onSuccess(List<Session> sessions) {
-                    if (getContext() == null) return;
-                    if (sessions.isEmpty()) {
-                        Toast.makeText(requireContext(), "No classes scheduled for this week.", Toast.LENGTH_LONG).show();
-                        detailList.setAdapter(new ScheduleAdapter(requireContext(), new ArrayList<>(), facultyRepository, s -> {}));
-                    } else {
-                        drawCalendarGrid(sessions);
-                        ScheduleAdapter adapter = new ScheduleAdapter(requireContext(), sessions, facultyRepository, s -> {});
-                        detailList.setAdapter(adapter);
-                    }
-                }
+                public void onSuccess(List<Session> sessions) { callback.onSuccess(sessions); }
                 @Override
-                public void onFailure(Exception e) {
-                    if (getContext() == null) return;
-                    Toast.makeText(requireContext(), "Failed to load schedule: " + e.getMessage(), Toast.LENGTH_LONG).show();
-                }
+                public void onFailure(Exception e) { callback.onFailure(e); }
             });
         } else {
             facultyRepository.fetchScheduleSessions(userUid, userRole, start, end, new FacultyRepository.ScheduleSessionsCallback() {
                 @Override
-                public void onSuccess(List<Session> sessions) {
-                    if (getContext() == null) return;
-
-                    if (sessions.isEmpty()) {
-                        Toast.makeText(requireContext(), "No classes scheduled for this week.", Toast.LENGTH_LONG).show();
-                        detailList.setAdapter(new ScheduleAdapter(requireContext(), new ArrayList<>(), facultyRepository, session -> navigateToRoster(session)));
-                    } else {
-                        // 1. Draw the full Calendar Grid
-                        drawCalendarGrid(sessions);
-
-                        // 2. CRITICAL FIX: The detail list must always show the full week's sessions.
-                        // The adapter handles the grouping/headers.
-                        ScheduleAdapter adapter = new ScheduleAdapter(requireContext(), sessions, facultyRepository, session -> navigateToRoster(session));
-                        detailList.setAdapter(adapter);
-                    }
-                }
-
+                public void onSuccess(List<Session> sessions) { callback.onSuccess(sessions); }
                 @Override
-                public void onFailure(Exception e) {
-                    if (getContext() == null) return;
-                    Toast.makeText(requireContext(), "Failed to load schedule: " + e.getMessage(), Toast.LENGTH_LONG).show();
-                }
+                public void onFailure(Exception e) { callback.onFailure(e); }
             });
         }
     }
 
-    // Helper function to create a TableHeader TextView (Moved outside drawCalendarGrid)
-    private TextView createHeaderCell(LayoutInflater inflater, Context context, String text) {
-        TextView tv = (TextView) inflater.inflate(R.layout.item_schedule_header_cell, null);
-        tv.setText(text);
-        tv.setLayoutParams(new TableRow.LayoutParams(0, TableRow.LayoutParams.WRAP_CONTENT, 1f));
-        return tv;
-    }
-
     /**
-     * Dynamically draws the full weekly calendar grid (TableLayout).
+     * Hands the week to the grid view, with the titles the join stage resolved, so the grid is laid
+     * out and drawn once, with no per-cell views or lookups.
      */
-    private void drawCalendarGrid(List<Session> sessions) {
+    private void drawCalendarGrid(Date weekStart, List<Session> sessions, List<SessionRow> rows) {
         if (calendarGrid == null) return;
-        calendarGrid.removeAllViews();
-
-        // Time slots extended from 8 AM to 7 PM
-        List<String> timeSlots = List.of("8:00 AM", "9:00 AM", "10:00 AM", "11:00 AM", "12:00 PM", "1:00 PM", "2:00 PM", "3:00 PM", "4:00 PM", "5:00 PM", "6:00 PM", "7:00 PM");
-        String[] days = {"MON", "TUE", "WED", "THUR", "FRI", "SAT", "SUN"};
-
-        final Context context = requireContext();
-        final LayoutInflater inflater = LayoutInflater.from(context);
-
-        // Map sessions grouped by DayOfWeek and TimeSlot string
-        Map<Integer, Map<String, Session>> gridMap = sessions.stream()
-                .collect(Collectors.groupingBy(session -> {
-                    Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("Asia/Kolkata"));
-                    cal.setTime(session.getSessionTime().toDate());
-                    return cal.get(Calendar.DAY_OF_WEEK);
-                }, Collectors.toMap(session ->
-                                timeFormatHourMinute.format(session.getSessionTime().toDate()),
-                        session -> session,
-                        (existing, replacement) -> existing
-                )));
-
-        // --- 1. Create Header Row (TIME, MON, TUE, ...) ---
-        TableRow headerRow = new TableRow(context);
-        headerRow.addView(createHeaderCell(inflater, context, "TIME"));
-        for (String day : days) { headerRow.addView(createHeaderCell(inflater, context, day)); }
-        calendarGrid.addView(headerRow);
-
-        // --- 2. Create Content Rows (Populating the Grid) ---
-        for (String timeSlot : timeSlots) {
-            TableRow row = new TableRow(context);
-
-            // Add Time Slot Label (Fixed Left Column)
-            TextView timeLabel = (TextView) inflater.inflate(R.layout.item_schedule_time_cell, null);
-            timeLabel.setText(timeSlot);
-            row.addView(timeLabel);
-
-            // Iterate through 7 days of the week (j=0 is MON, j=6 is SUN)
-            for (int j = 0; j < 7; j++) {
-                final TextView classCell = (TextView) inflater.inflate(R.layout.item_schedule_class_cell, null);
-                int calendarDay = (j + Calendar.MONDAY - 1) % 7 + 1;
-
-                // Calculate the specific date for this cell
-                final Calendar cellDate = (Calendar) currentWeekStart.clone();
-                cellDate.add(Calendar.DATE, j);
-                cellDate.setTimeZone(TimeZone.getTimeZone("Asia/Kolkata"));
-
-                Map<String, Session> sessionsForDay = gridMap.getOrDefault(calendarDay, Map.of());
-                Session matchingSession = sessionsForDay.get(timeSlot);
-
-                if (matchingSession != null) {
-                    final String courseCode = matchingSession.getCourseCode();
-                    final String venue = matchingSession.getVenue();
-
-                    // Set initial text to code while loading the title
-                    classCell.setText(String.format("%s\n%s", courseCode, venue));
-                    classCell.setBackgroundColor(context.getColor(R.color.primary_dark_grey));
-                    classCell.setTextColor(context.getColor(R.color.text_light));
-
-                    // Asynchronously fetch and display the full title (CRITICAL for readability)
-                    facultyRepository.fetchCourseTitle(courseCode, new FacultyRepository.CourseTitleCallback() {
-                        @Override
-                        public void onSuccess(String title) {
-                            // Update the cell with the full title and small venue text
-                            classCell.setText(String.format("%s\n%s", title, venue));
-                        }
-                        @Override
-                        public void onFailure(Exception e) {
-                            // Keep the course code if lookup fails
-                            classCell.setText(String.format("%s\n%s", courseCode, venue));
-                        }
-                    });
-
-                    // Set the click listener to update the detail list below
-                    classCell.setOnClickListener(v -> {
-                        // CRITICAL: When a grid cell is clicked, we scroll the detail list to the corresponding day header.
-                        // Since scrolling to a dynamic position is complex, we'll keep the toast for functionality demo.
-                        Toast.makeText(context, "Clicked class on: " + dayHeaderDateFormat.format(cellDate.getTime()), Toast.LENGTH_SHORT).show();
-                    });
-                } else {
-                    // Empty Slot
-                    classCell.setText("----");
-                    classCell.setBackgroundColor(context.getColor(android.R.color.white));
-                }
-                row.addView(classCell);
-            }
-            calendarGrid.addView(row);
-        }
+        Map<String, String> titleByCode = new HashMap<>();
+        for (SessionRow row : rows) titleByCode.put(row.getCourseCode(), row.courseTitle);
+
+        calendarGrid.setWeek(weekStart, TimeZone.getTimeZone(ScheduleUtility.CAMPUS_ZONE.getId()));
+        calendarGrid.setSessions(sessions, titleByCode);
     }
-}
\ No newline at end of file
+}
@@ -4,6 +4,7 @@ import android.app.DatePickerDialog;
 import android.os.Bundle;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.appcompat.app.AlertDialog;
 import androidx.fragment.app.Fragment;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -19,11 +20,12 @@ import android.widget.Toast;
 import com.example.acadease.R;
 import com.example.acadease.data.AdminRepository;
 import com.example.acadease.model.Schedule;
-import com.example.acadease.utils.ScheduleUtility; // Utility to generate session dates
+import com.example.acadease.utils.ScheduleConflictChecker;
 import com.google.firebase.Timestamp;
-import com.google.firebase.firestore.FirebaseFirestore;
 
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
@@ -35,8 +37,8 @@ import java.util.HashMap;
 
 public class ScheduleManagementFragment extends Fragment {
 
-    private EditText courseCodeEt, facultyIdEt, venueEt, startTimeEt, startDateEt, endDateEt;
-    private Button createScheduleBtn;
+    private EditText courseCodeEt, facultyIdEt, venueEt, startTimeEt, startDateEt, endDateEt, exceptionDatesEt;
+    private Button createScheduleBtn, rebuildAttendanceBtn, backfillSubmissionsBtn, backfillAttendanceBtn;
     private LinearLayout daySelectorContainer;
     private AutoCompleteTextView typeAutoCompleteTextView;
 
@@ -67,7 +69,11 @@ public class ScheduleManagementFragment extends Fragment {
         startTimeEt = view.findViewById(R.id.schedule_start_time_edit_text);
         startDateEt = view.findViewById(R.id.schedule_start_date_edit_text);
         endDateEt = view.findViewById(R.id.schedule_end_date_edit_text);
+        exceptionDatesEt = view.findViewById(R.id.schedule_exception_dates_edit_text);
         createScheduleBtn = view.findViewById(R.id.btn_create_schedule);
+        rebuildAttendanceBtn = view.findViewById(R.id.btn_rebuild_attendance_totals);
+        backfillSubmissionsBtn = view.findViewById(R.id.btn_backfill_submission_keys);
+        backfillAttendanceBtn = view.findViewById(R.id.btn_backfill_attendance_keys);
         daySelectorContainer = view.findViewById(R.id.schedule_day_selector_container);
         typeAutoCompleteTextView = view.findViewById(R.id.schedule_type_spinner);
 
@@ -83,6 +89,69 @@ public class ScheduleManagementFragment extends Fragment {
 
         // 5. Set Listener
         createScheduleBtn.setOnClickListener(v -> handleCreateSchedule());
+        if (rebuildAttendanceBtn != null) rebuildAttendanceBtn.setOnClickListener(v -> handleRebuildAttendanceTotals());
+        if (backfillSubmissionsBtn != null) backfillSubmissionsBtn.setOnClickListener(v -> handleBackfillSubmissionKeys());
+        if (backfillAttendanceBtn != null) backfillAttendanceBtn.setOnClickListener(v -> handleBackfillAttendanceKeys());
+    }
+
+    private void handleBackfillAttendanceKeys() {
+        backfillAttendanceBtn.setEnabled(false);
+        Toast.makeText(getContext(), "Backfilling attendance keys...", Toast.LENGTH_SHORT).show();
+        adminRepository.backfillAttendanceKeys(new AdminRepository.RegistrationCallback() {
+            @Override
+            public void onSuccess(String message) {
+                if (!isAdded()) return;
+                backfillAttendanceBtn.setEnabled(true);
+                Toast.makeText(getContext(), message, Toast.LENGTH_LONG).show();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                if (!isAdded()) return;
+                backfillAttendanceBtn.setEnabled(true);
+                Toast.makeText(getContext(), "Backfill failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
+            }
+        });
+    }
+
+    private void handleBackfillSubmissionKeys() {
+        backfillSubmissionsBtn.setEnabled(false);
+        Toast.makeText(getContext(), "Backfilling submission keys...", Toast.LENGTH_SHORT).show();
+        adminRepository.backfillSubmissionKeys(new AdminRepository.RegistrationCallback() {
+            @Override
+            public void onSuccess(String message) {
+                if (!isAdded()) return;
+                backfillSubmissionsBtn.setEnabled(true);
+                Toast.makeText(getContext(), message, Toast.LENGTH_LONG).show();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                if (!isAdded()) return;
+                backfillSubmissionsBtn.setEnabled(true);
+                Toast.makeText(getContext(), "Backfill failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
+            }
+        });
+    }
+
+    private void handleRebuildAttendanceTotals() {
+        rebuildAttendanceBtn.setEnabled(false);
+        Toast.makeText(getContext(), "Rebuilding attendance totals...", Toast.LENGTH_SHORT).show();
+        adminRepository.rebuildAttendanceAggregates(new AdminRepository.RegistrationCallback() {
+            @Override
+            public void onSuccess(String message) {
+                if (!isAdded()) return;
+                rebuildAttendanceBtn.setEnabled(true);
+                Toast.makeText(getContext(), message, Toast.LENGTH_LONG).show();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                if (!isAdded()) return;
+                rebuildAttendanceBtn.setEnabled(true);
+                Toast.makeText(getContext(), "Rebuild failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
+            }
+        });
     }
 
     private void setupTypeDropdown() {
@@ -169,6 +238,16 @@ public class ScheduleManagementFragment extends Fragment {
             Toast.makeText(getContext(), "Start date must be before end date.", Toast.LENGTH_LONG).show();
             return;
         }
+        List<String> exceptionDates = new ArrayList<>();
+        for (String token : exceptionDatesEt.getText().toString().trim().split("[,\\s]+")) {
+            if (token.isEmpty()) continue;
+            try {
+                exceptionDates.add(LocalDate.parse(token).toString());
+            } catch (DateTimeParseException e) {
+                Toast.makeText(getContext(), "Exception dates must look like 2025-10-02.", Toast.LENGTH_LONG).show();
+                return;
+            }
+        }
 
         // 2. Data Conversion
         Timestamp startTimestamp = new Timestamp(selectedStartDate);
@@ -184,51 +263,61 @@ public class ScheduleManagementFragment extends Fragment {
         scheduleBlueprint.setType(type);
         scheduleBlueprint.setStartDate(startTimestamp);
         scheduleBlueprint.setEndDate(endTimestamp);
+        scheduleBlueprint.setExceptionDates(exceptionDates);
+
+        // 4. Check for clashes, save the Recurrence Blueprint, then generate and bulk-write its sessions
+        createScheduleBtn.setEnabled(false);
+        createScheduleBtn.setText("Checking for clashes...");
+        adminRepository.createSchedule(scheduleBlueprint, new AdminRepository.ScheduleCallback() {
+            @Override
+            public void onConflicts(List<ScheduleConflictChecker.Conflict> conflicts) {
+                if (!isAdded()) return;
+                resetCreateButton();
+                showConflicts(conflicts);
+            }
 
-        // 4. Save the Recurrence Blueprint and Generate Sessions
-        // We use a transaction or batch write for integrity (conceptually).
-
-        // Step 4a: Save the Schedule Document first (The parent)
-        FirebaseFirestore.getInstance().collection("schedules").add(scheduleBlueprint)
-                .addOnSuccessListener(documentReference -> {
-                    String scheduleId = documentReference.getId();
-
-                    // Step 4b: Generate all individual sessions based on the blueprint
-                    List<Map<String, Object>> sessions = ScheduleUtility.generateSessions(scheduleBlueprint, scheduleId);
+            @Override
+            public void onProgress(int written, int total) {
+                if (!isAdded()) return;
+                createScheduleBtn.setText(String.format(Locale.US, "Writing sessions %d/%d...", written, total));
+            }
 
-                    // Step 4c: Bulk write the generated sessions to the 'sessions' collection
-                    writeSessionsToFirestore(sessions, scheduleId);
+            @Override
+            public void onSuccess(String message) {
+                if (!isAdded()) return;
+                resetCreateButton();
+                Toast.makeText(getContext(), message, Toast.LENGTH_LONG).show();
+
+                // Clear UI fields after completion (Good UX)
+                courseCodeEt.setText("");
+                facultyIdEt.setText("");
+                venueEt.setText("");
+                startTimeEt.setText("");
+                exceptionDatesEt.setText("");
+            }
 
-                })
-                .addOnFailureListener(e -> {
-                    Toast.makeText(getContext(), "Schedule save failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
-                });
+            @Override
+            public void onFailure(Exception e) {
+                if (!isAdded()) return;
+                resetCreateButton();
+                Toast.makeText(getContext(), "Schedule save failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
+            }
+        });
     }
 
-    /**
-     * Executes the bulk write operation for all generated sessions.
-     * In a real system, this should be a Batched Write for integrity.
-     */
-    private void writeSessionsToFirestore(List<Map<String, Object>> sessions, String scheduleId) {
-        // We will loop and write each session document individually for simplicity,
-        // but note that Batch Writes are preferred for true atomicity.
-
-        FirebaseFirestore db = FirebaseFirestore.getInstance();
-
-        for (Map<String, Object> session : sessions) {
-            db.collection("sessions").add(session);
-            // Error handling and final success is often managed by a transaction wrapper,
-            // which is too complex for this client-side demo.
-        }
-
-        Toast.makeText(getContext(),
-                String.format("Schedule created and %d sessions generated!", sessions.size()),
-                Toast.LENGTH_LONG).show();
+    /** Nothing was saved; lists every clashing meeting so the admin can pick another slot or venue. */
+    private void showConflicts(List<ScheduleConflictChecker.Conflict> conflicts) {
+        String[] lines = new String[conflicts.size()];
+        for (int i = 0; i < lines.length; i++) lines[i] = conflicts.get(i).describe();
+        new AlertDialog.Builder(requireContext())
+                .setTitle(String.format(Locale.US, "%d clashing sessions, schedule not saved", conflicts.size()))
+                .setItems(lines, null)
+                .setPositiveButton("OK", null)
+                .show();
+    }
 
-        // Clear UI fields after completion (Good UX)
-        courseCodeEt.setText("");
-        facultyIdEt.setText("");
-        venueEt.setText("");
-        startTimeEt.setText("");
+    private void resetCreateButton() {
+        createScheduleBtn.setEnabled(true);
+        createScheduleBtn.setText("Create Recurring Schedule Block");
     }
-}
\ No newline at end of file
+}
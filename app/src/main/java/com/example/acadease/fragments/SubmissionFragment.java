@@ -16,7 +16,7 @@ import android.util.Log;
 
 import com.example.acadease.R;
 import com.example.acadease.data.FacultyRepository;
-import com.example.acadease.data.LookupRepository;
+import com.example.acadease.data.ReadPolicy;
 import com.example.acadease.model.Submission;
 import com.example.acadease.adapters.SubmissionAdapter; // New adapter needed
 import com.example.acadease.model.Assignment;
@@ -35,7 +35,6 @@ public class SubmissionFragment extends Fragment {
     private Button btnSaveGrades;
 
     private FacultyRepository facultyRepository;
-    private LookupRepository lookupRepository;
 
     private String assignmentId;
     private String courseCode; // Passed from previous screen
@@ -66,7 +65,6 @@ public class SubmissionFragment extends Fragment {
         super.onViewCreated(view, savedInstanceState);
 
         facultyRepository = new FacultyRepository();
-        lookupRepository = new LookupRepository();
 
         submissionsRecyclerView = view.findViewById(R.id.submissions_recycler_view);
         assignmentHeader = view.findViewById(R.id.submissions_header);
@@ -106,7 +104,7 @@ public class SubmissionFragment extends Fragment {
     }
 
     private void loadSubmissions() {
-        facultyRepository.fetchSubmissions(courseCode, assignmentId, new FacultyRepository.SubmissionListCallback() {
+        facultyRepository.fetchSubmissions(courseCode, assignmentId, ReadPolicy.NETWORK_ONLY, new FacultyRepository.SubmissionListCallback() {
             @Override
             public void onSuccess(List<Submission> submissions) {
                 if (getContext() == null) return;
@@ -117,8 +115,12 @@ public class SubmissionFragment extends Fragment {
                     Toast.makeText(getContext(), "No student submissions yet.", Toast.LENGTH_SHORT).show();
                 }
 
-                adapter = new SubmissionAdapter(requireContext(), submissions, assignmentDueDate, maxPoints, lookupRepository);
-                submissionsRecyclerView.setAdapter(adapter);
+                // Created once the assignment is known; later loads only rebind the rows that changed
+                if (adapter == null) {
+                    adapter = new SubmissionAdapter(requireContext(), assignmentDueDate, maxPoints);
+                    submissionsRecyclerView.setAdapter(adapter);
+                }
+                adapter.submitList(submissions);
             }
 
             @Override
@@ -23,11 +23,9 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.acadease.R;
+import com.example.acadease.adapters.DiffedAdapter;
 import com.example.acadease.data.StudentRepository;
-import com.google.firebase.Timestamp;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.DocumentReference;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.storage.FirebaseStorage;
 import com.google.firebase.storage.StorageReference;
 
@@ -39,6 +37,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 
 public class StudentAssignmentsFragment extends Fragment {
 
@@ -46,6 +45,7 @@ public class StudentAssignmentsFragment extends Fragment {
     private ProgressBar progressBar;
     private TextView countersText;
     private TextView emptyState;
+    private AssignmentsAdapter adapter;
 
     private StudentRepository repo;
     private String uid;
@@ -70,6 +70,8 @@ public class StudentAssignmentsFragment extends Fragment {
         emptyState = view.findViewById(R.id.assignments_empty);
 
         recyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
+        adapter = new AssignmentsAdapter();
+        recyclerView.setAdapter(adapter);
 
         loadAssignments();
     }
@@ -81,64 +83,47 @@ public class StudentAssignmentsFragment extends Fragment {
             public void onSuccess(List<String> courseCodes) {
                 if (!isAdded()) return;
                 if (courseCodes.isEmpty()) { showEmpty("No enrolled courses."); return; }
-                repo.fetchAssignmentsForCourses(courseCodes, new StudentRepository.AssignmentsCallback() {
+                // Assignments and this student's submissions come back already joined
+                repo.fetchAssignmentStatuses(uid, courseCodes, new StudentRepository.AssignmentStatusCallback() {
                     @Override
-                    public void onSuccess(List<DocumentSnapshot> assignments) {
+                    public void onSuccess(List<StudentRepository.AssignmentStatus> assignments) {
                         if (!isAdded()) return;
                         // Build models
+                        Date now = new Date();
                         List<AssignmentItem> items = new ArrayList<>();
-                        List<com.google.android.gms.tasks.Task<?>> tasks = new ArrayList<>();
-                        for (DocumentSnapshot ds : assignments) {
+                        for (StudentRepository.AssignmentStatus status : assignments) {
                             AssignmentItem item = new AssignmentItem();
-                            item.courseCode = ds.getReference().getParent().getParent().getId();
-                            item.assignmentId = ds.getId();
-                            item.title = ds.getString("title");
-                            Timestamp due = ds.getTimestamp("dueDate");
-                            item.dueDate = due != null ? due.toDate() : null;
+                            item.courseCode = status.courseCode;
+                            item.assignmentId = status.assignmentId;
+                            item.title = status.title;
+                            item.dueDate = status.dueDate;
+                            item.submitted = status.submitted;
+                            item.submissionUrl = status.submissionUrl;
+                            item.overdue = (item.dueDate != null && now.after(item.dueDate) && !item.submitted);
                             items.add(item);
-
-                            // Prefetch submission status for counters and ordering
-                            DocumentReference subRef = com.google.firebase.firestore.FirebaseFirestore.getInstance()
-                                    .collection("Courses").document(item.courseCode)
-                                    .collection("assignments").document(item.assignmentId)
-                                    .collection("submissions").document(uid);
-                            tasks.add(subRef.get().addOnSuccessListener(doc -> {
-                                item.submitted = doc.exists();
-                                item.submissionUrl = doc.getString("submissionUrl");
-                                item.overdue = (item.dueDate != null && new Date().after(item.dueDate) && !item.submitted);
-                            }));
                         }
 
-                        com.google.android.gms.tasks.Tasks.whenAllComplete(tasks)
-                                .addOnSuccessListener(v -> {
-                                    if (!isAdded()) return;
-                                    // Compute counters
-                                    int completed = 0, pending = 0, overdue = 0;
-                                    for (AssignmentItem it : items) {
-                                        if (it.submitted) completed++;
-                                        else if (it.overdue) overdue++;
-                                        else pending++;
-                                    }
-                                    countersText.setText(String.format(Locale.getDefault(), "Pending: %d   Completed: %d   Overdue: %d", pending, completed, overdue));
+                        // Compute counters
+                        int completed = 0, pending = 0, overdue = 0;
+                        for (AssignmentItem it : items) {
+                            if (it.submitted) completed++;
+                            else if (it.overdue) overdue++;
+                            else pending++;
+                        }
+                        countersText.setText(String.format(Locale.getDefault(), "Pending: %d   Completed: %d   Overdue: %d", pending, completed, overdue));
 
-                                    // Sort: Overdue > Pending > Completed; within buckets, by dueDate ascending
-                                    Collections.sort(items, (a, b) -> {
-                                        int rankA = a.submitted ? 2 : (a.overdue ? 0 : 1);
-                                        int rankB = b.submitted ? 2 : (b.overdue ? 0 : 1);
-                                        if (rankA != rankB) return Integer.compare(rankA, rankB);
-                                        long ta = a.dueDate != null ? a.dueDate.getTime() : Long.MAX_VALUE;
-                                        long tb = b.dueDate != null ? b.dueDate.getTime() : Long.MAX_VALUE;
-                                        return Long.compare(ta, tb);
-                                    });
+                        // Sort: Overdue > Pending > Completed; within buckets, by dueDate ascending
+                        Collections.sort(items, (a, b) -> {
+                            int rankA = a.submitted ? 2 : (a.overdue ? 0 : 1);
+                            int rankB = b.submitted ? 2 : (b.overdue ? 0 : 1);
+                            if (rankA != rankB) return Integer.compare(rankA, rankB);
+                            long ta = a.dueDate != null ? a.dueDate.getTime() : Long.MAX_VALUE;
+                            long tb = b.dueDate != null ? b.dueDate.getTime() : Long.MAX_VALUE;
+                            return Long.compare(ta, tb);
+                        });
 
-                                    showLoading(false);
-                                    recyclerView.setAdapter(new AssignmentsAdapter(items));
-                                })
-                                .addOnFailureListener(e -> {
-                                    if (!isAdded()) return;
-                                    showLoading(false);
-                                    recyclerView.setAdapter(new AssignmentsAdapter(items));
-                                });
+                        showLoading(false);
+                        adapter.submitList(items);
                     }
                     @Override
                     public void onFailure(Exception e) {
@@ -220,28 +205,19 @@ public class StudentAssignmentsFragment extends Fragment {
                     return ref.getDownloadUrl();
                 })
                 .addOnSuccessListener(downloadUri -> {
-                    // Write/overwrite submission doc
-                    DocumentReference subRef = com.google.firebase.firestore.FirebaseFirestore.getInstance()
-                            .collection("Courses").document(item.courseCode)
-                            .collection("assignments").document(item.assignmentId)
-                            .collection("submissions").document(uid);
-                    java.util.Map<String, Object> data = new java.util.HashMap<>();
-                    data.put("studentId", uid);
-                    data.put("courseCode", item.courseCode);
-                    data.put("assignmentId", item.assignmentId);
-                    data.put("submissionUrl", downloadUri.toString());
-                    data.put("submittedAt", Timestamp.now());
-                    subRef.set(data)
-                            .addOnSuccessListener(v -> {
-                                progressBar.setVisibility(View.GONE);
-                                Toast.makeText(requireContext(), "Submitted", Toast.LENGTH_SHORT).show();
-                                // Refresh list to update counters/status
-                                loadAssignments();
-                            })
-                            .addOnFailureListener(e -> {
-                                progressBar.setVisibility(View.GONE);
-                                Toast.makeText(requireContext(), "Failed to save submission", Toast.LENGTH_LONG).show();
-                            });
+                    // Write/overwrite submission doc through the same path as URL submissions
+                    repo.submitAssignmentUrl(item.courseCode, item.assignmentId, uid, downloadUri.toString(), new StudentRepository.SubmissionWriteCallback() {
+                        @Override public void onSuccess() {
+                            progressBar.setVisibility(View.GONE);
+                            Toast.makeText(requireContext(), "Submitted", Toast.LENGTH_SHORT).show();
+                            // Refresh list to update counters/status
+                            loadAssignments();
+                        }
+                        @Override public void onFailure(Exception e) {
+                            progressBar.setVisibility(View.GONE);
+                            Toast.makeText(requireContext(), "Failed to save submission", Toast.LENGTH_LONG).show();
+                        }
+                    });
                 })
                 .addOnFailureListener(e -> {
                     progressBar.setVisibility(View.GONE);
@@ -249,15 +225,17 @@ public class StudentAssignmentsFragment extends Fragment {
                 });
     }
 
-    private class AssignmentsAdapter extends RecyclerView.Adapter<AssignmentsAdapter.VH> {
-        private final List<AssignmentItem> items;
-        AssignmentsAdapter(List<AssignmentItem> items) { this.items = items; }
+    private class AssignmentsAdapter extends DiffedAdapter<AssignmentItem, AssignmentsAdapter.VH> {
+        @NonNull @Override protected String keyOf(@NonNull AssignmentItem it) { return it.courseCode + "/" + it.assignmentId; }
+        @Override protected int contentHashOf(@NonNull AssignmentItem it) {
+            return Objects.hash(it.title, it.dueDate, it.submitted, it.overdue, it.submissionUrl);
+        }
         @NonNull @Override public VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
             View v = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_student_assignment_row, parent, false);
             return new VH(v);
         }
         @Override public void onBindViewHolder(@NonNull VH h, int position) {
-            AssignmentItem it = items.get(position);
+            AssignmentItem it = getItem(position);
             h.title.setText(it.title != null ? it.title : it.assignmentId);
             h.course.setText(it.courseCode);
             if (it.dueDate != null) {
@@ -287,7 +265,6 @@ public class StudentAssignmentsFragment extends Fragment {
                 h.submitBtn.setOnClickListener(v -> startFilePick(it));
             }
         }
-        @Override public int getItemCount() { return items.size(); }
         class VH extends RecyclerView.ViewHolder {
             TextView title, course, due, status;
             Button submitBtn;
@@ -16,6 +16,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.acadease.R;
 import com.example.acadease.ProfileActivity;
+import com.example.acadease.adapters.DiffedAdapter;
 import com.example.acadease.data.StudentRepository;
 import com.google.firebase.auth.FirebaseAuth;
 import android.content.Intent;
@@ -25,12 +26,14 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 
 public class StudentAttendanceFragment extends Fragment {
 
     private RecyclerView recyclerView;
     private ProgressBar progressBar;
     private TextView emptyState;
+    private CourseAttendanceAdapter adapter;
 
     private StudentRepository repo;
     private String uid;
@@ -55,6 +58,8 @@ public class StudentAttendanceFragment extends Fragment {
         emptyState = view.findViewById(R.id.attendance_empty);
 
         recyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
+        adapter = new CourseAttendanceAdapter();
+        recyclerView.setAdapter(adapter);
 
         // Wire profile icon click
         View profileIcon = view.findViewById(R.id.profile_icon);
@@ -84,7 +89,7 @@ public class StudentAttendanceFragment extends Fragment {
                 repo.fetchCourseMetaByCodes(courseCodes, new StudentRepository.CourseMetaCallback() {
                     @Override public void onSuccess(Map<String, StudentRepository.CourseMeta> meta) {
                         metaByCode.clear(); metaByCode.putAll(meta);
-                        repo.fetchAttendanceStats(uid, courseCodes, new StudentRepository.AttendanceStatsCallback() {
+                        repo.fetchAttendanceSummaries(uid, courseCodes, new StudentRepository.AttendanceStatsCallback() {
                             @Override
                             public void onSuccess(Map<String, StudentRepository.CourseAttendance> stats) {
                                 if (!isAdded()) return;
@@ -93,7 +98,7 @@ public class StudentAttendanceFragment extends Fragment {
                                     showEmpty("No attendance records yet.");
                                     return;
                                 }
-                                recyclerView.setAdapter(new CourseAttendanceAdapter(new ArrayList<>(stats.entrySet())));
+                                adapter.submitList(new ArrayList<>(stats.entrySet()));
                             }
                             @Override
                             public void onFailure(Exception e) {
@@ -104,12 +109,12 @@ public class StudentAttendanceFragment extends Fragment {
                     }
                     @Override public void onFailure(Exception e) {
                         // Proceed without meta
-                        repo.fetchAttendanceStats(uid, courseCodes, new StudentRepository.AttendanceStatsCallback() {
+                        repo.fetchAttendanceSummaries(uid, courseCodes, new StudentRepository.AttendanceStatsCallback() {
                             @Override public void onSuccess(Map<String, StudentRepository.CourseAttendance> stats) {
                                 if (!isAdded()) return;
                                 showLoading(false);
                                 if (stats.isEmpty()) { showEmpty("No attendance records yet."); return; }
-                                recyclerView.setAdapter(new CourseAttendanceAdapter(new ArrayList<>(stats.entrySet())));
+                                adapter.submitList(new ArrayList<>(stats.entrySet()));
                             }
                             @Override public void onFailure(Exception e2) { if (!isAdded()) return; showEmpty("Failed to load attendance."); }
                         });
@@ -138,15 +143,18 @@ public class StudentAttendanceFragment extends Fragment {
         emptyState.setText(message);
     }
 
-    private class CourseAttendanceAdapter extends RecyclerView.Adapter<CourseAttendanceAdapter.VH> {
-        private final List<Map.Entry<String, StudentRepository.CourseAttendance>> items;
-        CourseAttendanceAdapter(List<Map.Entry<String, StudentRepository.CourseAttendance>> items) { this.items = items; }
+    private class CourseAttendanceAdapter extends DiffedAdapter<Map.Entry<String, StudentRepository.CourseAttendance>, CourseAttendanceAdapter.VH> {
+        @NonNull @Override protected String keyOf(@NonNull Map.Entry<String, StudentRepository.CourseAttendance> e) { return e.getKey(); }
+        // Titles come from metaByCode, which is written on the main thread; only the counts are hashed
+        @Override protected int contentHashOf(@NonNull Map.Entry<String, StudentRepository.CourseAttendance> e) {
+            return Objects.hash(e.getValue().totalSessions, e.getValue().attendedSessions);
+        }
         @NonNull @Override public VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
             View v = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_course_attendance_card, parent, false);
             return new VH(v);
         }
         @Override public void onBindViewHolder(@NonNull VH h, int position) {
-            Map.Entry<String, StudentRepository.CourseAttendance> e = items.get(position);
+            Map.Entry<String, StudentRepository.CourseAttendance> e = getItem(position);
             String courseCode = e.getKey();
             StudentRepository.CourseAttendance ca = e.getValue();
             int total = Math.max(ca.totalSessions, 0);
@@ -158,7 +166,6 @@ public class StudentAttendanceFragment extends Fragment {
             h.percentText.setText(String.format(Locale.getDefault(), "%d%%", percent));
             h.itemView.setOnClickListener(v -> openCourseDetail(courseCode));
         }
-        @Override public int getItemCount() { return items.size(); }
         class VH extends RecyclerView.ViewHolder {
             TextView courseTitle, statsText, percentText;
             VH(@NonNull View itemView) {
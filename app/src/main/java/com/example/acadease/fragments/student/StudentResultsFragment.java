@@ -15,7 +15,9 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.acadease.R;
+import com.example.acadease.adapters.DiffedAdapter;
 import com.example.acadease.data.StudentRepository;
+import com.example.acadease.utils.Grades;
 import com.google.firebase.auth.FirebaseAuth;
 
 import java.util.ArrayList;
@@ -23,6 +25,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 
 public class StudentResultsFragment extends Fragment {
 
@@ -30,6 +33,7 @@ public class StudentResultsFragment extends Fragment {
     private ProgressBar progressBar;
     private TextView emptyState;
     private TextView sgpaBadge;
+    private ResultsAdapter adapter;
 
     private StudentRepository repo;
     private String uid;
@@ -54,6 +58,8 @@ public class StudentResultsFragment extends Fragment {
         sgpaBadge = view.findViewById(R.id.sgpa_badge_text);
 
         recyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
+        adapter = new ResultsAdapter();
+        recyclerView.setAdapter(adapter);
 
         loadResults();
     }
@@ -76,7 +82,7 @@ public class StudentResultsFragment extends Fragment {
                             public void onSuccess(Map<String, StudentRepository.CourseMeta> metaByCode) {
                                 if (!isAdded()) return;
                                 showLoading(false);
-                                recyclerView.setAdapter(new ResultsAdapter(scores));
+                                adapter.submitList(scores);
                                 double sgpa = computeSgpa(scores, metaByCode);
                                 sgpaBadge.setText(String.format(Locale.getDefault(), "%.2f", sgpa));
                             }
@@ -84,7 +90,7 @@ public class StudentResultsFragment extends Fragment {
                             public void onFailure(Exception e) {
                                 if (!isAdded()) return;
                                 showLoading(false);
-                                recyclerView.setAdapter(new ResultsAdapter(scores));
+                                adapter.submitList(scores);
                                 double sgpa = computeSgpa(scores, new HashMap<>());
                                 sgpaBadge.setText(String.format(Locale.getDefault(), "%.2f", sgpa));
                             }
@@ -106,28 +112,9 @@ public class StudentResultsFragment extends Fragment {
     }
 
     private double computeSgpa(List<StudentRepository.ExamScore> scores, Map<String, StudentRepository.CourseMeta> metaByCode) {
-        // Aggregate course weighted percent = sum(obtained)/sum(max) per course
-        Map<String, double[]> byCourse = new HashMap<>(); // [obtainedSum, maxSum]
-        for (StudentRepository.ExamScore s : scores) {
-            double[] arr = byCourse.computeIfAbsent(s.courseCode, k -> new double[]{0,0});
-            arr[0] += s.obtained;
-            arr[1] += s.maxPoints;
-        }
-        double totalWeighted = 0;
-        double totalCredits = 0;
-        for (Map.Entry<String, double[]> e : byCourse.entrySet()) {
-            String code = e.getKey();
-            double obtained = e.getValue()[0];
-            double max = Math.max(e.getValue()[1], 1.0);
-            double percent = (obtained * 100.0) / max;
-            // Simple grade mapping: GPA ~ percentage/10 capped to 10
-            double gradePoint = Math.min(10.0, Math.max(0.0, percent / 10.0));
-            int credits = metaByCode.get(code) != null ? metaByCode.get(code).credits : 3;
-            totalWeighted += gradePoint * credits;
-            totalCredits += credits;
-        }
-        if (totalCredits == 0) return 0.0;
-        return totalWeighted / totalCredits;
+        // Courses without metadata count as 3 credits
+        return Grades.sgpa(scores, s -> s.courseCode, s -> s.obtained, s -> s.maxPoints,
+                code -> metaByCode.get(code) != null ? metaByCode.get(code).credits : 3);
     }
 
     private void showLoading(boolean loading) {
@@ -143,21 +130,20 @@ public class StudentResultsFragment extends Fragment {
         emptyState.setText(message);
     }
 
-    private static class ResultsAdapter extends RecyclerView.Adapter<ResultsAdapter.VH> {
-        private final List<StudentRepository.ExamScore> items;
-        ResultsAdapter(List<StudentRepository.ExamScore> items) { this.items = items; }
+    private static class ResultsAdapter extends DiffedAdapter<StudentRepository.ExamScore, ResultsAdapter.VH> {
+        @NonNull @Override protected String keyOf(@NonNull StudentRepository.ExamScore s) { return s.courseCode + "/" + s.examTitle; }
+        @Override protected int contentHashOf(@NonNull StudentRepository.ExamScore s) { return Objects.hash(s.obtained, s.maxPoints, s.percentage); }
         @NonNull @Override public VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
             View v = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_result_row, parent, false);
             return new VH(v);
         }
         @Override public void onBindViewHolder(@NonNull VH h, int position) {
-            StudentRepository.ExamScore s = items.get(position);
+            StudentRepository.ExamScore s = getItem(position);
             h.colCourse.setText(s.courseCode);
             h.colExam.setText(s.examTitle);
             h.colMarks.setText(String.format(Locale.getDefault(), "%.0f/%.0f", s.obtained, s.maxPoints));
             h.colPercent.setText(String.format(Locale.getDefault(), "%.1f%%", s.percentage));
         }
-        @Override public int getItemCount() { return items.size(); }
         static class VH extends RecyclerView.ViewHolder {
             TextView colCourse, colExam, colMarks, colPercent;
             VH(@NonNull View itemView) {
@@ -22,6 +22,8 @@ public class Schedule {
     // Duration of the schedule block
     private Timestamp startDate;    // Start of the recurring block (semester start)
     private Timestamp endDate;      // End of the recurring block (semester end)
+    private List<String> exceptionDates; // Optional "yyyy-MM-dd" days with no class, e.g. ["2025-10-02"]
+    private boolean virtual;       // true: sessions are computed from this blueprint, only overrides are stored
 
     // Required No-Argument Constructor
     public Schedule() {}
@@ -56,4 +58,10 @@ public class Schedule {
 
     public Timestamp getEndDate() { return endDate; }
     public void setEndDate(Timestamp endDate) { this.endDate = endDate; }
+
+    public List<String> getExceptionDates() { return exceptionDates; }
+    public void setExceptionDates(List<String> exceptionDates) { this.exceptionDates = exceptionDates; }
+
+    public boolean isVirtual() { return virtual; }
+    public void setVirtual(boolean virtual) { this.virtual = virtual; }
 }
\ No newline at end of file
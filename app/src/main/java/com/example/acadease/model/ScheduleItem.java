@@ -7,7 +7,7 @@ public class ScheduleItem {
 
     public int type;
     public String headerDate;   // Used if TYPE_HEADER (e.g., "Sep 22, 2025 Monday")
-    public Session session;     // Used if TYPE_SESSION
+    public SessionRow row;      // Used if TYPE_SESSION
 
     // Constructor for a Date Header
     public ScheduleItem(String headerDate) {
@@ -16,8 +16,8 @@ public class ScheduleItem {
     }
 
     // Constructor for a Class Session
-    public ScheduleItem(Session session) {
+    public ScheduleItem(SessionRow row) {
         this.type = TYPE_SESSION;
-        this.session = session;
+        this.row = row;
     }
 }
\ No newline at end of file
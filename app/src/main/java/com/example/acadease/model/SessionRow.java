@@ -0,0 +1,35 @@
+package com.example.acadease.model;
+
+import java.util.Date;
+
+/**
+ * A session as a list row shows it: course title and professor name already resolved and the time
+ * range already formatted (FacultyRepository.joinSessionRows), so binding does no lookups.
+ * Immutable; the Session is kept for click handlers.
+ */
+public final class SessionRow {
+
+    public final Session session;
+    public final String courseTitle;   // Falls back to the course code
+    public final String professorName; // Falls back to "Lookup Failed"
+    public final String venue;
+    public final String timeRange;     // e.g. "10:00 AM - 11:00 AM"
+    public final Date start;
+
+    public SessionRow(Session session, String courseTitle, String professorName, String timeRange) {
+        this.session = session;
+        this.courseTitle = courseTitle;
+        this.professorName = professorName;
+        this.venue = session.getVenue();
+        this.timeRange = timeRange;
+        this.start = session.getSessionTime().toDate();
+    }
+
+    public String getId() {
+        return session.getId();
+    }
+
+    public String getCourseCode() {
+        return session.getCourseCode();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.acadease.model.mapper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.acadease.model.Announcement;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.Map;
+
+/**
+ * Reflection-free replacement for toObject(Announcement.class).
+ */
+public final class AnnouncementMapper {
+
+    private AnnouncementMapper() {}
+
+    /** Same contract as toObject: null for a missing document. The document ID becomes the id. */
+    @Nullable
+    public static Announcement fromSnapshot(@NonNull DocumentSnapshot doc) {
+        Map<String, Object> data = doc.getData();
+        return data != null ? fromMap(doc.getId(), data) : null;
+    }
+
+    @NonNull
+    public static Announcement fromMap(String id, @NonNull Map<String, Object> data) {
+        Announcement announcement = new Announcement();
+        announcement.setId(id);
+        announcement.setTitle(Fields.string(data, "title"));
+        announcement.setBody(Fields.string(data, "body"));
+        announcement.setImgUrl(Fields.string(data, "imgUrl"));
+        announcement.setPostedBy(Fields.string(data, "postedBy"));
+        announcement.setTargetRole(Fields.stringList(data, "targetRole"));
+        announcement.setCategory(Fields.string(data, "category"));
+        announcement.setCreatedAt(Fields.timestamp(data, "createdAt"));
+        return announcement;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.acadease.model.mapper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.acadease.model.Assignment;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.Map;
+
+/**
+ * Reflection-free replacement for toObject(Assignment.class).
+ */
+public final class AssignmentMapper {
+
+    private AssignmentMapper() {}
+
+    /** Same contract as toObject: null for a missing document. The document ID becomes the id. */
+    @Nullable
+    public static Assignment fromSnapshot(@NonNull DocumentSnapshot doc) {
+        Map<String, Object> data = doc.getData();
+        return data != null ? fromMap(doc.getId(), data) : null;
+    }
+
+    @NonNull
+    public static Assignment fromMap(String id, @NonNull Map<String, Object> data) {
+        Assignment assignment = new Assignment();
+        assignment.setId(id);
+        assignment.setCourseCode(Fields.string(data, "courseCode"));
+        assignment.setTitle(Fields.string(data, "title"));
+        assignment.setDescription(Fields.string(data, "description"));
+        assignment.setFileUrl(Fields.string(data, "fileUrl"));
+        assignment.setDueDate(Fields.timestamp(data, "dueDate"));
+        assignment.setMaxPoints(Fields.integer(data, "maxPoints"));
+        assignment.setFacultyId(Fields.string(data, "facultyId"));
+        assignment.setCreatedAt(Fields.timestamp(data, "createdAt"));
+        return assignment;
+    }
+}
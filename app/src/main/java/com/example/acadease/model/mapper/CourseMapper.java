@@ -0,0 +1,40 @@
+package com.example.acadease.model.mapper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.acadease.model.Course;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.Map;
+
+/**
+ * Reflection-free replacement for toObject(Course.class).
+ * Stored names follow the @PropertyName annotations on the model (deptCode, program_id).
+ */
+public final class CourseMapper {
+
+    private CourseMapper() {}
+
+    /** Same contract as toObject: null for a missing document. The document ID becomes the id. */
+    @Nullable
+    public static Course fromSnapshot(@NonNull DocumentSnapshot doc) {
+        Map<String, Object> data = doc.getData();
+        return data != null ? fromMap(doc.getId(), data) : null;
+    }
+
+    @NonNull
+    public static Course fromMap(String id, @NonNull Map<String, Object> data) {
+        Course course = new Course();
+        course.setId(id);
+        course.setCourseCode(Fields.string(data, "courseCode"));
+        course.setTitle(Fields.string(data, "title"));
+        course.setDepartmentCode(Fields.string(data, "deptCode"));
+        course.setFacultyId(Fields.string(data, "facultyId"));
+        course.setProgramId(Fields.string(data, "program_id"));
+        course.setCredits(Fields.integer(data, "credits"));
+        course.setDescription(Fields.string(data, "description"));
+        course.setSemesterTaughtIn(Fields.integer(data, "semesterTaughtIn"));
+        return course;
+    }
+}
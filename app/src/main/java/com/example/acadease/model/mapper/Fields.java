@@ -0,0 +1,57 @@
+package com.example.acadease.model.mapper;
+
+import com.google.firebase.Timestamp;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typed reads from a Firestore data map, shared by the model mappers.
+ * Unlike toObject, a value of the wrong type reads as null/0 instead of failing the whole document.
+ */
+final class Fields {
+
+    private Fields() {}
+
+    static String string(Map<String, Object> data, String key) {
+        Object value = data.get(key);
+        return value instanceof String ? (String) value : null;
+    }
+
+    static Timestamp timestamp(Map<String, Object> data, String key) {
+        Object value = data.get(key);
+        return value instanceof Timestamp ? (Timestamp) value : null;
+    }
+
+    static boolean bool(Map<String, Object> data, String key) {
+        return Boolean.TRUE.equals(data.get(key));
+    }
+
+    /** Firestore returns whole numbers as Long; int properties take the narrowed value. */
+    static int integer(Map<String, Object> data, String key) {
+        Object value = data.get(key);
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    static List<String> stringList(Map<String, Object> data, String key) {
+        Object value = data.get(key);
+        if (!(value instanceof List)) return null;
+        List<String> out = new ArrayList<>();
+        for (Object item : (List<?>) value) {
+            if (item instanceof String) out.add((String) item);
+        }
+        return out;
+    }
+
+    static Map<String, String> stringMap(Map<String, Object> data, String key) {
+        Object value = data.get(key);
+        if (!(value instanceof Map)) return null;
+        Map<String, String> out = new HashMap<>();
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+            if (entry.getValue() instanceof String) out.put(String.valueOf(entry.getKey()), (String) entry.getValue());
+        }
+        return out;
+    }
+}
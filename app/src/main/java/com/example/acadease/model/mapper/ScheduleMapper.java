@@ -0,0 +1,41 @@
+package com.example.acadease.model.mapper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.acadease.model.Schedule;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.Map;
+
+/**
+ * Reflection-free replacement for toObject(Schedule.class).
+ */
+public final class ScheduleMapper {
+
+    private ScheduleMapper() {}
+
+    /** Same contract as toObject: null for a missing document. The document ID becomes the id. */
+    @Nullable
+    public static Schedule fromSnapshot(@NonNull DocumentSnapshot doc) {
+        Map<String, Object> data = doc.getData();
+        return data != null ? fromMap(doc.getId(), data) : null;
+    }
+
+    @NonNull
+    public static Schedule fromMap(String id, @NonNull Map<String, Object> data) {
+        Schedule schedule = new Schedule();
+        schedule.setId(id);
+        schedule.setCourseCode(Fields.string(data, "courseCode"));
+        schedule.setFacultyId(Fields.string(data, "facultyId"));
+        schedule.setDaysOfWeek(Fields.stringList(data, "daysOfWeek"));
+        schedule.setStartTime(Fields.string(data, "startTime"));
+        schedule.setVenue(Fields.string(data, "venue"));
+        schedule.setType(Fields.string(data, "type"));
+        schedule.setStartDate(Fields.timestamp(data, "startDate"));
+        schedule.setEndDate(Fields.timestamp(data, "endDate"));
+        schedule.setExceptionDates(Fields.stringList(data, "exceptionDates"));
+        schedule.setVirtual(Fields.bool(data, "virtual"));
+        return schedule;
+    }
+}
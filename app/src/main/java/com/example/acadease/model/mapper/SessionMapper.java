@@ -0,0 +1,38 @@
+package com.example.acadease.model.mapper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.acadease.model.Session;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.Map;
+
+/**
+ * Reflection-free replacement for toObject(Session.class).
+ */
+public final class SessionMapper {
+
+    private SessionMapper() {}
+
+    /** Same contract as toObject: null for a missing document. The document ID becomes the id. */
+    @Nullable
+    public static Session fromSnapshot(@NonNull DocumentSnapshot doc) {
+        Map<String, Object> data = doc.getData();
+        return data != null ? fromMap(doc.getId(), data) : null;
+    }
+
+    @NonNull
+    public static Session fromMap(String id, @NonNull Map<String, Object> data) {
+        Session session = new Session();
+        session.setId(id);
+        session.setScheduleId(Fields.string(data, "scheduleId"));
+        session.setCourseCode(Fields.string(data, "courseCode"));
+        session.setFacultyId(Fields.string(data, "facultyId"));
+        session.setSessionTime(Fields.timestamp(data, "sessionTime"));
+        session.setVenue(Fields.string(data, "venue"));
+        session.setType(Fields.string(data, "type"));
+        session.setTopic(Fields.string(data, "topic"));
+        return session;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.acadease.model.mapper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.acadease.model.Submission;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.Map;
+
+/**
+ * Reflection-free replacement for toObject(Submission.class).
+ */
+public final class SubmissionMapper {
+
+    private SubmissionMapper() {}
+
+    /** Same contract as toObject: null for a missing document. The document ID becomes the id. */
+    @Nullable
+    public static Submission fromSnapshot(@NonNull DocumentSnapshot doc) {
+        Map<String, Object> data = doc.getData();
+        return data != null ? fromMap(doc.getId(), data) : null;
+    }
+
+    @NonNull
+    public static Submission fromMap(String id, @NonNull Map<String, Object> data) {
+        Submission submission = new Submission();
+        submission.setId(id);
+        submission.setStudentId(Fields.string(data, "studentId"));
+        submission.setAssignmentId(Fields.string(data, "assignmentId"));
+        submission.setCourseCode(Fields.string(data, "courseCode"));
+        submission.setSubmissionUrl(Fields.string(data, "submissionUrl"));
+        submission.setSubmittedAt(Fields.timestamp(data, "submittedAt"));
+        submission.setGrade(Fields.integer(data, "grade"));
+        submission.setGradedBy(Fields.string(data, "gradedBy"));
+        submission.setGradedAt(Fields.timestamp(data, "gradedAt"));
+        return submission;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.acadease.model.mapper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.acadease.model.User;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.Map;
+
+/**
+ * Reflection-free replacement for toObject(User.class).
+ * The display name is stored as "name" (the getName/setName property), not firstName.
+ */
+public final class UserMapper {
+
+    private UserMapper() {}
+
+    /** Same contract as toObject: null for a missing document. The document ID becomes the uid. */
+    @Nullable
+    public static User fromSnapshot(@NonNull DocumentSnapshot doc) {
+        Map<String, Object> data = doc.getData();
+        return data != null ? fromMap(doc.getId(), data) : null;
+    }
+
+    @NonNull
+    public static User fromMap(String id, @NonNull Map<String, Object> data) {
+        User user = new User();
+        user.setUid(id);
+        user.setEmail(Fields.string(data, "email"));
+        user.setRole(Fields.string(data, "role"));
+        user.setName(Fields.string(data, "name"));
+        user.setStudentId(Fields.string(data, "studentId"));
+        user.setFacultyId(Fields.string(data, "facultyId"));
+        user.setCurrentSemester(Fields.integer(data, "currentSemester"));
+        Map<String, String> contactInfo = Fields.stringMap(data, "contactInfo");
+        if (contactInfo != null) user.setContactInfo(contactInfo); // Keep the constructor default otherwise
+        user.setProfileImageUrl(Fields.string(data, "profileImageUrl"));
+        user.setCreatedAt(Fields.timestamp(data, "createdAt"));
+        return user;
+    }
+}
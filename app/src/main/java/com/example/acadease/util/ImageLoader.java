@@ -1,49 +1,245 @@
 package com.example.acadease.util;
 
+import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.os.Handler;
 import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+import android.view.ViewGroup;
 import android.widget.ImageView;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+/**
+ * Loads remote images into ImageViews.
+ *
+ * Lookups go memory (bitmap LRU bounded by bytes) -> disk (cacheDir/images, one file per URL,
+ * trimmed oldest-first) -> network. Bitmaps are decoded with inSampleSize for the target view's
+ * size, so a 40dp avatar never holds a full-resolution photo. Requests for the same URL and size
+ * share one download; each ImageView is bound to its latest request, so a recycled or reused view
+ * only ever receives the image it asked for last, and a request nobody waits for is cancelled.
+ *
+ * All bookkeeping happens on the main thread; only downloading and decoding run on the pool.
+ */
 public class ImageLoader {
+    private static final String TAG = "ImageLoader";
+
     private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(2);
     private static final Handler MAIN = new Handler(Looper.getMainLooper());
 
+    private static final int TIMEOUT_MS = 5000;
+    private static final long DISK_CACHE_BYTES = 20L * 1024 * 1024;
+
+    // Sized in KB: an eighth of the heap the app may use
+    private static final LruCache<String, Bitmap> MEMORY = new LruCache<String, Bitmap>(
+            (int) (Runtime.getRuntime().maxMemory() / 1024 / 8)) {
+        @Override
+        protected int sizeOf(String key, Bitmap bitmap) {
+            return bitmap.getAllocationByteCount() / 1024;
+        }
+    };
+
+    /** One download/decode, shared by every view waiting for the same key. */
+    private static class Request {
+        final List<ImageView> targets = new ArrayList<>();
+        Future<?> future;
+    }
+
+    // Main thread only
+    private static final Map<String, Request> IN_FLIGHT = new HashMap<>();
+    private static final Map<ImageView, String> BOUND = new WeakHashMap<>();
+
+    private static File diskDir;
+
     public static void load(ImageView target, String url, int placeholderResId) {
+        cancel(target);
         if (url == null || url.trim().isEmpty()) {
             if (placeholderResId != 0) target.setImageResource(placeholderResId);
             return;
         }
+
+        int[] size = targetSize(target);
+        String key = url + "@" + size[0] + "x" + size[1];
+        Bitmap cached = MEMORY.get(key);
+        if (cached != null) {
+            target.setImageBitmap(cached);
+            return;
+        }
         if (placeholderResId != 0) {
             target.setImageResource(placeholderResId);
         }
-        EXECUTOR.submit(() -> {
-            Bitmap bmp = null;
-            HttpURLConnection connection = null;
+
+        BOUND.put(target, key);
+        Request request = IN_FLIGHT.get(key);
+        if (request != null) {
+            request.targets.add(target); // Same image already on its way
+            return;
+        }
+        request = new Request();
+        request.targets.add(target);
+        IN_FLIGHT.put(key, request);
+        File dir = diskDir(target.getContext());
+        Request submitted = request;
+        request.future = EXECUTOR.submit(() -> {
+            Bitmap bitmap = null;
             try {
-                URL u = new URL(url);
-                connection = (HttpURLConnection) u.openConnection();
-                connection.setConnectTimeout(5000);
-                connection.setReadTimeout(5000);
-                connection.connect();
-                try (InputStream is = connection.getInputStream()) {
-                    bmp = BitmapFactory.decodeStream(is);
-                }
-            } catch (Exception ignored) {
-            } finally {
-                if (connection != null) connection.disconnect();
+                bitmap = fetch(dir, url, size[0], size[1]);
+            } catch (Exception e) {
+                if (Thread.currentThread().isInterrupted()) return; // Cancelled: nobody is waiting any more
+                Log.w(TAG, "Image load failed for " + url + ": " + e.getMessage());
             }
-            final Bitmap result = bmp;
-            MAIN.post(() -> {
-                if (result != null) target.setImageBitmap(result);
-            });
+            final Bitmap result = bitmap;
+            MAIN.post(() -> deliver(key, submitted, result));
         });
     }
+
+    /** Detaches the view from its pending request, cancelling the request if no other view waits for it. */
+    public static void cancel(ImageView target) {
+        String key = BOUND.remove(target);
+        if (key == null) return;
+        Request request = IN_FLIGHT.get(key);
+        if (request == null) return;
+        request.targets.remove(target);
+        if (request.targets.isEmpty()) {
+            IN_FLIGHT.remove(key);
+            request.future.cancel(true);
+        }
+    }
+
+    private static void deliver(String key, Request request, Bitmap bitmap) {
+        if (bitmap != null) MEMORY.put(key, bitmap);
+        // A cancelled request may finish after a new one for the same key was started
+        if (IN_FLIGHT.get(key) != request) return;
+        IN_FLIGHT.remove(key);
+        for (ImageView target : request.targets) {
+            // The view may have been rebound to another image meanwhile
+            if (!key.equals(BOUND.get(target))) continue;
+            BOUND.remove(target);
+            if (bitmap != null) target.setImageBitmap(bitmap);
+        }
+    }
+
+    /** Decode size for the view: its laid-out size, else its fixed layout size, else the screen. */
+    private static int[] targetSize(ImageView target) {
+        int width = target.getWidth();
+        int height = target.getHeight();
+        ViewGroup.LayoutParams params = target.getLayoutParams();
+        if (width <= 0 && params != null) width = params.width;
+        if (height <= 0 && params != null) height = params.height;
+        int screen = Math.max(target.getResources().getDisplayMetrics().widthPixels,
+                target.getResources().getDisplayMetrics().heightPixels);
+        return new int[]{width > 0 ? width : screen, height > 0 ? height : screen};
+    }
+
+    private static synchronized File diskDir(Context context) {
+        if (diskDir == null) {
+            diskDir = new File(context.getApplicationContext().getCacheDir(), "images");
+            if (!diskDir.isDirectory() && !diskDir.mkdirs()) {
+                Log.w(TAG, "Could not create the image disk cache");
+            }
+        }
+        return diskDir;
+    }
+
+    // =========================================================
+    // WORKER THREADS
+    // =========================================================
+
+    private static Bitmap fetch(File dir, String url, int width, int height) throws Exception {
+        File file = new File(dir, sha1(url));
+        if (file.isFile()) {
+            file.setLastModified(System.currentTimeMillis()); // Keeps recently used files through trimming
+        } else {
+            download(url, file);
+            trimDisk(dir);
+        }
+        return decode(file, width, height);
+    }
+
+    private static void download(String url, File file) throws IOException {
+        // Unique per download: the same URL can be fetched for two sizes at once
+        File partial = File.createTempFile(file.getName(), ".part", file.getParentFile());
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(TIMEOUT_MS);
+        connection.setReadTimeout(TIMEOUT_MS);
+        try (InputStream in = connection.getInputStream(); OutputStream out = new FileOutputStream(partial)) {
+            byte[] buffer = new byte[16 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (Thread.currentThread().isInterrupted()) throw new InterruptedIOException("Image load cancelled");
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            // Only a failed connection is dropped; a fully read one goes back to the keep-alive pool
+            connection.disconnect();
+            partial.delete();
+            throw e;
+        }
+        if (!partial.renameTo(file) && !file.isFile()) {
+            partial.delete();
+            throw new IOException("Could not store " + url + " in the disk cache");
+        }
+    }
+
+    private static Bitmap decode(File file, int width, int height) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(file.getPath(), options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            file.delete(); // Not an image; do not serve it again
+            return null;
+        }
+
+        // Largest power of two that keeps both sides at or above the target
+        int sample = 1;
+        while (options.outWidth / (sample * 2) >= width && options.outHeight / (sample * 2) >= height) {
+            sample *= 2;
+        }
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sample;
+        return BitmapFactory.decodeFile(file.getPath(), options);
+    }
+
+    private static void trimDisk(File dir) {
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        long total = 0;
+        for (File f : files) total += f.length();
+        if (total <= DISK_CACHE_BYTES) return;
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File f : files) {
+            if (total <= DISK_CACHE_BYTES) break;
+            if (f.getName().endsWith(".part")) continue; // Another worker is still writing it
+            long length = f.length();
+            if (f.delete()) total -= length;
+        }
+    }
+
+    private static String sha1(String value) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-1").digest(value.getBytes(StandardCharsets.UTF_8));
+        StringBuilder hex = new StringBuilder(digest.length * 2);
+        for (byte b : digest) hex.append(String.format("%02x", b));
+        return hex.toString();
+    }
 }
@@ -0,0 +1,135 @@
+package com.example.acadease.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bit-packed attendance of one session ("attendance sheet").
+ *
+ * A sheet holds a snapshot of the roster (the ordered UID list plus its hash) and one bit array per
+ * status; bit i of an array belongs to roster[i], and at most one array has it set (none: unmarked).
+ * 200 students take 25 bytes per array. Marks use the RosterMarks codes. Plain Java only, like Grades.
+ */
+public final class AttendanceCodec {
+
+    /** Format written by encode; decode rejects newer versions. */
+    public static final int VERSION = 1;
+
+    /** One session's sheet as stored. The arrays are (roster size + 7) / 8 bytes long. */
+    public static final class Sheet {
+        public final int version;
+        public final List<String> roster;
+        public final String rosterHash;
+        public final byte[] present;
+        public final byte[] absent;
+        public final byte[] late;
+        public final byte[] excused;
+
+        public Sheet(int version, List<String> roster, String rosterHash,
+                     byte[] present, byte[] absent, byte[] late, byte[] excused) {
+            this.version = version;
+            this.roster = roster;
+            this.rosterHash = rosterHash;
+            this.present = present;
+            this.absent = absent;
+            this.late = late;
+            this.excused = excused;
+        }
+    }
+
+    private AttendanceCodec() {}
+
+    /**
+     * @param roster the students in sheet order; UIDs must be unique
+     * @param marks  student UID -> RosterMarks code; students missing here are stored as unmarked
+     */
+    public static Sheet encode(List<String> roster, Map<String, Byte> marks) {
+        int bytes = (roster.size() + 7) / 8;
+        byte[] present = new byte[bytes];
+        byte[] absent = new byte[bytes];
+        byte[] late = new byte[bytes];
+        byte[] excused = new byte[bytes];
+        for (int i = 0; i < roster.size(); i++) {
+            Byte mark = marks.get(roster.get(i));
+            if (mark == null) continue;
+            switch (mark) {
+                case RosterMarks.PRESENT: setBit(present, i); break;
+                case RosterMarks.ABSENT: setBit(absent, i); break;
+                case RosterMarks.LATE: setBit(late, i); break;
+                case RosterMarks.EXCUSED: setBit(excused, i); break;
+                default: break;
+            }
+        }
+        List<String> snapshot = Collections.unmodifiableList(new ArrayList<>(roster));
+        return new Sheet(VERSION, snapshot, rosterHash(snapshot), present, absent, late, excused);
+    }
+
+    /**
+     * Student UID -> RosterMarks code for every marked student of the sheet.
+     * @throws IllegalArgumentException for a newer format or a sheet whose roster does not match its hash
+     */
+    public static Map<String, Byte> decode(Sheet sheet) {
+        check(sheet);
+        Map<String, Byte> marks = new HashMap<>(sheet.roster.size() * 2);
+        for (int i = 0; i < sheet.roster.size(); i++) {
+            byte mark = markAt(sheet, i);
+            if (mark != RosterMarks.UNMARKED) marks.put(sheet.roster.get(i), mark);
+        }
+        return marks;
+    }
+
+    /** The mark of one student, UNMARKED when the student is not on the sheet. */
+    public static byte markOf(Sheet sheet, String studentUid) {
+        check(sheet);
+        int position = sheet.roster.indexOf(studentUid);
+        return position < 0 ? RosterMarks.UNMARKED : markAt(sheet, position);
+    }
+
+    /** 64-bit FNV-1a over the UTF-8 UIDs in order, as 16 hex digits; any change to the roster changes it. */
+    public static String rosterHash(List<String> roster) {
+        long hash = 0xcbf29ce484222325L;
+        for (String uid : roster) {
+            for (byte b : uid.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b & 0xff;
+                hash *= 0x100000001b3L;
+            }
+            hash ^= 0xff; // Separator; never a UTF-8 byte, so ["ab", "c"] and ["a", "bc"] differ
+            hash *= 0x100000001b3L;
+        }
+        return String.format("%016x", hash);
+    }
+
+    private static byte markAt(Sheet sheet, int position) {
+        if (getBit(sheet.present, position)) return RosterMarks.PRESENT;
+        if (getBit(sheet.late, position)) return RosterMarks.LATE;
+        if (getBit(sheet.excused, position)) return RosterMarks.EXCUSED;
+        if (getBit(sheet.absent, position)) return RosterMarks.ABSENT;
+        return RosterMarks.UNMARKED;
+    }
+
+    private static void check(Sheet sheet) {
+        if (sheet.version > VERSION) {
+            throw new IllegalArgumentException("Unsupported attendance sheet version " + sheet.version);
+        }
+        if (!rosterHash(sheet.roster).equals(sheet.rosterHash)) {
+            throw new IllegalArgumentException("Attendance sheet roster does not match its hash");
+        }
+        int bytes = (sheet.roster.size() + 7) / 8;
+        if (sheet.present.length != bytes || sheet.absent.length != bytes
+                || sheet.late.length != bytes || sheet.excused.length != bytes) {
+            throw new IllegalArgumentException("Attendance sheet arrays do not match its roster");
+        }
+    }
+
+    private static void setBit(byte[] bits, int i) {
+        bits[i >> 3] |= (byte) (1 << (i & 7));
+    }
+
+    private static boolean getBit(byte[] bits, int i) {
+        return (bits[i >> 3] & (1 << (i & 7))) != 0;
+    }
+}
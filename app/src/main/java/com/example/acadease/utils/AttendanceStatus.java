@@ -0,0 +1,54 @@
+package com.example.acadease.utils;
+
+public class AttendanceStatus {
+
+    /**
+     * Interprets a stored attendance 'status' value.
+     * Accepts the string forms ("present", "p", "1"), booleans and the number 1 as present;
+     * everything else (absent, late, excused, missing) counts as not present.
+     */
+    public static boolean isPresent(Object raw) {
+        if (raw instanceof String) {
+            String s = ((String) raw).trim();
+            return s.equalsIgnoreCase("present") || s.equalsIgnoreCase("p") || s.equals("1");
+        } else if (raw instanceof Boolean) {
+            return (Boolean) raw;
+        } else if (raw instanceof Number) {
+            return ((Number) raw).intValue() == 1;
+        }
+        return false;
+    }
+
+    /**
+     * RosterMarks code of a stored 'status' value. Present as in isPresent; "late" and "excused"
+     * keep their meaning, anything else that is not null counts as absent.
+     */
+    public static byte markOf(Object raw) {
+        if (raw == null) return RosterMarks.UNMARKED;
+        if (isPresent(raw)) return RosterMarks.PRESENT;
+        return notPresentMark(raw);
+    }
+
+    /**
+     * RosterMarks code of a value in a legacy 'entries' map, where only "present" counts as present.
+     */
+    public static byte legacyEntryMark(Object raw) {
+        if (raw == null) return RosterMarks.UNMARKED;
+        if (isLegacyEntryPresent(raw)) return RosterMarks.PRESENT;
+        return notPresentMark(raw);
+    }
+
+    private static byte notPresentMark(Object raw) {
+        String s = String.valueOf(raw).trim();
+        if (s.equalsIgnoreCase("late")) return RosterMarks.LATE;
+        if (s.equalsIgnoreCase("excused")) return RosterMarks.EXCUSED;
+        return RosterMarks.ABSENT;
+    }
+
+    /**
+     * Legacy session-level rows store statuses in an 'entries' map; only "present" counted there.
+     */
+    public static boolean isLegacyEntryPresent(Object raw) {
+        return raw != null && "present".equalsIgnoreCase(String.valueOf(raw));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.acadease.utils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Grade arithmetic for the results screens. Plain Java only, like Timetable.
+ */
+public final class Grades {
+
+    private Grades() {}
+
+    /**
+     * Credit-weighted SGPA on a 10 point scale. Each course's percentage is sum(obtained)/sum(max)
+     * over its exams, mapped to percentage/10 and capped to [0, 10].
+     */
+    public static <T> double sgpa(Collection<T> scores, Function<T, String> courseOf, ToDoubleFunction<T> obtainedOf,
+                                  ToDoubleFunction<T> maxOf, ToIntFunction<String> creditsOf) {
+        // Aggregate course weighted percent = sum(obtained)/sum(max) per course
+        Map<String, double[]> byCourse = new HashMap<>(); // [obtainedSum, maxSum]
+        for (T s : scores) {
+            double[] arr = byCourse.computeIfAbsent(courseOf.apply(s), k -> new double[]{0, 0});
+            arr[0] += obtainedOf.applyAsDouble(s);
+            arr[1] += maxOf.applyAsDouble(s);
+        }
+        double totalWeighted = 0;
+        double totalCredits = 0;
+        for (Map.Entry<String, double[]> e : byCourse.entrySet()) {
+            double obtained = e.getValue()[0];
+            double max = Math.max(e.getValue()[1], 1.0);
+            double percent = (obtained * 100.0) / max;
+            // Simple grade mapping: GPA ~ percentage/10 capped to 10
+            double gradePoint = Math.min(10.0, Math.max(0.0, percent / 10.0));
+            int credits = creditsOf.applyAsInt(e.getKey());
+            totalWeighted += gradePoint * credits;
+            totalCredits += credits;
+        }
+        if (totalCredits == 0) return 0.0;
+        return totalWeighted / totalCredits;
+    }
+}
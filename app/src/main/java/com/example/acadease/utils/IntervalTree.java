@@ -0,0 +1,108 @@
+package com.example.acadease.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Static interval tree over half-open [start, end) intervals of long (e.g. epoch millis).
+ *
+ * The intervals are sorted by start once and stored as an implicit balanced tree (the middle of
+ * each range is the node), each node keeping the largest end in its subtree. A stabbing query
+ * skips every subtree that ends before the query starts or starts after it ends, so it costs
+ * O(log n + matches). Immutable after build(); plain Java, like Timetable.
+ */
+public final class IntervalTree<T> {
+
+    private final long[] starts; // ascending
+    private final long[] ends;
+    private final long[] maxEnds; // largest end in the subtree rooted at each index
+    private final Object[] values;
+
+    private IntervalTree(long[] starts, long[] ends, Object[] values) {
+        this.starts = starts;
+        this.ends = ends;
+        this.values = values;
+        this.maxEnds = new long[starts.length];
+        fillMaxEnds(0, starts.length);
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    /** Every value whose interval overlaps [start, end), in start order. */
+    public List<T> overlapping(long start, long end) {
+        List<T> out = new ArrayList<>();
+        forEachOverlapping(start, end, out::add);
+        return out;
+    }
+
+    public void forEachOverlapping(long start, long end, Consumer<? super T> action) {
+        if (start < end) visit(0, starts.length, start, end, action);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void visit(int lo, int hi, long start, long end, Consumer<? super T> action) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        if (maxEnds[mid] <= start) return; // Everything below ends before the query starts
+        visit(lo, mid, start, end, action);
+        if (starts[mid] >= end) return; // This node and its right subtree start after the query ends
+        if (ends[mid] > start) action.accept((T) values[mid]);
+        visit(mid + 1, hi, start, end, action);
+    }
+
+    private long fillMaxEnds(int lo, int hi) {
+        if (lo >= hi) return Long.MIN_VALUE;
+        int mid = (lo + hi) >>> 1;
+        long max = Math.max(ends[mid], Math.max(fillMaxEnds(lo, mid), fillMaxEnds(mid + 1, hi)));
+        maxEnds[mid] = max;
+        return max;
+    }
+
+    public static final class Builder<T> {
+        private long[] starts = new long[16];
+        private long[] ends = new long[16];
+        private Object[] values = new Object[16];
+        private int count;
+
+        private Builder() {}
+
+        /** Adds [start, end); empty or inverted intervals are ignored. */
+        public Builder<T> add(long start, long end, T value) {
+            if (start >= end) return this;
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+                values = Arrays.copyOf(values, count * 2);
+            }
+            starts[count] = start;
+            ends[count] = end;
+            values[count] = value;
+            count++;
+            return this;
+        }
+
+        public IntervalTree<T> build() {
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> Long.compare(starts[a], starts[b]));
+
+            long[] sortedStarts = new long[count];
+            long[] sortedEnds = new long[count];
+            Object[] sortedValues = new Object[count];
+            for (int i = 0; i < count; i++) {
+                sortedStarts[i] = starts[order[i]];
+                sortedEnds[i] = ends[order[i]];
+                sortedValues[i] = values[order[i]];
+            }
+            return new IntervalTree<>(sortedStarts, sortedEnds, sortedValues);
+        }
+    }
+}
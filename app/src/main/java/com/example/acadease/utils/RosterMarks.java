@@ -0,0 +1,73 @@
+package com.example.acadease.utils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Attendance marks of one roster, one byte per student indexed by roster position.
+ * Bulk operations are single passes over the array. Plain Java only, like Grades.
+ */
+public final class RosterMarks {
+
+    public static final byte UNMARKED = 0;
+    public static final byte PRESENT = 1;
+    public static final byte ABSENT = 2;
+    public static final byte LATE = 3;
+    public static final byte EXCUSED = 4;
+
+    // Stored status strings, indexed by code (the RadioButton tags in item_attendance_roster)
+    private static final String[] STATUS = {null, "present", "absent", "late", "excused"};
+
+    private final byte[] marks;
+
+    /** The stored status string of a mark; null for UNMARKED. */
+    public static String statusOf(byte mark) {
+        return STATUS[mark];
+    }
+
+    public RosterMarks(int size) {
+        marks = new byte[size];
+    }
+
+    public int size() {
+        return marks.length;
+    }
+
+    public byte get(int position) {
+        return marks[position];
+    }
+
+    public void set(int position, byte mark) {
+        marks[position] = mark;
+    }
+
+    public void markAll(byte mark) {
+        Arrays.fill(marks, mark);
+    }
+
+    /** Present becomes absent and absent becomes present; late, excused and unmarked rows are kept. */
+    public void invertPresence() {
+        for (int i = 0; i < marks.length; i++) {
+            if (marks[i] == PRESENT) marks[i] = ABSENT;
+            else if (marks[i] == ABSENT) marks[i] = PRESENT;
+        }
+    }
+
+    /** @return the first position still unmarked, or -1 when every student has a mark */
+    public int firstUnmarked() {
+        for (int i = 0; i < marks.length; i++) {
+            if (marks[i] == UNMARKED) return i;
+        }
+        return -1;
+    }
+
+    /** Student UID -> status string for every marked position, as recordAttendance expects. */
+    public Map<String, String> toStatusMap(String[] uids) {
+        Map<String, String> statuses = new HashMap<>(uids.length * 2);
+        for (int i = 0; i < marks.length; i++) {
+            if (marks[i] != UNMARKED) statuses.put(uids[i], STATUS[marks[i]]);
+        }
+        return statuses;
+    }
+}
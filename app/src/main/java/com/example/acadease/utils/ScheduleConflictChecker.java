@@ -0,0 +1,164 @@
+package com.example.acadease.utils;
+
+import com.example.acadease.model.Schedule;
+import com.example.acadease.model.Session;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds the meetings of a new blueprint that clash with a term's existing schedules, either in the
+ * same venue or with the same faculty member.
+ *
+ * The existing blueprints are expanded once into one IntervalTree per venue and one per facultyId;
+ * each occurrence of the candidate is then a single stabbing query against its venue's and its
+ * faculty's tree. A schedule only stores a start time, so every meeting is taken to last
+ * SESSION_LENGTH (one slot of the week grid).
+ *
+ * Stored sessions override the blueprint occurrence with the same scheduleId and start: one moved to
+ * another venue occupies that venue instead, and a cancelled one occupies nothing.
+ */
+public final class ScheduleConflictChecker {
+
+    public static final Duration SESSION_LENGTH = Duration.ofHours(1);
+
+    private static final DateTimeFormatter WHEN = DateTimeFormatter.ofPattern("EEE, MMM dd yyyy HH:mm", Locale.US);
+
+    /** One clashing meeting of the candidate. */
+    public static final class Conflict {
+        public final boolean venue; // true: same venue, false: same faculty member
+        public final ZonedDateTime start; // the candidate's meeting
+        public final Schedule existing;
+
+        Conflict(boolean venue, ZonedDateTime start, Schedule existing) {
+            this.venue = venue;
+            this.start = start;
+            this.existing = existing;
+        }
+
+        /** e.g. "Mon, Oct 06 2025 10:00 - Room 501 is booked for CS101 (lecture)" */
+        public String describe() {
+            String what = venue
+                    ? existing.getVenue() + " is booked for "
+                    : "faculty " + existing.getFacultyId() + " teaches ";
+            return start.format(WHEN) + " - " + what + existing.getCourseCode() + " (" + existing.getType() + ")";
+        }
+    }
+
+    private final Map<String, IntervalTree<Schedule>> byVenue = new HashMap<>();
+    private final Map<String, IntervalTree<Schedule>> byFaculty = new HashMap<>();
+    private final Collection<LocalDate> holidays;
+
+    /**
+     * @param existing schedules the candidate must not clash with; incomplete blueprints are skipped
+     * @param holidays campus holidays, skipped on both sides
+     */
+    public ScheduleConflictChecker(Collection<Schedule> existing, Collection<LocalDate> holidays) {
+        this(existing, new ArrayList<>(), new ArrayList<>(), holidays);
+    }
+
+    /**
+     * @param existing schedules the candidate must not clash with; incomplete blueprints are skipped
+     * @param stored stored sessions in the candidate's block, each replacing its blueprint's occurrence
+     * @param cancelled cancelled sessions in the candidate's block; their occurrences are free
+     * @param holidays campus holidays, skipped on both sides
+     */
+    public ScheduleConflictChecker(Collection<Schedule> existing, Collection<Session> stored,
+                                   Collection<Session> cancelled, Collection<LocalDate> holidays) {
+        this.holidays = holidays;
+        Set<String> overridden = new HashSet<>();
+        for (Session session : stored) {
+            if (session.getSessionTime() != null) overridden.add(occurrenceKey(session));
+        }
+        for (Session session : cancelled) {
+            if (session.getSessionTime() != null) overridden.add(occurrenceKey(session));
+        }
+
+        Map<String, IntervalTree.Builder<Schedule>> venues = new HashMap<>();
+        Map<String, IntervalTree.Builder<Schedule>> faculty = new HashMap<>();
+        for (Schedule schedule : existing) {
+            if (!isComplete(schedule)) continue;
+            for (ZonedDateTime start : ScheduleUtility.occurrences(schedule, ScheduleUtility.firstDay(schedule),
+                    ScheduleUtility.lastDay(schedule), holidays)) {
+                long from = start.toInstant().toEpochMilli();
+                if (overridden.contains(occurrenceKey(schedule.getId(), from))) continue;
+                add(venues, faculty, schedule, from);
+            }
+        }
+        for (Session session : stored) {
+            if (session.getSessionTime() == null || session.getVenue() == null || session.getFacultyId() == null) continue;
+            add(venues, faculty, asSchedule(session), ScheduleUtility.toInstant(session.getSessionTime()).toEpochMilli());
+        }
+        venues.forEach((key, builder) -> byVenue.put(key, builder.build()));
+        faculty.forEach((key, builder) -> byFaculty.put(key, builder.build()));
+    }
+
+    private static void add(Map<String, IntervalTree.Builder<Schedule>> venues,
+                            Map<String, IntervalTree.Builder<Schedule>> faculty, Schedule meeting, long from) {
+        long to = from + SESSION_LENGTH.toMillis();
+        venues.computeIfAbsent(venueKey(meeting), k -> IntervalTree.builder()).add(from, to, meeting);
+        faculty.computeIfAbsent(meeting.getFacultyId(), k -> IntervalTree.builder()).add(from, to, meeting);
+    }
+
+    /** Every clashing meeting of the candidate, in date order; empty when it can be saved. */
+    public List<Conflict> check(Schedule candidate) {
+        List<Conflict> conflicts = new ArrayList<>();
+        if (!isComplete(candidate)) return conflicts;
+        IntervalTree<Schedule> venueTree = byVenue.get(venueKey(candidate));
+        IntervalTree<Schedule> facultyTree = byFaculty.get(candidate.getFacultyId());
+        if (venueTree == null && facultyTree == null) return conflicts;
+
+        for (ZonedDateTime start : ScheduleUtility.occurrences(candidate, ScheduleUtility.firstDay(candidate),
+                ScheduleUtility.lastDay(candidate), holidays)) {
+            long from = start.toInstant().toEpochMilli();
+            long to = from + SESSION_LENGTH.toMillis();
+            if (venueTree != null) {
+                venueTree.forEachOverlapping(from, to, clash -> conflicts.add(new Conflict(true, start, clash)));
+            }
+            if (facultyTree != null) {
+                facultyTree.forEachOverlapping(from, to, clash -> conflicts.add(new Conflict(false, start, clash)));
+            }
+        }
+        return conflicts;
+    }
+
+    private static boolean isComplete(Schedule schedule) {
+        return schedule != null && schedule.getStartDate() != null && schedule.getEndDate() != null
+                && schedule.getStartTime() != null && schedule.getDaysOfWeek() != null
+                && schedule.getVenue() != null && schedule.getFacultyId() != null;
+    }
+
+    // "Room 501" and "room 501 " are the same room
+    private static String venueKey(Schedule schedule) {
+        return schedule.getVenue().trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String occurrenceKey(Session session) {
+        return occurrenceKey(session.getScheduleId(), ScheduleUtility.toInstant(session.getSessionTime()).toEpochMilli());
+    }
+
+    private static String occurrenceKey(String scheduleId, long startMillis) {
+        return scheduleId + "@" + startMillis;
+    }
+
+    /** A stored meeting in the shape Conflict reports, with the session's own venue. */
+    private static Schedule asSchedule(Session session) {
+        Schedule meeting = new Schedule();
+        meeting.setId(session.getScheduleId());
+        meeting.setCourseCode(session.getCourseCode());
+        meeting.setFacultyId(session.getFacultyId());
+        meeting.setVenue(session.getVenue());
+        meeting.setType(session.getType());
+        return meeting;
+    }
+}
@@ -1,79 +1,86 @@
 package com.example.acadease.utils;
 
+import android.util.Log;
+
+import com.example.acadease.BuildConfig;
 import com.example.acadease.model.Schedule;
 import com.google.firebase.Timestamp;
 
-import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.Date;
-import java.util.List;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Map;
-import java.util.TimeZone;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public class ScheduleUtility {
 
-    private static final Map<String, Integer> DAY_MAP = Map.of(
-            "MON", Calendar.MONDAY, "TUE", Calendar.TUESDAY, "WED", Calendar.WEDNESDAY,
-            "THU", Calendar.THURSDAY, "FRI", Calendar.FRIDAY, "SAT", Calendar.SATURDAY, "SUN", Calendar.SUNDAY
-    );
+    private static final String TAG = "ScheduleUtility";
+
+    /** Zone the timetable is entered in (build config CAMPUS_TIME_ZONE). */
+    public static final ZoneId CAMPUS_ZONE = ZoneId.of(BuildConfig.CAMPUS_TIME_ZONE);
 
     /**
-     * Generates a list of concrete 'sessions' objects (Maps) based on the recurring schedule rule.
-     * CRITICAL FIX: Injects the scheduled HH:MM time into the Timestamp object in IST.
+     * Generates the concrete 'sessions' objects (Maps) for the recurring schedule rule, lazily.
+     * Each session is the blueprint's HH:MM start time on a meeting day in the campus zone;
+     * campus holidays and the blueprint's own exception dates are skipped.
      */
-    public static List<Map<String, Object>> generateSessions(Schedule schedule, String scheduleId) {
-        List<Map<String, Object>> sessionList = new ArrayList<>();
-
-        Date startDate = schedule.getStartDate().toDate();
-        Date endDate = schedule.getEndDate().toDate();
-
-        // Extract hour and minute from the 24hr time string (e.g., "14:00")
-        String timeString = schedule.getStartTime();
-        int hour = Integer.parseInt(timeString.substring(0, 2));
-        int minute = Integer.parseInt(timeString.substring(3, 5));
-
-        // Set up the Calendar in IST/Kolkata TimeZone
-        Calendar current = Calendar.getInstance(TimeZone.getTimeZone("Asia/Kolkata"));
-        current.setTime(startDate);
-
-        while (!current.getTime().after(endDate)) {
-
-            int currentDay = current.get(Calendar.DAY_OF_WEEK);
-
-            for (String dayString : schedule.getDaysOfWeek()) {
-                Integer targetDay = DAY_MAP.get(dayString.toUpperCase());
-
-                if (targetDay != null && currentDay == targetDay) {
+    public static Stream<Map<String, Object>> generateSessions(Schedule schedule, String scheduleId, Collection<LocalDate> holidays) {
+        return occurrences(schedule, firstDay(schedule), lastDay(schedule), holidays).stream()
+                .map(start -> sessionData(schedule, scheduleId, start));
+    }
 
-                    // --- TIME INJECTION FIX ---
-                    // Create a new Calendar object for the session using IST
-                    Calendar sessionCal = (Calendar) current.clone();
+    /**
+     * The blueprint's meetings between from and to (inclusive days, clamped to the blueprint's block),
+     * skipping its exception dates and the given holidays.
+     */
+    public static SessionGenerator occurrences(Schedule schedule, LocalDate from, LocalDate to, Collection<LocalDate> holidays) {
+        Set<LocalDate> skipDates = new HashSet<>(holidays);
+        if (schedule.getExceptionDates() != null) {
+            for (String date : schedule.getExceptionDates()) {
+                try {
+                    skipDates.add(LocalDate.parse(date));
+                } catch (DateTimeParseException e) {
+                    Log.w(TAG, "Ignoring malformed exception date " + date + " on schedule " + schedule.getId());
+                }
+            }
+        }
+        LocalDate first = from.isAfter(firstDay(schedule)) ? from : firstDay(schedule);
+        LocalDate last = to.isBefore(lastDay(schedule)) ? to : lastDay(schedule);
+        return new SessionGenerator(first, last, schedule.getDaysOfWeek(), LocalTime.parse(schedule.getStartTime()),
+                CAMPUS_ZONE, skipDates);
+    }
 
-                    // Inject the HH:MM time from the schedule blueprint
-                    sessionCal.set(Calendar.HOUR_OF_DAY, hour);
-                    sessionCal.set(Calendar.MINUTE, minute);
-                    sessionCal.set(Calendar.SECOND, 0);
-                    sessionCal.set(Calendar.MILLISECOND, 0);
+    /** Fields of the 'sessions' document for one meeting of the blueprint. */
+    public static Map<String, Object> sessionData(Schedule schedule, String scheduleId, ZonedDateTime start) {
+        return Map.of(
+                "scheduleId", scheduleId,
+                "courseCode", schedule.getCourseCode(),
+                "facultyId", schedule.getFacultyId(),
+                "sessionTime", toTimestamp(start),
+                "venue", schedule.getVenue(),
+                "type", schedule.getType()
+        );
+    }
 
-                    Timestamp sessionTimestamp = new Timestamp(sessionCal.getTime());
-                    // --- END TIME INJECTION FIX ---
+    public static LocalDate firstDay(Schedule schedule) {
+        return toInstant(schedule.getStartDate()).atZone(CAMPUS_ZONE).toLocalDate();
+    }
 
-                    Map<String, Object> sessionData = Map.of(
-                            "scheduleId", scheduleId,
-                            "courseCode", schedule.getCourseCode(),
-                            "facultyId", schedule.getFacultyId(),
-                            "sessionTime", sessionTimestamp,
-                            "venue", schedule.getVenue(),
-                            "type", schedule.getType()
-                    );
-                    sessionList.add(sessionData);
-                    break;
-                }
-            }
+    public static LocalDate lastDay(Schedule schedule) {
+        return toInstant(schedule.getEndDate()).atZone(CAMPUS_ZONE).toLocalDate();
+    }
 
-            current.add(Calendar.DATE, 1); // Move to the next day
-        }
+    public static Instant toInstant(Timestamp timestamp) {
+        return Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanoseconds());
+    }
 
-        return sessionList;
+    public static Timestamp toTimestamp(ZonedDateTime time) {
+        return new Timestamp(time.toEpochSecond(), time.getNano());
     }
-}
\ No newline at end of file
+}
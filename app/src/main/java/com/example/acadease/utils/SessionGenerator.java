@@ -0,0 +1,119 @@
+package com.example.acadease.utils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy expansion of a weekly schedule rule into session start times.
+ *
+ * Jumps straight from one meeting day to the next (first occurrence of each weekday, then +7 days),
+ * so the cost is per session rather than per calendar day, and nothing is built up front: sessions
+ * are produced as the iterator or stream is consumed. Skipped dates (holidays, one-off cancellations)
+ * are looked up in a sorted epoch-day array. Plain Java, like Timetable.
+ */
+public final class SessionGenerator implements Iterable<ZonedDateTime> {
+
+    private final LocalTime startTime;
+    private final ZoneId zone;
+    private final long lastEpochDay;
+    private final long[] firstEpochDays; // first date of each meeting weekday, ascending, all within one week
+    private final long[] skippedEpochDays; // ascending
+
+    /**
+     * @param firstDay  first day of the block (inclusive)
+     * @param lastDay   last day of the block (inclusive)
+     * @param daysOfWeek day codes as stored on a schedule ("MON", "TUE", ... "SUN"); unknown codes are ignored
+     * @param startTime local start time of every meeting
+     * @param zone      zone the timetable is defined in
+     * @param skipDates dates with no meeting, e.g. holidays and exception dates
+     */
+    public SessionGenerator(LocalDate firstDay, LocalDate lastDay, Collection<String> daysOfWeek,
+                            LocalTime startTime, ZoneId zone, Collection<LocalDate> skipDates) {
+        this.startTime = startTime;
+        this.zone = zone;
+        this.lastEpochDay = lastDay.toEpochDay();
+
+        boolean[] meets = new boolean[7];
+        for (String code : daysOfWeek) {
+            DayOfWeek day = parseDay(code);
+            if (day != null) meets[day.getValue() - 1] = true;
+        }
+        int count = 0;
+        long[] firsts = new long[7];
+        long start = firstDay.toEpochDay();
+        int startIndex = firstDay.getDayOfWeek().getValue() - 1;
+        // Walk the first week from firstDay so the firsts come out in date order
+        for (int offset = 0; offset < 7; offset++) {
+            if (meets[(startIndex + offset) % 7]) firsts[count++] = start + offset;
+        }
+        this.firstEpochDays = Arrays.copyOf(firsts, count);
+
+        long[] skipped = new long[skipDates.size()];
+        int i = 0;
+        for (LocalDate date : skipDates) skipped[i++] = date.toEpochDay();
+        Arrays.sort(skipped);
+        this.skippedEpochDays = skipped;
+    }
+
+    @Override
+    public Iterator<ZonedDateTime> iterator() {
+        return new Iterator<ZonedDateTime>() {
+            private long index; // n-th candidate meeting: firsts[index % k] + 7 * (index / k)
+            private long nextDay = advance();
+
+            private long advance() {
+                int k = firstEpochDays.length;
+                while (k > 0) {
+                    long day = firstEpochDays[(int) (index % k)] + 7 * (index / k);
+                    index++;
+                    if (day > lastEpochDay) break;
+                    if (Arrays.binarySearch(skippedEpochDays, day) < 0) return day;
+                }
+                return Long.MAX_VALUE;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return nextDay != Long.MAX_VALUE;
+            }
+
+            @Override
+            public ZonedDateTime next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                ZonedDateTime session = ZonedDateTime.of(LocalDate.ofEpochDay(nextDay), startTime, zone);
+                nextDay = advance();
+                return session;
+            }
+        };
+    }
+
+    public Stream<ZonedDateTime> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(),
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT | Spliterator.SORTED), false);
+    }
+
+    private static DayOfWeek parseDay(String code) {
+        switch (code.trim().toUpperCase(Locale.ROOT)) {
+            case "MON": return DayOfWeek.MONDAY;
+            case "TUE": return DayOfWeek.TUESDAY;
+            case "WED": return DayOfWeek.WEDNESDAY;
+            case "THU": return DayOfWeek.THURSDAY;
+            case "FRI": return DayOfWeek.FRIDAY;
+            case "SAT": return DayOfWeek.SATURDAY;
+            case "SUN": return DayOfWeek.SUNDAY;
+            default: return null;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.acadease.utils;
+
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.function.Function;
+
+/**
+ * Timetable arithmetic behind the schedule screens (generation lives in SessionGenerator).
+ * Plain Java only (no Android or Firebase types), so the :benchmarks module can compile and measure it.
+ */
+public final class Timetable {
+
+    private Timetable() {}
+
+    /**
+     * The items in time order, with a header row (the formatted day) before the first item of each day.
+     * The input list is not modified.
+     */
+    public static <T, R> List<R> withDayHeaders(Collection<T> items, Function<T, Date> timeOf, DateFormat headerFormat,
+                                                Function<String, R> header, Function<T, R> row) {
+        List<T> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparing(timeOf));
+
+        List<R> out = new ArrayList<>(sorted.size() + 7);
+        String currentDay = "";
+        for (T item : sorted) {
+            String day = headerFormat.format(timeOf.apply(item));
+            if (!day.equals(currentDay)) {
+                out.add(header.apply(day));
+                currentDay = day;
+            }
+            out.add(row.apply(item));
+        }
+        return out;
+    }
+
+    /** One item placed in the week grid. */
+    public static final class Block<T> {
+        public final T item;
+        public final int day;         // 0 = Monday .. 6 = Sunday
+        public final int startMinute; // minutes after midnight
+        public final int endMinute;   // may pass 24 * 60 for a late session
+        public final int lane;        // column within its group of overlapping items, 0-based
+        public final int lanes;       // columns in that group: the day is split lanes-ways while it lasts
+
+        Block(T item, int day, int startMinute, int endMinute, int lane, int lanes) {
+            this.item = item;
+            this.day = day;
+            this.startMinute = startMinute;
+            this.endMinute = endMinute;
+            this.lane = lane;
+            this.lanes = lanes;
+        }
+    }
+
+    /**
+     * Week grid layout at minute resolution: every item becomes a block of durationMinutes on its
+     * weekday (in zone). Items that overlap in time share the day side by side: each group of
+     * transitively overlapping items gets as many lanes as it needs at its busiest, and each item
+     * takes the first lane free at its start. Returned in (day, start) order.
+     */
+    public static <T> List<Block<T>> weekBlocks(Collection<T> items, Function<T, Date> timeOf, int durationMinutes,
+                                                TimeZone zone) {
+        int n = items.size();
+        List<T> sorted = new ArrayList<>(items);
+        int[] day = new int[n];
+        int[] start = new int[n];
+        Calendar cal = Calendar.getInstance(zone);
+        for (int i = 0; i < n; i++) {
+            cal.setTime(timeOf.apply(sorted.get(i)));
+            day[i] = (cal.get(Calendar.DAY_OF_WEEK) + 5) % 7;
+            start[i] = cal.get(Calendar.HOUR_OF_DAY) * 60 + cal.get(Calendar.MINUTE);
+        }
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> day[a] != day[b] ? Integer.compare(day[a], day[b]) : Integer.compare(start[a], start[b]));
+
+        int[] lane = new int[n];
+        int[] lanes = new int[n];
+        List<Integer> laneEnds = new ArrayList<>(); // end minute of the last block in each lane of the open group
+        int groupFrom = 0;   // position in order[] where the open group starts
+        int groupEnd = -1;   // latest end in the open group
+        int groupDay = -1;
+        for (int k = 0; k <= n; k++) {
+            boolean closes = k == n || day[order[k]] != groupDay || start[order[k]] >= groupEnd;
+            if (closes) {
+                for (int j = groupFrom; j < k; j++) lanes[order[j]] = laneEnds.size();
+                if (k == n) break;
+                laneEnds.clear();
+                groupFrom = k;
+                groupDay = day[order[k]];
+                groupEnd = -1;
+            }
+            int i = order[k];
+            int end = start[i] + durationMinutes;
+            int free = 0;
+            while (free < laneEnds.size() && laneEnds.get(free) > start[i]) free++;
+            if (free == laneEnds.size()) laneEnds.add(end); else laneEnds.set(free, end);
+            lane[i] = free;
+            groupEnd = Math.max(groupEnd, end);
+        }
+
+        List<Block<T>> blocks = new ArrayList<>(n);
+        for (int k = 0; k < n; k++) {
+            int i = order[k];
+            blocks.add(new Block<>(sorted.get(i), day[i], start[i], start[i] + durationMinutes, lane[i], lanes[i]));
+        }
+        return blocks;
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.acadease.views;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.util.AttributeSet;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.acadease.R;
+import com.example.acadease.model.Session;
+import com.example.acadease.utils.ScheduleConflictChecker;
+import com.example.acadease.utils.Timetable;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Week timetable drawn on one canvas: a time column, seven day columns and one block per session,
+ * placed at minute resolution with overlapping sessions side by side (Timetable.weekBlocks).
+ *
+ * All positions and text layouts are computed once per setWeek/setSessions;
+ * onDraw only paints them with the reused Paints. Course titles come from the map passed in,
+ * falling back to the course code.
+ */
+public class WeekGridView extends View {
+
+    public interface OnSessionClickListener {
+        void onSessionClick(Session session);
+    }
+
+    private static final int DEFAULT_FIRST_HOUR = 8;
+    private static final int DEFAULT_LAST_HOUR = 20; // Exclusive: the grid ends at 20:00
+    private static final String[] DAYS = {"MON", "TUE", "WED", "THU", "FRI", "SAT", "SUN"};
+
+    private final float timeColumnWidth;
+    private final float dayColumnWidth;
+    private final float headerHeight;
+    private final float hourHeight;
+    private final float blockInset;
+    private final float blockPadding;
+
+    private final Paint linePaint = new Paint();
+    private final Paint headerBackgroundPaint = new Paint();
+    private final Paint blockPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final TextPaint labelPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final TextPaint blockTextPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final GestureDetector gestures;
+
+    private final SimpleDateFormat dayNumberFormat = new SimpleDateFormat("dd", Locale.getDefault());
+    private final SimpleDateFormat hourFormat = new SimpleDateFormat("h a", Locale.getDefault());
+    private TimeZone zone = TimeZone.getDefault();
+
+    // Inputs
+    private Date weekStart;
+    private List<Session> sessions = Collections.emptyList();
+    private Map<String, String> titles = Collections.emptyMap();
+    private OnSessionClickListener listener;
+
+    // Layout, rebuilt by relayout()
+    private int firstHour = DEFAULT_FIRST_HOUR;
+    private int lastHour = DEFAULT_LAST_HOUR;
+    private final String[] dayLabels = new String[7];
+    private final List<String> hourLabels = new ArrayList<>();
+    private final List<Session> blockSessions = new ArrayList<>();
+    private final List<RectF> blockRects = new ArrayList<>();
+    private final List<StaticLayout> blockTexts = new ArrayList<>();
+
+    public WeekGridView(Context context) {
+        this(context, null);
+    }
+
+    public WeekGridView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        float density = getResources().getDisplayMetrics().density;
+        float scaledDensity = getResources().getDisplayMetrics().scaledDensity;
+        timeColumnWidth = 52 * density;
+        dayColumnWidth = 88 * density;
+        headerHeight = 36 * density;
+        hourHeight = 60 * density;
+        blockInset = 1 * density;
+        blockPadding = 4 * density;
+
+        linePaint.setColor(context.getColor(R.color.background_light_grey));
+        linePaint.setStrokeWidth(density);
+        headerBackgroundPaint.setColor(context.getColor(R.color.card_background_dark));
+        blockPaint.setColor(context.getColor(R.color.primary_dark_grey));
+        labelPaint.setColor(context.getColor(R.color.text_grey));
+        labelPaint.setTextSize(11 * scaledDensity);
+        labelPaint.setTextAlign(Paint.Align.CENTER);
+        blockTextPaint.setColor(context.getColor(R.color.text_light));
+        blockTextPaint.setTextSize(10 * scaledDensity);
+
+        gestures = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(MotionEvent e) {
+                return true;
+            }
+
+            @Override
+            public boolean onSingleTapUp(MotionEvent e) {
+                Session session = sessionAt(e.getX(), e.getY());
+                if (session == null || listener == null) return false;
+                listener.onSessionClick(session);
+                return true;
+            }
+        });
+    }
+
+    /** Monday 00:00 of the displayed week and the zone the grid is drawn in. */
+    public void setWeek(@NonNull Date weekStart, @NonNull TimeZone zone) {
+        this.weekStart = weekStart;
+        this.zone = zone;
+        dayNumberFormat.setTimeZone(zone);
+        hourFormat.setTimeZone(zone);
+        relayout();
+    }
+
+    /** The week's sessions and the titles of their courses (course code -> title). */
+    public void setSessions(@NonNull List<Session> sessions, @NonNull Map<String, String> titles) {
+        this.sessions = sessions;
+        this.titles = titles;
+        relayout();
+    }
+
+    public void setOnSessionClickListener(@Nullable OnSessionClickListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = (int) Math.ceil(timeColumnWidth + 7 * dayColumnWidth);
+        int height = (int) Math.ceil(headerHeight + (lastHour - firstHour) * hourHeight);
+        setMeasuredDimension(resolveSize(width, widthMeasureSpec), resolveSize(height, heightMeasureSpec));
+    }
+
+    private void relayout() {
+        List<Timetable.Block<Session>> blocks = Timetable.weekBlocks(sessions, s -> s.getSessionTime().toDate(),
+                (int) ScheduleConflictChecker.SESSION_LENGTH.toMinutes(), zone);
+
+        // Grow the default 8:00-20:00 range to whatever the week needs, in whole hours
+        int first = DEFAULT_FIRST_HOUR;
+        int last = DEFAULT_LAST_HOUR;
+        for (Timetable.Block<Session> block : blocks) {
+            first = Math.min(first, block.startMinute / 60);
+            last = Math.max(last, Math.min(24, (block.endMinute + 59) / 60));
+        }
+        boolean resized = first != firstHour || last != lastHour;
+        firstHour = first;
+        lastHour = last;
+
+        Calendar day = Calendar.getInstance(zone);
+        for (int d = 0; d < 7; d++) {
+            if (weekStart == null) {
+                dayLabels[d] = DAYS[d];
+                continue;
+            }
+            day.setTime(weekStart);
+            day.add(Calendar.DATE, d);
+            dayLabels[d] = DAYS[d] + " " + dayNumberFormat.format(day.getTime());
+        }
+        hourLabels.clear();
+        Calendar hour = Calendar.getInstance(zone);
+        hour.clear();
+        for (int h = firstHour; h < lastHour; h++) {
+            hour.set(Calendar.HOUR_OF_DAY, h);
+            hourLabels.add(hourFormat.format(hour.getTime()));
+        }
+
+        blockSessions.clear();
+        blockRects.clear();
+        blockTexts.clear();
+        float minuteHeight = hourHeight / 60f;
+        for (Timetable.Block<Session> block : blocks) {
+            float laneWidth = dayColumnWidth / block.lanes;
+            float left = timeColumnWidth + block.day * dayColumnWidth + block.lane * laneWidth;
+            float top = headerHeight + (block.startMinute - firstHour * 60) * minuteHeight;
+            float bottom = headerHeight + (Math.min(block.endMinute, lastHour * 60) - firstHour * 60) * minuteHeight;
+            RectF rect = new RectF(left + blockInset, top + blockInset, left + laneWidth - blockInset, bottom - blockInset);
+
+            Session session = block.item;
+            String title = titles.get(session.getCourseCode());
+            String text = (title != null ? title : session.getCourseCode()) + "\n" + (session.getVenue() != null ? session.getVenue() : "");
+            int textWidth = Math.max(1, (int) (rect.width() - 2 * blockPadding));
+            int maxLines = Math.max(1, (int) ((rect.height() - 2 * blockPadding) / blockTextPaint.getFontSpacing()));
+            StaticLayout layout = StaticLayout.Builder.obtain(text, 0, text.length(), blockTextPaint, textWidth)
+                    .setAlignment(Layout.Alignment.ALIGN_NORMAL)
+                    .setEllipsize(TextUtils.TruncateAt.END)
+                    .setMaxLines(maxLines)
+                    .setIncludePad(false)
+                    .build();
+
+            blockSessions.add(session);
+            blockRects.add(rect);
+            blockTexts.add(layout);
+        }
+
+        if (resized) requestLayout();
+        invalidate();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        float width = timeColumnWidth + 7 * dayColumnWidth;
+        float height = headerHeight + (lastHour - firstHour) * hourHeight;
+
+        // Header band with the day labels
+        canvas.drawRect(0, 0, width, headerHeight, headerBackgroundPaint);
+        float labelBaseline = (headerHeight - labelPaint.ascent() - labelPaint.descent()) / 2;
+        for (int d = 0; d < 7; d++) {
+            canvas.drawText(dayLabels[d], timeColumnWidth + (d + 0.5f) * dayColumnWidth, labelBaseline, labelPaint);
+        }
+
+        // Hour lines and labels, then the day separators
+        for (int i = 0; i < hourLabels.size(); i++) {
+            float y = headerHeight + i * hourHeight;
+            canvas.drawLine(timeColumnWidth, y, width, y, linePaint);
+            canvas.drawText(hourLabels.get(i), timeColumnWidth / 2, y - labelPaint.ascent() + blockPadding, labelPaint);
+        }
+        for (int d = 0; d <= 7; d++) {
+            float x = timeColumnWidth + d * dayColumnWidth;
+            canvas.drawLine(x, headerHeight, x, height, linePaint);
+        }
+
+        for (int i = 0; i < blockRects.size(); i++) {
+            RectF rect = blockRects.get(i);
+            canvas.drawRoundRect(rect, blockPadding, blockPadding, blockPaint);
+            canvas.save();
+            canvas.clipRect(rect);
+            canvas.translate(rect.left + blockPadding, rect.top + blockPadding);
+            blockTexts.get(i).draw(canvas);
+            canvas.restore();
+        }
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        boolean handled = gestures.onTouchEvent(event);
+        if (event.getAction() == MotionEvent.ACTION_UP && handled) performClick();
+        return handled || super.onTouchEvent(event);
+    }
+
+    @Override
+    public boolean performClick() {
+        return super.performClick();
+    }
+
+    @Nullable
+    private Session sessionAt(float x, float y) {
+        for (int i = 0; i < blockRects.size(); i++) {
+            if (blockRects.get(i).contains(x, y)) return blockSessions.get(i);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.acadease.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class AttendanceCodecTest {
+
+    @Test
+    public void roundTripsEveryMark() {
+        Random random = new Random(11);
+        List<String> roster = new ArrayList<>();
+        Map<String, Byte> marks = new HashMap<>();
+        for (int i = 0; i < 203; i++) { // Not a multiple of 8
+            String uid = "student" + i;
+            roster.add(uid);
+            byte mark = (byte) random.nextInt(5);
+            if (mark != RosterMarks.UNMARKED) marks.put(uid, mark);
+        }
+
+        AttendanceCodec.Sheet sheet = AttendanceCodec.encode(roster, marks);
+
+        assertEquals(26, sheet.present.length);
+        assertEquals(marks, AttendanceCodec.decode(sheet));
+        assertEquals(RosterMarks.UNMARKED, AttendanceCodec.markOf(sheet, "not on the roster"));
+        for (String uid : roster) {
+            byte expected = marks.containsKey(uid) ? marks.get(uid) : RosterMarks.UNMARKED;
+            assertEquals(expected, AttendanceCodec.markOf(sheet, uid));
+        }
+    }
+
+    @Test
+    public void rosterHashDependsOnOrderAndBoundaries() {
+        String hash = AttendanceCodec.rosterHash(Arrays.asList("a", "b"));
+        assertEquals(hash, AttendanceCodec.rosterHash(Arrays.asList("a", "b")));
+        assertNotEquals(hash, AttendanceCodec.rosterHash(Arrays.asList("b", "a")));
+        assertNotEquals(AttendanceCodec.rosterHash(Arrays.asList("ab", "c")), AttendanceCodec.rosterHash(Arrays.asList("a", "bc")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsARosterThatDoesNotMatchItsHash() {
+        AttendanceCodec.Sheet sheet = AttendanceCodec.encode(Arrays.asList("a", "b"), new HashMap<>());
+        AttendanceCodec.decode(new AttendanceCodec.Sheet(sheet.version, Arrays.asList("b", "a"), sheet.rosterHash,
+                sheet.present, sheet.absent, sheet.late, sheet.excused));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsANewerVersion() {
+        AttendanceCodec.Sheet sheet = AttendanceCodec.encode(Arrays.asList("a", "b"), new HashMap<>());
+        AttendanceCodec.decode(new AttendanceCodec.Sheet(AttendanceCodec.VERSION + 1, sheet.roster, sheet.rosterHash,
+                sheet.present, sheet.absent, sheet.late, sheet.excused));
+    }
+
+    @Test
+    public void legacyStatusesMapToMarks() {
+        assertEquals(RosterMarks.PRESENT, AttendanceStatus.markOf("P"));
+        assertEquals(RosterMarks.PRESENT, AttendanceStatus.markOf(true));
+        assertEquals(RosterMarks.LATE, AttendanceStatus.markOf("Late"));
+        assertEquals(RosterMarks.ABSENT, AttendanceStatus.markOf("absent"));
+        assertEquals(RosterMarks.UNMARKED, AttendanceStatus.markOf(null));
+        // Only "present" counted in the legacy entries map
+        assertEquals(RosterMarks.ABSENT, AttendanceStatus.legacyEntryMark("p"));
+        assertEquals(RosterMarks.PRESENT, AttendanceStatus.legacyEntryMark("present"));
+    }
+}
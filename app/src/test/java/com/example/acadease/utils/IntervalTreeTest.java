@@ -0,0 +1,56 @@
+package com.example.acadease.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IntervalTreeTest {
+
+    @Test
+    public void halfOpenIntervalsOnlyOverlapWhenTheyShareTime() {
+        IntervalTree<String> tree = IntervalTree.<String>builder()
+                .add(900, 1000, "nine")
+                .add(1000, 1100, "ten")
+                .add(930, 1030, "half past nine")
+                .add(1200, 1200, "empty")
+                .build();
+
+        assertEquals(3, tree.size());
+        assertEquals(Arrays.asList("nine", "half past nine"), tree.overlapping(900, 1000));
+        assertEquals(Arrays.asList("half past nine", "ten"), tree.overlapping(1000, 1100));
+        assertTrue(tree.overlapping(1100, 1200).isEmpty());
+        assertTrue(tree.overlapping(1000, 1000).isEmpty());
+    }
+
+    @Test
+    public void matchesALinearScan() {
+        Random random = new Random(7);
+        long[][] intervals = new long[500][];
+        IntervalTree.Builder<Integer> builder = IntervalTree.builder();
+        for (int i = 0; i < intervals.length; i++) {
+            long start = random.nextInt(10_000);
+            intervals[i] = new long[]{start, start + 1 + random.nextInt(300)};
+            builder.add(intervals[i][0], intervals[i][1], i);
+        }
+        IntervalTree<Integer> tree = builder.build();
+
+        for (int q = 0; q < 200; q++) {
+            long from = random.nextInt(10_000);
+            long to = from + 1 + random.nextInt(500);
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < intervals.length; i++) {
+                if (intervals[i][0] < to && intervals[i][1] > from) expected.add(i);
+            }
+            List<Integer> actual = tree.overlapping(from, to);
+            Collections.sort(actual);
+            assertEquals(expected, actual);
+        }
+    }
+}
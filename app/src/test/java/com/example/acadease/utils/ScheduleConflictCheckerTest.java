@@ -0,0 +1,131 @@
+package com.example.acadease.utils;
+
+import com.example.acadease.model.Schedule;
+import com.example.acadease.model.Session;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ScheduleConflictCheckerTest {
+
+    // Mon 2025-10-06 .. Fri 2025-10-17, two weeks
+    private static final LocalDate FIRST = LocalDate.of(2025, 10, 6);
+    private static final LocalDate LAST = LocalDate.of(2025, 10, 17);
+
+    @Test
+    public void reportsVenueAndFacultyClashesSeparately() {
+        Schedule existing = schedule("cs101", "prof-a", "Room 501", "MON");
+        ScheduleConflictChecker checker = new ScheduleConflictChecker(Collections.singletonList(existing), Collections.emptyList());
+
+        List<ScheduleConflictChecker.Conflict> sameRoom = checker.check(schedule("ma201", "prof-b", "Room 501", "MON"));
+        assertEquals(2, sameRoom.size());
+        for (ScheduleConflictChecker.Conflict conflict : sameRoom) {
+            assertTrue(conflict.venue);
+            assertEquals(existing, conflict.existing);
+        }
+
+        List<ScheduleConflictChecker.Conflict> sameFaculty = checker.check(schedule("cs102", "prof-a", "Room 502", "MON"));
+        assertEquals(2, sameFaculty.size());
+        for (ScheduleConflictChecker.Conflict conflict : sameFaculty) assertFalse(conflict.venue);
+
+        // Both clash at once: one conflict of each kind per meeting
+        assertEquals(4, checker.check(schedule("cs103", "prof-a", "Room 501", "MON")).size());
+        assertTrue(checker.check(schedule("ma202", "prof-b", "Room 502", "MON")).isEmpty());
+        assertTrue(checker.check(schedule("ma203", "prof-b", "Room 501", "TUE")).isEmpty());
+    }
+
+    @Test
+    public void normalizesVenueNames() {
+        ScheduleConflictChecker checker = new ScheduleConflictChecker(
+                Collections.singletonList(schedule("cs101", "prof-a", "Room 501", "WED")), Collections.emptyList());
+
+        List<ScheduleConflictChecker.Conflict> conflicts = checker.check(schedule("ma201", "prof-b", " room 501 ", "WED"));
+        assertEquals(2, conflicts.size());
+        assertTrue(conflicts.get(0).venue);
+        assertTrue(checker.check(schedule("ma202", "prof-b", "Room 5010", "WED")).isEmpty());
+    }
+
+    @Test
+    public void skipsHolidaysOnBothSides() {
+        // Mon 2025-10-13 is a holiday: neither side meets that day
+        ScheduleConflictChecker checker = new ScheduleConflictChecker(
+                Collections.singletonList(schedule("cs101", "prof-a", "Room 501", "MON")),
+                Collections.singleton(LocalDate.of(2025, 10, 13)));
+
+        List<ScheduleConflictChecker.Conflict> conflicts = checker.check(schedule("ma201", "prof-b", "Room 501", "MON"));
+        assertEquals(1, conflicts.size());
+        assertEquals(FIRST, conflicts.get(0).start.toLocalDate());
+    }
+
+    @Test
+    public void skipsExceptionDatesOnBothSides() {
+        Schedule existing = schedule("cs101", "prof-a", "Room 501", "MON", "THU");
+        existing.setExceptionDates(Collections.singletonList("2025-10-06"));
+        ScheduleConflictChecker checker = new ScheduleConflictChecker(Collections.singletonList(existing), Collections.emptyList());
+
+        Schedule candidate = schedule("ma201", "prof-b", "Room 501", "MON", "THU");
+        candidate.setExceptionDates(Collections.singletonList("2025-10-16"));
+        List<ScheduleConflictChecker.Conflict> conflicts = checker.check(candidate);
+
+        // Mon 06 is off for the existing class, Thu 16 for the candidate
+        assertEquals(2, conflicts.size());
+        assertEquals(LocalDate.of(2025, 10, 9), conflicts.get(0).start.toLocalDate());
+        assertEquals(LocalDate.of(2025, 10, 13), conflicts.get(1).start.toLocalDate());
+    }
+
+    @Test
+    public void storedSessionsOverrideTheBlueprintsMeetings() {
+        Schedule existing = schedule("cs101", "prof-a", "Room 501", "MON");
+        Session moved = session(existing, LocalDate.of(2025, 10, 6), "Room 502");
+        Session cancelled = session(existing, LocalDate.of(2025, 10, 13), "Room 501");
+        ScheduleConflictChecker checker = new ScheduleConflictChecker(Collections.singletonList(existing),
+                Collections.singletonList(moved), Collections.singletonList(cancelled), Collections.emptyList());
+
+        // The first meeting moved out of 501 and the second was cancelled
+        assertTrue(checker.check(schedule("ma201", "prof-b", "Room 501", "MON")).isEmpty());
+
+        List<ScheduleConflictChecker.Conflict> conflicts = checker.check(schedule("ma202", "prof-b", "room 502", "MON"));
+        assertEquals(1, conflicts.size());
+        assertTrue(conflicts.get(0).venue);
+        assertEquals(FIRST, conflicts.get(0).start.toLocalDate());
+        assertEquals("Room 502", conflicts.get(0).existing.getVenue());
+        assertEquals("cs101", conflicts.get(0).existing.getCourseCode());
+
+        // The faculty member still teaches the moved meeting
+        assertEquals(1, checker.check(schedule("cs102", "prof-a", "Room 503", "MON")).size());
+    }
+
+    private static Schedule schedule(String courseCode, String facultyId, String venue, String... days) {
+        Schedule schedule = new Schedule();
+        schedule.setId(courseCode + "-schedule");
+        schedule.setCourseCode(courseCode);
+        schedule.setFacultyId(facultyId);
+        schedule.setVenue(venue);
+        schedule.setType("lecture");
+        schedule.setDaysOfWeek(Arrays.asList(days));
+        schedule.setStartTime("10:00");
+        schedule.setStartDate(ScheduleUtility.toTimestamp(FIRST.atStartOfDay(ScheduleUtility.CAMPUS_ZONE)));
+        schedule.setEndDate(ScheduleUtility.toTimestamp(LAST.atStartOfDay(ScheduleUtility.CAMPUS_ZONE)));
+        return schedule;
+    }
+
+    private static Session session(Schedule schedule, LocalDate day, String venue) {
+        Session session = new Session();
+        session.setScheduleId(schedule.getId());
+        session.setCourseCode(schedule.getCourseCode());
+        session.setFacultyId(schedule.getFacultyId());
+        session.setType(schedule.getType());
+        session.setVenue(venue);
+        session.setSessionTime(ScheduleUtility.toTimestamp(day.atTime(LocalTime.of(10, 0)).atZone(ScheduleUtility.CAMPUS_ZONE)));
+        return session;
+    }
+}
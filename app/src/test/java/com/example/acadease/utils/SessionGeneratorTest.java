@@ -0,0 +1,45 @@
+package com.example.acadease.utils;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class SessionGeneratorTest {
+
+    private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
+
+    @Test
+    public void stepsThroughMeetingDaysInOrderAndSkipsExceptions() {
+        // Wed 2025-07-30 .. Mon 2025-08-11, Mon/Wed/Fri, no class on Fri 2025-08-08
+        SessionGenerator generator = new SessionGenerator(LocalDate.of(2025, 7, 30), LocalDate.of(2025, 8, 11),
+                Arrays.asList("MON", "wed", "FRI"), LocalTime.of(14, 0), IST,
+                Collections.singleton(LocalDate.of(2025, 8, 8)));
+
+        List<LocalDate> days = new ArrayList<>();
+        for (ZonedDateTime start : generator) {
+            assertEquals(LocalTime.of(14, 0), start.toLocalTime());
+            days.add(start.toLocalDate());
+        }
+        assertEquals(Arrays.asList(
+                LocalDate.of(2025, 7, 30), LocalDate.of(2025, 8, 1), LocalDate.of(2025, 8, 4),
+                LocalDate.of(2025, 8, 6), LocalDate.of(2025, 8, 11)), days);
+        assertEquals(5, generator.stream().count());
+    }
+
+    @Test
+    public void noKnownDaysYieldsNothing() {
+        SessionGenerator generator = new SessionGenerator(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31),
+                Collections.singletonList("THUR"), LocalTime.NOON, IST, Collections.emptyList());
+        assertFalse(generator.iterator().hasNext());
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.acadease.benchmarks;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * Synthetic data shaped like one campus term: 120 course sections, 3 meetings a week,
+ * 16 teaching weeks, 8 enrolled courses per student. Seeded, so every run sees the same data.
+ */
+final class CampusData {
+
+    static final int COURSES = 120;
+    static final int WEEKS = 16;
+    static final int COURSES_PER_STUDENT = 8;
+    static final int EXAMS_PER_COURSE = 6;
+    static final ZoneId ZONE = ZoneId.of("Asia/Kolkata");
+
+    private static final String[] DAYS = {"MON", "TUE", "WED", "THU", "FRI", "SAT"};
+    private static final String[] START_TIMES = {"08:00", "09:00", "10:00", "11:00", "12:00", "14:00", "15:00", "16:00", "17:00"};
+
+    /** One weekly rule, as stored in a schedule blueprint. */
+    static final class Rule {
+        final LocalDate firstDay;
+        final LocalDate lastDay;
+        final List<String> days;
+        final LocalTime startTime;
+
+        Rule(LocalDate firstDay, LocalDate lastDay, List<String> days, LocalTime startTime) {
+            this.firstDay = firstDay;
+            this.lastDay = lastDay;
+            this.days = days;
+            this.startTime = startTime;
+        }
+    }
+
+    /** Stand-in for a loaded Session row: what the schedule screens read from it. */
+    static final class Meeting {
+        final String courseCode;
+        final Date time;
+
+        Meeting(String courseCode, Date time) {
+            this.courseCode = courseCode;
+            this.time = time;
+        }
+    }
+
+    /** Stand-in for StudentRepository.ExamScore. */
+    static final class Score {
+        final String courseCode;
+        final double obtained;
+        final double maxPoints;
+
+        Score(String courseCode, double obtained, double maxPoints) {
+            this.courseCode = courseCode;
+            this.obtained = obtained;
+            this.maxPoints = maxPoints;
+        }
+    }
+
+    private CampusData() {}
+
+    static Calendar termStart() {
+        Calendar start = Calendar.getInstance(TimeZone.getTimeZone(ZONE));
+        start.clear();
+        start.set(2025, Calendar.JULY, 28); // A Monday
+        return start;
+    }
+
+    static List<Rule> rules(Random random) {
+        LocalDate start = LocalDate.of(2025, 7, 28);
+        LocalDate end = start.plusDays(WEEKS * 7 - 1);
+        List<Rule> rules = new ArrayList<>();
+        for (int i = 0; i < COURSES; i++) {
+            List<String> days = new ArrayList<>();
+            int first = random.nextInt(2);
+            for (int d = first; d < DAYS.length && days.size() < 3; d += 2) days.add(DAYS[d]);
+            rules.add(new Rule(start, end, days, LocalTime.parse(START_TIMES[random.nextInt(START_TIMES.length)])));
+        }
+        return rules;
+    }
+
+    /** One week of meetings for the given number of course sections, in shuffled (query) order. */
+    static List<Meeting> week(Random random, int courses) {
+        List<Meeting> meetings = new ArrayList<>();
+        for (int c = 0; c < courses; c++) {
+            String code = "CS" + (100 + c);
+            int hour = 8 + random.nextInt(12);
+            for (int m = 0; m < 3; m++) {
+                Calendar time = termStart();
+                time.add(Calendar.DATE, (c + m * 2) % 6);
+                time.set(Calendar.HOUR_OF_DAY, hour);
+                meetings.add(new Meeting(code, time.getTime()));
+            }
+        }
+        Collections.shuffle(meetings, random);
+        return meetings;
+    }
+
+    static List<Score> scores(Random random) {
+        List<Score> scores = new ArrayList<>();
+        for (int c = 0; c < COURSES_PER_STUDENT; c++) {
+            for (int e = 0; e < EXAMS_PER_COURSE; e++) {
+                double max = e < 4 ? 20 : 50;
+                scores.add(new Score("CS" + (100 + c), Math.floor(random.nextDouble() * (max + 1)), max));
+            }
+        }
+        return scores;
+    }
+
+    /** A term's worth of one-off days off: national holidays plus a mid-term break. */
+    static List<LocalDate> holidays() {
+        List<LocalDate> holidays = new ArrayList<>();
+        holidays.add(LocalDate.of(2025, 8, 15));
+        holidays.add(LocalDate.of(2025, 10, 2));
+        holidays.add(LocalDate.of(2025, 10, 20));
+        for (int d = 0; d < 7; d++) holidays.add(LocalDate.of(2025, 9, 22).plusDays(d));
+        return holidays;
+    }
+
+    /** Stored 'status' values in the mix of forms found in attendance rows. */
+    static Object[] statuses(Random random, int count) {
+        Object[] forms = {"present", "Present", "absent", "Absent", " p ", "1", "late", "excused", Boolean.TRUE, Boolean.FALSE, 1L, 0L, null};
+        Object[] out = new Object[count];
+        for (int i = 0; i < count; i++) out[i] = forms[random.nextInt(forms.length)];
+        return out;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.acadease.benchmarks;
+
+import com.example.acadease.utils.AttendanceStatus;
+import com.example.acadease.utils.Grades;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Student result paths: the SGPA on the results tab (StudentResultsFragment.computeSgpa) and the
+ * status parsing applied to every attendance row (StudentRepository.fetchAttendanceStats, and
+ * AdminRepository.rebuildAttendanceAggregates for the whole campus).
+ */
+@State(Scope.Thread)
+public class ResultsBenchmark {
+
+    /** Attendance rows parsed: one student's term vs. one course section's term. */
+    @Param({"384", "2880"})
+    public int rows;
+
+    private List<CampusData.Score> scores;
+    private Object[] statuses;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        scores = CampusData.scores(random);
+        statuses = CampusData.statuses(random, rows);
+    }
+
+    @Benchmark
+    public double sgpa() {
+        return Grades.sgpa(scores, s -> s.courseCode, s -> s.obtained, s -> s.maxPoints, code -> 3);
+    }
+
+    @Benchmark
+    public int parseStatuses() {
+        int present = 0;
+        for (Object status : statuses) {
+            if (AttendanceStatus.isPresent(status)) present++;
+        }
+        return present;
+    }
+
+    @Benchmark
+    public int parseLegacyEntries() {
+        int present = 0;
+        for (Object status : statuses) {
+            if (AttendanceStatus.isLegacyEntryPresent(status)) present++;
+        }
+        return present;
+    }
+}
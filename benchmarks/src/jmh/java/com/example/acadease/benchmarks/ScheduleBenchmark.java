@@ -0,0 +1,106 @@
+package com.example.acadease.benchmarks;
+
+import com.example.acadease.utils.IntervalTree;
+import com.example.acadease.utils.SessionGenerator;
+import com.example.acadease.utils.Timetable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * Timetable paths: term generation when an admin saves the timetable (ScheduleUtility.generateSessions),
+ * the clash check before it is saved (ScheduleConflictChecker), the day-header list
+ * (ScheduleAdapter.groupSessionsByDay) and the week grid layout (WeekGridView).
+ */
+@State(Scope.Thread)
+public class ScheduleBenchmark {
+
+    /** Course sections on screen: one student's week vs. an admin's whole-campus week. */
+    @Param({"8", "120"})
+    public int courses;
+
+    private static final int VENUES = 40;
+    private static final long HOUR_MS = 60 * 60 * 1000L;
+
+    private List<CampusData.Rule> rules;
+    private List<LocalDate> holidays;
+    private List<CampusData.Meeting> week;
+    // Same pattern as the screen; SimpleDateFormat is per thread, as in the fragments
+    private final SimpleDateFormat dayHeaderFormat = new SimpleDateFormat("MMM dd, yyyy EEEE", Locale.US);
+    private final TimeZone zone = TimeZone.getTimeZone(CampusData.ZONE);
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        rules = CampusData.rules(random);
+        holidays = CampusData.holidays();
+        week = CampusData.week(random, courses);
+        dayHeaderFormat.setTimeZone(TimeZone.getTimeZone(CampusData.ZONE));
+    }
+
+    /** All 120 sections expanded over the term, holidays skipped; independent of the courses param. */
+    @Benchmark
+    public void expandTerm(Blackhole bh) {
+        for (CampusData.Rule rule : rules) {
+            SessionGenerator generator = new SessionGenerator(rule.firstDay, rule.lastDay, rule.days, rule.startTime,
+                    CampusData.ZONE, holidays);
+            for (ZonedDateTime start : generator) bh.consume(start);
+        }
+    }
+
+    /**
+     * Index the other 119 sections' term meetings by venue (40 rooms), then probe every meeting of the
+     * last one, as ScheduleConflictChecker does for a new blueprint; independent of the courses param.
+     */
+    @Benchmark
+    public int clashCheck() {
+        Map<Integer, IntervalTree.Builder<CampusData.Rule>> builders = new HashMap<>();
+        for (int i = 0; i < rules.size() - 1; i++) {
+            CampusData.Rule rule = rules.get(i);
+            IntervalTree.Builder<CampusData.Rule> venue = builders.computeIfAbsent(i % VENUES, k -> IntervalTree.builder());
+            for (ZonedDateTime start : expand(rule)) {
+                long from = start.toInstant().toEpochMilli();
+                venue.add(from, from + HOUR_MS, rule);
+            }
+        }
+        Map<Integer, IntervalTree<CampusData.Rule>> byVenue = new HashMap<>();
+        builders.forEach((venue, builder) -> byVenue.put(venue, builder.build()));
+
+        int candidate = rules.size() - 1;
+        IntervalTree<CampusData.Rule> venue = byVenue.get(candidate % VENUES);
+        int clashes = 0;
+        for (ZonedDateTime start : expand(rules.get(candidate))) {
+            long from = start.toInstant().toEpochMilli();
+            clashes += venue.overlapping(from, from + HOUR_MS).size();
+        }
+        return clashes;
+    }
+
+    private SessionGenerator expand(CampusData.Rule rule) {
+        return new SessionGenerator(rule.firstDay, rule.lastDay, rule.days, rule.startTime, CampusData.ZONE, holidays);
+    }
+
+    @Benchmark
+    public List<Object> groupByDay() {
+        return Timetable.withDayHeaders(week, m -> m.time, dayHeaderFormat, header -> header, m -> m);
+    }
+
+    @Benchmark
+    public List<Timetable.Block<CampusData.Meeting>> weekGrid() {
+        return Timetable.weekBlocks(week, m -> m.time, 60, zone);
+    }
+}